@@ -0,0 +1,213 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams;
+
+import org.eclipse.microprofile.reactive.streams.spi.ReactiveStreamsEngine;
+import org.eclipse.microprofile.reactive.streams.spi.Stage;
+import org.reactivestreams.Publisher;
+
+import java.util.DoubleSummaryStatistics;
+import java.util.OptionalDouble;
+import java.util.function.Function;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleFunction;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.Supplier;
+
+/**
+ * A builder for a {@link Publisher} of doubles.
+ * <p>
+ * This is the double specialization of {@link PublisherBuilder}, in the same way that
+ * {@link java.util.stream.DoubleStream} is the double specialization of {@link java.util.stream.Stream}. When signalled
+ * through Reactive Streams, elements are emitted as {@link Double}, but the stages added by this builder operate on
+ * primitive functions, so an engine that runs a chain of them directly is able to do so without boxing.
+ *
+ * @see ReactiveStreams#ofDoubles(double...)
+ * @see PublisherBuilder#mapToDouble(java.util.function.ToDoubleFunction)
+ */
+public final class DoublePublisherBuilder extends ReactiveStreamsBuilder {
+
+  DoublePublisherBuilder(Stage stage, ReactiveStreamsBuilder previous) {
+    super(stage, previous);
+  }
+
+  /**
+   * Map the elements emitted by this publisher using the {@code mapper} function.
+   *
+   * @param mapper The function to use to map the elements.
+   * @return A new double publisher builder that emits the mapped elements.
+   */
+  public DoublePublisherBuilder map(DoubleUnaryOperator mapper) {
+    return new DoublePublisherBuilder(new Stage.DoubleMap(mapper), this);
+  }
+
+  /**
+   * Filter elements emitted by this publisher using the given {@link DoublePredicate}.
+   * <p>
+   * Any elements that return {@code true} when passed to the {@link DoublePredicate} will be emitted, all other
+   * elements will be dropped.
+   *
+   * @param predicate The predicate to apply to each element.
+   * @return A new double publisher builder.
+   */
+  public DoublePublisherBuilder filter(DoublePredicate predicate) {
+    return new DoublePublisherBuilder(new Stage.DoubleFilter(predicate), this);
+  }
+
+  /**
+   * Map the elements emitted by this publisher to objects using the {@code mapper} function.
+   *
+   * @param mapper The function to use to map the elements.
+   * @param <R>    The type of elements that the {@code mapper} function emits.
+   * @return A new publisher builder that emits the mapped elements.
+   */
+  public <R> PublisherBuilder<R> mapToObj(DoubleFunction<? extends R> mapper) {
+    return new PublisherBuilder<>(new Stage.DoubleMapToObj(mapper), this);
+  }
+
+  /**
+   * Get a publisher builder that emits the elements of this publisher, boxed.
+   *
+   * @return A publisher builder that emits the elements of this publisher.
+   */
+  public PublisherBuilder<Double> boxed() {
+    return new PublisherBuilder<>(InternalStages.Identity.INSTANCE, this);
+  }
+
+  /**
+   * Perform a reduction on the elements of this stream, using the provided identity value and the accumulation
+   * function.
+   * <p>
+   * The result of the reduction is returned in the {@link java.util.concurrent.CompletionStage}.
+   *
+   * @param identity    The identity value.
+   * @param accumulator The accumulator function.
+   * @return A new completion builder.
+   */
+  public CompletionBuilder<Double> reduce(double identity, DoubleBinaryOperator accumulator) {
+    return collect(() -> new double[] {identity}, (r, t) -> r[0] = accumulator.applyAsDouble(r[0], t), r -> r[0]);
+  }
+
+  /**
+   * Count the elements emitted by this publisher.
+   *
+   * @return A new completion builder.
+   * @see java.util.stream.DoubleStream#count()
+   */
+  public CompletionBuilder<Long> count() {
+    return new CompletionBuilder<>(Stage.Count.INSTANCE, this);
+  }
+
+  /**
+   * Sum the elements emitted by this publisher.
+   *
+   * @return A new completion builder.
+   * @see java.util.stream.DoubleStream#sum()
+   */
+  public CompletionBuilder<Double> sum() {
+    return statistic(Stage.Statistic.SUM);
+  }
+
+  /**
+   * Find the minimum element emitted by this publisher, or empty if there are no elements.
+   *
+   * @return A new completion builder.
+   * @see java.util.stream.DoubleStream#min()
+   */
+  public CompletionBuilder<OptionalDouble> min() {
+    return statistic(Stage.Statistic.MIN);
+  }
+
+  /**
+   * Find the maximum element emitted by this publisher, or empty if there are no elements.
+   *
+   * @return A new completion builder.
+   * @see java.util.stream.DoubleStream#max()
+   */
+  public CompletionBuilder<OptionalDouble> max() {
+    return statistic(Stage.Statistic.MAX);
+  }
+
+  /**
+   * Compute the arithmetic mean of the elements emitted by this publisher, or empty if there are no elements.
+   *
+   * @return A new completion builder.
+   * @see java.util.stream.DoubleStream#average()
+   */
+  public CompletionBuilder<OptionalDouble> average() {
+    return statistic(Stage.Statistic.AVERAGE);
+  }
+
+  /**
+   * Compute the count, sum, minimum, maximum and average of the elements emitted by this publisher.
+   *
+   * @return A new completion builder.
+   * @see java.util.stream.DoubleStream#summaryStatistics()
+   */
+  public CompletionBuilder<DoubleSummaryStatistics> summaryStatistics() {
+    return statistic(Stage.Statistic.SUMMARY);
+  }
+
+  private <R> CompletionBuilder<R> statistic(Stage.Statistic statistic) {
+    return new CompletionBuilder<>(new Stage.DoubleStatistics(statistic), this);
+  }
+
+  /**
+   * Perform a mutable reduction on the elements of this stream.
+   * <p>
+   * The {@code supplier} is invoked when the stream is run to create a result container, and each element is
+   * accumulated into the container using the {@code accumulator}. The container is returned in the
+   * {@link java.util.concurrent.CompletionStage}.
+   *
+   * @param supplier    The supplier of the result container.
+   * @param accumulator The accumulator.
+   * @param <R>         The type of the result container.
+   * @return A new completion builder.
+   */
+  public <R> CompletionBuilder<R> collect(Supplier<R> supplier, ObjDoubleConsumer<R> accumulator) {
+    return collect(supplier, accumulator, Function.identity());
+  }
+
+  <A, R> CompletionBuilder<R> collect(Supplier<A> supplier, ObjDoubleConsumer<A> accumulator,
+      Function<A, R> finisher) {
+    return new CompletionBuilder<>(new Stage.DoubleCollect(supplier, accumulator, finisher), this);
+  }
+
+  /**
+   * Build this stream, using the first {@link ReactiveStreamsEngine} found by the {@link java.util.ServiceLoader}.
+   *
+   * @return A {@link Publisher} that will run this stream.
+   */
+  public Publisher<Double> buildRs() {
+    return boxed().buildRs();
+  }
+
+  /**
+   * Build this stream, using the supplied {@link ReactiveStreamsEngine}.
+   *
+   * @param engine The engine to run the stream with.
+   * @return A {@link Publisher} that will run this stream.
+   */
+  public Publisher<Double> buildRs(ReactiveStreamsEngine engine) {
+    return boxed().buildRs(engine);
+  }
+}
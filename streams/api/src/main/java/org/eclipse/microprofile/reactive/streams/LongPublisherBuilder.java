@@ -0,0 +1,214 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams;
+
+import org.eclipse.microprofile.reactive.streams.spi.ReactiveStreamsEngine;
+import org.eclipse.microprofile.reactive.streams.spi.Stage;
+import org.reactivestreams.Publisher;
+
+import java.util.LongSummaryStatistics;
+import java.util.OptionalDouble;
+import java.util.OptionalLong;
+import java.util.function.Function;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
+import java.util.function.LongUnaryOperator;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * A builder for a {@link Publisher} of longs.
+ * <p>
+ * This is the long specialization of {@link PublisherBuilder}, in the same way that
+ * {@link java.util.stream.LongStream} is the long specialization of {@link java.util.stream.Stream}. When signalled
+ * through Reactive Streams, elements are emitted as {@link Long}, but the stages added by this builder operate on
+ * primitive functions, so an engine that runs a chain of them directly is able to do so without boxing.
+ *
+ * @see ReactiveStreams#ofLongs(long...)
+ * @see PublisherBuilder#mapToLong(java.util.function.ToLongFunction)
+ */
+public final class LongPublisherBuilder extends ReactiveStreamsBuilder {
+
+  LongPublisherBuilder(Stage stage, ReactiveStreamsBuilder previous) {
+    super(stage, previous);
+  }
+
+  /**
+   * Map the elements emitted by this publisher using the {@code mapper} function.
+   *
+   * @param mapper The function to use to map the elements.
+   * @return A new long publisher builder that emits the mapped elements.
+   */
+  public LongPublisherBuilder map(LongUnaryOperator mapper) {
+    return new LongPublisherBuilder(new Stage.LongMap(mapper), this);
+  }
+
+  /**
+   * Filter elements emitted by this publisher using the given {@link LongPredicate}.
+   * <p>
+   * Any elements that return {@code true} when passed to the {@link LongPredicate} will be emitted, all other
+   * elements will be dropped.
+   *
+   * @param predicate The predicate to apply to each element.
+   * @return A new long publisher builder.
+   */
+  public LongPublisherBuilder filter(LongPredicate predicate) {
+    return new LongPublisherBuilder(new Stage.LongFilter(predicate), this);
+  }
+
+  /**
+   * Map the elements emitted by this publisher to objects using the {@code mapper} function.
+   *
+   * @param mapper The function to use to map the elements.
+   * @param <R>    The type of elements that the {@code mapper} function emits.
+   * @return A new publisher builder that emits the mapped elements.
+   */
+  public <R> PublisherBuilder<R> mapToObj(LongFunction<? extends R> mapper) {
+    return new PublisherBuilder<>(new Stage.LongMapToObj(mapper), this);
+  }
+
+  /**
+   * Get a publisher builder that emits the elements of this publisher, boxed.
+   *
+   * @return A publisher builder that emits the elements of this publisher.
+   */
+  public PublisherBuilder<Long> boxed() {
+    return new PublisherBuilder<>(InternalStages.Identity.INSTANCE, this);
+  }
+
+  /**
+   * Perform a reduction on the elements of this stream, using the provided identity value and the accumulation
+   * function.
+   * <p>
+   * The result of the reduction is returned in the {@link java.util.concurrent.CompletionStage}.
+   *
+   * @param identity    The identity value.
+   * @param accumulator The accumulator function.
+   * @return A new completion builder.
+   */
+  public CompletionBuilder<Long> reduce(long identity, LongBinaryOperator accumulator) {
+    return collect(() -> new long[] {identity}, (r, t) -> r[0] = accumulator.applyAsLong(r[0], t), r -> r[0]);
+  }
+
+  /**
+   * Count the elements emitted by this publisher.
+   *
+   * @return A new completion builder.
+   * @see java.util.stream.LongStream#count()
+   */
+  public CompletionBuilder<Long> count() {
+    return new CompletionBuilder<>(Stage.Count.INSTANCE, this);
+  }
+
+  /**
+   * Sum the elements emitted by this publisher.
+   *
+   * @return A new completion builder.
+   * @see java.util.stream.LongStream#sum()
+   */
+  public CompletionBuilder<Long> sum() {
+    return statistic(Stage.Statistic.SUM);
+  }
+
+  /**
+   * Find the minimum element emitted by this publisher, or empty if there are no elements.
+   *
+   * @return A new completion builder.
+   * @see java.util.stream.LongStream#min()
+   */
+  public CompletionBuilder<OptionalLong> min() {
+    return statistic(Stage.Statistic.MIN);
+  }
+
+  /**
+   * Find the maximum element emitted by this publisher, or empty if there are no elements.
+   *
+   * @return A new completion builder.
+   * @see java.util.stream.LongStream#max()
+   */
+  public CompletionBuilder<OptionalLong> max() {
+    return statistic(Stage.Statistic.MAX);
+  }
+
+  /**
+   * Compute the arithmetic mean of the elements emitted by this publisher, or empty if there are no elements.
+   *
+   * @return A new completion builder.
+   * @see java.util.stream.LongStream#average()
+   */
+  public CompletionBuilder<OptionalDouble> average() {
+    return statistic(Stage.Statistic.AVERAGE);
+  }
+
+  /**
+   * Compute the count, sum, minimum, maximum and average of the elements emitted by this publisher.
+   *
+   * @return A new completion builder.
+   * @see java.util.stream.LongStream#summaryStatistics()
+   */
+  public CompletionBuilder<LongSummaryStatistics> summaryStatistics() {
+    return statistic(Stage.Statistic.SUMMARY);
+  }
+
+  private <R> CompletionBuilder<R> statistic(Stage.Statistic statistic) {
+    return new CompletionBuilder<>(new Stage.LongStatistics(statistic), this);
+  }
+
+  /**
+   * Perform a mutable reduction on the elements of this stream.
+   * <p>
+   * The {@code supplier} is invoked when the stream is run to create a result container, and each element is
+   * accumulated into the container using the {@code accumulator}. The container is returned in the
+   * {@link java.util.concurrent.CompletionStage}.
+   *
+   * @param supplier    The supplier of the result container.
+   * @param accumulator The accumulator.
+   * @param <R>         The type of the result container.
+   * @return A new completion builder.
+   */
+  public <R> CompletionBuilder<R> collect(Supplier<R> supplier, ObjLongConsumer<R> accumulator) {
+    return collect(supplier, accumulator, Function.identity());
+  }
+
+  <A, R> CompletionBuilder<R> collect(Supplier<A> supplier, ObjLongConsumer<A> accumulator,
+      Function<A, R> finisher) {
+    return new CompletionBuilder<>(new Stage.LongCollect(supplier, accumulator, finisher), this);
+  }
+
+  /**
+   * Build this stream, using the first {@link ReactiveStreamsEngine} found by the {@link java.util.ServiceLoader}.
+   *
+   * @return A {@link Publisher} that will run this stream.
+   */
+  public Publisher<Long> buildRs() {
+    return boxed().buildRs();
+  }
+
+  /**
+   * Build this stream, using the supplied {@link ReactiveStreamsEngine}.
+   *
+   * @param engine The engine to run the stream with.
+   * @return A {@link Publisher} that will run this stream.
+   */
+  public Publisher<Long> buildRs(ReactiveStreamsEngine engine) {
+    return boxed().buildRs(engine);
+  }
+}
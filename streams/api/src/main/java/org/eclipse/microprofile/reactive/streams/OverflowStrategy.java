@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams;
+
+/**
+ * What a buffer should do when an element arrives and the buffer is full.
+ *
+ * @see PublisherBuilder#buffer(int, OverflowStrategy)
+ * @see ProcessorBuilder#buffer(int, OverflowStrategy)
+ */
+public enum OverflowStrategy {
+  /**
+   * Never overflow, by only requesting as many elements from upstream as there is room for in the buffer.
+   * <p>
+   * A slow consumer will slow down the producer, but only once the buffer is full.
+   */
+  BACKPRESSURE,
+  /**
+   * Drop the oldest element in the buffer to make room for the new element.
+   */
+  DROP_HEAD,
+  /**
+   * Drop the newest element in the buffer to make room for the new element.
+   */
+  DROP_TAIL,
+  /**
+   * Drop the new element, leaving the buffer unchanged.
+   */
+  DROP_NEW,
+  /**
+   * Cancel upstream and fail the stream.
+   */
+  FAIL
+}
@@ -29,29 +29,6 @@ final class Predicates {
   private Predicates() {
   }
 
-  /**
-   * Predicate used to implement skip with a filter function.
-   */
-  static class SkipPredicate<T> implements Predicate<T> {
-    private final long toSkip;
-    private long count = 0;
-
-    SkipPredicate(long toSkip) {
-      this.toSkip = toSkip;
-    }
-
-    @Override
-    public boolean test(T t) {
-      if (count < toSkip) {
-        count++;
-        return false;
-      }
-      else {
-        return true;
-      }
-    }
-  }
-
   /**
    * Predicate used to implement drop while with a filter function.
    */
@@ -78,28 +55,4 @@ final class Predicates {
       }
     }
   }
-
-  /**
-   * Predicate used to implement limit().
-   * <p>
-   * This returns false when the limit is reached, not exceeded, and is intended to be used with an inclusive takeWhile,
-   * this ensures that the stream completes as soon as the limit is reached, rather than having to wait for the next
-   * element before the stream is completed.
-   * <p>
-   * As a consequence, this can't be used with a limit of 0.
-   */
-  static class LimitPredicate<T> implements Predicate<T> {
-    private final long limitTo;
-    private long count = 0;
-
-    LimitPredicate(long limitTo) {
-      assert limitTo > 0;
-      this.limitTo = limitTo;
-    }
-
-    @Override
-    public boolean test(T t) {
-      return ++count < limitTo;
-    }
-  }
 }
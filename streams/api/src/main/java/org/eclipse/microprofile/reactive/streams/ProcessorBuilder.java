@@ -24,14 +24,21 @@ import org.eclipse.microprofile.reactive.streams.spi.Stage;
 import org.reactivestreams.Processor;
 import org.reactivestreams.Subscriber;
 
+import java.time.Duration;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.function.BiFunction;
 import java.util.function.BinaryOperator;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
 
@@ -87,6 +94,50 @@ public final class ProcessorBuilder<T, R> extends ReactiveStreamsBuilder {
     return new ProcessorBuilder<>(new Stage.FlatMap(mapper.andThen(PublisherBuilder::toGraph)), this);
   }
 
+  /**
+   * Map the elements to publishers, and merge the elements emitted by publishers produced by the {@code mapper}
+   * function into this stream.
+   * <p>
+   * Up to {@code maxConcurrency} publishers produced by the mapper function are run at once, and their elements are
+   * emitted in the order that they arrive, so unlike {@link #flatMap(Function)}, ordering is not maintained between
+   * the publishers. Up to 32 elements are requested ahead from each publisher.
+   *
+   * @param maxConcurrency The maximum number of publishers to run at once.
+   * @param mapper         The mapper function.
+   * @param <S>            The type of the elements emitted from the new processor.
+   * @return A new processor builder.
+   */
+  public <S> ProcessorBuilder<T, S> flatMapMerge(int maxConcurrency,
+      Function<? super R, PublisherBuilder<? extends S>> mapper) {
+    return flatMapMerge(maxConcurrency, DEFAULT_PREFETCH, mapper);
+  }
+
+  /**
+   * Map the elements to publishers, and merge the elements emitted by publishers produced by the {@code mapper}
+   * function into this stream.
+   * <p>
+   * Up to {@code maxConcurrency} publishers produced by the mapper function are run at once, and their elements are
+   * emitted in the order that they arrive, so unlike {@link #flatMap(Function)}, ordering is not maintained between
+   * the publishers.
+   *
+   * @param maxConcurrency The maximum number of publishers to run at once.
+   * @param prefetch       The number of elements to request ahead from each publisher.
+   * @param mapper         The mapper function.
+   * @param <S>            The type of the elements emitted from the new processor.
+   * @return A new processor builder.
+   */
+  public <S> ProcessorBuilder<T, S> flatMapMerge(int maxConcurrency, int prefetch,
+      Function<? super R, PublisherBuilder<? extends S>> mapper) {
+    if (maxConcurrency < 1) {
+      throw new IllegalArgumentException("Max concurrency must be at least one.");
+    }
+    if (prefetch < 1) {
+      throw new IllegalArgumentException("Prefetch must be at least one.");
+    }
+    return new ProcessorBuilder<>(new Stage.FlatMapMerge(mapper.andThen(PublisherBuilder::toGraph),
+        maxConcurrency, prefetch), this);
+  }
+
   /**
    * Map the elements to {@link CompletionStage}, and flatten so that the elements the values redeemed by each
    * {@link CompletionStage} are emitted from this processor.
@@ -103,6 +154,77 @@ public final class ProcessorBuilder<T, R> extends ReactiveStreamsBuilder {
     return new ProcessorBuilder<>(new Stage.FlatMapCompletionStage((Function) mapper), this);
   }
 
+  /**
+   * Map the elements to {@link CompletionStage}, running up to {@code parallelism} of them at once, and emit the
+   * values they are redeemed with in the order of the elements they were mapped from.
+   * <p>
+   * Unlike {@link #flatMapCompletionStage(Function)}, the next element may be passed to the {@code mapper} function
+   * before the {@link CompletionStage} returned for the previous element is redeemed, as long as there are fewer than
+   * {@code parallelism} unredeemed {@link CompletionStage}s. Values redeemed out of order are buffered until they
+   * can be emitted in order.
+   *
+   * @param parallelism The maximum number of unredeemed {@link CompletionStage}s.
+   * @param mapper      The mapper function.
+   * @param <S>         The type of the elements emitted from the new processor.
+   * @return A new processor builder.
+   */
+  public <S> ProcessorBuilder<T, S> mapAsync(int parallelism,
+      Function<? super R, ? extends CompletionStage<? extends S>> mapper) {
+    return mapAsync(parallelism, mapper, true);
+  }
+
+  /**
+   * Map the elements to {@link CompletionStage}, running up to {@code parallelism} of them at once, and emit the
+   * values they are redeemed with as soon as they are redeemed.
+   * <p>
+   * This is like {@link #mapAsync(int, Function)}, except that ordering is not maintained, so a slow
+   * {@link CompletionStage} does not hold up the values of those that follow it.
+   *
+   * @param parallelism The maximum number of unredeemed {@link CompletionStage}s.
+   * @param mapper      The mapper function.
+   * @param <S>         The type of the elements emitted from the new processor.
+   * @return A new processor builder.
+   */
+  public <S> ProcessorBuilder<T, S> mapAsyncUnordered(int parallelism,
+      Function<? super R, ? extends CompletionStage<? extends S>> mapper) {
+    return mapAsync(parallelism, mapper, false);
+  }
+
+  private <S> ProcessorBuilder<T, S> mapAsync(int parallelism,
+      Function<? super R, ? extends CompletionStage<? extends S>> mapper, boolean ordered) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("Parallelism must be at least one.");
+    }
+    return new ProcessorBuilder<>(new Stage.MapAsync((Function) mapper, parallelism, ordered), this);
+  }
+
+  /**
+   * Map the elements to {@link CompletionStage}, running up to {@code parallelism} of them at once for elements with
+   * different keys, but only one at a time for elements with the same key, and emit the values they are redeemed with
+   * as soon as they are redeemed.
+   * <p>
+   * This suits work that must be applied in order per entity, such as events for the same aggregate, while different
+   * entities are processed in parallel. An element is only passed to the {@code mapper} function once the
+   * {@link CompletionStage} for the previous element with the same key has been redeemed, so the values for each key
+   * are emitted in order, while the values for different keys are emitted in no particular order. Elements waiting on
+   * their key do not hold up elements with other keys. Up to 32 elements, or {@code parallelism} if that is more, are
+   * buffered ahead of their values being emitted.
+   *
+   * @param parallelism The maximum number of unredeemed {@link CompletionStage}s, across all keys.
+   * @param key         The function that selects the key of each element.
+   * @param mapper      The mapper function.
+   * @param <S>         The type of the elements emitted from the new processor.
+   * @return A new processor builder.
+   */
+  public <S> ProcessorBuilder<T, S> mapAsyncPartitioned(int parallelism, Function<? super R, ?> key,
+      Function<? super R, ? extends CompletionStage<? extends S>> mapper) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("Parallelism must be at least one.");
+    }
+    return new ProcessorBuilder<>(new Stage.MapAsyncPartitioned(key, (Function) mapper, parallelism,
+        Math.max(parallelism, DEFAULT_PREFETCH)), this);
+  }
+
   /**
    * Map the elements to {@link Iterable}'s, and flatten so that the elements contained in each iterable are
    * emitted by this stream.
@@ -131,16 +253,7 @@ public final class ProcessorBuilder<T, R> extends ReactiveStreamsBuilder {
     if (maxSize < 0) {
       throw new IllegalArgumentException("Cannot limit a stream to less than zero elements.");
     }
-    else if (maxSize == 0) {
-      // todo this is perhaps not the desired behaviour - it means an element must be received before the stream will
-      // be completed. but then again, limiting a stream to have zero size is a strange thing to do, as running the
-      // stream in theory will then achieve nothing, so this edge case behavior probably isn't important to worry too
-      // much about.
-      return takeWhile(e -> false);
-    }
-    else {
-      return new ProcessorBuilder<>(new Stage.TakeWhile(() -> new Predicates.LimitPredicate<>(maxSize), true), this);
-    }
+    return new ProcessorBuilder<>(new Stage.Limit(maxSize), this);
   }
 
   /**
@@ -151,7 +264,10 @@ public final class ProcessorBuilder<T, R> extends ReactiveStreamsBuilder {
    * @return A new processor builder.
    */
   public ProcessorBuilder<T, R> skip(long n) {
-    return new ProcessorBuilder<>(new Stage.Filter(() -> new Predicates.SkipPredicate<>(n)), this);
+    if (n < 0) {
+      throw new IllegalArgumentException("Cannot skip less than zero elements.");
+    }
+    return new ProcessorBuilder<>(new Stage.Skip(n), this);
   }
 
   /**
@@ -180,6 +296,341 @@ public final class ProcessorBuilder<T, R> extends ReactiveStreamsBuilder {
     return new ProcessorBuilder<>(new Stage.Filter(() -> new Predicates.DropWhilePredicate<>(predicate)), this);
   }
 
+  /**
+   * Group the elements of this stream into lists of {@code size} elements.
+   * <p>
+   * Each list is emitted once it is full. When this stream completes, any remaining elements are emitted as a final
+   * list, which may contain fewer than {@code size} elements.
+   *
+   * @param size The number of elements in each group, must be at least one.
+   * @return A new processor builder.
+   */
+  public ProcessorBuilder<T, List<R>> grouped(int size) {
+    if (size < 1) {
+      throw new IllegalArgumentException("Group size must be at least one.");
+    }
+    return new ProcessorBuilder<>(new Stage.Grouped(size), this);
+  }
+
+  /**
+   * Group the elements of this stream into lists of up to {@code maxSize} elements, emitting each list once it is
+   * full, or once {@code maxWait} has elapsed since its first element arrived, whichever happens first.
+   * <p>
+   * This bounds the latency that batching adds when elements arrive slowly. Empty lists are never emitted. When this
+   * stream completes, any remaining elements are emitted as a final list.
+   *
+   * @param maxSize The maximum number of elements in each group, must be at least one.
+   * @param maxWait The maximum time to wait after the first element of a group arrives, must be positive.
+   * @return A new processor builder.
+   */
+  public ProcessorBuilder<T, List<R>> groupedWithin(int maxSize, Duration maxWait) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("Max group size must be at least one.");
+    }
+    if (maxWait.isNegative() || maxWait.isZero()) {
+      throw new IllegalArgumentException("Max wait must be positive.");
+    }
+    return new ProcessorBuilder<>(new Stage.GroupedWithin(maxSize, maxWait), this);
+  }
+
+  /**
+   * Limit the rate of this stream to {@code elements} per {@code per}.
+   * <p>
+   * Up to {@code maximumBurst} elements may be emitted at once after a period where elements were emitted more
+   * slowly than the limit. Elements are only requested from this stream when the rate allows them to be emitted, so
+   * this stream is slowed down rather than having its elements held.
+   *
+   * @param elements     The number of elements allowed per period, must be at least one.
+   * @param per          The period, must be positive.
+   * @param maximumBurst The maximum number of elements that may be emitted at once, must be at least one.
+   * @return A new processor builder.
+   */
+  public ProcessorBuilder<T, R> throttle(int elements, Duration per, int maximumBurst) {
+    if (elements < 1) {
+      throw new IllegalArgumentException("Elements must be at least one.");
+    }
+    if (per.isNegative() || per.isZero()) {
+      throw new IllegalArgumentException("Period must be positive.");
+    }
+    if (maximumBurst < 1) {
+      throw new IllegalArgumentException("Maximum burst must be at least one.");
+    }
+    return new ProcessorBuilder<>(new Stage.Throttle(elements, per, maximumBurst), this);
+  }
+
+  /**
+   * Fail the stream with a {@link java.util.concurrent.TimeoutException} if no element arrives within
+   * {@code timeout} of the stream starting, or of the previous element.
+   * <p>
+   * When the timeout expires, this stream is cancelled, so that whatever resources it holds are released promptly.
+   *
+   * @param timeout The maximum time to wait between elements, must be positive.
+   * @return A new processor builder.
+   */
+  public ProcessorBuilder<T, R> idleTimeout(Duration timeout) {
+    return new ProcessorBuilder<>(new Stage.IdleTimeout(checkTimeout(timeout)), this);
+  }
+
+  /**
+   * Fail the stream with a {@link java.util.concurrent.TimeoutException} if it doesn't complete within
+   * {@code timeout} of starting.
+   * <p>
+   * When the timeout expires, this stream is cancelled, so that whatever resources it holds are released promptly.
+   *
+   * @param timeout The maximum time to wait for the stream to complete, must be positive.
+   * @return A new processor builder.
+   */
+  public ProcessorBuilder<T, R> completionTimeout(Duration timeout) {
+    return new ProcessorBuilder<>(new Stage.CompletionTimeout(checkTimeout(timeout)), this);
+  }
+
+  /**
+   * Fail the stream with a {@link java.util.concurrent.TimeoutException} if the first element doesn't arrive within
+   * {@code timeout} of the stream starting.
+   * <p>
+   * When the timeout expires, this stream is cancelled, so that whatever resources it holds are released promptly.
+   *
+   * @param timeout The maximum time to wait for the first element, must be positive.
+   * @return A new processor builder.
+   */
+  public ProcessorBuilder<T, R> initialTimeout(Duration timeout) {
+    return new ProcessorBuilder<>(new Stage.InitialTimeout(checkTimeout(timeout)), this);
+  }
+
+  /**
+   * Buffer up to {@code size} elements from this stream, so that the rate that elements are produced is decoupled
+   * from the rate that they are consumed.
+   * <p>
+   * With {@link OverflowStrategy#BACKPRESSURE}, elements are only requested from this stream when there is room for
+   * them in the buffer. With any other strategy, elements are requested from this stream regardless of whether there
+   * is room, and the strategy decides what happens when the buffer is full.
+   *
+   * @param size             The maximum number of elements to buffer, must be at least one.
+   * @param overflowStrategy What to do when an element arrives and the buffer is full.
+   * @return A new processor builder.
+   */
+  public ProcessorBuilder<T, R> buffer(int size, OverflowStrategy overflowStrategy) {
+    if (size < 1) {
+      throw new IllegalArgumentException("Buffer size must be at least one.");
+    }
+    return new ProcessorBuilder<>(new Stage.Buffer(size, overflowStrategy), this);
+  }
+
+  /**
+   * Aggregate elements from this stream while the consumer is not ready for them, so that a slow consumer receives
+   * the aggregate of every element emitted since it was last ready, rather than slowing down this stream.
+   * <p>
+   * Elements are requested from this stream regardless of demand, and are combined with the {@code aggregate}
+   * function until there is demand for the result. Only one aggregated value is held at a time.
+   *
+   * @param aggregate The function to combine an aggregated value with the next element.
+   * @return A new processor builder.
+   */
+  public ProcessorBuilder<T, R> conflate(BinaryOperator<R> aggregate) {
+    return conflateWithSeed(Function.identity(), aggregate);
+  }
+
+  /**
+   * Aggregate elements from this stream while the consumer is not ready for them, so that a slow consumer receives
+   * the aggregate of every element emitted since it was last ready, rather than slowing down this stream.
+   * <p>
+   * Elements are requested from this stream regardless of demand. The first element after the consumer was last ready
+   * starts a new aggregate using the {@code seed} function, and subsequent elements are added to it with the
+   * {@code aggregate} function, until there is demand for the result. Only one aggregated value is held at a time.
+   *
+   * @param seed      The function to start a new aggregate from an element.
+   * @param aggregate The function to add the next element to an aggregate.
+   * @param <S>       The type of the aggregate.
+   * @return A new processor builder that emits the aggregates.
+   */
+  public <S> ProcessorBuilder<T, S> conflateWithSeed(Function<? super R, ? extends S> seed,
+      BiFunction<? super S, ? super R, ? extends S> aggregate) {
+    return new ProcessorBuilder<>(new Stage.Conflate(seed, aggregate), this);
+  }
+
+  /**
+   * Extrapolate elements from this stream while the consumer is ready for more elements than this stream produces.
+   * <p>
+   * Each element is passed to the {@code extrapolate} function, and the elements of the iterator it returns are emitted
+   * while there is demand and no further element has arrived. The first element of each iterator is always emitted,
+   * after which the next element is requested from this stream, and it replaces the iterator as soon as it arrives. So
+   * typically, the iterator would start with the element itself.
+   *
+   * @param extrapolate The function to return an iterator of elements to emit for each element.
+   * @return A new processor builder.
+   */
+  public ProcessorBuilder<T, R> expand(Function<? super R, ? extends Iterator<? extends R>> extrapolate) {
+    return new ProcessorBuilder<>(new Stage.Expand(extrapolate), this);
+  }
+
+  /**
+   * Drop elements from this stream that arrive while the consumer is not ready for them, so that a slow consumer
+   * never slows down this stream, and nothing is buffered.
+   *
+   * @return A new processor builder.
+   */
+  public ProcessorBuilder<T, R> onBackpressureDrop() {
+    return onBackpressureDrop(element -> {
+    });
+  }
+
+  /**
+   * Drop elements from this stream that arrive while the consumer is not ready for them, so that a slow consumer
+   * never slows down this stream, and nothing is buffered.
+   * <p>
+   * Each dropped element is passed to {@code onDrop}, which may be used to count dropped elements for monitoring, for
+   * example, by passing {@code dropped -> counter.increment()} with a {@link java.util.concurrent.atomic.LongAdder}.
+   *
+   * @param onDrop The callback to invoke on each dropped element.
+   * @return A new processor builder.
+   */
+  public ProcessorBuilder<T, R> onBackpressureDrop(Consumer<? super R> onDrop) {
+    return new ProcessorBuilder<>(new Stage.OnBackpressureDrop(onDrop), this);
+  }
+
+  /**
+   * Hold only the latest element from this stream while the consumer is not ready for it, dropping any element held
+   * before it, so that a slow consumer never slows down this stream, and always receives the most recent element.
+   *
+   * @return A new processor builder.
+   */
+  public ProcessorBuilder<T, R> onBackpressureLatest() {
+    return onBackpressureLatest(element -> {
+    });
+  }
+
+  /**
+   * Hold only the latest element from this stream while the consumer is not ready for it, dropping any element held
+   * before it, so that a slow consumer never slows down this stream, and always receives the most recent element.
+   * <p>
+   * Each dropped element is passed to {@code onDrop}, which may be used to count dropped elements for monitoring.
+   *
+   * @param onDrop The callback to invoke on each dropped element.
+   * @return A new processor builder.
+   */
+  public ProcessorBuilder<T, R> onBackpressureLatest(Consumer<? super R> onDrop) {
+    return new ProcessorBuilder<>(new Stage.OnBackpressureLatest(onDrop), this);
+  }
+
+  /**
+   * Pair up the elements of this stream with the elements of the {@code other} stream by position, and emit the
+   * result of the {@code zipper} function for each pair.
+   * <p>
+   * Up to 32 elements from each stream are buffered while waiting to be paired up, so however different the rates of
+   * the two streams are, the faster one is held back rather than buffered without bound. The resulting stream
+   * completes as soon as either stream has completed and all its elements have been paired up, and the other stream
+   * is cancelled. If either stream fails, the error is emitted straight away, and the other stream is cancelled.
+   *
+   * @param other  The stream to zip with.
+   * @param zipper The function to combine each pair of elements.
+   * @param <U>    The type of the elements of the other stream.
+   * @param <S>    The type of the combined elements.
+   * @return A new processor builder.
+   */
+  public <U, S> ProcessorBuilder<T, S> zipWith(PublisherBuilder<? extends U> other,
+      BiFunction<? super R, ? super U, ? extends S> zipper) {
+    return new ProcessorBuilder<>(new Stage.Zip(other.toGraph(), zipper, DEFAULT_PREFETCH), this);
+  }
+
+  /**
+   * Pair up the elements of this stream with the elements of the {@code other} stream by position, and emit each
+   * pair as a {@link Map.Entry}, with the element of this stream as the key.
+   * <p>
+   * See {@link #zipWith(PublisherBuilder, BiFunction)} for how the streams are buffered and terminated.
+   *
+   * @param other The stream to zip with.
+   * @param <U>   The type of the elements of the other stream.
+   * @return A new processor builder.
+   */
+  public <U> ProcessorBuilder<T, Map.Entry<R, U>> zip(PublisherBuilder<? extends U> other) {
+    return this.<U, Map.Entry<R, U>>zipWith(other, AbstractMap.SimpleImmutableEntry::new);
+  }
+
+  /**
+   * Introduce an asynchronous boundary, so that the stages before this one may run concurrently with the stages after
+   * it.
+   * <p>
+   * Elements from this stream are buffered, and emitted to subsequent stages from tasks run on the given
+   * {@code executor}. Up to 32 elements are buffered, and demand for more elements is signalled upstream in
+   * batches as the buffer is drained.
+   *
+   * @param executor The executor to run subsequent stages on.
+   * @return A new processor builder.
+   */
+  public ProcessorBuilder<T, R> async(Executor executor) {
+    return async(executor, DEFAULT_PREFETCH);
+  }
+
+  /**
+   * Introduce an asynchronous boundary, so that the stages before this one may run concurrently with the stages after
+   * it.
+   * <p>
+   * Elements from this stream are buffered, and emitted to subsequent stages from tasks run on the given
+   * {@code executor}. Demand for more elements is signalled upstream in batches as the buffer is drained.
+   *
+   * @param executor   The executor to run subsequent stages on.
+   * @param bufferSize The maximum number of elements to buffer, must be at least one.
+   * @return A new processor builder.
+   */
+  public ProcessorBuilder<T, R> async(Executor executor, int bufferSize) {
+    if (bufferSize < 1) {
+      throw new IllegalArgumentException("Buffer size must be at least one.");
+    }
+    return new ProcessorBuilder<>(new Stage.AsyncBoundary(executor, bufferSize), this);
+  }
+
+  /**
+   * Spread the elements of this stream across {@code workers} copies of the {@code worker} graph, each run on the
+   * given {@code executor}, and merge the elements they emit into the resulting stream, so that processing too heavy
+   * for one thread can use several.
+   * <p>
+   * Each element is emitted to whichever worker is ready for it, so the resulting stream emits elements in no
+   * particular order. Up to 32 elements are buffered ahead of the workers, and each worker runs behind its own
+   * asynchronous boundary, as introduced by {@link #async(Executor)}. The resulting stream completes once all the
+   * workers have completed. If this stream or any worker fails, the error is emitted straight away, and the workers
+   * are cancelled.
+   *
+   * @param workers  The number of copies of the worker graph to run, must be at least one.
+   * @param worker   The graph to process the elements with.
+   * @param executor The executor to run the workers on.
+   * @param <S>      The type of the elements emitted by the workers.
+   * @return A new processor builder.
+   */
+  public <S> ProcessorBuilder<T, S> balance(int workers, ProcessorBuilder<? super R, ? extends S> worker,
+      Executor executor) {
+    if (workers < 1) {
+      throw new IllegalArgumentException("Workers must be at least one.");
+    }
+    return new ProcessorBuilder<>(new Stage.Balance(workerGraph(worker, executor), workers, DEFAULT_PREFETCH), this);
+  }
+
+  /**
+   * Spread the elements of this stream across {@code partitions} copies of the {@code worker} graph, each run on
+   * the given {@code executor}, and merge the elements they emit into the resulting stream.
+   * <p>
+   * Each element is emitted to the worker at the index returned by the {@code partitioner}, modulo the number of
+   * partitions, so a hash code may be returned directly. All the elements of a partition are processed by the same
+   * worker, in order, while the partitions are processed in parallel, and the resulting stream emits the elements of
+   * different partitions in no particular order. Elements are buffered and the stream terminated as described for
+   * {@link #balance(int, ProcessorBuilder, Executor)}, with the 32 elements buffered shared by all the partitions,
+   * so a partition whose worker falls behind eventually holds back the others.
+   *
+   * @param partitions  The number of partitions, and so copies of the worker graph to run, must be at least one.
+   * @param partitioner The function that selects the partition of each element.
+   * @param worker      The graph to process the elements with.
+   * @param executor    The executor to run the workers on.
+   * @param <S>         The type of the elements emitted by the workers.
+   * @return A new processor builder.
+   */
+  public <S> ProcessorBuilder<T, S> partition(int partitions, ToIntFunction<? super R> partitioner,
+      ProcessorBuilder<? super R, ? extends S> worker, Executor executor) {
+    if (partitions < 1) {
+      throw new IllegalArgumentException("Partitions must be at least one.");
+    }
+    return new ProcessorBuilder<>(new Stage.Partition(workerGraph(worker, executor), partitions, partitioner,
+        DEFAULT_PREFETCH), this);
+  }
+
   /**
    * Performs an action for each element on this stream.
    * <p>
@@ -270,6 +721,17 @@ public final class ProcessorBuilder<T, R> extends ReactiveStreamsBuilder {
     return new SubscriberBuilder<>(new Stage.Collect(Reductions.reduce(identity, accumulator, combiner)), this);
   }
 
+  /**
+   * Count the elements emitted by this processor.
+   * <p>
+   * The elements are not retained, the count is returned in the {@link CompletionStage} when the stream completes.
+   *
+   * @return A {@link SubscriberBuilder} that represents this processor builders inlet.
+   */
+  public SubscriberBuilder<T, Long> count() {
+    return new SubscriberBuilder<>(Stage.Count.INSTANCE, this);
+  }
+
   /**
    * Collect the elements emitted by this processor builder using the given {@link Collector}.
    * <p>
@@ -326,6 +788,40 @@ public final class ProcessorBuilder<T, R> extends ReactiveStreamsBuilder {
     return new SubscriberBuilder<>(new InternalStages.Nested(subscriber), this);
   }
 
+  /**
+   * Connect the outlet of this processor builder to all the given {@link SubscriberBuilder} graphs, so that every
+   * element of this stream is emitted to each of them, while the stream itself is only materialized once.
+   * <p>
+   * Each subscriber consumes at its own pace, with up to 32 elements buffered ahead of the slowest one, so the faster
+   * subscribers are held back rather than elements being buffered without bound. Completion and errors are emitted to
+   * every subscriber, and this stream is only cancelled once all the subscribers have cancelled.
+   *
+   * @param subscribers The subscriber builders to connect.
+   * @return A {@link SubscriberBuilder} that represents this processor builders inlet, with a list of the results of
+   * the subscribers, in the order they were given, as its result.
+   */
+  public SubscriberBuilder<T, List<Object>> broadcast(List<? extends SubscriberBuilder<? super R, ?>> subscribers) {
+    return new SubscriberBuilder<>(broadcastTo(subscribers), this);
+  }
+
+  /**
+   * Connect the outlet of this processor builder to all the given {@link SubscriberBuilder} graphs.
+   * <p>
+   * See {@link #broadcast(List)} for how the stream is buffered and terminated.
+   *
+   * @param subscribers The subscriber builders to connect.
+   * @return A {@link SubscriberBuilder} that represents this processor builders inlet, with a list of the results of
+   * the subscribers, in the order they were given, as its result.
+   */
+  @SafeVarargs
+  public final SubscriberBuilder<T, List<Object>> broadcast(SubscriberBuilder<? super R, ?>... subscribers) {
+    List<SubscriberBuilder<? super R, ?>> builders = new ArrayList<>(subscribers.length);
+    for (SubscriberBuilder<? super R, ?> subscriber : subscribers) {
+      builders.add(subscriber);
+    }
+    return broadcast(builders);
+  }
+
   /**
    * Connect the outlet of the {@link Processor} built by this builder to the given {@link Processor}.
    *
@@ -19,12 +19,18 @@
 
 package org.eclipse.microprofile.reactive.streams;
 
+import org.eclipse.microprofile.reactive.streams.spi.Graph;
 import org.eclipse.microprofile.reactive.streams.spi.Stage;
 import org.reactivestreams.Processor;
 import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscriber;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
 import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
 import java.util.stream.Stream;
@@ -106,6 +112,36 @@ public class ReactiveStreams {
     return new PublisherBuilder<>(new Stage.Of(ts), null);
   }
 
+  /**
+   * Create a {@link IntPublisherBuilder} that emits the given ints.
+   *
+   * @param ts The elements to emit.
+   * @return A int publisher builder that will emit the elements.
+   */
+  public static IntPublisherBuilder ofInts(int... ts) {
+    return new IntPublisherBuilder(new Stage.OfInts(ts), null);
+  }
+
+  /**
+   * Create a {@link LongPublisherBuilder} that emits the given longs.
+   *
+   * @param ts The elements to emit.
+   * @return A long publisher builder that will emit the elements.
+   */
+  public static LongPublisherBuilder ofLongs(long... ts) {
+    return new LongPublisherBuilder(new Stage.OfLongs(ts), null);
+  }
+
+  /**
+   * Create a {@link DoublePublisherBuilder} that emits the given doubles.
+   *
+   * @param ts The elements to emit.
+   * @return A double publisher builder that will emit the elements.
+   */
+  public static DoublePublisherBuilder ofDoubles(double... ts) {
+    return new DoublePublisherBuilder(new Stage.OfDoubles(ts), null);
+  }
+
   /**
    * Create a failed {@link PublisherBuilder}.
    * <p>
@@ -176,6 +212,28 @@ public class ReactiveStreams {
     return fromIterable(() -> Stream.<T>generate((Supplier) s).iterator());
   }
 
+  /**
+   * Creates a stream of {@code count} consecutive longs, starting from {@code start}.
+   * <p>
+   * Unlike {@link #iterate(Object, UnaryOperator)}, the elements are produced from a counter by the engine, so
+   * engines can emit them in bulk according to the outstanding demand.
+   *
+   * @param start The first element to emit.
+   * @param count The number of elements to emit.
+   * @return A publisher builder.
+   * @throws IllegalArgumentException If count is negative, or if the last element would overflow a long.
+   */
+  public static PublisherBuilder<Long> range(long start, long count) {
+    if (count < 0) {
+      throw new IllegalArgumentException("Count must not be negative, was " + count);
+    }
+    if (count > 0 && start > Long.MAX_VALUE - (count - 1)) {
+      throw new IllegalArgumentException("Range of " + count + " elements starting from " + start +
+          " overflows a long");
+    }
+    return new PublisherBuilder<>(new Stage.Range(start, count), null);
+  }
+
   /**
    * Concatenates two publishers.
    * <p>
@@ -197,4 +255,80 @@ public class ReactiveStreams {
       PublisherBuilder<? extends T> b) {
     return new PublisherBuilder<>(new Stage.Concat(a.toGraph(), b.toGraph()), null);
   }
+
+  /**
+   * Concatenate any number of publishers.
+   * <p>
+   * The resulting stream emits all the elements of each publisher in turn, subscribing to each publisher once the
+   * one before it has completed. Unlike nesting {@link #concat(PublisherBuilder, PublisherBuilder)}, this creates a
+   * single flat stage however many publishers there are, so the cost of moving to the next publisher stays constant.
+   * Any publisher that is itself a concatenation is flattened into the others.
+   * <p>
+   * If any publisher completes with an error signal, or downstream emits a cancellation signal, then each publisher
+   * that hasn't been subscribed to yet will be subscribed to and immediately cancelled. This ensures that hot
+   * publishers are cleaned up.
+   *
+   * @param publishers The publishers to concatenate.
+   * @param <T>        The type of stream elements.
+   * @return A publisher builder.
+   */
+  public static <T> PublisherBuilder<T> concat(Iterable<? extends PublisherBuilder<? extends T>> publishers) {
+    List<Graph> graphs = new ArrayList<>();
+    for (PublisherBuilder<? extends T> publisher : publishers) {
+      flattenConcat(publisher.toGraph(), graphs);
+    }
+    return new PublisherBuilder<>(new Stage.ConcatAll(Collections.unmodifiableList(graphs)), null);
+  }
+
+  /**
+   * Add the publishers concatenated by the given graph, however deeply they're nested, to {@code graphs}, or the graph
+   * itself if it's not a concatenation. A stack is used rather than recursion, since a concatenation built by folding
+   * the binary {@link #concat(PublisherBuilder, PublisherBuilder)} is nested as deep as it is long.
+   */
+  private static void flattenConcat(Graph graph, List<Graph> graphs) {
+    Deque<Graph> remaining = new ArrayDeque<>();
+    remaining.push(graph);
+    while (!remaining.isEmpty()) {
+      Graph next = remaining.pop();
+      Stage stage = next.getStages().size() == 1 ? next.getStages().iterator().next() : null;
+      if (stage instanceof Stage.ConcatAll) {
+        List<Graph> concatenated = ((Stage.ConcatAll) stage).getGraphs();
+        for (int i = concatenated.size() - 1; i >= 0; i--) {
+          remaining.push(concatenated.get(i));
+        }
+      }
+      else if (stage instanceof Stage.Concat) {
+        remaining.push(((Stage.Concat) stage).getSecond());
+        remaining.push(((Stage.Concat) stage).getFirst());
+      }
+      else {
+        graphs.add(next);
+      }
+    }
+  }
+
+  /**
+   * Merge the given publishers into one.
+   * <p>
+   * All the publishers are subscribed to straight away, and their elements are emitted as they arrive, interleaved in
+   * no particular order. Up to 32 elements are requested from each publisher ahead of them being emitted, and each
+   * publisher is requested more once most of those have been emitted, so a slow publisher never holds up the others.
+   * <p>
+   * The merged publisher completes once all the publishers have completed. If any publisher emits an error, the
+   * error is emitted by the merged publisher, and the other publishers are cancelled. If downstream emits a
+   * cancellation signal, it is passed to all the publishers.
+   *
+   * @param publishers The publishers to merge.
+   * @param <T>        The type of stream elements.
+   * @return A publisher builder.
+   */
+  @SafeVarargs
+  public static <T> PublisherBuilder<T> merge(PublisherBuilder<? extends T>... publishers) {
+    List<Graph> graphs = new ArrayList<>(publishers.length);
+    for (PublisherBuilder<? extends T> publisher : publishers) {
+      graphs.add(publisher.toGraph());
+    }
+    return new PublisherBuilder<>(new Stage.Merge(Collections.unmodifiableList(graphs),
+        ReactiveStreamsBuilder.DEFAULT_PREFETCH), null);
+  }
 }
@@ -23,7 +23,9 @@ import org.eclipse.microprofile.reactive.streams.spi.Graph;
 import org.eclipse.microprofile.reactive.streams.spi.ReactiveStreamsEngine;
 import org.eclipse.microprofile.reactive.streams.spi.Stage;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.Executor;
 
 /**
  * Superclass of all reactive streams builders.
@@ -32,6 +34,12 @@ import java.util.*;
  */
 public abstract class ReactiveStreamsBuilder {
 
+  /**
+   * The default number of elements requested ahead from each input, and so buffered, by stages that prefetch, such as
+   * flat map merge, merge, zip, broadcast and asynchronous boundaries.
+   */
+  static final int DEFAULT_PREFETCH = 32;
+
   private final Stage stage;
   private final ReactiveStreamsBuilder previous;
 
@@ -51,6 +59,36 @@ public abstract class ReactiveStreamsBuilder {
     }
   }
 
+  /**
+   * Check that the given timeout is positive.
+   */
+  static Duration checkTimeout(Duration timeout) {
+    if (timeout.isNegative() || timeout.isZero()) {
+      throw new IllegalArgumentException("Timeout must be positive.");
+    }
+    return timeout;
+  }
+
+  /**
+   * Create a broadcast stage that emits to all the given subscriber builders.
+   */
+  static Stage.Broadcast broadcastTo(List<? extends SubscriberBuilder<?, ?>> subscribers) {
+    List<Graph> graphs = new ArrayList<>(subscribers.size());
+    for (SubscriberBuilder<?, ?> subscriber : subscribers) {
+      graphs.add(subscriber.toGraph(true, false));
+    }
+    return new Stage.Broadcast(Collections.unmodifiableList(graphs), DEFAULT_PREFETCH);
+  }
+
+  /**
+   * Create the graph of a worker for the balance and partition stages, which runs the given worker behind an
+   * asynchronous boundary on the given executor, so that the workers run concurrently.
+   */
+  static Graph workerGraph(ProcessorBuilder<?, ?> worker, Executor executor) {
+    return new ProcessorBuilder<>(new InternalStages.Nested(worker),
+        new ProcessorBuilder<>(new Stage.AsyncBoundary(executor, DEFAULT_PREFETCH), null)).toGraph(true, true);
+  }
+
   Graph toGraph(boolean expectInlet, boolean expectOutlet) {
     ArrayDeque<Stage> deque = new ArrayDeque<>();
     flatten(deque);
@@ -86,4 +86,21 @@ public interface ReactiveStreamsEngine {
    */
   <T> CompletionStage<T> buildCompletion(Graph graph) throws UnsupportedStageException;
 
+  /**
+   * The scheduler used by this engine's time based stages.
+   * <p>
+   * Engines should share one scheduler between all the streams they run, rather than scheduling timeouts on a
+   * separate thread or executor per stream, and should return the same scheduler every time this is invoked.
+   * <p>
+   * Engines that don't support the time based stages, such as {@link Stage.GroupedWithin}, {@link Stage.Throttle}
+   * and the timeout stages, should return {@code null}, and must then throw {@link UnsupportedStageException} from
+   * the build methods when passed a graph that contains one. This is the default, so that engines written before this
+   * method was added continue to compile, and report those stages the same way as any other stage they don't support.
+   *
+   * @return The scheduler, or {@code null} if this engine doesn't support time based stages.
+   */
+  default Scheduler getScheduler() {
+    return null;
+  }
+
 }
@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.spi;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A timer for scheduling the timeouts that time based stages need.
+ * <p>
+ * Time based stages may schedule a timeout for every element that passes through them, and most of those timeouts
+ * will be cancelled before they fire, so scheduling and cancelling should be cheap. Scheduled tasks are expected to be
+ * short, typically doing no more than signalling a stream that it should check its state, so implementations may run
+ * them all on a single thread.
+ *
+ * @see ReactiveStreamsEngine#getScheduler()
+ */
+public interface Scheduler {
+
+  /**
+   * Schedule the given task to run once after the given delay.
+   * <p>
+   * Implementations may run the task late by up to their resolution, but never early.
+   *
+   * @param task  The task to run.
+   * @param delay The delay before running the task.
+   * @param unit  The unit of the delay.
+   * @return A handle that can be used to cancel the task.
+   */
+  Cancellable schedule(Runnable task, long delay, TimeUnit unit);
+
+  /**
+   * A handle to a scheduled task.
+   */
+  interface Cancellable {
+
+    /**
+     * Cancel the task, if it hasn't already run.
+     *
+     * @return True if the task was cancelled, false if it has already run or been cancelled.
+     */
+    boolean cancel();
+  }
+}
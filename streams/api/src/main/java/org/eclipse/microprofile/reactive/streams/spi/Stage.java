@@ -19,15 +19,36 @@
 
 package org.eclipse.microprofile.reactive.streams.spi;
 
+import org.eclipse.microprofile.reactive.streams.OverflowStrategy;
 import org.reactivestreams.Processor;
 import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscriber;
 
+import java.time.Duration;
 import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.DoubleFunction;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleUnaryOperator;
 import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
+import java.util.function.LongUnaryOperator;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collector;
 
 /**
@@ -164,163 +185,1660 @@ public interface Stage {
     }
   }
 
+  /**
+   * A limit stage.
+   * <p>
+   * The first {@code maxSize} elements consumed should be emitted, and then upstream should be cancelled and the stream
+   * completed. The stream should complete as soon as the last element is emitted, without waiting for another element
+   * to arrive, and if {@code maxSize} is zero, the stream should be completed without consuming any elements.
+   * <p>
+   * Engines should never request more than {@code maxSize} elements from upstream in total.
+   */
+  final class Limit implements Inlet, Outlet {
+    private final long maxSize;
+
+    public Limit(long maxSize) {
+      this.maxSize = maxSize;
+    }
+
+    /**
+     * The maximum number of elements to emit.
+     *
+     * @return The maximum number of elements.
+     */
+    public long getMaxSize() {
+      return maxSize;
+    }
+  }
+
+  /**
+   * A skip stage.
+   * <p>
+   * The first {@code n} elements consumed should be dropped, and all subsequent elements emitted.
+   * <p>
+   * Engines are free to request the {@code n} elements to be skipped from upstream in bulk, when the first demand is
+   * received from downstream.
+   */
+  final class Skip implements Inlet, Outlet {
+    private final long n;
+
+    public Skip(long n) {
+      this.n = n;
+    }
+
+    /**
+     * The number of elements to skip.
+     *
+     * @return The number of elements to skip.
+     */
+    public long getN() {
+      return n;
+    }
+  }
+
+  /**
+   * A grouped stage.
+   * <p>
+   * Elements consumed should be collected into {@link java.util.List}s of {@code size} elements, with each list being
+   * emitted once it is full. When upstream completes, any partially filled list should be emitted before completing.
+   * <p>
+   * Engines should request {@code k * size} elements from upstream when {@code k} lists are requested.
+   */
+  final class Grouped implements Inlet, Outlet {
+    private final int size;
+
+    public Grouped(int size) {
+      this.size = size;
+    }
+
+    /**
+     * The number of elements in each group.
+     *
+     * @return The group size.
+     */
+    public int getSize() {
+      return size;
+    }
+  }
+
+  /**
+   * A grouped within stage.
+   * <p>
+   * Elements consumed should be collected into {@link java.util.List}s of up to {@code maxSize} elements. Each list
+   * should be emitted once it is full, or once {@code maxWait} has elapsed since its first element was consumed,
+   * whichever happens first. If there is no demand for a list when it becomes due, it should be emitted as soon as
+   * there is. Empty lists should never be emitted. When upstream completes, any partially filled list should be
+   * emitted before completing.
+   * <p>
+   * Engines should not buffer more than {@code maxSize} elements, and should time groups using their shared
+   * {@link Scheduler}, see {@link ReactiveStreamsEngine#getScheduler()}.
+   */
+  final class GroupedWithin implements Inlet, Outlet {
+    private final int maxSize;
+    private final Duration maxWait;
+
+    public GroupedWithin(int maxSize, Duration maxWait) {
+      this.maxSize = maxSize;
+      this.maxWait = maxWait;
+    }
+
+    /**
+     * The maximum number of elements in each group.
+     *
+     * @return The maximum group size.
+     */
+    public int getMaxSize() {
+      return maxSize;
+    }
+
+    /**
+     * The maximum time to wait after the first element of a group arrives before emitting it.
+     *
+     * @return The maximum wait.
+     */
+    public Duration getMaxWait() {
+      return maxWait;
+    }
+  }
+
+  /**
+   * A throttle stage.
+   * <p>
+   * Elements should be emitted at a rate of no more than {@code elements} per {@code per}, with bursts of up to
+   * {@code maximumBurst} elements allowed after periods where the rate was lower, as if taken from a bucket holding
+   * up to {@code maximumBurst} tokens, which starts full, and is refilled at the given rate.
+   * <p>
+   * Engines should shape the demand signalled upstream to the rate, rather than consuming elements and holding them
+   * until they can be emitted, and should wait for tokens to be refilled using their shared {@link Scheduler}, never
+   * by blocking a thread.
+   */
+  final class Throttle implements Inlet, Outlet {
+    private final int elements;
+    private final Duration per;
+    private final int maximumBurst;
+
+    public Throttle(int elements, Duration per, int maximumBurst) {
+      this.elements = elements;
+      this.per = per;
+      this.maximumBurst = maximumBurst;
+    }
+
+    /**
+     * The number of elements allowed per period.
+     *
+     * @return The number of elements.
+     */
+    public int getElements() {
+      return elements;
+    }
+
+    /**
+     * The period.
+     *
+     * @return The period.
+     */
+    public Duration getPer() {
+      return per;
+    }
+
+    /**
+     * The maximum number of elements that may be emitted in a burst.
+     *
+     * @return The maximum burst.
+     */
+    public int getMaximumBurst() {
+      return maximumBurst;
+    }
+  }
+
+  /**
+   * An idle timeout stage.
+   * <p>
+   * If no element is consumed within {@code timeout} of the stream starting, or of the previous element being
+   * emitted, the stream should be failed with a {@link java.util.concurrent.TimeoutException}, and upstream
+   * cancelled.
+   * <p>
+   * Engines should time the stream using their shared {@link Scheduler}.
+   */
+  final class IdleTimeout implements Inlet, Outlet {
+    private final Duration timeout;
+
+    public IdleTimeout(Duration timeout) {
+      this.timeout = timeout;
+    }
+
+    /**
+     * The maximum time to wait between elements.
+     *
+     * @return The idle timeout.
+     */
+    public Duration getTimeout() {
+      return timeout;
+    }
+  }
+
+  /**
+   * A completion timeout stage.
+   * <p>
+   * If upstream does not complete within {@code timeout} of the stream starting, the stream should be failed with a
+   * {@link java.util.concurrent.TimeoutException}, and upstream cancelled.
+   * <p>
+   * Engines should time the stream using their shared {@link Scheduler}.
+   */
+  final class CompletionTimeout implements Inlet, Outlet {
+    private final Duration timeout;
+
+    public CompletionTimeout(Duration timeout) {
+      this.timeout = timeout;
+    }
+
+    /**
+     * The maximum time to wait for the stream to complete.
+     *
+     * @return The completion timeout.
+     */
+    public Duration getTimeout() {
+      return timeout;
+    }
+  }
+
+  /**
+   * An initial timeout stage.
+   * <p>
+   * If the first element is not consumed within {@code timeout} of the stream starting, the stream should be failed
+   * with a {@link java.util.concurrent.TimeoutException}, and upstream cancelled.
+   * <p>
+   * Engines should time the stream using their shared {@link Scheduler}.
+   */
+  final class InitialTimeout implements Inlet, Outlet {
+    private final Duration timeout;
+
+    public InitialTimeout(Duration timeout) {
+      this.timeout = timeout;
+    }
+
+    /**
+     * The maximum time to wait for the first element.
+     *
+     * @return The initial timeout.
+     */
+    public Duration getTimeout() {
+      return timeout;
+    }
+  }
+
+  /**
+   * A buffer stage.
+   * <p>
+   * Elements consumed from upstream should be placed in a buffer holding at most {@code size} elements, and emitted
+   * according to downstream demand. If the overflow strategy is {@link OverflowStrategy#BACKPRESSURE}, no more than
+   * {@code size} elements that haven't been emitted should ever be requested from upstream. Otherwise, upstream should
+   * be requested elements regardless of downstream demand, with the overflow strategy applied whenever an element
+   * arrives and the buffer is full.
+   * <p>
+   * When upstream completes, the stream should be completed once the buffer has been emitted. When upstream fails, the
+   * error should be emitted immediately, and the buffer discarded.
+   */
+  final class Buffer implements Inlet, Outlet {
+    private final int size;
+    private final OverflowStrategy overflowStrategy;
+
+    public Buffer(int size, OverflowStrategy overflowStrategy) {
+      this.size = size;
+      this.overflowStrategy = overflowStrategy;
+    }
+
+    /**
+     * The maximum number of elements to buffer.
+     *
+     * @return The buffer size.
+     */
+    public int getSize() {
+      return size;
+    }
+
+    /**
+     * What to do when an element arrives and the buffer is full.
+     *
+     * @return The overflow strategy.
+     */
+    public OverflowStrategy getOverflowStrategy() {
+      return overflowStrategy;
+    }
+  }
+
+  /**
+   * A conflate stage.
+   * <p>
+   * Elements should be requested from upstream regardless of downstream demand. While there is no downstream demand,
+   * consumed elements should be aggregated into a single value, by invoking the seed function on the first element,
+   * and the aggregate function on the value so far and each subsequent element. When there is demand, the aggregated
+   * value should be emitted, and the next element consumed should start a new aggregate.
+   * <p>
+   * When upstream completes, the stream should be completed once any aggregated value has been emitted. When upstream
+   * fails, the error should be emitted immediately, and the aggregated value discarded.
+   * <p>
+   * Any {@link RuntimeException} thrown by either function should be propagated down the stream as an error.
+   */
+  final class Conflate implements Inlet, Outlet {
+    private final Function<?, ?> seed;
+    private final BiFunction<?, ?, ?> aggregate;
+
+    public Conflate(Function<?, ?> seed, BiFunction<?, ?, ?> aggregate) {
+      this.seed = seed;
+      this.aggregate = aggregate;
+    }
+
+    /**
+     * The function that starts a new aggregate from an element.
+     *
+     * @return The seed function.
+     */
+    public Function<?, ?> getSeed() {
+      return seed;
+    }
+
+    /**
+     * The function that adds an element to an aggregate.
+     *
+     * @return The aggregate function.
+     */
+    public BiFunction<?, ?, ?> getAggregate() {
+      return aggregate;
+    }
+  }
+
+  /**
+   * An expand stage.
+   * <p>
+   * The extrapolate function should be invoked on each element consumed, and the elements of the iterator it returns
+   * emitted according to downstream demand. The next element should be requested from upstream once the first element
+   * of the current iterator has been emitted, and when it arrives, it should replace the current iterator, whether or
+   * not that has been exhausted. If the iterator is exhausted before the next element arrives, nothing more should be
+   * emitted until it does.
+   * <p>
+   * When upstream completes, the stream should be completed once the first element of the current iterator has been
+   * emitted. When upstream fails, the error should be emitted immediately.
+   * <p>
+   * Any {@link RuntimeException} thrown by the function or the iterator should be propagated down the stream as an
+   * error.
+   */
+  final class Expand implements Inlet, Outlet {
+    private final Function<?, ?> extrapolate;
+
+    public Expand(Function<?, ?> extrapolate) {
+      this.extrapolate = extrapolate;
+    }
+
+    /**
+     * The function that returns an iterator of elements to emit for each element consumed.
+     *
+     * @return The extrapolate function.
+     */
+    public Function<?, ?> getExtrapolate() {
+      return extrapolate;
+    }
+  }
+
+  /**
+   * An on backpressure drop stage.
+   * <p>
+   * Elements should be requested from upstream regardless of downstream demand. Elements consumed while there is
+   * demand should be emitted, and elements consumed while there is none should be passed to the drop callback and
+   * discarded.
+   * <p>
+   * Any {@link RuntimeException} thrown by the callback should be propagated down the stream as an error.
+   */
+  final class OnBackpressureDrop implements Inlet, Outlet {
+    private final Consumer<?> onDrop;
+
+    public OnBackpressureDrop(Consumer<?> onDrop) {
+      this.onDrop = onDrop;
+    }
+
+    /**
+     * The callback to invoke on each dropped element.
+     *
+     * @return The drop callback.
+     */
+    public Consumer<?> getOnDrop() {
+      return onDrop;
+    }
+  }
+
+  /**
+   * An on backpressure latest stage.
+   * <p>
+   * Elements should be requested from upstream regardless of downstream demand. While there is no demand, the latest
+   * element consumed should be held, replacing any element already held, which should be passed to the drop callback
+   * and discarded. When there is demand, the held element should be emitted.
+   * <p>
+   * When upstream completes, the stream should be completed once any held element has been emitted. When upstream
+   * fails, the error should be emitted immediately, and the held element discarded.
+   * <p>
+   * Any {@link RuntimeException} thrown by the callback should be propagated down the stream as an error.
+   */
+  final class OnBackpressureLatest implements Inlet, Outlet {
+    private final Consumer<?> onDrop;
+
+    public OnBackpressureLatest(Consumer<?> onDrop) {
+      this.onDrop = onDrop;
+    }
+
+    /**
+     * The callback to invoke on each dropped element.
+     *
+     * @return The drop callback.
+     */
+    public Consumer<?> getOnDrop() {
+      return onDrop;
+    }
+  }
+
+  /**
+   * A zip stage.
+   * <p>
+   * The other graph is guaranteed to have an outlet but no inlet, and should be subscribed to when this stage is
+   * subscribed to. Elements consumed from upstream should be paired up with elements consumed from the other graph by
+   * position, the zipper function invoked on each pair, and its output emitted.
+   * <p>
+   * No more than {@code bufferSize} elements that haven't yet been paired up should ever be requested from either
+   * upstream or the other graph, so that memory stays bounded however different their rates are.
+   * <p>
+   * When either upstream or the other graph completes, the stream should be completed once every element consumed from
+   * it has been paired up, and the other input cancelled. When either fails, the error should be emitted immediately,
+   * and the other input cancelled.
+   * <p>
+   * Any {@link RuntimeException} thrown by the function should be propagated down the stream as an error.
+   */
+  final class Zip implements Inlet, Outlet {
+    private final Graph other;
+    private final BiFunction<?, ?, ?> zipper;
+    private final int bufferSize;
+
+    public Zip(Graph other, BiFunction<?, ?, ?> zipper, int bufferSize) {
+      if (other.hasInlet() || !other.hasOutlet()) {
+        throw new IllegalArgumentException(
+            "Zipped graphs must have an outlet, but no inlet, but this graph does not: " + other);
+      }
+      this.other = other;
+      this.zipper = zipper;
+      this.bufferSize = bufferSize;
+    }
+
+    /**
+     * The graph to zip with.
+     *
+     * @return The other graph.
+     */
+    public Graph getOther() {
+      return other;
+    }
+
+    /**
+     * The function to combine each pair of elements.
+     *
+     * @return The zipper function.
+     */
+    public BiFunction<?, ?, ?> getZipper() {
+      return zipper;
+    }
+
+    /**
+     * The maximum number of elements to buffer from each input.
+     *
+     * @return The buffer size.
+     */
+    public int getBufferSize() {
+      return bufferSize;
+    }
+  }
+
+  /**
+   * An asynchronous boundary stage.
+   * <p>
+   * Elements consumed from upstream should be placed in a buffer holding at most {@code bufferSize} elements, and
+   * emitted to downstream by tasks run on the given {@link Executor}, so that the stages either side of the boundary
+   * may run concurrently. Upstream should initially be requested {@code bufferSize} elements, with demand replenished
+   * in batches as the buffer is drained, rather than one element at a time.
+   * <p>
+   * All signals to downstream, including completion and errors, should be emitted from the executor, and the engine
+   * must ensure that no more than one task is emitting to downstream at a time.
+   */
+  final class AsyncBoundary implements Inlet, Outlet {
+    private final Executor executor;
+    private final int bufferSize;
+
+    public AsyncBoundary(Executor executor, int bufferSize) {
+      this.executor = executor;
+      this.bufferSize = bufferSize;
+    }
+
+    /**
+     * The executor to emit elements to downstream from.
+     *
+     * @return The executor.
+     */
+    public Executor getExecutor() {
+      return executor;
+    }
+
+    /**
+     * The maximum number of elements to buffer.
+     *
+     * @return The buffer size.
+     */
+    public int getBufferSize() {
+      return bufferSize;
+    }
+  }
+
   /**
    * A publisher stage.
    * <p>
-   * The given publisher should be subscribed to whatever subscriber is provided to this graph, via any other subsequent
-   * stages.
+   * The given publisher should be subscribed to whatever subscriber is provided to this graph, via any other subsequent
+   * stages.
+   */
+  final class PublisherStage implements Outlet {
+    private final Publisher<?> publisher;
+
+    public PublisherStage(Publisher<?> publisher) {
+      this.publisher = publisher;
+    }
+
+    /**
+     * The publisher.
+     *
+     * @return The publisher.
+     */
+    public Publisher<?> getRsPublisher() {
+      return publisher;
+    }
+  }
+
+  /**
+   * A publisher of zero to many values.
+   * <p>
+   * When built, should produce a publisher that produces all the values (until cancelled) emitted by this iterables
+   * iterator, followed by completion of the stream.
+   * <p>
+   * Any exceptions thrown by the iterator must be propagated downstream.
+   */
+  final class Of implements Outlet {
+    private final Iterable<?> elements;
+
+    public Of(Iterable<?> elements) {
+      this.elements = elements;
+    }
+
+    /**
+     * The elements to emit.
+     *
+     * @return The elements to emit.
+     */
+    public Iterable<?> getElements() {
+      return elements;
+    }
+
+    public static final Of EMPTY = new Of(Collections.emptyList());
+  }
+
+  /**
+   * A publisher of a range of longs.
+   * <p>
+   * When built, should produce a publisher that emits {@code count} consecutive longs (until cancelled), starting from
+   * {@code start}, followed by completion of the stream. If count is zero, the stream should be completed immediately.
+   * <p>
+   * Since the elements are computed from a counter rather than supplied by user code, the engine is free to emit them
+   * in bulk, up to the outstanding demand, without any per element indirection.
+   */
+  final class Range implements Outlet {
+    private final long start;
+    private final long count;
+
+    public Range(long start, long count) {
+      this.start = start;
+      this.count = count;
+    }
+
+    /**
+     * The first element to emit.
+     *
+     * @return The first element to emit.
+     */
+    public long getStart() {
+      return start;
+    }
+
+    /**
+     * The number of elements to emit.
+     *
+     * @return The number of elements to emit.
+     */
+    public long getCount() {
+      return count;
+    }
+  }
+
+  /**
+   * A processor stage.
+   * <p>
+   * When built, should connect upstream of the graph to the inlet of this processor, and downstream to the outlet.
+   */
+  final class ProcessorStage implements Inlet, Outlet {
+    private final Processor<?, ?> processor;
+
+    public ProcessorStage(Processor<?, ?> processor) {
+      this.processor = processor;
+    }
+
+    /**
+     * The processor.
+     *
+     * @return The processor.
+     */
+    public Processor<?, ?> getRsProcessor() {
+      return processor;
+    }
+  }
+
+  /**
+   * A subscriber stage that emits the first element encountered.
+   * <p>
+   * When built, the {@link CompletionStage} should emit an {@link java.util.Optional} of the first
+   * element emitted. If no element is emitted before completion of the stream, it should emit an empty optional. Once
+   * the element has been emitted, the stream should be cancelled if not already complete.
+   * <p>
+   * If an error is emitted before the first element is encountered, the stream must redeem the completion stage with
+   * that error.
+   */
+  final class FindFirst implements Inlet {
+    private FindFirst() {
+    }
+
+    public static final FindFirst INSTANCE = new FindFirst();
+  }
+
+  /**
+   * A subscriber stage that counts the elements encountered.
+   * <p>
+   * When built, the {@link CompletionStage} should emit a {@link Long} of the number of elements emitted by the stream
+   * when it completes. The elements themselves need not be retained.
+   * <p>
+   * If an error is emitted, the stream must redeem the completion stage with that error.
+   */
+  final class Count implements Inlet {
+    private Count() {
+    }
+
+    public static final Count INSTANCE = new Count();
+  }
+
+  /**
+   * A subscriber.
+   * <p>
+   * When built, the {@link CompletionStage} should emit <code>null</code> when the stream
+   * completes normally, or an error if the stream terminates with an error.
+   * <p>
+   * Implementing this will typically require inserting a handler before the subscriber that listens for errors.
+   */
+  final class SubscriberStage implements Inlet {
+    private final Subscriber<?> subscriber;
+
+    public SubscriberStage(Subscriber<?> subscriber) {
+      this.subscriber = subscriber;
+    }
+
+    /**
+     * The subscriber.
+     *
+     * @return The subscriber.
+     */
+    public Subscriber<?> getRsSubscriber() {
+      return subscriber;
+    }
+  }
+
+  /**
+   * A collect stage.
+   * <p>
+   * This should use the collectors supplier to create an accumulated value, and then the accumulator BiConsumer should
+   * be used to accumulate the received elements in the value. Finally, the returned
+   * {@link CompletionStage} should be redeemed by value returned by the finisher function applied
+   * to the accumulated value when the stream terminates normally, or should be redeemed with an error if the stream
+   * terminates with an error.
+   * <p>
+   * If the collector throws an exception, the stream must be cancelled, and the
+   * {@link CompletionStage} must be redeemed with that error.
+   */
+  final class Collect implements Inlet {
+    private final Collector<?, ?, ?> collector;
+
+    public Collect(Collector<?, ?, ?> collector) {
+      this.collector = collector;
+    }
+
+    /**
+     * The collector.
+     *
+     * @return The collector.
+     */
+    public Collector<?, ?, ?> getCollector() {
+      return collector;
+    }
+  }
+
+  /**
+   * A flat map stage.
+   * <p>
+   * The flat map stage should execute the given mapper on each element, and concatenate the publishers emitted by
+   * the mapper function into the resulting stream.
+   * <p>
+   * The graph emitted by the mapper function is guaranteed to have an outlet but no inlet.
+   * <p>
+   * The engine must be careful to ensure only one publisher emitted by the mapper function is running at a time.
+   */
+  final class FlatMap implements Inlet, Outlet {
+    private final Function<?, Graph> mapper;
+
+    public FlatMap(Function<?, Graph> mapper) {
+      this.mapper = mapper;
+    }
+
+    /**
+     * The mapper function.
+     *
+     * @return The mapper function.
+     */
+    public Function<?, Graph> getMapper() {
+      return mapper;
+    }
+  }
+
+  /**
+   * A flat map stage that merges the publishers emitted by the mapper function.
+   * <p>
+   * The flat map merge stage should execute the given mapper on each element, and merge the elements of the publishers
+   * emitted by the mapper function into the resulting stream, in the order that they are emitted by those publishers.
+   * <p>
+   * The graph emitted by the mapper function is guaranteed to have an outlet but no inlet.
+   * <p>
+   * Up to {@code maxConcurrency} publishers emitted by the mapper function may be running at a time, a new element
+   * should only be consumed from upstream once there is capacity to run the publisher it's mapped to. The engine
+   * should request up to {@code prefetch} elements ahead from each running publisher.
+   * <p>
+   * If upstream, the mapper function, or any of the running publishers fail, all other running publishers and upstream
+   * must be cancelled, and the error propagated downstream.
+   */
+  final class FlatMapMerge implements Inlet, Outlet {
+    private final Function<?, Graph> mapper;
+    private final int maxConcurrency;
+    private final int prefetch;
+
+    public FlatMapMerge(Function<?, Graph> mapper, int maxConcurrency, int prefetch) {
+      this.mapper = mapper;
+      this.maxConcurrency = maxConcurrency;
+      this.prefetch = prefetch;
+    }
+
+    /**
+     * The mapper function.
+     *
+     * @return The mapper function.
+     */
+    public Function<?, Graph> getMapper() {
+      return mapper;
+    }
+
+    /**
+     * The maximum number of publishers emitted by the mapper function to run at a time.
+     *
+     * @return The maximum concurrency.
+     */
+    public int getMaxConcurrency() {
+      return maxConcurrency;
+    }
+
+    /**
+     * The number of elements to request ahead from each running publisher.
+     *
+     * @return The prefetch.
+     */
+    public int getPrefetch() {
+      return prefetch;
+    }
+  }
+
+  /**
+   * A flat map stage that emits and flattens {@link CompletionStage}.
+   * <p>
+   * The flat map stage should execute the given mapper on each element, and concatenate the values redeemed by the
+   * {@link CompletionStage}'s emitted by the mapper function into the resulting stream.
+   * <p>
+   * The engine must be careful to ensure only one mapper function is executed at a time, with the next mapper function
+   * not executing until the {@link CompletionStage} returned by the previous mapper function has been redeemed.
+   */
+  final class FlatMapCompletionStage implements Inlet, Outlet {
+    private final Function<?, CompletionStage<?>> mapper;
+
+    public FlatMapCompletionStage(Function<?, CompletionStage<?>> mapper) {
+      this.mapper = mapper;
+    }
+
+    /**
+     * The mapper function.
+     *
+     * @return The mapper function.
+     */
+    public Function<?, CompletionStage<?>> getMapper() {
+      return mapper;
+    }
+  }
+
+  /**
+   * A stage that maps elements to {@link CompletionStage}s, with up to {@code parallelism} of them outstanding at once.
+   * <p>
+   * The mapper function should be executed on each element consumed, with up to {@code parallelism} of the
+   * {@link CompletionStage}s it returns being unredeemed at any one time. If {@code ordered} is true, the values
+   * redeemed by the {@link CompletionStage}s must be emitted in the order that the elements were consumed, otherwise
+   * they should be emitted in the order that they are redeemed.
+   * <p>
+   * If the mapper function throws an exception, or any {@link CompletionStage} is redeemed with an error or with
+   * {@code null}, upstream must be cancelled and the error propagated downstream.
+   */
+  final class MapAsync implements Inlet, Outlet {
+    private final Function<?, CompletionStage<?>> mapper;
+    private final int parallelism;
+    private final boolean ordered;
+
+    public MapAsync(Function<?, CompletionStage<?>> mapper, int parallelism, boolean ordered) {
+      this.mapper = mapper;
+      this.parallelism = parallelism;
+      this.ordered = ordered;
+    }
+
+    /**
+     * The mapper function.
+     *
+     * @return The mapper function.
+     */
+    public Function<?, CompletionStage<?>> getMapper() {
+      return mapper;
+    }
+
+    /**
+     * The maximum number of unredeemed {@link CompletionStage}s.
+     *
+     * @return The parallelism.
+     */
+    public int getParallelism() {
+      return parallelism;
+    }
+
+    /**
+     * Whether the values should be emitted in the order that the elements were consumed.
+     *
+     * @return True if ordering should be maintained.
+     */
+    public boolean isOrdered() {
+      return ordered;
+    }
+  }
+
+  /**
+   * A stage that maps elements to {@link CompletionStage}s, concurrently for elements with different keys, but one at
+   * a time for elements with the same key.
+   * <p>
+   * The key function should be invoked on each element consumed. The mapper function should only be invoked on an
+   * element once the {@link CompletionStage} returned for the previous element with the same key has been redeemed,
+   * with up to {@code parallelism} {@link CompletionStage}s unredeemed at any one time across all keys. Elements
+   * waiting for their key should not hold up elements with other keys. The values redeemed should be emitted in the
+   * order that they are redeemed, which, for elements with the same key, is the order the elements were consumed. No
+   * more than {@code bufferSize} elements should be requested from upstream ahead of their values being emitted.
+   * <p>
+   * If the key or mapper function throws an exception, or returns {@code null}, or any {@link CompletionStage} is
+   * redeemed with an error or with {@code null}, upstream must be cancelled and the error propagated downstream.
+   */
+  final class MapAsyncPartitioned implements Inlet, Outlet {
+    private final Function<?, ?> key;
+    private final Function<?, CompletionStage<?>> mapper;
+    private final int parallelism;
+    private final int bufferSize;
+
+    public MapAsyncPartitioned(Function<?, ?> key, Function<?, CompletionStage<?>> mapper, int parallelism,
+        int bufferSize) {
+      this.key = key;
+      this.mapper = mapper;
+      this.parallelism = parallelism;
+      this.bufferSize = bufferSize;
+    }
+
+    /**
+     * The function that selects the key of each element.
+     *
+     * @return The key function.
+     */
+    public Function<?, ?> getKey() {
+      return key;
+    }
+
+    /**
+     * The mapper function.
+     *
+     * @return The mapper function.
+     */
+    public Function<?, CompletionStage<?>> getMapper() {
+      return mapper;
+    }
+
+    /**
+     * The maximum number of unredeemed {@link CompletionStage}s, across all keys.
+     *
+     * @return The parallelism.
+     */
+    public int getParallelism() {
+      return parallelism;
+    }
+
+    /**
+     * The maximum number of elements to request from upstream ahead of their values being emitted.
+     *
+     * @return The buffer size.
+     */
+    public int getBufferSize() {
+      return bufferSize;
+    }
+  }
+
+  /**
+   * A flat map stage that emits and fattens {@link Iterable}.
+   * <p>
+   * The flat map stage should execute the given mapper on each element, and concatenate the iterables emitted by
+   * the mapper function into the resulting stream.
+   */
+  final class FlatMapIterable implements Inlet, Outlet {
+    private final Function<?, Iterable<?>> mapper;
+
+    public FlatMapIterable(Function<?, Iterable<?>> mapper) {
+      this.mapper = mapper;
+    }
+
+    /**
+     * The mapper function.
+     *
+     * @return The mapper function.
+     */
+    public Function<?, Iterable<?>> getMapper() {
+      return mapper;
+    }
+  }
+
+  /**
+   * A failed publisher.
+   * <p>
+   * When built, this should produce a publisher that immediately fails the stream with the passed in error.
+   */
+  final class Failed implements Outlet {
+    private final Throwable error;
+
+    public Failed(Throwable error) {
+      this.error = error;
+    }
+
+    public Throwable getError() {
+      return error;
+    }
+  }
+
+  /**
+   * Concatenate the given graphs together.
+   * <p>
+   * Each graph must have an outlet and no inlet.
+   * <p>
+   * The resulting publisher produced by the concat stage must emit all the elements from the first graph,
+   * and once that graph emits a completion signal, it must then subscribe to and emit all the elements from
+   * the second. If an error is emitted by the either graph, the error should be emitted from the resulting stream.
+   * <p>
+   * If processing terminates early while the first graph is still emitting, either due to that graph emitting an
+   * error, or due to a cancellation signal from downstream, then the second graph must be subscribed to and cancelled.
+   * This is to ensure that any hot publishers that may be backing the graphs are cleaned up.
+   */
+  final class Concat implements Outlet {
+    private final Graph first;
+    private final Graph second;
+
+    public Concat(Graph first, Graph second) {
+      this.first = validate(first);
+      this.second = validate(second);
+    }
+
+    private static Graph validate(Graph graph) {
+      if (graph.hasInlet() || !graph.hasOutlet()) {
+        throw new IllegalArgumentException(
+            "Concatenated graphs must have an outlet, but no inlet, but this graph does not: " + graph);
+      }
+      return graph;
+    }
+
+    public Graph getFirst() {
+      return first;
+    }
+
+    public Graph getSecond() {
+      return second;
+    }
+  }
+
+  /**
+   * Concatenate any number of graphs together.
+   * <p>
+   * Each graph must have an outlet and no inlet.
+   * <p>
+   * This is the n-ary form of {@link Concat}. The resulting publisher must emit all the elements from each graph in
+   * turn, subscribing to the next graph once the previous one completes, and completing once the last one completes.
+   * Moving from one graph to the next should not consume any more stack, however many graphs there are, and however
+   * many of them complete synchronously. If an error is emitted by any graph, the error should be emitted from the
+   * resulting stream.
+   * <p>
+   * If processing terminates early, either due to a graph emitting an error, or due to a cancellation signal from
+   * downstream, then each graph that hasn't yet been subscribed to must be subscribed to and cancelled.
+   */
+  final class ConcatAll implements Outlet {
+    private final List<Graph> graphs;
+
+    public ConcatAll(List<Graph> graphs) {
+      for (Graph graph : graphs) {
+        if (graph.hasInlet() || !graph.hasOutlet()) {
+          throw new IllegalArgumentException(
+              "Concatenated graphs must have an outlet, but no inlet, but this graph does not: " + graph);
+        }
+      }
+      this.graphs = graphs;
+    }
+
+    /**
+     * The graphs to concatenate, in order.
+     *
+     * @return The graphs.
+     */
+    public List<Graph> getGraphs() {
+      return graphs;
+    }
+  }
+
+  /**
+   * Merge the given graphs together.
+   * <p>
+   * Each graph must have an outlet and no inlet.
+   * <p>
+   * The resulting publisher produced by the merge stage must subscribe to all the graphs straight away, and emit their
+   * elements as they arrive, interleaved in no particular order, requesting no more than {@code prefetch} elements
+   * from each graph that haven't yet been emitted. Once all the graphs have completed, the stream should be completed.
+   * <p>
+   * If any graph emits an error, the error should be emitted from the resulting stream, and the other graphs
+   * cancelled. If downstream cancels, all the graphs should be cancelled.
+   */
+  final class Merge implements Outlet {
+    private final List<Graph> graphs;
+    private final int prefetch;
+
+    public Merge(List<Graph> graphs, int prefetch) {
+      for (Graph graph : graphs) {
+        if (graph.hasInlet() || !graph.hasOutlet()) {
+          throw new IllegalArgumentException(
+              "Merged graphs must have an outlet, but no inlet, but this graph does not: " + graph);
+        }
+      }
+      this.graphs = graphs;
+      this.prefetch = prefetch;
+    }
+
+    /**
+     * The graphs to merge.
+     *
+     * @return The graphs.
+     */
+    public List<Graph> getGraphs() {
+      return graphs;
+    }
+
+    /**
+     * The maximum number of elements to request from each graph ahead of them being emitted.
+     *
+     * @return The prefetch.
+     */
+    public int getPrefetch() {
+      return prefetch;
+    }
+  }
+
+  /**
+   * A broadcast stage.
+   * <p>
+   * Each graph must have an inlet and no outlet.
+   * <p>
+   * Every element consumed from upstream should be emitted to all the graphs, each consuming at its own pace, with no
+   * more than {@code bufferSize} elements requested from upstream ahead of the slowest graph, so that the stream is
+   * only ever materialized once, however many graphs consume it. Completion and errors from upstream should be
+   * emitted to every graph that hasn't cancelled. Upstream should only be cancelled once all the graphs have
+   * cancelled.
+   * <p>
+   * The {@link CompletionStage} should be redeemed with a {@link List} of the results of the graphs, in the order they
+   * were given, once all of them have been redeemed, or with an error if any of them fails.
+   */
+  final class Broadcast implements Inlet {
+    private final List<Graph> graphs;
+    private final int bufferSize;
+
+    public Broadcast(List<Graph> graphs, int bufferSize) {
+      for (Graph graph : graphs) {
+        if (!graph.hasInlet() || graph.hasOutlet()) {
+          throw new IllegalArgumentException(
+              "Broadcast graphs must have an inlet, but no outlet, but this graph does not: " + graph);
+        }
+      }
+      this.graphs = graphs;
+      this.bufferSize = bufferSize;
+    }
+
+    /**
+     * The graphs to broadcast to.
+     *
+     * @return The graphs.
+     */
+    public List<Graph> getGraphs() {
+      return graphs;
+    }
+
+    /**
+     * The maximum number of elements to request from upstream ahead of the slowest graph.
+     *
+     * @return The buffer size.
+     */
+    public int getBufferSize() {
+      return bufferSize;
+    }
+  }
+
+  /**
+   * A balance stage.
+   * <p>
+   * The worker graph is guaranteed to have an inlet and an outlet, and should be materialized {@code workers} times.
+   * Each element consumed from upstream should be emitted to one of the workers that has outstanding demand, and the
+   * elements emitted by all the workers should be merged into the resulting stream, in no particular order. No more
+   * than {@code bufferSize} elements should be requested from upstream ahead of being emitted to a worker.
+   * <p>
+   * Once upstream completes, each worker should be completed once every element has been emitted to a worker, and the
+   * stream should be completed once all the workers have completed. If upstream or any worker fails, the error should
+   * be emitted from the resulting stream, and all the workers cancelled. Upstream should be cancelled once all the
+   * workers have cancelled.
+   */
+  final class Balance implements Inlet, Outlet {
+    private final Graph worker;
+    private final int workers;
+    private final int bufferSize;
+
+    public Balance(Graph worker, int workers, int bufferSize) {
+      if (!worker.hasInlet() || !worker.hasOutlet()) {
+        throw new IllegalArgumentException(
+            "Worker graphs must have an inlet and an outlet, but this graph does not: " + worker);
+      }
+      this.worker = worker;
+      this.workers = workers;
+      this.bufferSize = bufferSize;
+    }
+
+    /**
+     * The graph to materialize for each worker.
+     *
+     * @return The worker graph.
+     */
+    public Graph getWorker() {
+      return worker;
+    }
+
+    /**
+     * The number of workers to materialize.
+     *
+     * @return The number of workers.
+     */
+    public int getWorkers() {
+      return workers;
+    }
+
+    /**
+     * The maximum number of elements to request from upstream ahead of them being emitted to a worker.
+     *
+     * @return The buffer size.
+     */
+    public int getBufferSize() {
+      return bufferSize;
+    }
+  }
+
+  /**
+   * A partition stage.
+   * <p>
+   * The worker graph is guaranteed to have an inlet and an outlet, and should be materialized {@code partitions}
+   * times. Each element consumed from upstream should be emitted to the worker at the index returned by the
+   * partitioner, modulo the number of partitions, so that all elements with the same partition are processed by the
+   * same worker, in order. The elements emitted by all the workers should be merged into the resulting stream, in no
+   * particular order. No more than {@code bufferSize} elements should be requested from upstream ahead of being
+   * emitted to a worker, in total across all the workers.
+   * <p>
+   * Termination should be handled as for the {@link Balance} stage. Elements for a worker that has cancelled should be
+   * dropped. Any {@link RuntimeException} thrown by the partitioner should be propagated down the stream as an error,
+   * and upstream cancelled.
+   */
+  final class Partition implements Inlet, Outlet {
+    private final Graph worker;
+    private final int partitions;
+    private final ToIntFunction<?> partitioner;
+    private final int bufferSize;
+
+    public Partition(Graph worker, int partitions, ToIntFunction<?> partitioner, int bufferSize) {
+      if (!worker.hasInlet() || !worker.hasOutlet()) {
+        throw new IllegalArgumentException(
+            "Worker graphs must have an inlet and an outlet, but this graph does not: " + worker);
+      }
+      this.worker = worker;
+      this.partitions = partitions;
+      this.partitioner = partitioner;
+      this.bufferSize = bufferSize;
+    }
+
+    /**
+     * The graph to materialize for each partition.
+     *
+     * @return The worker graph.
+     */
+    public Graph getWorker() {
+      return worker;
+    }
+
+    /**
+     * The number of partitions, and so workers, to materialize.
+     *
+     * @return The number of partitions.
+     */
+    public int getPartitions() {
+      return partitions;
+    }
+
+    /**
+     * The function that selects the partition of each element.
+     *
+     * @return The partitioner.
+     */
+    public ToIntFunction<?> getPartitioner() {
+      return partitioner;
+    }
+
+    /**
+     * The maximum number of elements to request from upstream ahead of them being emitted to a worker.
+     *
+     * @return The buffer size.
+     */
+    public int getBufferSize() {
+      return bufferSize;
+    }
+  }
+
+  final class Cancel implements Inlet {
+    private Cancel() {
+    }
+
+    public final static Cancel INSTANCE = new Cancel();
+  }
+
+  /**
+   * A publisher of the elements of an int array.
+   * <p>
+   * When built, should produce a publisher that emits all the elements of the array (until cancelled), followed by
+   * completion of the stream.
+   * <p>
+   * This is the int specialization of {@link Of}. Elements are emitted as {@link Integer} when signalled through
+   * Reactive Streams, but an engine that evaluates a chain of int stages directly may avoid boxing them.
+   */
+  final class OfInts implements Outlet {
+    private final int[] elements;
+
+    public OfInts(int[] elements) {
+      this.elements = elements;
+    }
+
+    /**
+     * The elements to emit.
+     *
+     * @return The elements to emit.
+     */
+    public int[] getElements() {
+      return elements;
+    }
+  }
+
+  /**
+   * A map stage that maps elements to ints.
+   * <p>
+   * The given mapper function should be invoked on each element consumed, and the int returned by the function
+   * should be emitted.
+   * <p>
+   * Any {@link RuntimeException} thrown by the function should be propagated down the stream as an error.
+   */
+  final class MapToInt implements Inlet, Outlet {
+    private final ToIntFunction<?> mapper;
+
+    public MapToInt(ToIntFunction<?> mapper) {
+      this.mapper = mapper;
+    }
+
+    /**
+     * The mapper function.
+     *
+     * @return The mapper function.
+     */
+    public ToIntFunction<?> getMapper() {
+      return mapper;
+    }
+  }
+
+  /**
+   * A map stage over ints.
+   * <p>
+   * This is the int specialization of {@link Map}.
+   * <p>
+   * Any {@link RuntimeException} thrown by the function should be propagated down the stream as an error.
+   */
+  final class IntMap implements Inlet, Outlet {
+    private final IntUnaryOperator mapper;
+
+    public IntMap(IntUnaryOperator mapper) {
+      this.mapper = mapper;
+    }
+
+    /**
+     * The mapper function.
+     *
+     * @return The mapper function.
+     */
+    public IntUnaryOperator getMapper() {
+      return mapper;
+    }
+  }
+
+  /**
+   * A filter stage over ints.
+   * <p>
+   * This is the int specialization of {@link Filter}. The predicate is invoked on each element consumed, if it
+   * returns true, the element should be emitted.
+   * <p>
+   * Any {@link RuntimeException} thrown by the predicate should be propagated down the stream as an error.
+   */
+  final class IntFilter implements Inlet, Outlet {
+    private final IntPredicate predicate;
+
+    public IntFilter(IntPredicate predicate) {
+      this.predicate = predicate;
+    }
+
+    /**
+     * The predicate.
+     *
+     * @return The predicate.
+     */
+    public IntPredicate getPredicate() {
+      return predicate;
+    }
+  }
+
+  /**
+   * A map stage that maps ints to objects.
+   * <p>
+   * The given mapper function should be invoked on each element consumed, and the output of the function should be
+   * emitted.
+   * <p>
+   * Any {@link RuntimeException} thrown by the function should be propagated down the stream as an error.
+   */
+  final class IntMapToObj implements Inlet, Outlet {
+    private final IntFunction<?> mapper;
+
+    public IntMapToObj(IntFunction<?> mapper) {
+      this.mapper = mapper;
+    }
+
+    /**
+     * The mapper function.
+     *
+     * @return The mapper function.
+     */
+    public IntFunction<?> getMapper() {
+      return mapper;
+    }
+  }
+
+  /**
+   * A collect stage over ints.
+   * <p>
+   * This is the int specialization of {@link Collect}. The supplier should be used to create a result container,
+   * and then the accumulator should be used to accumulate the received elements in the container. Finally, the
+   * returned {@link CompletionStage} should be redeemed by the value returned by the finisher function applied to
+   * the container.
+   * <p>
+   * If any of the functions throw an exception, the stream must be cancelled, and the {@link CompletionStage} must
+   * be redeemed with that error.
+   */
+  final class IntCollect implements Inlet {
+    private final Supplier<?> supplier;
+    private final ObjIntConsumer<?> accumulator;
+    private final Function<?, ?> finisher;
+
+    public IntCollect(Supplier<?> supplier, ObjIntConsumer<?> accumulator, Function<?, ?> finisher) {
+      this.supplier = supplier;
+      this.accumulator = accumulator;
+      this.finisher = finisher;
+    }
+
+    /**
+     * The supplier of the result container.
+     *
+     * @return The supplier.
+     */
+    public Supplier<?> getSupplier() {
+      return supplier;
+    }
+
+    /**
+     * The accumulator.
+     *
+     * @return The accumulator.
+     */
+    public ObjIntConsumer<?> getAccumulator() {
+      return accumulator;
+    }
+
+    /**
+     * The finisher.
+     *
+     * @return The finisher.
+     */
+    public Function<?, ?> getFinisher() {
+      return finisher;
+    }
+  }
+
+  /**
+   * A publisher of the elements of a long array.
+   * <p>
+   * When built, should produce a publisher that emits all the elements of the array (until cancelled), followed by
+   * completion of the stream.
+   * <p>
+   * This is the long specialization of {@link Of}. Elements are emitted as {@link Long} when signalled through
+   * Reactive Streams, but an engine that evaluates a chain of long stages directly may avoid boxing them.
+   */
+  final class OfLongs implements Outlet {
+    private final long[] elements;
+
+    public OfLongs(long[] elements) {
+      this.elements = elements;
+    }
+
+    /**
+     * The elements to emit.
+     *
+     * @return The elements to emit.
+     */
+    public long[] getElements() {
+      return elements;
+    }
+  }
+
+  /**
+   * A map stage that maps elements to longs.
+   * <p>
+   * The given mapper function should be invoked on each element consumed, and the long returned by the function
+   * should be emitted.
+   * <p>
+   * Any {@link RuntimeException} thrown by the function should be propagated down the stream as an error.
    */
-  final class PublisherStage implements Outlet {
-    private final Publisher<?> publisher;
+  final class MapToLong implements Inlet, Outlet {
+    private final ToLongFunction<?> mapper;
 
-    public PublisherStage(Publisher<?> publisher) {
-      this.publisher = publisher;
+    public MapToLong(ToLongFunction<?> mapper) {
+      this.mapper = mapper;
     }
 
     /**
-     * The publisher.
+     * The mapper function.
      *
-     * @return The publisher.
+     * @return The mapper function.
      */
-    public Publisher<?> getRsPublisher() {
-      return publisher;
+    public ToLongFunction<?> getMapper() {
+      return mapper;
     }
   }
 
   /**
-   * A publisher of zero to many values.
+   * A map stage over longs.
    * <p>
-   * When built, should produce a publisher that produces all the values (until cancelled) emitted by this iterables
-   * iterator, followed by completion of the stream.
+   * This is the long specialization of {@link Map}.
    * <p>
-   * Any exceptions thrown by the iterator must be propagated downstream.
+   * Any {@link RuntimeException} thrown by the function should be propagated down the stream as an error.
    */
-  final class Of implements Outlet {
-    private final Iterable<?> elements;
+  final class LongMap implements Inlet, Outlet {
+    private final LongUnaryOperator mapper;
 
-    public Of(Iterable<?> elements) {
-      this.elements = elements;
+    public LongMap(LongUnaryOperator mapper) {
+      this.mapper = mapper;
     }
 
     /**
-     * The elements to emit.
+     * The mapper function.
      *
-     * @return The elements to emit.
+     * @return The mapper function.
      */
-    public Iterable<?> getElements() {
-      return elements;
+    public LongUnaryOperator getMapper() {
+      return mapper;
     }
-
-    public static final Of EMPTY = new Of(Collections.emptyList());
   }
 
   /**
-   * A processor stage.
+   * A filter stage over longs.
    * <p>
-   * When built, should connect upstream of the graph to the inlet of this processor, and downstream to the outlet.
+   * This is the long specialization of {@link Filter}. The predicate is invoked on each element consumed, if it
+   * returns true, the element should be emitted.
+   * <p>
+   * Any {@link RuntimeException} thrown by the predicate should be propagated down the stream as an error.
    */
-  final class ProcessorStage implements Inlet, Outlet {
-    private final Processor<?, ?> processor;
+  final class LongFilter implements Inlet, Outlet {
+    private final LongPredicate predicate;
 
-    public ProcessorStage(Processor<?, ?> processor) {
-      this.processor = processor;
+    public LongFilter(LongPredicate predicate) {
+      this.predicate = predicate;
     }
 
     /**
-     * The processor.
+     * The predicate.
      *
-     * @return The processor.
+     * @return The predicate.
      */
-    public Processor<?, ?> getRsProcessor() {
-      return processor;
+    public LongPredicate getPredicate() {
+      return predicate;
     }
   }
 
   /**
-   * A subscriber stage that emits the first element encountered.
+   * A map stage that maps longs to objects.
    * <p>
-   * When built, the {@link CompletionStage} should emit an {@link java.util.Optional} of the first
-   * element emitted. If no element is emitted before completion of the stream, it should emit an empty optional. Once
-   * the element has been emitted, the stream should be cancelled if not already complete.
+   * The given mapper function should be invoked on each element consumed, and the output of the function should be
+   * emitted.
    * <p>
-   * If an error is emitted before the first element is encountered, the stream must redeem the completion stage with
-   * that error.
+   * Any {@link RuntimeException} thrown by the function should be propagated down the stream as an error.
    */
-  final class FindFirst implements Inlet {
-    private FindFirst() {
+  final class LongMapToObj implements Inlet, Outlet {
+    private final LongFunction<?> mapper;
+
+    public LongMapToObj(LongFunction<?> mapper) {
+      this.mapper = mapper;
     }
 
-    public static final FindFirst INSTANCE = new FindFirst();
+    /**
+     * The mapper function.
+     *
+     * @return The mapper function.
+     */
+    public LongFunction<?> getMapper() {
+      return mapper;
+    }
   }
 
   /**
-   * A subscriber.
+   * A collect stage over longs.
    * <p>
-   * When built, the {@link CompletionStage} should emit <code>null</code> when the stream
-   * completes normally, or an error if the stream terminates with an error.
+   * This is the long specialization of {@link Collect}. The supplier should be used to create a result container,
+   * and then the accumulator should be used to accumulate the received elements in the container. Finally, the
+   * returned {@link CompletionStage} should be redeemed by the value returned by the finisher function applied to
+   * the container.
    * <p>
-   * Implementing this will typically require inserting a handler before the subscriber that listens for errors.
+   * If any of the functions throw an exception, the stream must be cancelled, and the {@link CompletionStage} must
+   * be redeemed with that error.
    */
-  final class SubscriberStage implements Inlet {
-    private final Subscriber<?> subscriber;
+  final class LongCollect implements Inlet {
+    private final Supplier<?> supplier;
+    private final ObjLongConsumer<?> accumulator;
+    private final Function<?, ?> finisher;
 
-    public SubscriberStage(Subscriber<?> subscriber) {
-      this.subscriber = subscriber;
+    public LongCollect(Supplier<?> supplier, ObjLongConsumer<?> accumulator, Function<?, ?> finisher) {
+      this.supplier = supplier;
+      this.accumulator = accumulator;
+      this.finisher = finisher;
     }
 
     /**
-     * The subscriber.
+     * The supplier of the result container.
      *
-     * @return The subscriber.
+     * @return The supplier.
      */
-    public Subscriber<?> getRsSubscriber() {
-      return subscriber;
+    public Supplier<?> getSupplier() {
+      return supplier;
+    }
+
+    /**
+     * The accumulator.
+     *
+     * @return The accumulator.
+     */
+    public ObjLongConsumer<?> getAccumulator() {
+      return accumulator;
+    }
+
+    /**
+     * The finisher.
+     *
+     * @return The finisher.
+     */
+    public Function<?, ?> getFinisher() {
+      return finisher;
     }
   }
 
   /**
-   * A collect stage.
+   * A publisher of the elements of a double array.
    * <p>
-   * This should use the collectors supplier to create an accumulated value, and then the accumulator BiConsumer should
-   * be used to accumulate the received elements in the value. Finally, the returned
-   * {@link CompletionStage} should be redeemed by value returned by the finisher function applied
-   * to the accumulated value when the stream terminates normally, or should be redeemed with an error if the stream
-   * terminates with an error.
+   * When built, should produce a publisher that emits all the elements of the array (until cancelled), followed by
+   * completion of the stream.
    * <p>
-   * If the collector throws an exception, the stream must be cancelled, and the
-   * {@link CompletionStage} must be redeemed with that error.
+   * This is the double specialization of {@link Of}. Elements are emitted as {@link Double} when signalled through
+   * Reactive Streams, but an engine that evaluates a chain of double stages directly may avoid boxing them.
    */
-  final class Collect implements Inlet {
-    private final Collector<?, ?, ?> collector;
+  final class OfDoubles implements Outlet {
+    private final double[] elements;
 
-    public Collect(Collector<?, ?, ?> collector) {
-      this.collector = collector;
+    public OfDoubles(double[] elements) {
+      this.elements = elements;
     }
 
     /**
-     * The collector.
+     * The elements to emit.
      *
-     * @return The collector.
+     * @return The elements to emit.
      */
-    public Collector<?, ?, ?> getCollector() {
-      return collector;
+    public double[] getElements() {
+      return elements;
     }
   }
 
   /**
-   * A flat map stage.
-   * <p>
-   * The flat map stage should execute the given mapper on each element, and concatenate the publishers emitted by
-   * the mapper function into the resulting stream.
+   * A map stage that maps elements to doubles.
    * <p>
-   * The graph emitted by the mapper function is guaranteed to have an outlet but no inlet.
+   * The given mapper function should be invoked on each element consumed, and the double returned by the function
+   * should be emitted.
    * <p>
-   * The engine must be careful to ensure only one publisher emitted by the mapper function is running at a time.
+   * Any {@link RuntimeException} thrown by the function should be propagated down the stream as an error.
    */
-  final class FlatMap implements Inlet, Outlet {
-    private final Function<?, Graph> mapper;
+  final class MapToDouble implements Inlet, Outlet {
+    private final ToDoubleFunction<?> mapper;
 
-    public FlatMap(Function<?, Graph> mapper) {
+    public MapToDouble(ToDoubleFunction<?> mapper) {
       this.mapper = mapper;
     }
 
@@ -329,24 +1847,22 @@ public interface Stage {
      *
      * @return The mapper function.
      */
-    public Function<?, Graph> getMapper() {
+    public ToDoubleFunction<?> getMapper() {
       return mapper;
     }
   }
 
   /**
-   * A flat map stage that emits and flattens {@link CompletionStage}.
+   * A map stage over doubles.
    * <p>
-   * The flat map stage should execute the given mapper on each element, and concatenate the values redeemed by the
-   * {@link CompletionStage}'s emitted by the mapper function into the resulting stream.
+   * This is the double specialization of {@link Map}.
    * <p>
-   * The engine must be careful to ensure only one mapper function is executed at a time, with the next mapper function
-   * not executing until the {@link CompletionStage} returned by the previous mapper function has been redeemed.
+   * Any {@link RuntimeException} thrown by the function should be propagated down the stream as an error.
    */
-  final class FlatMapCompletionStage implements Inlet, Outlet {
-    private final Function<?, CompletionStage<?>> mapper;
+  final class DoubleMap implements Inlet, Outlet {
+    private final DoubleUnaryOperator mapper;
 
-    public FlatMapCompletionStage(Function<?, CompletionStage<?>> mapper) {
+    public DoubleMap(DoubleUnaryOperator mapper) {
       this.mapper = mapper;
     }
 
@@ -355,21 +1871,48 @@ public interface Stage {
      *
      * @return The mapper function.
      */
-    public Function<?, CompletionStage<?>> getMapper() {
+    public DoubleUnaryOperator getMapper() {
       return mapper;
     }
   }
 
   /**
-   * A flat map stage that emits and fattens {@link Iterable}.
+   * A filter stage over doubles.
    * <p>
-   * The flat map stage should execute the given mapper on each element, and concatenate the iterables emitted by
-   * the mapper function into the resulting stream.
+   * This is the double specialization of {@link Filter}. The predicate is invoked on each element consumed, if it
+   * returns true, the element should be emitted.
+   * <p>
+   * Any {@link RuntimeException} thrown by the predicate should be propagated down the stream as an error.
    */
-  final class FlatMapIterable implements Inlet, Outlet {
-    private final Function<?, Iterable<?>> mapper;
+  final class DoubleFilter implements Inlet, Outlet {
+    private final DoublePredicate predicate;
 
-    public FlatMapIterable(Function<?, Iterable<?>> mapper) {
+    public DoubleFilter(DoublePredicate predicate) {
+      this.predicate = predicate;
+    }
+
+    /**
+     * The predicate.
+     *
+     * @return The predicate.
+     */
+    public DoublePredicate getPredicate() {
+      return predicate;
+    }
+  }
+
+  /**
+   * A map stage that maps doubles to objects.
+   * <p>
+   * The given mapper function should be invoked on each element consumed, and the output of the function should be
+   * emitted.
+   * <p>
+   * Any {@link RuntimeException} thrown by the function should be propagated down the stream as an error.
+   */
+  final class DoubleMapToObj implements Inlet, Outlet {
+    private final DoubleFunction<?> mapper;
+
+    public DoubleMapToObj(DoubleFunction<?> mapper) {
       this.mapper = mapper;
     }
 
@@ -378,71 +1921,169 @@ public interface Stage {
      *
      * @return The mapper function.
      */
-    public Function<?, Iterable<?>> getMapper() {
+    public DoubleFunction<?> getMapper() {
       return mapper;
     }
   }
 
   /**
-   * A failed publisher.
+   * A collect stage over doubles.
    * <p>
-   * When built, this should produce a publisher that immediately fails the stream with the passed in error.
+   * This is the double specialization of {@link Collect}. The supplier should be used to create a result container,
+   * and then the accumulator should be used to accumulate the received elements in the container. Finally, the
+   * returned {@link CompletionStage} should be redeemed by the value returned by the finisher function applied to
+   * the container.
+   * <p>
+   * If any of the functions throw an exception, the stream must be cancelled, and the {@link CompletionStage} must
+   * be redeemed with that error.
    */
-  final class Failed implements Outlet {
-    private final Throwable error;
+  final class DoubleCollect implements Inlet {
+    private final Supplier<?> supplier;
+    private final ObjDoubleConsumer<?> accumulator;
+    private final Function<?, ?> finisher;
 
-    public Failed(Throwable error) {
-      this.error = error;
+    public DoubleCollect(Supplier<?> supplier, ObjDoubleConsumer<?> accumulator, Function<?, ?> finisher) {
+      this.supplier = supplier;
+      this.accumulator = accumulator;
+      this.finisher = finisher;
     }
 
-    public Throwable getError() {
-      return error;
+    /**
+     * The supplier of the result container.
+     *
+     * @return The supplier.
+     */
+    public Supplier<?> getSupplier() {
+      return supplier;
+    }
+
+    /**
+     * The accumulator.
+     *
+     * @return The accumulator.
+     */
+    public ObjDoubleConsumer<?> getAccumulator() {
+      return accumulator;
+    }
+
+    /**
+     * The finisher.
+     *
+     * @return The finisher.
+     */
+    public Function<?, ?> getFinisher() {
+      return finisher;
     }
   }
 
   /**
-   * Concatenate the given graphs together.
-   * <p>
-   * Each graph must have an outlet and no inlet.
+   * A statistic computed by a primitive statistics stage.
+   */
+  enum Statistic {
+    /**
+     * The sum of the elements, emitted as the boxed type of the elements. The sum of no elements is zero.
+     */
+    SUM,
+    /**
+     * The minimum element, emitted as an {@link java.util.OptionalInt}, {@link java.util.OptionalLong} or
+     * {@link java.util.OptionalDouble}, which is empty if there are no elements.
+     */
+    MIN,
+    /**
+     * The maximum element, emitted as an {@link java.util.OptionalInt}, {@link java.util.OptionalLong} or
+     * {@link java.util.OptionalDouble}, which is empty if there are no elements.
+     */
+    MAX,
+    /**
+     * The arithmetic mean of the elements, emitted as an {@link java.util.OptionalDouble}, which is empty if there are
+     * no elements.
+     */
+    AVERAGE,
+    /**
+     * All of the above along with the count, emitted as an {@link java.util.IntSummaryStatistics},
+     * {@link java.util.LongSummaryStatistics} or {@link java.util.DoubleSummaryStatistics}.
+     */
+    SUMMARY
+  }
+
+  /**
+   * A subscriber stage that computes a statistic over ints.
    * <p>
-   * The resulting publisher produced by the concat stage must emit all the elements from the first graph,
-   * and once that graph emits a completion signal, it must then subscribe to and emit all the elements from
-   * the second. If an error is emitted by the either graph, the error should be emitted from the resulting stream.
+   * When built, the {@link CompletionStage} should emit the statistic, as documented on {@link Statistic}, when the
+   * stream completes. The results must be the same as those of the equivalent {@link java.util.stream.IntStream}
+   * operation. The engine is expected to accumulate the statistic in primitive fields, without retaining the
+   * elements.
    * <p>
-   * If processing terminates early while the first graph is still emitting, either due to that graph emitting an
-   * error, or due to a cancellation signal from downstream, then the second graph must be subscribed to and cancelled.
-   * This is to ensure that any hot publishers that may be backing the graphs are cleaned up.
+   * If an error is emitted, the stream must redeem the completion stage with that error.
    */
-  final class Concat implements Outlet {
-    private final Graph first;
-    private final Graph second;
+  final class IntStatistics implements Inlet {
+    private final Statistic statistic;
 
-    public Concat(Graph first, Graph second) {
-      this.first = validate(first);
-      this.second = validate(second);
+    public IntStatistics(Statistic statistic) {
+      this.statistic = statistic;
     }
 
-    private static Graph validate(Graph graph) {
-      if (graph.hasInlet() || !graph.hasOutlet()) {
-        throw new IllegalArgumentException(
-            "Concatenated graphs must have an outlet, but no inlet, but this graph does not: " + graph);
-      }
-      return graph;
+    /**
+     * The statistic to compute.
+     *
+     * @return The statistic.
+     */
+    public Statistic getStatistic() {
+      return statistic;
     }
+  }
 
-    public Graph getFirst() {
-      return first;
+  /**
+   * A subscriber stage that computes a statistic over longs.
+   * <p>
+   * When built, the {@link CompletionStage} should emit the statistic, as documented on {@link Statistic}, when the
+   * stream completes. The results must be the same as those of the equivalent {@link java.util.stream.LongStream}
+   * operation. The engine is expected to accumulate the statistic in primitive fields, without retaining the
+   * elements.
+   * <p>
+   * If an error is emitted, the stream must redeem the completion stage with that error.
+   */
+  final class LongStatistics implements Inlet {
+    private final Statistic statistic;
+
+    public LongStatistics(Statistic statistic) {
+      this.statistic = statistic;
     }
 
-    public Graph getSecond() {
-      return second;
+    /**
+     * The statistic to compute.
+     *
+     * @return The statistic.
+     */
+    public Statistic getStatistic() {
+      return statistic;
     }
   }
 
-  final class Cancel implements Inlet {
-    private Cancel() {
+  /**
+   * A subscriber stage that computes a statistic over doubles.
+   * <p>
+   * When built, the {@link CompletionStage} should emit the statistic, as documented on {@link Statistic}, when the
+   * stream completes. The results must be the same as those of the equivalent {@link java.util.stream.DoubleStream}
+   * operation. The engine is expected to accumulate the statistic in primitive fields, without retaining the
+   * elements.
+   * <p>
+   * If an error is emitted, the stream must redeem the completion stage with that error.
+   */
+  final class DoubleStatistics implements Inlet {
+    private final Statistic statistic;
+
+    public DoubleStatistics(Statistic statistic) {
+      this.statistic = statistic;
     }
 
-    public final static Cancel INSTANCE = new Cancel();
+    /**
+     * The statistic to compute.
+     *
+     * @return The statistic.
+     */
+    public Statistic getStatistic() {
+      return statistic;
+    }
   }
 }
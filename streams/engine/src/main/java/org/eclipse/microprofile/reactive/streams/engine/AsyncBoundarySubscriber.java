@@ -0,0 +1,268 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implementation of the {@link org.eclipse.microprofile.reactive.streams.spi.Stage.AsyncBoundary} stage.
+ * <p>
+ * Upstream is initially requested {@code bufferSize} elements, which are placed in a single producer single consumer
+ * queue as they arrive. Every signal schedules a drain task on the executor, unless one is already scheduled or
+ * running, and the drain task emits to downstream. Each time three quarters of the buffer has been emitted, upstream
+ * is requested that many more elements, so demand crosses the boundary in batches rather than one element at a time.
+ * <p>
+ * Those requests are made by a separate task on the executor, rather than by the drain task, since a synchronous
+ * upstream emits from within {@code request}. Were the drain task to request, upstream would take turns with
+ * downstream on the drain task's thread, rather than refilling the queue while downstream empties it.
+ * <p>
+ * Errors from upstream are emitted as soon as the drain task sees them, discarding any elements still buffered.
+ */
+@SuppressWarnings("serial")
+final class AsyncBoundarySubscriber<T> extends AtomicInteger implements Subscriber<T>, Subscription, Runnable {
+
+  private final Subscriber<? super T> downstream;
+  private final Executor executor;
+  private final int bufferSize;
+  private final int limit;
+  private final SpscArrayQueue<T> queue;
+  private final AtomicLong requested = new AtomicLong();
+  /**
+   * The number of elements to be requested from upstream by the request task, and the count of work for that task,
+   * so only one request task runs at a time.
+   */
+  private final AtomicLong replenish = new AtomicLong();
+  private final Runnable requestTask = this::requestUpstream;
+  private Subscription upstream;
+  private volatile boolean upstreamDone;
+  private volatile Throwable error;
+  private volatile boolean cancelled;
+  private volatile Throwable invalidRequest;
+  /**
+   * The number of elements emitted since upstream was last requested more, only accessed by the drain task.
+   */
+  private int consumed;
+
+  AsyncBoundarySubscriber(Subscriber<? super T> downstream, Executor executor, int bufferSize) {
+    this.downstream = downstream;
+    this.executor = executor;
+    this.bufferSize = bufferSize;
+    this.limit = bufferSize - (bufferSize >> 2);
+    this.queue = new SpscArrayQueue<>(bufferSize);
+  }
+
+  @Override
+  public void onSubscribe(Subscription subscription) {
+    Objects.requireNonNull(subscription, "Subscription must not be null");
+    if (upstream != null) {
+      subscription.cancel();
+    }
+    else {
+      upstream = subscription;
+      downstream.onSubscribe(this);
+      subscription.request(bufferSize);
+    }
+  }
+
+  @Override
+  public void onNext(T element) {
+    Objects.requireNonNull(element, "Element must not be null");
+    if (upstreamDone) {
+      return;
+    }
+    if (!queue.offer(element)) {
+      error = new IllegalStateException("Upstream emitted more elements than were requested, see rule 1.1");
+      upstreamDone = true;
+      upstream.cancel();
+    }
+    schedule();
+  }
+
+  @Override
+  public void onError(Throwable error) {
+    Objects.requireNonNull(error, "Error must not be null");
+    if (!upstreamDone) {
+      this.error = error;
+      upstreamDone = true;
+      schedule();
+    }
+  }
+
+  @Override
+  public void onComplete() {
+    if (!upstreamDone) {
+      upstreamDone = true;
+      schedule();
+    }
+  }
+
+  @Override
+  public void request(long n) {
+    if (n <= 0) {
+      invalidRequest = Subscriptions.nonPositiveRequest(n);
+    }
+    else {
+      Subscriptions.add(requested, n);
+    }
+    schedule();
+  }
+
+  @Override
+  public void cancel() {
+    cancelled = true;
+    upstream.cancel();
+    // The buffer can only be cleared by whoever holds the drain, if the drain task is running it will clear it
+    if (getAndIncrement() == 0) {
+      queue.clear();
+    }
+  }
+
+  private void schedule() {
+    if (getAndIncrement() == 0) {
+      try {
+        executor.execute(this);
+      }
+      catch (RejectedExecutionException e) {
+        // The drain is never released, since nothing can be emitted to downstream without the executor
+        cancelled = true;
+        queue.clear();
+        if (!upstreamDone) {
+          upstream.cancel();
+        }
+        downstream.onError(e);
+      }
+    }
+  }
+
+  @Override
+  public void run() {
+    int missed = 1;
+    for (;;) {
+      long requested = this.requested.get();
+      long emitted = 0;
+      while (emitted != requested) {
+        boolean done = upstreamDone;
+        T element = queue.poll();
+        if (isTerminated(done, element == null)) {
+          return;
+        }
+        if (element == null) {
+          break;
+        }
+        downstream.onNext(element);
+        emitted++;
+        if (++consumed == limit) {
+          consumed = 0;
+          if (!replenish(limit)) {
+            return;
+          }
+        }
+      }
+      if (emitted == requested && isTerminated(upstreamDone, queue.isEmpty())) {
+        return;
+      }
+      if (emitted != 0) {
+        Subscriptions.produced(this.requested, emitted);
+      }
+
+      missed = addAndGet(-missed);
+      if (missed == 0) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Hand a request for more from upstream to the request task, only called by the drain task.
+   *
+   * @return Whether the stream is still running, it is failed if the executor rejects the request task.
+   */
+  private boolean replenish(long n) {
+    if (replenish.getAndAdd(n) == 0) {
+      try {
+        executor.execute(requestTask);
+      }
+      catch (RejectedExecutionException e) {
+        // As for the drain task, the drain is never released
+        cancelled = true;
+        queue.clear();
+        if (!upstreamDone) {
+          upstream.cancel();
+        }
+        downstream.onError(e);
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void requestUpstream() {
+    long n = replenish.get();
+    for (;;) {
+      if (!cancelled && !upstreamDone) {
+        upstream.request(n);
+      }
+      n = replenish.addAndGet(-n);
+      if (n == 0) {
+        return;
+      }
+    }
+  }
+
+  private boolean isTerminated(boolean done, boolean empty) {
+    if (cancelled) {
+      queue.clear();
+      return true;
+    }
+    Throwable failure = invalidRequest;
+    if (failure != null) {
+      cancelled = true;
+      queue.clear();
+      // Upstream must not be cancelled if it has terminated, see rule 2.3
+      if (!done) {
+        upstream.cancel();
+      }
+      downstream.onError(failure);
+      return true;
+    }
+    if (done) {
+      failure = error;
+      if (failure != null) {
+        cancelled = true;
+        queue.clear();
+        downstream.onError(failure);
+        return true;
+      }
+      else if (empty) {
+        cancelled = true;
+        downstream.onComplete();
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,348 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToIntFunction;
+
+/**
+ * Implementation of the inlet side of the {@link org.eclipse.microprofile.reactive.streams.spi.Stage.Balance} and
+ * {@link org.eclipse.microprofile.reactive.streams.spi.Stage.Partition} stages, which distributes the elements
+ * consumed from upstream to the workers.
+ * <p>
+ * Each worker is a publisher, that the engine subscribes a materialized worker graph to, and whose outputs it merges.
+ * Upstream offers its elements to a queue, shared by all the workers when balancing, or one per worker when
+ * partitioning, and a drain loop emits them from there to the workers according to their demand, so the signals to
+ * each worker are serialized. Upstream is requested {@code bufferSize} elements up front, and more in batches as
+ * elements are emitted to the workers, so no more than {@code bufferSize} elements are ever queued in total.
+ */
+@SuppressWarnings("serial")
+final class BalanceSubscriber<T> extends AtomicInteger implements Subscriber<T> {
+
+  /**
+   * The function that selects the worker of each element, or null to emit each element to any worker that is ready.
+   */
+  private final ToIntFunction<? super T> partitioner;
+  private final SpscArrayQueue<T>[] queues;
+  private final Worker[] workers;
+  private final int bufferSize;
+  private final int limit;
+  private volatile Subscription upstream;
+  private volatile boolean done;
+  private volatile Throwable error;
+  /**
+   * Whether upstream must be cancelled despite being done, because the stream was failed by this stage.
+   */
+  private volatile boolean cancelUpstream;
+  /**
+   * The following fields are only accessed by the drain loop.
+   */
+  private boolean started;
+  private int consumed;
+  private int nextWorker;
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  BalanceSubscriber(int workers, ToIntFunction<? super T> partitioner, int bufferSize) {
+    this.partitioner = partitioner;
+    this.queues = new SpscArrayQueue[partitioner == null ? 1 : workers];
+    for (int i = 0; i < queues.length; i++) {
+      queues[i] = new SpscArrayQueue<>(bufferSize);
+    }
+    this.workers = new BalanceSubscriber.Worker[workers];
+    for (int i = 0; i < workers; i++) {
+      this.workers[i] = new Worker();
+    }
+    this.bufferSize = bufferSize;
+    this.limit = bufferSize - (bufferSize >> 2);
+  }
+
+  /**
+   * The publisher that emits the elements for the worker at the given index.
+   */
+  Publisher<T> getWorker(int index) {
+    return workers[index];
+  }
+
+  @Override
+  public void onSubscribe(Subscription subscription) {
+    Objects.requireNonNull(subscription, "Subscription must not be null");
+    if (upstream != null) {
+      subscription.cancel();
+    }
+    else {
+      upstream = subscription;
+      drain();
+    }
+  }
+
+  @Override
+  public void onNext(T element) {
+    Objects.requireNonNull(element, "Element must not be null");
+    if (done) {
+      return;
+    }
+    SpscArrayQueue<T> queue;
+    if (partitioner == null) {
+      queue = queues[0];
+    }
+    else {
+      try {
+        queue = queues[Math.floorMod(partitioner.applyAsInt(element), queues.length)];
+      }
+      catch (RuntimeException e) {
+        fail(e);
+        return;
+      }
+    }
+    if (queue.offer(element)) {
+      drain();
+    }
+    else {
+      fail(new IllegalStateException("Upstream emitted more elements than were requested, see rule 1.1"));
+    }
+  }
+
+  @Override
+  public void onError(Throwable error) {
+    Objects.requireNonNull(error, "Error must not be null");
+    if (!done) {
+      this.error = error;
+      done = true;
+      drain();
+    }
+  }
+
+  @Override
+  public void onComplete() {
+    if (!done) {
+      done = true;
+      drain();
+    }
+  }
+
+  private void fail(Throwable error) {
+    this.error = error;
+    cancelUpstream = true;
+    done = true;
+    drain();
+  }
+
+  private void drain() {
+    if (getAndIncrement() != 0) {
+      return;
+    }
+    int missed = 1;
+    for (;;) {
+      Subscription upstream = this.upstream;
+      int active = 0;
+      for (Worker worker : workers) {
+        if (!worker.finished) {
+          Throwable invalidRequest = worker.invalidRequest;
+          if (worker.cancelled) {
+            worker.finish();
+          }
+          else if (invalidRequest != null) {
+            worker.finish().onError(invalidRequest);
+          }
+          else {
+            active++;
+          }
+        }
+      }
+
+      boolean done = this.done;
+      Throwable error = this.error;
+      if (upstream != null && (active == 0 || done && error != null)) {
+        // Upstream must not be cancelled if it has terminated, see rule 2.3
+        if (!done || cancelUpstream) {
+          upstream.cancel();
+        }
+        if (error != null) {
+          for (Worker worker : workers) {
+            if (!worker.finished) {
+              worker.finish().onError(error);
+            }
+          }
+        }
+        for (SpscArrayQueue<T> queue : queues) {
+          queue.clear();
+        }
+        return;
+      }
+
+      if (upstream != null) {
+        if (!started) {
+          started = true;
+          upstream.request(bufferSize);
+        }
+        if (partitioner == null) {
+          emitToReadyWorkers();
+        }
+        else {
+          emitToPartitions();
+        }
+
+        if (done && isEmpty()) {
+          for (Worker worker : workers) {
+            if (!worker.finished) {
+              worker.finish().onComplete();
+            }
+          }
+          return;
+        }
+      }
+
+      missed = addAndGet(-missed);
+      if (missed == 0) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Emit from the shared queue to the workers that are ready, taking turns so that work is spread evenly when more
+   * than one is ready.
+   */
+  private void emitToReadyWorkers() {
+    SpscArrayQueue<T> queue = queues[0];
+    int index = nextWorker;
+    int notReady = 0;
+    while (notReady < workers.length && !queue.isEmpty()) {
+      Worker worker = workers[index];
+      if (++index == workers.length) {
+        index = 0;
+      }
+      if (worker.isReady()) {
+        worker.emit(queue.poll());
+        consumed();
+        notReady = 0;
+      }
+      else {
+        notReady++;
+      }
+    }
+    nextWorker = index;
+  }
+
+  /**
+   * Emit from each queue to its own worker, dropping the elements for workers that have cancelled.
+   */
+  private void emitToPartitions() {
+    for (int i = 0; i < workers.length; i++) {
+      Worker worker = workers[i];
+      SpscArrayQueue<T> queue = queues[i];
+      if (worker.finished) {
+        while (queue.poll() != null) {
+          consumed();
+        }
+      }
+      else {
+        while (worker.isReady() && !queue.isEmpty()) {
+          worker.emit(queue.poll());
+          consumed();
+        }
+      }
+    }
+  }
+
+  private void consumed() {
+    if (++consumed == limit) {
+      consumed = 0;
+      if (!done) {
+        upstream.request(limit);
+      }
+    }
+  }
+
+  private boolean isEmpty() {
+    for (SpscArrayQueue<T> queue : queues) {
+      if (!queue.isEmpty()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private final class Worker implements Publisher<T>, Subscription {
+    private final AtomicLong requested = new AtomicLong();
+    private volatile Subscriber<? super T> subscriber;
+    private volatile boolean cancelled;
+    private volatile Throwable invalidRequest;
+    /**
+     * Whether this worker has been terminated or has cancelled, only accessed by the drain loop.
+     */
+    private boolean finished;
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+      Objects.requireNonNull(subscriber, "Subscriber must not be null");
+      if (this.subscriber != null) {
+        Subscriptions.error(subscriber, new IllegalStateException("Workers only support one subscriber"));
+        return;
+      }
+      this.subscriber = subscriber;
+      subscriber.onSubscribe(this);
+    }
+
+    @Override
+    public void request(long n) {
+      if (n <= 0) {
+        invalidRequest = Subscriptions.nonPositiveRequest(n);
+      }
+      else {
+        Subscriptions.add(requested, n);
+      }
+      drain();
+    }
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+      drain();
+    }
+
+    boolean isReady() {
+      return !finished && !cancelled && invalidRequest == null && requested.get() != 0;
+    }
+
+    /**
+     * Mark this worker as finished, dropping the reference to its subscriber as required by rule 3.13.
+     *
+     * @return The subscriber, to signal termination to.
+     */
+    Subscriber<? super T> finish() {
+      Subscriber<? super T> subscriber = this.subscriber;
+      this.subscriber = null;
+      finished = true;
+      return subscriber;
+    }
+
+    void emit(T element) {
+      Subscriptions.produced(requested, 1);
+      subscriber.onNext(element);
+    }
+  }
+}
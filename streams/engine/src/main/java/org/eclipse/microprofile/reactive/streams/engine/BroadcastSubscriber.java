@@ -0,0 +1,300 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import org.eclipse.microprofile.reactive.streams.SubscriberWithResult;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Implementation of the {@link org.eclipse.microprofile.reactive.streams.spi.Stage.Broadcast} stage.
+ * <p>
+ * Each element is written once to a ring buffer shared by all the subscribers, which each read from it through their
+ * own cursor, according to their own demand. A slot may only be overwritten once every subscriber has read past it,
+ * which is ensured by never requesting more from upstream than the capacity of the buffer ahead of the slowest
+ * cursor. Subscribers that have cancelled or terminated no longer hold upstream back, and upstream is cancelled once
+ * none are left.
+ */
+final class BroadcastSubscriber<T> extends SinkSubscriber<T, List<Object>> {
+
+  private final AtomicReferenceArray<T> buffer;
+  private final int mask;
+  private final int limit;
+  private final InnerSubscription[] inners;
+  /**
+   * Serializes requesting and cancelling upstream, which any of the subscribers may trigger.
+   */
+  private final AtomicInteger upstreamWip = new AtomicInteger();
+  /**
+   * The total number of elements requested from upstream, only written while holding {@link #upstreamWip}.
+   */
+  private volatile long upstreamRequested;
+  private boolean upstreamCancelled;
+  private volatile boolean cancelUpstream;
+  /**
+   * The total number of elements written to the buffer, only written by upstream.
+   */
+  private volatile long producerIndex;
+  private volatile boolean finished;
+  private volatile Throwable error;
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  BroadcastSubscriber(List<SubscriberWithResult<T, Object>> subscribers, int bufferSize) {
+    int size = Integer.highestOneBit(Math.max(1, bufferSize));
+    if (size < bufferSize) {
+      size <<= 1;
+    }
+    this.buffer = new AtomicReferenceArray<>(size);
+    this.mask = size - 1;
+    this.limit = size - (size >> 2);
+    this.inners = new BroadcastSubscriber.InnerSubscription[subscribers.size()];
+    for (int i = 0; i < inners.length; i++) {
+      inners[i] = new InnerSubscription(subscribers.get(i).getRsSubscriber());
+    }
+
+    Object[] results = new Object[inners.length];
+    AtomicInteger remaining = new AtomicInteger(inners.length);
+    if (inners.length == 0) {
+      result.complete(Collections.emptyList());
+    }
+    for (int i = 0; i < inners.length; i++) {
+      int index = i;
+      subscribers.get(i).getResult().whenComplete((value, failure) -> {
+        if (failure != null) {
+          result.completeExceptionally(
+              failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure);
+        }
+        else {
+          results[index] = value;
+          if (remaining.decrementAndGet() == 0) {
+            result.complete(Collections.unmodifiableList(Arrays.asList(results)));
+          }
+        }
+      });
+    }
+  }
+
+  @Override
+  void onStart() {
+    for (InnerSubscription inner : inners) {
+      inner.subscriber.onSubscribe(inner);
+    }
+    upstreamControl();
+  }
+
+  @Override
+  public void onNext(T element) {
+    Objects.requireNonNull(element, "Element must not be null");
+    if (done) {
+      return;
+    }
+    long index = producerIndex;
+    if (index == upstreamRequested) {
+      done = true;
+      error = new IllegalStateException("Upstream emitted more elements than were requested, see rule 1.1");
+      cancelUpstream = true;
+      finished = true;
+      upstreamControl();
+    }
+    else {
+      buffer.lazySet((int) index & mask, element);
+      producerIndex = index + 1;
+    }
+    drainAll();
+  }
+
+  @Override
+  public void onError(Throwable error) {
+    Objects.requireNonNull(error, "Error must not be null");
+    if (!done) {
+      done = true;
+      this.error = error;
+      finished = true;
+      drainAll();
+    }
+  }
+
+  @Override
+  public void onComplete() {
+    if (!done) {
+      done = true;
+      finished = true;
+      drainAll();
+    }
+  }
+
+  private void drainAll() {
+    for (InnerSubscription inner : inners) {
+      inner.drain();
+    }
+  }
+
+  /**
+   * Request more from upstream if the slowest subscriber has moved on far enough, or cancel it if there are no
+   * subscribers left.
+   */
+  private void upstreamControl() {
+    if (upstreamWip.getAndIncrement() != 0) {
+      return;
+    }
+    int missed = 1;
+    for (;;) {
+      if (cancelUpstream) {
+        if (!upstreamCancelled) {
+          upstreamCancelled = true;
+          upstream.cancel();
+        }
+      }
+      // Upstream must not be requested from or cancelled if it has terminated, see rule 2.3
+      else if (!upstreamCancelled && !finished) {
+        long slowest = Long.MAX_VALUE;
+        for (InnerSubscription inner : inners) {
+          if (!inner.detached) {
+            slowest = Math.min(slowest, inner.cursor);
+          }
+        }
+        if (slowest == Long.MAX_VALUE) {
+          upstreamCancelled = true;
+          upstream.cancel();
+        }
+        else {
+          long n = slowest + buffer.length() - upstreamRequested;
+          if (n >= limit) {
+            upstreamRequested += n;
+            upstream.request(n);
+          }
+        }
+      }
+
+      missed = upstreamWip.addAndGet(-missed);
+      if (missed == 0) {
+        return;
+      }
+    }
+  }
+
+  @SuppressWarnings("serial")
+  private final class InnerSubscription extends AtomicInteger implements Subscription {
+    private final Subscriber<? super T> subscriber;
+    private final AtomicLong requested = new AtomicLong();
+    private volatile boolean cancelled;
+    private volatile Throwable invalidRequest;
+    /**
+     * The index of the next element to read from the buffer, only written by the drain loop.
+     */
+    private volatile long cursor;
+    /**
+     * Set by the drain loop once it will no longer read from the buffer, so that this subscriber no longer holds
+     * upstream back.
+     */
+    private volatile boolean detached;
+
+    InnerSubscription(Subscriber<? super T> subscriber) {
+      this.subscriber = subscriber;
+    }
+
+    @Override
+    public void request(long n) {
+      if (n <= 0) {
+        invalidRequest = Subscriptions.nonPositiveRequest(n);
+      }
+      else {
+        Subscriptions.add(requested, n);
+      }
+      drain();
+    }
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+      drain();
+    }
+
+    void drain() {
+      if (getAndIncrement() != 0) {
+        return;
+      }
+      int missed = 1;
+      long cursor = this.cursor;
+      for (;;) {
+        if (cancelled) {
+          detach();
+          return;
+        }
+        Throwable invalidRequest = this.invalidRequest;
+        if (invalidRequest != null) {
+          detach();
+          subscriber.onError(invalidRequest);
+          return;
+        }
+        boolean finished = BroadcastSubscriber.this.finished;
+        Throwable error = BroadcastSubscriber.this.error;
+        if (finished && error != null) {
+          detach();
+          subscriber.onError(error);
+          return;
+        }
+
+        long available = producerIndex;
+        long requested = this.requested.get();
+        long emitted = 0;
+        while (emitted != requested && cursor != available) {
+          subscriber.onNext(buffer.get((int) cursor & mask));
+          cursor++;
+          emitted++;
+          if (cancelled) {
+            detach();
+            return;
+          }
+        }
+        if (emitted != 0) {
+          this.cursor = cursor;
+          Subscriptions.produced(this.requested, emitted);
+          upstreamControl();
+        }
+
+        if (finished && cursor == available) {
+          detach();
+          subscriber.onComplete();
+          return;
+        }
+
+        missed = addAndGet(-missed);
+        if (missed == 0) {
+          return;
+        }
+      }
+    }
+
+    private void detach() {
+      detached = true;
+      upstreamControl();
+    }
+  }
+}
@@ -0,0 +1,256 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import org.eclipse.microprofile.reactive.streams.OverflowStrategy;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implementation of the {@link org.eclipse.microprofile.reactive.streams.spi.Stage.Buffer} stage.
+ * <p>
+ * Elements from upstream are handed off through a single producer single consumer queue, so that upstream never has
+ * to wait for a thread that is emitting to downstream. The drain loop moves them from there into a {@link RingBuffer},
+ * applying the overflow strategy as it goes, and emits to downstream from the ring buffer. Only the drain loop ever
+ * touches the ring buffer, so dropping from either end of it needs no further coordination.
+ * <p>
+ * Upstream is initially requested {@code size} elements, so the hand off queue never holds more than that. With the
+ * backpressure strategy, upstream is requested more as elements are emitted, so the ring buffer can never overflow.
+ * With the other strategies, upstream is requested more as elements are moved into the ring buffer, regardless of
+ * downstream demand. Either way, requests are batched, being made once three quarters of {@code size} is owed.
+ */
+@SuppressWarnings("serial")
+final class BufferSubscriber<T> extends AtomicInteger implements Subscriber<T>, Subscription {
+
+  private final Subscriber<? super T> downstream;
+  private final int size;
+  private final OverflowStrategy overflowStrategy;
+  private final int limit;
+  private final SpscArrayQueue<T> incoming;
+  private final RingBuffer<T> buffer;
+  private final AtomicLong requested = new AtomicLong();
+  private Subscription upstream;
+  private volatile boolean upstreamDone;
+  private volatile Throwable error;
+  private volatile boolean cancelled;
+  private volatile Throwable invalidRequest;
+  /**
+   * The number of elements owed to upstream demand, only accessed by the drain loop.
+   */
+  private int owed;
+
+  BufferSubscriber(Subscriber<? super T> downstream, int size, OverflowStrategy overflowStrategy) {
+    this.downstream = downstream;
+    this.size = size;
+    this.overflowStrategy = overflowStrategy;
+    this.limit = size - (size >> 2);
+    this.incoming = new SpscArrayQueue<>(size);
+    this.buffer = new RingBuffer<>(size);
+  }
+
+  @Override
+  public void onSubscribe(Subscription subscription) {
+    Objects.requireNonNull(subscription, "Subscription must not be null");
+    if (upstream != null) {
+      subscription.cancel();
+    }
+    else {
+      upstream = subscription;
+      downstream.onSubscribe(this);
+      subscription.request(size);
+    }
+  }
+
+  @Override
+  public void onNext(T element) {
+    Objects.requireNonNull(element, "Element must not be null");
+    if (upstreamDone) {
+      return;
+    }
+    if (!incoming.offer(element)) {
+      error = new IllegalStateException("Upstream emitted more elements than were requested, see rule 1.1");
+      upstreamDone = true;
+      upstream.cancel();
+    }
+    drain();
+  }
+
+  @Override
+  public void onError(Throwable error) {
+    Objects.requireNonNull(error, "Error must not be null");
+    if (!upstreamDone) {
+      this.error = error;
+      upstreamDone = true;
+      drain();
+    }
+  }
+
+  @Override
+  public void onComplete() {
+    if (!upstreamDone) {
+      upstreamDone = true;
+      drain();
+    }
+  }
+
+  @Override
+  public void request(long n) {
+    if (n <= 0) {
+      invalidRequest = Subscriptions.nonPositiveRequest(n);
+    }
+    else {
+      Subscriptions.add(requested, n);
+    }
+    drain();
+  }
+
+  @Override
+  public void cancel() {
+    cancelled = true;
+    upstream.cancel();
+    drain();
+  }
+
+  private void drain() {
+    if (getAndIncrement() != 0) {
+      return;
+    }
+    int missed = 1;
+    for (;;) {
+      boolean done = upstreamDone;
+      if (isTerminated(done)) {
+        return;
+      }
+
+      T element;
+      int moved = 0;
+      while ((element = incoming.poll()) != null) {
+        if (!offer(element)) {
+          fail(new IllegalStateException("Buffer of " + size + " elements overflowed"));
+          return;
+        }
+        moved++;
+      }
+      if (overflowStrategy != OverflowStrategy.BACKPRESSURE) {
+        replenish(moved);
+      }
+
+      long requested = this.requested.get();
+      long emitted = 0;
+      while (emitted != requested && (element = buffer.pollFirst()) != null) {
+        downstream.onNext(element);
+        emitted++;
+        if (cancelled) {
+          clear();
+          return;
+        }
+      }
+      if (emitted != 0) {
+        Subscriptions.produced(this.requested, emitted);
+        if (overflowStrategy == OverflowStrategy.BACKPRESSURE) {
+          replenish(emitted);
+        }
+      }
+
+      if (done && buffer.isEmpty()) {
+        cancelled = true;
+        downstream.onComplete();
+        return;
+      }
+
+      missed = addAndGet(-missed);
+      if (missed == 0) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Offer an element to the ring buffer, applying the overflow strategy if it's full.
+   *
+   * @return false if the strategy is to fail.
+   */
+  private boolean offer(T element) {
+    if (buffer.isFull()) {
+      switch (overflowStrategy) {
+        case DROP_HEAD:
+          buffer.pollFirst();
+          break;
+        case DROP_TAIL:
+          buffer.pollLast();
+          break;
+        case DROP_NEW:
+          return true;
+        case FAIL:
+          return false;
+        default:
+          // Backpressure never requests more than can fit in the buffer
+          throw new IllegalStateException("Buffer overflowed with backpressure strategy");
+      }
+    }
+    buffer.add(element);
+    return true;
+  }
+
+  private void replenish(long n) {
+    owed += n;
+    if (owed >= limit) {
+      if (!upstreamDone) {
+        upstream.request(owed);
+      }
+      owed = 0;
+    }
+  }
+
+  private boolean isTerminated(boolean done) {
+    if (cancelled) {
+      clear();
+      return true;
+    }
+    Throwable failure = invalidRequest;
+    if (failure == null && done) {
+      failure = error;
+    }
+    if (failure != null) {
+      fail(failure);
+      return true;
+    }
+    return false;
+  }
+
+  private void fail(Throwable failure) {
+    cancelled = true;
+    clear();
+    // Upstream must not be cancelled if it has terminated, see rule 2.3
+    if (!upstreamDone) {
+      upstream.cancel();
+    }
+    downstream.onError(failure);
+  }
+
+  private void clear() {
+    incoming.clear();
+    buffer.clear();
+  }
+}
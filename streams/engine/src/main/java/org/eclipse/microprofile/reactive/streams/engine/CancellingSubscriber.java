@@ -0,0 +1,57 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Objects;
+
+/**
+ * A subscriber that immediately cancels any subscription it receives.
+ * <p>
+ * Used to clean up publishers that must be subscribed to but whose elements will never be consumed.
+ */
+final class CancellingSubscriber implements Subscriber<Object> {
+
+  static final CancellingSubscriber INSTANCE = new CancellingSubscriber();
+
+  private CancellingSubscriber() {
+  }
+
+  @Override
+  public void onSubscribe(Subscription subscription) {
+    Objects.requireNonNull(subscription, "Subscription must not be null").cancel();
+  }
+
+  @Override
+  public void onNext(Object element) {
+    Objects.requireNonNull(element, "Element must not be null");
+  }
+
+  @Override
+  public void onError(Throwable error) {
+    Objects.requireNonNull(error, "Error must not be null");
+  }
+
+  @Override
+  public void onComplete() {
+  }
+}
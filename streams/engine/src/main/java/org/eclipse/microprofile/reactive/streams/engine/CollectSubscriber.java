@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.stream.Collector;
+
+/**
+ * Implementation of the {@link org.eclipse.microprofile.reactive.streams.spi.Stage.Collect} stage.
+ */
+final class CollectSubscriber<T, A, R> extends SinkSubscriber<T, R> {
+
+  private final Collector<? super T, A, R> collector;
+  private final BiConsumer<A, ? super T> accumulator;
+  private A container;
+
+  CollectSubscriber(Collector<? super T, A, R> collector) {
+    this.collector = collector;
+    this.accumulator = collector.accumulator();
+  }
+
+  @Override
+  void onStart() {
+    try {
+      container = collector.supplier().get();
+    }
+    catch (RuntimeException e) {
+      fail(e);
+      return;
+    }
+    upstream.request(Long.MAX_VALUE);
+  }
+
+  @Override
+  public void onNext(T element) {
+    Objects.requireNonNull(element, "Element must not be null");
+    if (done) {
+      return;
+    }
+    try {
+      accumulator.accept(container, element);
+    }
+    catch (RuntimeException e) {
+      container = null;
+      fail(e);
+    }
+  }
+
+  @Override
+  public void onComplete() {
+    if (done) {
+      return;
+    }
+    done = true;
+    A finished = container;
+    container = null;
+    try {
+      result.complete(collector.finisher().apply(finished));
+    }
+    catch (RuntimeException e) {
+      result.completeExceptionally(e);
+    }
+  }
+}
@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implementation of the {@link org.eclipse.microprofile.reactive.streams.spi.Stage.Concat} and
+ * {@link org.eclipse.microprofile.reactive.streams.spi.Stage.ConcatAll} stages.
+ * <p>
+ * Each publisher is subscribed to from a trampoline when the one before it completes, so publishers that complete
+ * synchronously from within subscribe are moved past in a loop, rather than recursively. Publishers are claimed by
+ * incrementing an index, which is shared with the clean up of publishers that will never be consumed, so that each
+ * publisher is subscribed to exactly once, whichever happens first.
+ */
+final class ConcatPublisher<T> implements Publisher<T> {
+
+  private final List<Publisher<? extends T>> publishers;
+
+  ConcatPublisher(List<Publisher<? extends T>> publishers) {
+    this.publishers = publishers;
+  }
+
+  @Override
+  public void subscribe(Subscriber<? super T> subscriber) {
+    Objects.requireNonNull(subscriber, "Subscriber must not be null");
+    ConcatSubscriber<T> concat = new ConcatSubscriber<>(subscriber, publishers);
+    subscriber.onSubscribe(concat);
+    concat.subscribeNext();
+  }
+
+  @SuppressWarnings("serial")
+  private static final class ConcatSubscriber<T> extends SubscriptionArbiter implements Subscriber<T> {
+    private final HalfSerializer<T> downstream;
+    private final List<Publisher<? extends T>> publishers;
+    private final AtomicInteger nextIndex = new AtomicInteger();
+    private final AtomicInteger trampoline = new AtomicInteger();
+    private Subscription upstream;
+    private long produced;
+
+    ConcatSubscriber(Subscriber<? super T> downstream, List<Publisher<? extends T>> publishers) {
+      this.downstream = new HalfSerializer<>(downstream);
+      this.publishers = publishers;
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+      Objects.requireNonNull(subscription, "Subscription must not be null");
+      if (upstream != null) {
+        subscription.cancel();
+      }
+      else {
+        upstream = subscription;
+        setSubscription(subscription);
+      }
+    }
+
+    @Override
+    public void onNext(T element) {
+      Objects.requireNonNull(element, "Element must not be null");
+      produced++;
+      downstream.onNext(element);
+    }
+
+    @Override
+    public void onError(Throwable error) {
+      Objects.requireNonNull(error, "Error must not be null");
+      cancelRemaining();
+      downstream.onError(error);
+    }
+
+    @Override
+    public void onComplete() {
+      subscribeNext();
+    }
+
+    /**
+     * Subscribe to the next publisher, or complete if there are none left.
+     */
+    void subscribeNext() {
+      if (trampoline.getAndIncrement() != 0) {
+        return;
+      }
+      do {
+        upstream = null;
+        if (produced != 0) {
+          produced(produced);
+          produced = 0;
+        }
+        int index = nextIndex.getAndIncrement();
+        if (index >= publishers.size()) {
+          downstream.onComplete();
+          return;
+        }
+        publishers.get(index).subscribe(this);
+      } while (trampoline.decrementAndGet() != 0);
+    }
+
+    @Override
+    public void request(long n) {
+      if (n <= 0) {
+        cancel();
+        downstream.onError(Subscriptions.nonPositiveRequest(n));
+      }
+      else {
+        super.request(n);
+      }
+    }
+
+    @Override
+    public void cancel() {
+      super.cancel();
+      cancelRemaining();
+    }
+
+    /**
+     * Ensure that the publishers that will never be consumed are cleaned up.
+     */
+    private void cancelRemaining() {
+      int index;
+      while ((index = nextIndex.getAndIncrement()) < publishers.size()) {
+        publishers.get(index).subscribe(CancellingSubscriber.INSTANCE);
+      }
+    }
+  }
+}
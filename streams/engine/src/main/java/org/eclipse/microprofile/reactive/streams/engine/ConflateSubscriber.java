@@ -0,0 +1,193 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Implementation of the {@link org.eclipse.microprofile.reactive.streams.spi.Stage.Conflate} stage, and of the
+ * {@link org.eclipse.microprofile.reactive.streams.spi.Stage.OnBackpressureLatest} stage, which conflates by keeping
+ * the latest element.
+ * <p>
+ * Upstream is requested an unbounded number of elements up front. The aggregated value is held in an atomic
+ * reference, which upstream takes before adding an element to it and puts back afterwards, and which the drain loop
+ * takes when there is demand. So each element is added exactly once, and a value that has been emitted is never
+ * touched again by upstream, which matters when the aggregate is mutable.
+ */
+@SuppressWarnings("serial")
+final class ConflateSubscriber<T, S> extends AtomicInteger implements Subscriber<T>, Subscription {
+
+  private final Subscriber<? super S> downstream;
+  private final Function<? super T, ? extends S> seed;
+  private final BiFunction<? super S, ? super T, ? extends S> aggregate;
+  private final AtomicReference<S> aggregated = new AtomicReference<>();
+  private final AtomicLong requested = new AtomicLong();
+  private Subscription upstream;
+  private volatile boolean upstreamDone;
+  private volatile Throwable error;
+  private volatile boolean cancelled;
+  private volatile Throwable invalidRequest;
+
+  ConflateSubscriber(Subscriber<? super S> downstream, Function<? super T, ? extends S> seed,
+      BiFunction<? super S, ? super T, ? extends S> aggregate) {
+    this.downstream = downstream;
+    this.seed = seed;
+    this.aggregate = aggregate;
+  }
+
+  @Override
+  public void onSubscribe(Subscription subscription) {
+    Objects.requireNonNull(subscription, "Subscription must not be null");
+    if (upstream != null) {
+      subscription.cancel();
+    }
+    else {
+      upstream = subscription;
+      downstream.onSubscribe(this);
+      subscription.request(Long.MAX_VALUE);
+    }
+  }
+
+  @Override
+  public void onNext(T element) {
+    Objects.requireNonNull(element, "Element must not be null");
+    if (upstreamDone) {
+      return;
+    }
+    S current = aggregated.getAndSet(null);
+    S next;
+    try {
+      next = current == null ? seed.apply(element) : aggregate.apply(current, element);
+      Objects.requireNonNull(next, "Conflate function must not return null");
+    }
+    catch (RuntimeException e) {
+      // The error must be visible before done is, or a concurrent drain could complete the stream instead
+      error = e;
+      upstreamDone = true;
+      upstream.cancel();
+      drain();
+      return;
+    }
+    aggregated.set(next);
+    drain();
+  }
+
+  @Override
+  public void onError(Throwable error) {
+    Objects.requireNonNull(error, "Error must not be null");
+    if (!upstreamDone) {
+      this.error = error;
+      upstreamDone = true;
+      drain();
+    }
+  }
+
+  @Override
+  public void onComplete() {
+    if (!upstreamDone) {
+      upstreamDone = true;
+      drain();
+    }
+  }
+
+  @Override
+  public void request(long n) {
+    if (n <= 0) {
+      invalidRequest = Subscriptions.nonPositiveRequest(n);
+    }
+    else {
+      Subscriptions.add(requested, n);
+    }
+    drain();
+  }
+
+  @Override
+  public void cancel() {
+    cancelled = true;
+    upstream.cancel();
+    drain();
+  }
+
+  private void drain() {
+    if (getAndIncrement() != 0) {
+      return;
+    }
+    int missed = 1;
+    for (;;) {
+      boolean done = upstreamDone;
+      if (isTerminated(done)) {
+        return;
+      }
+
+      if (requested.get() != 0) {
+        S value = aggregated.getAndSet(null);
+        if (value != null) {
+          downstream.onNext(value);
+          Subscriptions.produced(requested, 1);
+          if (cancelled) {
+            aggregated.set(null);
+            return;
+          }
+        }
+      }
+
+      if (done && aggregated.get() == null) {
+        cancelled = true;
+        downstream.onComplete();
+        return;
+      }
+
+      missed = addAndGet(-missed);
+      if (missed == 0) {
+        return;
+      }
+    }
+  }
+
+  private boolean isTerminated(boolean done) {
+    if (cancelled) {
+      aggregated.set(null);
+      return true;
+    }
+    Throwable failure = invalidRequest;
+    if (failure == null && done) {
+      failure = error;
+    }
+    if (failure != null) {
+      cancelled = true;
+      aggregated.set(null);
+      // Upstream must not be cancelled if it has terminated, see rule 2.3
+      if (!upstreamDone) {
+        upstream.cancel();
+      }
+      downstream.onError(failure);
+      return true;
+    }
+    return false;
+  }
+}
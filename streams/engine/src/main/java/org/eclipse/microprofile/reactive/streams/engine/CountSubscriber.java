@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import java.util.Objects;
+
+/**
+ * Implementation of the {@link org.eclipse.microprofile.reactive.streams.spi.Stage.Count} stage.
+ */
+final class CountSubscriber extends SinkSubscriber<Object, Long> {
+
+  private long count;
+
+  @Override
+  void onStart() {
+    upstream.request(Long.MAX_VALUE);
+  }
+
+  @Override
+  public void onNext(Object element) {
+    Objects.requireNonNull(element, "Element must not be null");
+    count++;
+  }
+
+  @Override
+  public void onComplete() {
+    if (!done) {
+      done = true;
+      result.complete(count);
+    }
+  }
+}
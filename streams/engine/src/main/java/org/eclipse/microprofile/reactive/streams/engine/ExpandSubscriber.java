@@ -0,0 +1,245 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Implementation of the {@link org.eclipse.microprofile.reactive.streams.spi.Stage.Expand} stage.
+ * <p>
+ * Upstream is only ever requested one element at a time, and the next one isn't requested until the first element of
+ * the current iterator has been emitted, so at most one element is ever waiting to replace the current iterator. It's
+ * handed from upstream to the drain loop through an atomic reference, and only the drain loop touches the iterator.
+ */
+@SuppressWarnings("serial")
+final class ExpandSubscriber<T> extends AtomicInteger implements Subscriber<T>, Subscription {
+
+  private final Subscriber<? super T> downstream;
+  private final Function<? super T, ? extends Iterator<? extends T>> extrapolate;
+  private final AtomicReference<T> incoming = new AtomicReference<>();
+  private final AtomicLong requested = new AtomicLong();
+  private Subscription upstream;
+  private volatile boolean upstreamDone;
+  private volatile Throwable error;
+  private volatile boolean cancelled;
+  private volatile Throwable invalidRequest;
+  /**
+   * The iterator currently being emitted, only accessed by the drain loop.
+   */
+  private Iterator<? extends T> iterator;
+  /**
+   * Whether the first element of the current iterator has been emitted, only accessed by the drain loop.
+   */
+  private boolean expanded;
+
+  ExpandSubscriber(Subscriber<? super T> downstream, Function<? super T, ? extends Iterator<? extends T>> extrapolate) {
+    this.downstream = downstream;
+    this.extrapolate = extrapolate;
+  }
+
+  @Override
+  public void onSubscribe(Subscription subscription) {
+    Objects.requireNonNull(subscription, "Subscription must not be null");
+    if (upstream != null) {
+      subscription.cancel();
+    }
+    else {
+      upstream = subscription;
+      downstream.onSubscribe(this);
+      subscription.request(1);
+    }
+  }
+
+  @Override
+  public void onNext(T element) {
+    Objects.requireNonNull(element, "Element must not be null");
+    if (upstreamDone) {
+      return;
+    }
+    if (!incoming.compareAndSet(null, element)) {
+      error = new IllegalStateException("Upstream emitted more elements than were requested, see rule 1.1");
+      upstreamDone = true;
+      upstream.cancel();
+    }
+    drain();
+  }
+
+  @Override
+  public void onError(Throwable error) {
+    Objects.requireNonNull(error, "Error must not be null");
+    if (!upstreamDone) {
+      this.error = error;
+      upstreamDone = true;
+      drain();
+    }
+  }
+
+  @Override
+  public void onComplete() {
+    if (!upstreamDone) {
+      upstreamDone = true;
+      drain();
+    }
+  }
+
+  @Override
+  public void request(long n) {
+    if (n <= 0) {
+      invalidRequest = Subscriptions.nonPositiveRequest(n);
+    }
+    else {
+      Subscriptions.add(requested, n);
+    }
+    drain();
+  }
+
+  @Override
+  public void cancel() {
+    cancelled = true;
+    upstream.cancel();
+    drain();
+  }
+
+  private void drain() {
+    if (getAndIncrement() != 0) {
+      return;
+    }
+    int missed = 1;
+    for (;;) {
+      boolean done = upstreamDone;
+      if (isTerminated(done)) {
+        return;
+      }
+
+      T element = incoming.getAndSet(null);
+      if (element != null) {
+        try {
+          iterator = Objects.requireNonNull(extrapolate.apply(element), "Expand function must not return null");
+          expanded = false;
+          if (!iterator.hasNext()) {
+            // Nothing to emit for this element, so move straight on to the next one
+            iterator = null;
+            if (!done) {
+              upstream.request(1);
+            }
+          }
+        }
+        catch (RuntimeException e) {
+          fail(e);
+          return;
+        }
+      }
+
+      long requested = this.requested.get();
+      long emitted = 0;
+      while (emitted != requested && iterator != null) {
+        T next;
+        boolean hasNext;
+        try {
+          next = Objects.requireNonNull(iterator.next(), "Expand iterator must not return null");
+        }
+        catch (RuntimeException e) {
+          fail(e);
+          return;
+        }
+        downstream.onNext(next);
+        emitted++;
+        if (cancelled) {
+          clear();
+          return;
+        }
+        if (!expanded) {
+          expanded = true;
+          if (!done) {
+            upstream.request(1);
+          }
+        }
+        try {
+          hasNext = iterator.hasNext();
+        }
+        catch (RuntimeException e) {
+          fail(e);
+          return;
+        }
+        if (!hasNext) {
+          iterator = null;
+        }
+        else if (incoming.get() != null) {
+          // The next element has arrived, and replaces this iterator on the next pass of the loop
+          break;
+        }
+      }
+      if (emitted != 0) {
+        Subscriptions.produced(this.requested, emitted);
+      }
+
+      if (done && (iterator == null || expanded)) {
+        cancelled = true;
+        iterator = null;
+        downstream.onComplete();
+        return;
+      }
+
+      missed = addAndGet(-missed);
+      if (missed == 0) {
+        return;
+      }
+    }
+  }
+
+  private boolean isTerminated(boolean done) {
+    if (cancelled) {
+      clear();
+      return true;
+    }
+    Throwable failure = invalidRequest;
+    if (failure == null && done) {
+      failure = error;
+    }
+    if (failure != null) {
+      fail(failure);
+      return true;
+    }
+    return false;
+  }
+
+  private void fail(Throwable failure) {
+    cancelled = true;
+    clear();
+    // Upstream must not be cancelled if it has terminated, see rule 2.3
+    if (!upstreamDone) {
+      upstream.cancel();
+    }
+    downstream.onError(failure);
+  }
+
+  private void clear() {
+    incoming.set(null);
+    iterator = null;
+  }
+}
@@ -0,0 +1,61 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import org.reactivestreams.Subscriber;
+
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Implementation of the {@link org.eclipse.microprofile.reactive.streams.spi.Stage.Filter} stage.
+ */
+final class FilterSubscriber<T> extends OperatorSubscriber<T, T> {
+
+  private final Predicate<? super T> predicate;
+
+  FilterSubscriber(Subscriber<? super T> downstream, Predicate<? super T> predicate) {
+    super(downstream);
+    this.predicate = predicate;
+  }
+
+  @Override
+  public void onNext(T element) {
+    Objects.requireNonNull(element, "Element must not be null");
+    if (done) {
+      return;
+    }
+    boolean accepted;
+    try {
+      accepted = predicate.test(element);
+    }
+    catch (RuntimeException e) {
+      fail(e);
+      return;
+    }
+    if (accepted) {
+      downstream.onNext(element);
+    }
+    else {
+      // Replace the demand that the dropped element consumed.
+      upstream.request(1);
+    }
+  }
+}
@@ -0,0 +1,188 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Objects;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Implementation of the {@link org.eclipse.microprofile.reactive.streams.spi.Stage.FlatMapCompletionStage} stage.
+ * <p>
+ * One element is requested from upstream at a time, and the next element is only requested once the value redeemed
+ * by the previous {@link CompletionStage} has been emitted. Signals arrive from upstream, downstream and from whatever
+ * thread redeems the {@link CompletionStage}, so they're all funnelled through a single drain loop.
+ */
+@SuppressWarnings("serial")
+final class FlatMapCompletionStageSubscriber<T, R> extends AtomicInteger implements Subscriber<T>, Subscription {
+
+  private final Subscriber<? super R> downstream;
+  private final Function<? super T, ? extends CompletionStage<? extends R>> mapper;
+  private final AtomicLong requested = new AtomicLong();
+  private Subscription upstream;
+
+  private volatile boolean inFlight;
+  private volatile R result;
+  private volatile Throwable error;
+  private volatile boolean upstreamDone;
+  private volatile boolean cancelled;
+  private volatile Throwable invalidRequest;
+  private boolean done;
+
+  FlatMapCompletionStageSubscriber(Subscriber<? super R> downstream,
+      Function<? super T, ? extends CompletionStage<? extends R>> mapper) {
+    this.downstream = downstream;
+    this.mapper = mapper;
+  }
+
+  @Override
+  public void onSubscribe(Subscription subscription) {
+    Objects.requireNonNull(subscription, "Subscription must not be null");
+    if (upstream != null) {
+      subscription.cancel();
+    }
+    else {
+      upstream = subscription;
+      downstream.onSubscribe(this);
+      subscription.request(1);
+    }
+  }
+
+  @Override
+  public void onNext(T element) {
+    Objects.requireNonNull(element, "Element must not be null");
+    if (upstreamDone || cancelled) {
+      return;
+    }
+    inFlight = true;
+    CompletionStage<? extends R> stage;
+    try {
+      stage = Objects.requireNonNull(mapper.apply(element), "Mapper function returned null");
+    }
+    catch (RuntimeException e) {
+      // The error must be visible before done is, or a concurrent drain could complete the stream instead
+      error = e;
+      upstreamDone = true;
+      upstream.cancel();
+      drain();
+      return;
+    }
+    stage.whenComplete((value, failure) -> {
+      if (failure != null) {
+        error = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        upstream.cancel();
+      }
+      else if (value == null) {
+        error = new NullPointerException("CompletionStage was redeemed with null");
+        upstream.cancel();
+      }
+      else {
+        result = value;
+      }
+      drain();
+    });
+  }
+
+  @Override
+  public void onError(Throwable throwable) {
+    Objects.requireNonNull(throwable, "Error must not be null");
+    if (!upstreamDone) {
+      // An error from upstream takes effect immediately, any element in flight is dropped.
+      error = throwable;
+      upstreamDone = true;
+      drain();
+    }
+  }
+
+  @Override
+  public void onComplete() {
+    upstreamDone = true;
+    drain();
+  }
+
+  @Override
+  public void request(long n) {
+    if (n <= 0) {
+      invalidRequest = Subscriptions.nonPositiveRequest(n);
+    }
+    else {
+      Subscriptions.add(requested, n);
+    }
+    drain();
+  }
+
+  @Override
+  public void cancel() {
+    cancelled = true;
+    upstream.cancel();
+    drain();
+  }
+
+  private void drain() {
+    if (getAndIncrement() != 0) {
+      return;
+    }
+    int missed = 1;
+    for (;;) {
+      if (done || cancelled) {
+        result = null;
+      }
+      else if (invalidRequest != null) {
+        done = true;
+        result = null;
+        upstream.cancel();
+        downstream.onError(invalidRequest);
+      }
+      else if (error != null) {
+        done = true;
+        result = null;
+        downstream.onError(error);
+      }
+      else {
+        R value = result;
+        if (value != null && requested.get() > 0) {
+          result = null;
+          inFlight = false;
+          Subscriptions.produced(requested, 1);
+          downstream.onNext(value);
+          if (!upstreamDone && !cancelled) {
+            upstream.request(1);
+          }
+        }
+        // An error published since it was checked above is signalled on the next pass
+        if (!inFlight && upstreamDone && error == null) {
+          done = true;
+          downstream.onComplete();
+        }
+      }
+
+      missed = addAndGet(-missed);
+      if (missed == 0) {
+        return;
+      }
+    }
+  }
+}
@@ -0,0 +1,215 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Implementation of the {@link org.eclipse.microprofile.reactive.streams.spi.Stage.FlatMapIterable} stage.
+ * <p>
+ * One element is requested from upstream at a time, and its iterable is emitted according to downstream demand
+ * before the next element is requested. Upstream and downstream signals are funnelled through a single drain loop,
+ * which also makes requesting the next element from a synchronous upstream iterative rather than recursive.
+ */
+@SuppressWarnings("serial")
+final class FlatMapIterableSubscriber<T, R> extends AtomicInteger implements Subscriber<T>, Subscription {
+
+  private final Subscriber<? super R> downstream;
+  private final Function<? super T, ? extends Iterable<? extends R>> mapper;
+  private final AtomicLong requested = new AtomicLong();
+  private Subscription upstream;
+
+  private volatile Iterator<? extends R> current;
+  private volatile Throwable error;
+  private volatile boolean upstreamDone;
+  private volatile boolean cancelled;
+  private volatile Throwable invalidRequest;
+  private boolean done;
+
+  FlatMapIterableSubscriber(Subscriber<? super R> downstream,
+      Function<? super T, ? extends Iterable<? extends R>> mapper) {
+    this.downstream = downstream;
+    this.mapper = mapper;
+  }
+
+  @Override
+  public void onSubscribe(Subscription subscription) {
+    Objects.requireNonNull(subscription, "Subscription must not be null");
+    if (upstream != null) {
+      subscription.cancel();
+    }
+    else {
+      upstream = subscription;
+      downstream.onSubscribe(this);
+      subscription.request(1);
+    }
+  }
+
+  @Override
+  public void onNext(T element) {
+    Objects.requireNonNull(element, "Element must not be null");
+    if (upstreamDone || cancelled) {
+      return;
+    }
+    try {
+      current = mapper.apply(element).iterator();
+    }
+    catch (RuntimeException e) {
+      // The error must be visible before done is, or a concurrent drain could complete the stream instead
+      error = e;
+      upstreamDone = true;
+      upstream.cancel();
+    }
+    drain();
+  }
+
+  @Override
+  public void onError(Throwable throwable) {
+    Objects.requireNonNull(throwable, "Error must not be null");
+    if (!upstreamDone) {
+      error = throwable;
+      upstreamDone = true;
+      drain();
+    }
+  }
+
+  @Override
+  public void onComplete() {
+    upstreamDone = true;
+    drain();
+  }
+
+  @Override
+  public void request(long n) {
+    if (n <= 0) {
+      invalidRequest = Subscriptions.nonPositiveRequest(n);
+    }
+    else {
+      Subscriptions.add(requested, n);
+    }
+    drain();
+  }
+
+  @Override
+  public void cancel() {
+    cancelled = true;
+    upstream.cancel();
+    drain();
+  }
+
+  private void drain() {
+    if (getAndIncrement() != 0) {
+      return;
+    }
+    int missed = 1;
+    for (;;) {
+      if (done || cancelled) {
+        current = null;
+      }
+      else if (invalidRequest != null) {
+        upstream.cancel();
+        terminate(invalidRequest);
+      }
+      else if (error != null) {
+        terminate(error);
+      }
+      else {
+        Iterator<? extends R> iterator = current;
+        if (iterator != null) {
+          emit(iterator);
+        }
+        if (!done && !cancelled && current == null) {
+          if (upstreamDone) {
+            // An error published since it was checked above is signalled on the next pass
+            if (error == null) {
+              done = true;
+              downstream.onComplete();
+            }
+          }
+          else if (iterator != null) {
+            upstream.request(1);
+          }
+        }
+      }
+
+      missed = addAndGet(-missed);
+      if (missed == 0) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Emit elements from the iterator according to the outstanding demand, clearing the current iterator if it's
+   * exhausted.
+   */
+  private void emit(Iterator<? extends R> iterator) {
+    long r = requested.get();
+    long emitted = 0;
+    for (;;) {
+      if (cancelled) {
+        return;
+      }
+      boolean hasNext;
+      R next = null;
+      try {
+        hasNext = iterator.hasNext();
+        if (hasNext && emitted != r) {
+          next = Objects.requireNonNull(iterator.next(), "Iterable must not emit null elements");
+        }
+      }
+      catch (RuntimeException e) {
+        upstream.cancel();
+        terminate(e);
+        return;
+      }
+      if (!hasNext) {
+        current = null;
+        break;
+      }
+      if (emitted == r) {
+        r = requested.get();
+        if (emitted == r) {
+          break;
+        }
+      }
+      else {
+        downstream.onNext(next);
+        emitted++;
+      }
+    }
+    if (emitted != 0) {
+      Subscriptions.produced(requested, emitted);
+    }
+  }
+
+  private void terminate(Throwable throwable) {
+    done = true;
+    current = null;
+    downstream.onError(throwable);
+  }
+}
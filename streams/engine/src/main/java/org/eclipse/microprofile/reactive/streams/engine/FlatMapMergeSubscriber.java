@@ -0,0 +1,280 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Implementation of the {@link org.eclipse.microprofile.reactive.streams.spi.Stage.FlatMapMerge} stage.
+ * <p>
+ * Upstream is initially requested {@code maxConcurrency} elements, and then one more each time an inner publisher
+ * completes, so no more than {@code maxConcurrency} inner publishers are ever running. Each inner publisher is
+ * requested {@code prefetch} elements up front, which it queues, and the queues are drained to downstream according
+ * to downstream demand, with each inner publisher being requested more once three quarters of its prefetch has been
+ * consumed.
+ * <p>
+ * All signals to downstream are emitted from a drain loop, so that elements arriving concurrently from different
+ * inner publishers are serialized.
+ */
+@SuppressWarnings("serial")
+final class FlatMapMergeSubscriber<T, R> extends AtomicInteger implements Subscriber<T>, Subscription {
+
+  private final Subscriber<? super R> downstream;
+  private final Function<? super T, ? extends Publisher<? extends R>> mapper;
+  private final int maxConcurrency;
+  private final int prefetch;
+  private final Queue<InnerSubscriber> inners = new ConcurrentLinkedQueue<>();
+  private final AtomicLong requested = new AtomicLong();
+  private final AtomicReference<Throwable> error = new AtomicReference<>();
+  private Subscription upstream;
+  private volatile boolean upstreamDone;
+  private volatile boolean cancelled;
+  private volatile Throwable invalidRequest;
+
+  FlatMapMergeSubscriber(Subscriber<? super R> downstream,
+      Function<? super T, ? extends Publisher<? extends R>> mapper, int maxConcurrency, int prefetch) {
+    this.downstream = downstream;
+    this.mapper = mapper;
+    this.maxConcurrency = maxConcurrency;
+    this.prefetch = prefetch;
+  }
+
+  @Override
+  public void onSubscribe(Subscription subscription) {
+    Objects.requireNonNull(subscription, "Subscription must not be null");
+    if (upstream != null) {
+      subscription.cancel();
+    }
+    else {
+      upstream = subscription;
+      downstream.onSubscribe(this);
+      subscription.request(maxConcurrency);
+    }
+  }
+
+  @Override
+  public void onNext(T element) {
+    Objects.requireNonNull(element, "Element must not be null");
+    if (upstreamDone || cancelled) {
+      return;
+    }
+    Publisher<? extends R> publisher;
+    try {
+      publisher = Objects.requireNonNull(mapper.apply(element), "Mapper function returned null");
+    }
+    catch (RuntimeException e) {
+      // The error must be visible before done is, or a concurrent drain could complete the stream instead
+      error.compareAndSet(null, e);
+      upstreamDone = true;
+      upstream.cancel();
+      drain();
+      return;
+    }
+    InnerSubscriber inner = new InnerSubscriber();
+    inners.add(inner);
+    publisher.subscribe(inner);
+  }
+
+  @Override
+  public void onError(Throwable error) {
+    Objects.requireNonNull(error, "Error must not be null");
+    this.error.compareAndSet(null, error);
+    upstreamDone = true;
+    drain();
+  }
+
+  @Override
+  public void onComplete() {
+    upstreamDone = true;
+    drain();
+  }
+
+  @Override
+  public void request(long n) {
+    if (n <= 0) {
+      invalidRequest = Subscriptions.nonPositiveRequest(n);
+    }
+    else {
+      Subscriptions.add(requested, n);
+    }
+    drain();
+  }
+
+  @Override
+  public void cancel() {
+    cancelled = true;
+    upstream.cancel();
+    drain();
+  }
+
+  private void drain() {
+    if (getAndIncrement() != 0) {
+      return;
+    }
+    int missed = 1;
+    for (;;) {
+      if (cancelled) {
+        cancelAll();
+        return;
+      }
+      Throwable failure = error.get();
+      if (failure == null) {
+        failure = invalidRequest;
+      }
+      if (failure != null) {
+        terminate(failure);
+        return;
+      }
+
+      boolean done = upstreamDone;
+      long requested = this.requested.get();
+      long emitted = 0;
+      int completed = 0;
+      for (Iterator<InnerSubscriber> it = inners.iterator(); it.hasNext(); ) {
+        InnerSubscriber inner = it.next();
+        while (emitted != requested) {
+          if (cancelled) {
+            cancelAll();
+            return;
+          }
+          R next = inner.queue.poll();
+          if (next == null) {
+            break;
+          }
+          downstream.onNext(next);
+          emitted++;
+          inner.consumed();
+        }
+        if (inner.done && inner.queue.isEmpty()) {
+          it.remove();
+          completed++;
+        }
+      }
+
+      if (emitted != 0) {
+        Subscriptions.produced(this.requested, emitted);
+      }
+      if (completed != 0 && !done) {
+        upstream.request(completed);
+      }
+      if (done && inners.isEmpty() && error.get() == null) {
+        cancelled = true;
+        downstream.onComplete();
+        return;
+      }
+
+      missed = addAndGet(-missed);
+      if (missed == 0) {
+        return;
+      }
+    }
+  }
+
+  private void terminate(Throwable failure) {
+    cancelled = true;
+    // Upstream must not be cancelled if it has terminated, the failure may be being signalled from its onError
+    if (!upstreamDone) {
+      upstream.cancel();
+    }
+    cancelAll();
+    downstream.onError(failure);
+  }
+
+  private void cancelAll() {
+    InnerSubscriber inner;
+    while ((inner = inners.poll()) != null) {
+      inner.cancel();
+    }
+  }
+
+  private final class InnerSubscriber implements Subscriber<R> {
+    private final Queue<R> queue = new ConcurrentLinkedQueue<>();
+    private final int limit = prefetch - (prefetch >> 2);
+    private volatile Subscription subscription;
+    private volatile boolean done;
+    private int consumed;
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+      Objects.requireNonNull(subscription, "Subscription must not be null");
+      if (this.subscription != null) {
+        subscription.cancel();
+        return;
+      }
+      this.subscription = subscription;
+      if (cancelled) {
+        subscription.cancel();
+      }
+      else {
+        subscription.request(prefetch);
+      }
+    }
+
+    @Override
+    public void onNext(R element) {
+      Objects.requireNonNull(element, "Element must not be null");
+      queue.offer(element);
+      drain();
+    }
+
+    @Override
+    public void onError(Throwable error) {
+      Objects.requireNonNull(error, "Error must not be null");
+      done = true;
+      FlatMapMergeSubscriber.this.error.compareAndSet(null, error);
+      drain();
+    }
+
+    @Override
+    public void onComplete() {
+      done = true;
+      drain();
+    }
+
+    /**
+     * Invoked from the drain loop for each element consumed from the queue.
+     */
+    void consumed() {
+      if (++consumed == limit) {
+        consumed = 0;
+        subscription.request(limit);
+      }
+    }
+
+    void cancel() {
+      Subscription subscription = this.subscription;
+      if (subscription != null && !done) {
+        subscription.cancel();
+      }
+      queue.clear();
+    }
+  }
+}
@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Implementation of the {@link org.eclipse.microprofile.reactive.streams.spi.Stage.FlatMap} stage.
+ * <p>
+ * Elements are requested from upstream one at a time, the next element is only requested once the publisher produced
+ * for the previous element has completed, so only one inner publisher is ever running at a time. Downstream demand
+ * is carried over from one inner publisher to the next by a {@link SubscriptionArbiter}.
+ */
+final class FlatMapSubscriber<T, R> implements Subscriber<T>, Subscription {
+
+  private final Subscriber<? super R> actual;
+  private final HalfSerializer<R> downstream;
+  private final Function<? super T, ? extends Publisher<? extends R>> mapper;
+  private final SubscriptionArbiter arbiter = new SubscriptionArbiter();
+  /**
+   * The number of active publishers, the outer publisher, plus the inner publisher if one is running.
+   */
+  private final AtomicInteger active = new AtomicInteger(1);
+  private Subscription upstream;
+
+  FlatMapSubscriber(Subscriber<? super R> downstream, Function<? super T, ? extends Publisher<? extends R>> mapper) {
+    this.actual = downstream;
+    this.downstream = new HalfSerializer<>(downstream);
+    this.mapper = mapper;
+  }
+
+  @Override
+  public void onSubscribe(Subscription subscription) {
+    Objects.requireNonNull(subscription, "Subscription must not be null");
+    if (upstream != null) {
+      subscription.cancel();
+    }
+    else {
+      upstream = subscription;
+      actual.onSubscribe(this);
+      subscription.request(1);
+    }
+  }
+
+  @Override
+  public void onNext(T element) {
+    Objects.requireNonNull(element, "Element must not be null");
+    if (arbiter.isCancelled()) {
+      return;
+    }
+    Publisher<? extends R> publisher;
+    try {
+      publisher = Objects.requireNonNull(mapper.apply(element), "Mapper function returned null");
+    }
+    catch (RuntimeException e) {
+      upstream.cancel();
+      arbiter.cancel();
+      downstream.onError(e);
+      return;
+    }
+    active.incrementAndGet();
+    publisher.subscribe(new InnerSubscriber());
+  }
+
+  @Override
+  public void onError(Throwable error) {
+    Objects.requireNonNull(error, "Error must not be null");
+    arbiter.cancel();
+    downstream.onError(error);
+  }
+
+  @Override
+  public void onComplete() {
+    if (active.decrementAndGet() == 0) {
+      downstream.onComplete();
+    }
+  }
+
+  @Override
+  public void request(long n) {
+    if (n <= 0) {
+      cancel();
+      downstream.onError(Subscriptions.nonPositiveRequest(n));
+    }
+    else {
+      arbiter.request(n);
+    }
+  }
+
+  @Override
+  public void cancel() {
+    upstream.cancel();
+    arbiter.cancel();
+  }
+
+  private final class InnerSubscriber implements Subscriber<R> {
+    private Subscription subscription;
+    private long produced;
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+      Objects.requireNonNull(subscription, "Subscription must not be null");
+      if (this.subscription != null) {
+        subscription.cancel();
+      }
+      else {
+        this.subscription = subscription;
+        arbiter.setSubscription(subscription);
+      }
+    }
+
+    @Override
+    public void onNext(R element) {
+      Objects.requireNonNull(element, "Element must not be null");
+      produced++;
+      downstream.onNext(element);
+    }
+
+    @Override
+    public void onError(Throwable error) {
+      Objects.requireNonNull(error, "Error must not be null");
+      upstream.cancel();
+      downstream.onError(error);
+    }
+
+    @Override
+    public void onComplete() {
+      if (produced != 0) {
+        arbiter.produced(produced);
+      }
+      if (active.decrementAndGet() == 0) {
+        downstream.onComplete();
+      }
+      else {
+        upstream.request(1);
+      }
+    }
+  }
+}
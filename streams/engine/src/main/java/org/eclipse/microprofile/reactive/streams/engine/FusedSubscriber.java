@@ -0,0 +1,182 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import org.eclipse.microprofile.reactive.streams.spi.Stage;
+import org.reactivestreams.Subscriber;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * A fusion of consecutive {@link Stage.Map}, {@link Stage.Filter} and {@link Stage.TakeWhile} stages, and their
+ * primitive equivalents.
+ * <p>
+ * None of these stages need their own demand accounting, they emit at most one element for each element consumed, so
+ * a run of them can be implemented by a single subscriber that passes each element through the user functions in a
+ * loop. This avoids a subscriber, a subscription and an {@code onNext} call per stage per element. Each run of
+ * primitive stages becomes a single step, which boxes only once for the whole run, see
+ * {@link PrimitiveStages#fuse(List)}.
+ * <p>
+ * The semantics are the same as the equivalent chain of individual stages. When a take while predicate returns
+ * false, the element is passed through the remaining stages only if the take while is inclusive, and then the stream
+ * completes.
+ */
+final class FusedSubscriber extends OperatorSubscriber<Object, Object> {
+
+  private static final byte MAP = 0;
+  private static final byte FILTER = 1;
+  private static final byte TAKE_WHILE = 2;
+  private static final byte TAKE_WHILE_INCLUSIVE = 3;
+  /**
+   * A fused run of primitive stages, a map that returns null for elements that are filtered out.
+   */
+  private static final byte PRIMITIVE = 4;
+
+  private final byte[] kinds;
+  private final Object[] functions;
+
+  private FusedSubscriber(Subscriber<Object> downstream, byte[] kinds, Object[] functions) {
+    super(downstream);
+    this.kinds = kinds;
+    this.functions = functions;
+  }
+
+  /**
+   * Whether the given stage can be fused.
+   */
+  static boolean isFusable(Stage stage) {
+    return stage instanceof Stage.Map || stage instanceof Stage.Filter || stage instanceof Stage.TakeWhile ||
+        PrimitiveStages.isFusable(stage);
+  }
+
+  /**
+   * Create an operator that fuses the given stages, which must all be fusable.
+   */
+  static Operator fuse(List<Stage> stages) {
+    List<Byte> kindList = new ArrayList<>();
+    List<Object> factoryList = new ArrayList<>();
+    for (int i = 0; i < stages.size(); i++) {
+      Stage stage = stages.get(i);
+      if (PrimitiveStages.isFusable(stage)) {
+        int start = i;
+        while (i + 1 < stages.size() && PrimitiveStages.continues(stages.get(i), stages.get(i + 1))) {
+          i++;
+        }
+        kindList.add(PRIMITIVE);
+        factoryList.add(PrimitiveStages.fuse(stages.subList(start, i + 1)));
+      }
+      else if (stage instanceof Stage.Map) {
+        kindList.add(MAP);
+        factoryList.add(((Stage.Map) stage).getMapper());
+      }
+      else if (stage instanceof Stage.Filter) {
+        kindList.add(FILTER);
+        factoryList.add(((Stage.Filter) stage).getPredicate());
+      }
+      else {
+        Stage.TakeWhile takeWhile = (Stage.TakeWhile) stage;
+        kindList.add(takeWhile.isInclusive() ? TAKE_WHILE_INCLUSIVE : TAKE_WHILE);
+        factoryList.add(takeWhile.getPredicate());
+      }
+    }
+    byte[] kinds = new byte[kindList.size()];
+    for (int i = 0; i < kinds.length; i++) {
+      kinds[i] = kindList.get(i);
+    }
+    Object[] factories = factoryList.toArray();
+
+    return downstream -> {
+      // Predicates are stateful, so they must be supplied for each materialization.
+      Object[] functions = new Object[kinds.length];
+      for (int i = 0; i < kinds.length; i++) {
+        functions[i] = kinds[i] == MAP || kinds[i] == PRIMITIVE ? factories[i] : ((Supplier<?>) factories[i]).get();
+      }
+      return new FusedSubscriber(downstream, kinds, functions);
+    };
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void onNext(Object element) {
+    Objects.requireNonNull(element, "Element must not be null");
+    if (done) {
+      return;
+    }
+
+    Object value = element;
+    boolean completing = false;
+    try {
+      for (int i = 0; i < kinds.length && value != null; i++) {
+        switch (kinds[i]) {
+          case MAP:
+            value = Objects.requireNonNull(((Function<Object, Object>) functions[i]).apply(value),
+                "Mapper function returned null");
+            break;
+          case PRIMITIVE:
+            value = ((Function<Object, Object>) functions[i]).apply(value);
+            break;
+          case FILTER:
+            if (!((Predicate<Object>) functions[i]).test(value)) {
+              value = null;
+            }
+            break;
+          case TAKE_WHILE:
+            if (!((Predicate<Object>) functions[i]).test(value)) {
+              completing = true;
+              value = null;
+            }
+            break;
+          case TAKE_WHILE_INCLUSIVE:
+            if (!((Predicate<Object>) functions[i]).test(value)) {
+              completing = true;
+            }
+            break;
+          default:
+            throw new IllegalStateException("Unknown fused stage kind " + kinds[i]);
+        }
+      }
+    }
+    catch (RuntimeException e) {
+      fail(e);
+      return;
+    }
+
+    if (completing) {
+      done = true;
+      upstream.cancel();
+      if (value != null) {
+        downstream.onNext(value);
+      }
+      downstream.onComplete();
+    }
+    else if (value != null) {
+      downstream.onNext(value);
+    }
+    else {
+      // Replace the demand that the dropped element consumed.
+      upstream.request(1);
+    }
+  }
+}
@@ -0,0 +1,177 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import org.reactivestreams.Processor;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A processor built from a graph with an inlet and an outlet.
+ * <p>
+ * The stream is materialized when the outlet is subscribed to. Until then, the subscription and any terminal signal
+ * received by the inlet are held, and are then passed to the materialized stream. Since elements can only arrive
+ * once they've been requested, and only the materialized stream can request them, elements are passed straight
+ * through.
+ * <p>
+ * The materialized stream may receive its subscription on a different thread to the one that upstream signals on, so
+ * any requests made while the subscription is being delivered are deferred until delivery has finished, otherwise
+ * upstream could signal {@code onNext} before {@code onSubscribe} has returned.
+ * <p>
+ * Only one subscriber is supported.
+ */
+@SuppressWarnings("serial")
+final class GraphProcessor<T, R> extends AtomicInteger implements Processor<T, R>, Subscription {
+
+  private static final Throwable COMPLETE = new Throwable("complete", null, false, false) {
+  };
+
+  private final Operator[] operators;
+  private final AtomicBoolean subscribed = new AtomicBoolean();
+  private final AtomicLong deferredRequests = new AtomicLong();
+
+  private volatile Subscription upstream;
+  private volatile Subscriber<Object> chain;
+  private volatile Throwable terminal;
+  private volatile boolean connected;
+  private boolean upstreamDelivered;
+  private boolean terminalDelivered;
+
+  GraphProcessor(Operator[] operators) {
+    this.operators = operators;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void subscribe(Subscriber<? super R> subscriber) {
+    Objects.requireNonNull(subscriber, "Subscriber must not be null");
+    if (!subscribed.compareAndSet(false, true)) {
+      Subscriptions.error(subscriber, new IllegalStateException("This processor only supports one subscriber"));
+      return;
+    }
+    try {
+      chain = Operator.applyAll(operators, (Subscriber<Object>) subscriber);
+    }
+    catch (RuntimeException e) {
+      Subscriptions.error(subscriber, e);
+      chain = CancellingSubscriber.INSTANCE;
+    }
+    drain();
+  }
+
+  @Override
+  public void onSubscribe(Subscription subscription) {
+    Objects.requireNonNull(subscription, "Subscription must not be null");
+    if (upstream != null) {
+      subscription.cancel();
+    }
+    else {
+      upstream = subscription;
+      drain();
+    }
+  }
+
+  @Override
+  public void onNext(T element) {
+    Objects.requireNonNull(element, "Element must not be null");
+    chain.onNext(element);
+  }
+
+  @Override
+  public void onError(Throwable error) {
+    Objects.requireNonNull(error, "Error must not be null");
+    terminal = error;
+    drain();
+  }
+
+  @Override
+  public void onComplete() {
+    terminal = COMPLETE;
+    drain();
+  }
+
+  @Override
+  public void request(long n) {
+    if (connected || n <= 0) {
+      upstream.request(n);
+    }
+    else {
+      Subscriptions.add(deferredRequests, n);
+      if (connected) {
+        requestDeferred();
+      }
+    }
+  }
+
+  @Override
+  public void cancel() {
+    // Drop the reference to the materialized stream, as required by rule 3.13.
+    chain = CancellingSubscriber.INSTANCE;
+    upstream.cancel();
+  }
+
+  private void requestDeferred() {
+    long n = deferredRequests.getAndSet(0);
+    if (n != 0) {
+      upstream.request(n);
+    }
+  }
+
+  /**
+   * Connect the inlet to the materialized stream once both are available.
+   */
+  private void drain() {
+    if (getAndIncrement() != 0) {
+      return;
+    }
+    int missed = 1;
+    for (;;) {
+      Subscriber<Object> chain = this.chain;
+      if (chain != null) {
+        if (!upstreamDelivered && upstream != null) {
+          upstreamDelivered = true;
+          chain.onSubscribe(this);
+          connected = true;
+          requestDeferred();
+        }
+        Throwable terminal = this.terminal;
+        if (upstreamDelivered && !terminalDelivered && terminal != null) {
+          terminalDelivered = true;
+          if (terminal == COMPLETE) {
+            chain.onComplete();
+          }
+          else {
+            chain.onError(terminal);
+          }
+        }
+      }
+
+      missed = addAndGet(-missed);
+      if (missed == 0) {
+        return;
+      }
+    }
+  }
+}
@@ -0,0 +1,57 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+
+import java.util.Objects;
+
+/**
+ * A publisher built from a graph with an outlet but no inlet.
+ * <p>
+ * Each subscription materializes a new instance of the stream, applying the operators to the subscriber and then
+ * subscribing the result to the source.
+ */
+final class GraphPublisher<T> implements Publisher<T> {
+
+  private final Publisher<Object> source;
+  private final Operator[] operators;
+
+  GraphPublisher(Publisher<Object> source, Operator[] operators) {
+    this.source = source;
+    this.operators = operators;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void subscribe(Subscriber<? super T> subscriber) {
+    Objects.requireNonNull(subscriber, "Subscriber must not be null");
+    Subscriber<Object> chain;
+    try {
+      chain = Operator.applyAll(operators, (Subscriber<Object>) subscriber);
+    }
+    catch (RuntimeException e) {
+      Subscriptions.error(subscriber, e);
+      return;
+    }
+    source.subscribe(chain);
+  }
+}
@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import org.reactivestreams.Subscriber;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Implementation of the {@link org.eclipse.microprofile.reactive.streams.spi.Stage.Grouped} stage.
+ * <p>
+ * Each request for {@code k} groups is passed upstream as a single request for {@code k * size} elements. Since
+ * upstream can't emit more than that, and a partial group is only emitted when upstream completes having emitted fewer
+ * elements than were requested, there is always demand for every group emitted, and so nothing needs to be queued.
+ */
+final class GroupedSubscriber<T> extends OperatorSubscriber<T, List<T>> {
+
+  private final int size;
+  private List<T> group;
+
+  GroupedSubscriber(Subscriber<? super List<T>> downstream, int size) {
+    super(downstream);
+    this.size = size;
+    this.group = new ArrayList<>(size);
+  }
+
+  @Override
+  public void onNext(T element) {
+    Objects.requireNonNull(element, "Element must not be null");
+    if (done) {
+      return;
+    }
+    group.add(element);
+    if (group.size() == size) {
+      List<T> full = group;
+      group = new ArrayList<>(size);
+      downstream.onNext(full);
+    }
+  }
+
+  @Override
+  public void onComplete() {
+    if (!done && !group.isEmpty()) {
+      List<T> partial = group;
+      group = null;
+      downstream.onNext(partial);
+    }
+    super.onComplete();
+  }
+
+  @Override
+  public void onError(Throwable error) {
+    group = null;
+    super.onError(error);
+  }
+
+  @Override
+  public void request(long n) {
+    upstream.request(n > 0 ? Subscriptions.multiplyCap(n, size) : n);
+  }
+}
@@ -0,0 +1,225 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import org.eclipse.microprofile.reactive.streams.spi.Scheduler;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implementation of the {@link org.eclipse.microprofile.reactive.streams.spi.Stage.GroupedWithin} stage.
+ * <p>
+ * The elements in the current group plus the outstanding demand on upstream always add up to {@code maxSize}, so
+ * upstream is requested {@code maxSize} elements up front, and as many again as are in each group that is emitted.
+ * Elements are handed off from upstream through a single producer single consumer queue to the drain loop, which is
+ * the only thing that touches the current group.
+ * <p>
+ * When the first element of a group arrives, a timeout is scheduled on the engine's shared {@link Scheduler}. If it
+ * fires before the group fills, the group is flushed as soon as there is demand for it. Each timeout carries the
+ * number of the group it was scheduled for, so a timeout that fires just as its group is emitted for being full can't
+ * flush the next group early. The timeout only records that its group timed out, and hands the drain loop to the
+ * executor, so the group is never emitted on the shared timer thread.
+ */
+@SuppressWarnings("serial")
+final class GroupedWithinSubscriber<T> extends AtomicInteger implements Subscriber<T>, Subscription {
+
+  private final Subscriber<? super List<T>> downstream;
+  private final int maxSize;
+  private final long maxWaitNanos;
+  private final Scheduler scheduler;
+  private final Executor executor;
+  private final SpscArrayQueue<T> incoming;
+  private final AtomicLong requested = new AtomicLong();
+  private Subscription upstream;
+  private volatile boolean upstreamDone;
+  private volatile Throwable error;
+  private volatile boolean cancelled;
+  private volatile Throwable invalidRequest;
+  private volatile long timedOutGroup = -1;
+  // Only accessed by the drain loop
+  private List<T> group;
+  private long groupNumber;
+  private Scheduler.Cancellable timeout;
+
+  GroupedWithinSubscriber(Subscriber<? super List<T>> downstream, int maxSize, long maxWaitNanos,
+      Scheduler scheduler, Executor executor) {
+    this.downstream = downstream;
+    this.maxSize = maxSize;
+    this.maxWaitNanos = maxWaitNanos;
+    this.scheduler = scheduler;
+    this.executor = executor;
+    this.incoming = new SpscArrayQueue<>(maxSize);
+    this.group = new ArrayList<>(maxSize);
+  }
+
+  @Override
+  public void onSubscribe(Subscription subscription) {
+    Objects.requireNonNull(subscription, "Subscription must not be null");
+    if (upstream != null) {
+      subscription.cancel();
+    }
+    else {
+      upstream = subscription;
+      downstream.onSubscribe(this);
+      subscription.request(maxSize);
+    }
+  }
+
+  @Override
+  public void onNext(T element) {
+    Objects.requireNonNull(element, "Element must not be null");
+    if (upstreamDone) {
+      return;
+    }
+    if (!incoming.offer(element)) {
+      error = new IllegalStateException("Upstream emitted more elements than were requested, see rule 1.1");
+      upstreamDone = true;
+      upstream.cancel();
+    }
+    drain();
+  }
+
+  @Override
+  public void onError(Throwable error) {
+    Objects.requireNonNull(error, "Error must not be null");
+    if (!upstreamDone) {
+      this.error = error;
+      upstreamDone = true;
+      drain();
+    }
+  }
+
+  @Override
+  public void onComplete() {
+    if (!upstreamDone) {
+      upstreamDone = true;
+      drain();
+    }
+  }
+
+  @Override
+  public void request(long n) {
+    if (n <= 0) {
+      invalidRequest = Subscriptions.nonPositiveRequest(n);
+    }
+    else {
+      Subscriptions.add(requested, n);
+    }
+    drain();
+  }
+
+  @Override
+  public void cancel() {
+    cancelled = true;
+    upstream.cancel();
+    drain();
+  }
+
+  private void drain() {
+    if (getAndIncrement() != 0) {
+      return;
+    }
+    int missed = 1;
+    for (;;) {
+      boolean done = upstreamDone;
+      if (isTerminated(done)) {
+        return;
+      }
+
+      T element;
+      while ((element = incoming.poll()) != null) {
+        if (group.isEmpty()) {
+          long number = ++groupNumber;
+          timeout = scheduler.schedule(() -> {
+            timedOutGroup = number;
+            executor.execute(this::drain);
+          }, maxWaitNanos, TimeUnit.NANOSECONDS);
+        }
+        group.add(element);
+      }
+
+      if (!group.isEmpty() && requested.get() > 0
+          && (group.size() == maxSize || timedOutGroup == groupNumber || done)) {
+        List<T> flushed = group;
+        group = new ArrayList<>(maxSize);
+        timeout.cancel();
+        timeout = null;
+        Subscriptions.produced(requested, 1);
+        downstream.onNext(flushed);
+        if (cancelled) {
+          incoming.clear();
+          return;
+        }
+        if (!done) {
+          upstream.request(flushed.size());
+        }
+        // Another group may be ready to be flushed
+        continue;
+      }
+
+      if (done && group.isEmpty()) {
+        cancelled = true;
+        downstream.onComplete();
+        return;
+      }
+
+      missed = addAndGet(-missed);
+      if (missed == 0) {
+        return;
+      }
+    }
+  }
+
+  private boolean isTerminated(boolean done) {
+    Throwable failure = null;
+    if (!cancelled) {
+      failure = invalidRequest;
+      if (failure == null && done) {
+        failure = error;
+      }
+      if (failure == null) {
+        return false;
+      }
+      cancelled = true;
+      // Upstream must not be cancelled if it has terminated, see rule 2.3
+      if (!done) {
+        upstream.cancel();
+      }
+    }
+    incoming.clear();
+    group = null;
+    if (timeout != null) {
+      timeout.cancel();
+      timeout = null;
+    }
+    if (failure != null) {
+      downstream.onError(failure);
+    }
+    return true;
+  }
+}
@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import org.reactivestreams.Subscriber;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Serializes signals to a subscriber when elements are emitted serially, but termination may be signalled
+ * concurrently from another thread, for example, when an inner stream fails while an outer stream is emitting.
+ * <p>
+ * If a terminal signal arrives while an element is being emitted, the emitting thread delivers it once the element
+ * has been emitted. Only the first terminal signal is delivered.
+ */
+@SuppressWarnings("serial")
+final class HalfSerializer<T> extends AtomicInteger {
+
+  private final Subscriber<? super T> downstream;
+  private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+  HalfSerializer(Subscriber<? super T> downstream) {
+    this.downstream = downstream;
+  }
+
+  void onNext(T element) {
+    if (get() == 0 && compareAndSet(0, 1)) {
+      downstream.onNext(element);
+      if (decrementAndGet() != 0) {
+        terminate();
+      }
+    }
+  }
+
+  /**
+   * Signal an error.
+   *
+   * @return Whether this was the first terminal signal.
+   */
+  boolean onError(Throwable throwable) {
+    if (error.compareAndSet(null, throwable)) {
+      if (getAndIncrement() == 0) {
+        downstream.onError(throwable);
+      }
+      return true;
+    }
+    return false;
+  }
+
+  void onComplete() {
+    if (getAndIncrement() == 0) {
+      terminate();
+    }
+  }
+
+  private void terminate() {
+    Throwable throwable = error.get();
+    if (throwable != null) {
+      downstream.onError(throwable);
+    }
+    else {
+      downstream.onComplete();
+    }
+  }
+}
@@ -0,0 +1,220 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import org.eclipse.microprofile.reactive.streams.spi.Scheduler;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A {@link Scheduler} implemented as a hashed timing wheel, run by a single daemon thread.
+ * <p>
+ * Time is divided into ticks, and the wheel into a power of two number of buckets, one per tick, so a timeout due at a
+ * given tick goes in the bucket at that tick modulo the wheel size, along with the number of times the wheel must turn
+ * before it is due. Each bucket is a doubly linked list, so scheduling and cancelling are both O(1), regardless of how
+ * many timeouts there are, at the cost of only firing timeouts at tick granularity.
+ * <p>
+ * Only the worker thread touches the buckets. Scheduled and cancelled timeouts are handed to it through queues, and
+ * added to or removed from their buckets at the start of each tick. When there is nothing scheduled, the worker parks
+ * until something is, so an idle timer costs nothing.
+ */
+final class HashedWheelTimer implements Scheduler {
+
+  private final String name;
+  private final long tickNanos;
+  private final Timeout[] wheel;
+  private final int mask;
+  private final long startTime = System.nanoTime();
+  private final Queue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+  private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+  /**
+   * The number of timeouts that have been scheduled and have neither expired nor been cancelled.
+   */
+  private final AtomicInteger pending = new AtomicInteger();
+  private final AtomicBoolean started = new AtomicBoolean();
+  private volatile Thread worker;
+
+  HashedWheelTimer(String name, long tickDuration, TimeUnit unit, int wheelSize) {
+    int size = Integer.highestOneBit(Math.max(1, wheelSize));
+    if (size < wheelSize) {
+      size <<= 1;
+    }
+    this.name = name;
+    this.tickNanos = unit.toNanos(tickDuration);
+    // The head of each bucket's list is a sentinel, so that removal never has to special case the ends.
+    this.wheel = new Timeout[size];
+    for (int i = 0; i < size; i++) {
+      wheel[i] = new Timeout(null, 0);
+      wheel[i].next = wheel[i];
+      wheel[i].previous = wheel[i];
+    }
+    this.mask = size - 1;
+  }
+
+  @Override
+  public Cancellable schedule(Runnable task, long delay, TimeUnit unit) {
+    Timeout timeout = new Timeout(task, elapsed() + Math.max(0, unit.toNanos(delay)));
+    scheduled.add(timeout);
+    if (pending.getAndIncrement() == 0) {
+      if (started.compareAndSet(false, true)) {
+        Thread thread = new Thread(this::run, name);
+        thread.setDaemon(true);
+        worker = thread;
+        thread.start();
+      }
+      else {
+        // The worker may have parked because there was nothing to do. The thread is only published once started, so
+        // if it isn't visible yet, the worker hasn't started, and so won't park without seeing this timeout.
+        Thread thread = worker;
+        if (thread != null) {
+          LockSupport.unpark(thread);
+        }
+      }
+    }
+    return timeout;
+  }
+
+  private long elapsed() {
+    return System.nanoTime() - startTime;
+  }
+
+  private void run() {
+    long tick = 0;
+    for (;;) {
+      if (pending.get() == 0) {
+        // Cancelled timeouts must be dropped before parking, so their tasks can be garbage collected.
+        removeCancelled();
+        scheduled.removeIf(timeout -> timeout.state.get() != Timeout.WAITING);
+        LockSupport.park(this);
+        // The wheel is empty, so no ticks need to be processed to catch up.
+        tick = elapsed() / tickNanos;
+        continue;
+      }
+
+      long deadline = (tick + 1) * tickNanos;
+      long wait = deadline - elapsed();
+      while (wait > 0) {
+        LockSupport.parkNanos(this, wait);
+        wait = deadline - elapsed();
+      }
+
+      removeCancelled();
+      transferScheduled(tick);
+      expire(wheel[(int) tick & mask], deadline);
+      tick++;
+    }
+  }
+
+  private void removeCancelled() {
+    Timeout timeout;
+    while ((timeout = cancelled.poll()) != null) {
+      timeout.unlink();
+    }
+  }
+
+  private void transferScheduled(long tick) {
+    Timeout timeout;
+    while ((timeout = scheduled.poll()) != null) {
+      if (timeout.state.get() != Timeout.WAITING) {
+        continue;
+      }
+      long due = timeout.deadline / tickNanos;
+      timeout.remainingRounds = (due - tick) / wheel.length;
+      // Timeouts that are already due go in the current bucket, so they fire now rather than a whole turn later.
+      timeout.link(wheel[(int) Math.max(due, tick) & mask]);
+    }
+  }
+
+  private void expire(Timeout bucket, long deadline) {
+    Timeout timeout = bucket.next;
+    while (timeout != bucket) {
+      Timeout next = timeout.next;
+      if (timeout.remainingRounds <= 0 && timeout.deadline <= deadline) {
+        timeout.unlink();
+        if (timeout.state.compareAndSet(Timeout.WAITING, Timeout.EXPIRED)) {
+          pending.decrementAndGet();
+          try {
+            timeout.task.run();
+          }
+          catch (Throwable t) {
+            Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), t);
+          }
+        }
+      }
+      else {
+        timeout.remainingRounds--;
+      }
+      timeout = next;
+    }
+  }
+
+  private final class Timeout implements Cancellable {
+    private static final int WAITING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    private final AtomicInteger state = new AtomicInteger(WAITING);
+    private final Runnable task;
+    private final long deadline;
+    // Only accessed by the worker
+    private long remainingRounds;
+    private Timeout next;
+    private Timeout previous;
+
+    private Timeout(Runnable task, long deadline) {
+      this.task = task;
+      this.deadline = deadline;
+    }
+
+    @Override
+    public boolean cancel() {
+      if (state.compareAndSet(WAITING, CANCELLED)) {
+        cancelled.add(this);
+        pending.decrementAndGet();
+        return true;
+      }
+      return false;
+    }
+
+    private void link(Timeout bucket) {
+      previous = bucket.previous;
+      next = bucket;
+      bucket.previous.next = this;
+      bucket.previous = this;
+    }
+
+    /**
+     * Remove this timeout from its bucket, if it's in one.
+     */
+    private void unlink() {
+      if (next != null) {
+        previous.next = next;
+        next.previous = previous;
+        next = null;
+        previous = null;
+      }
+    }
+  }
+}
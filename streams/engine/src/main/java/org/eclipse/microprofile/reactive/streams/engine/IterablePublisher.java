@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implementation of the {@link org.eclipse.microprofile.reactive.streams.spi.Stage.Of} stage.
+ */
+final class IterablePublisher<T> implements Publisher<T> {
+
+  private final Iterable<? extends T> elements;
+
+  IterablePublisher(Iterable<? extends T> elements) {
+    this.elements = elements;
+  }
+
+  @Override
+  public void subscribe(Subscriber<? super T> subscriber) {
+    Objects.requireNonNull(subscriber, "Subscriber must not be null");
+    Iterator<? extends T> iterator;
+    boolean hasNext;
+    try {
+      iterator = elements.iterator();
+      hasNext = iterator.hasNext();
+    }
+    catch (RuntimeException e) {
+      Subscriptions.error(subscriber, e);
+      return;
+    }
+    if (hasNext) {
+      subscriber.onSubscribe(new IteratorSubscription<>(subscriber, iterator));
+    }
+    else {
+      Subscriptions.complete(subscriber);
+    }
+  }
+
+  /**
+   * The subscription, which also holds the outstanding demand.
+   * <p>
+   * Whichever thread moves the demand away from zero owns emission until the demand drops back to zero, any requests
+   * made during emission, including reentrant requests made from within {@code onNext}, are simply added to the demand
+   * and picked up by the emission loop. This keeps the stack depth constant regardless of how demand is signalled.
+   */
+  @SuppressWarnings("serial")
+  private static final class IteratorSubscription<T> extends AtomicLong implements Subscription {
+    private final Subscriber<? super T> downstream;
+    private Iterator<? extends T> iterator;
+    private volatile boolean cancelled;
+    private volatile Throwable invalidRequest;
+
+    IteratorSubscription(Subscriber<? super T> downstream, Iterator<? extends T> iterator) {
+      this.downstream = downstream;
+      this.iterator = iterator;
+    }
+
+    @Override
+    public void request(long n) {
+      if (n <= 0) {
+        // Record the invalid request, and add demand of one so that the emission loop is woken up to signal it.
+        invalidRequest = Subscriptions.nonPositiveRequest(n);
+        n = 1;
+      }
+      if (Subscriptions.add(this, n) == 0) {
+        emit(n);
+      }
+    }
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+    }
+
+    private void emit(long requested) {
+      Iterator<? extends T> iterator = this.iterator;
+      long emitted = 0;
+      for (;;) {
+        while (emitted != requested) {
+          if (cancelled) {
+            this.iterator = null;
+            return;
+          }
+          if (invalidRequest != null) {
+            terminate(invalidRequest);
+            return;
+          }
+          T next;
+          boolean hasNext;
+          try {
+            next = Objects.requireNonNull(iterator.next(), "Iterable must not emit null elements");
+          }
+          catch (RuntimeException e) {
+            terminate(e);
+            return;
+          }
+          downstream.onNext(next);
+          if (cancelled) {
+            this.iterator = null;
+            return;
+          }
+          try {
+            hasNext = iterator.hasNext();
+          }
+          catch (RuntimeException e) {
+            terminate(e);
+            return;
+          }
+          if (!hasNext) {
+            cancelled = true;
+            this.iterator = null;
+            downstream.onComplete();
+            return;
+          }
+          emitted++;
+        }
+
+        requested = get();
+        if (requested == emitted) {
+          requested = Subscriptions.produced(this, emitted);
+          if (requested == 0) {
+            return;
+          }
+          emitted = 0;
+        }
+      }
+    }
+
+    private void terminate(Throwable error) {
+      cancelled = true;
+      iterator = null;
+      downstream.onError(error);
+    }
+  }
+}
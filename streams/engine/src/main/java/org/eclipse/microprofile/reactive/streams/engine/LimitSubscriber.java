@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implementation of the {@link org.eclipse.microprofile.reactive.streams.spi.Stage.Limit} stage.
+ * <p>
+ * Demand is passed through to upstream, but capped so that no more than the limit is ever requested in total, so
+ * upstream never produces an element that would only be dropped.
+ */
+final class LimitSubscriber<T> extends OperatorSubscriber<T, T> {
+
+  private final long maxSize;
+  private final AtomicLong requested = new AtomicLong();
+  private long remaining;
+
+  LimitSubscriber(Subscriber<? super T> downstream, long maxSize) {
+    super(downstream);
+    this.maxSize = maxSize;
+    this.remaining = maxSize;
+  }
+
+  @Override
+  public void onSubscribe(Subscription subscription) {
+    if (maxSize == 0 && upstream == null) {
+      Objects.requireNonNull(subscription, "Subscription must not be null");
+      upstream = subscription;
+      done = true;
+      subscription.cancel();
+      Subscriptions.complete(downstream);
+    }
+    else {
+      super.onSubscribe(subscription);
+    }
+  }
+
+  @Override
+  public void onNext(T element) {
+    Objects.requireNonNull(element, "Element must not be null");
+    if (done) {
+      return;
+    }
+    if (--remaining == 0) {
+      done = true;
+      upstream.cancel();
+      downstream.onNext(element);
+      downstream.onComplete();
+    }
+    else {
+      downstream.onNext(element);
+    }
+  }
+
+  @Override
+  public void request(long n) {
+    if (n <= 0) {
+      // Let upstream signal the error
+      upstream.request(n);
+      return;
+    }
+    for (;;) {
+      long current = requested.get();
+      if (current == maxSize) {
+        return;
+      }
+      long update = Math.min(maxSize, Subscriptions.addCap(current, n));
+      if (requested.compareAndSet(current, update)) {
+        upstream.request(update - current);
+        return;
+      }
+    }
+  }
+}
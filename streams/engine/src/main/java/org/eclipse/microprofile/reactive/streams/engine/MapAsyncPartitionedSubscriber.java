@@ -0,0 +1,308 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Implementation of the {@link org.eclipse.microprofile.reactive.streams.spi.Stage.MapAsyncPartitioned} stage.
+ * <p>
+ * Each key that has elements waiting or a {@link CompletionStage} unredeemed has a partition, holding a queue of its
+ * waiting elements. A partition is runnable when it has waiting elements but nothing unredeemed, and runnable
+ * partitions are queued in turn, so the first element of each is mapped, in the order they became runnable, whenever
+ * fewer than {@code parallelism} {@link CompletionStage}s are unredeemed. When a {@link CompletionStage} is redeemed,
+ * its value is queued to be emitted, and its partition becomes runnable again, or is removed if it has no more
+ * elements waiting.
+ * <p>
+ * Upstream is initially requested {@code bufferSize} elements, and then one more each time a value is emitted, so
+ * there are never more than {@code bufferSize} elements held, whether waiting, being mapped, or waiting to be
+ * emitted. Signals arrive from upstream, downstream and from whatever threads redeem the {@link CompletionStage}s,
+ * so the elements and redeemed partitions are handed over through concurrent queues, and everything else is only
+ * accessed by a single drain loop.
+ */
+@SuppressWarnings("serial")
+final class MapAsyncPartitionedSubscriber<T, R> extends AtomicInteger implements Subscriber<T>, Subscription {
+
+  private final Subscriber<? super R> downstream;
+  private final Function<? super T, ?> key;
+  private final Function<? super T, ? extends CompletionStage<? extends R>> mapper;
+  private final int parallelism;
+  private final int bufferSize;
+  private final Queue<T> incoming = new ConcurrentLinkedQueue<>();
+  private final Queue<Partition<T, R>> redeemed = new ConcurrentLinkedQueue<>();
+  private final AtomicLong requested = new AtomicLong();
+  private final AtomicReference<Throwable> error = new AtomicReference<>();
+  private Subscription upstream;
+  private volatile boolean upstreamDone;
+  private volatile boolean cancelled;
+  private volatile Throwable invalidRequest;
+
+  /**
+   * The following fields are only accessed by the drain loop.
+   */
+  private final Map<Object, Partition<T, R>> partitions = new HashMap<>();
+  private final ArrayDeque<Partition<T, R>> runnable = new ArrayDeque<>();
+  private final ArrayDeque<R> values = new ArrayDeque<>();
+  private int unredeemed;
+
+  MapAsyncPartitionedSubscriber(Subscriber<? super R> downstream, Function<? super T, ?> key,
+      Function<? super T, ? extends CompletionStage<? extends R>> mapper, int parallelism, int bufferSize) {
+    this.downstream = downstream;
+    this.key = key;
+    this.mapper = mapper;
+    this.parallelism = parallelism;
+    this.bufferSize = bufferSize;
+  }
+
+  @Override
+  public void onSubscribe(Subscription subscription) {
+    Objects.requireNonNull(subscription, "Subscription must not be null");
+    if (upstream != null) {
+      subscription.cancel();
+    }
+    else {
+      upstream = subscription;
+      downstream.onSubscribe(this);
+      subscription.request(bufferSize);
+    }
+  }
+
+  @Override
+  public void onNext(T element) {
+    Objects.requireNonNull(element, "Element must not be null");
+    if (upstreamDone || cancelled) {
+      return;
+    }
+    incoming.offer(element);
+    drain();
+  }
+
+  @Override
+  public void onError(Throwable error) {
+    Objects.requireNonNull(error, "Error must not be null");
+    this.error.compareAndSet(null, error);
+    upstreamDone = true;
+    drain();
+  }
+
+  @Override
+  public void onComplete() {
+    upstreamDone = true;
+    drain();
+  }
+
+  @Override
+  public void request(long n) {
+    if (n <= 0) {
+      invalidRequest = Subscriptions.nonPositiveRequest(n);
+    }
+    else {
+      Subscriptions.add(requested, n);
+    }
+    drain();
+  }
+
+  @Override
+  public void cancel() {
+    cancelled = true;
+    upstream.cancel();
+    drain();
+  }
+
+  private void drain() {
+    if (getAndIncrement() != 0) {
+      return;
+    }
+    int missed = 1;
+    for (;;) {
+      if (cancelled) {
+        clear();
+        return;
+      }
+      // Read before the error, since errors are published before done is, so a done stream's error is always seen
+      boolean done = upstreamDone;
+      Throwable failure = error.get();
+      if (failure == null) {
+        failure = invalidRequest;
+      }
+      if (failure != null) {
+        cancelled = true;
+        clear();
+        // Upstream must not be cancelled if it has terminated, the failure may be being signalled from its onError
+        if (!upstreamDone) {
+          upstream.cancel();
+        }
+        downstream.onError(failure);
+        return;
+      }
+
+      collectRedeemed();
+      if (!partitionIncoming() || !mapRunnable()) {
+        // Go round again to signal the failure
+        continue;
+      }
+
+      long requested = this.requested.get();
+      long emitted = 0;
+      while (emitted != requested && !values.isEmpty()) {
+        downstream.onNext(values.poll());
+        emitted++;
+        if (cancelled) {
+          clear();
+          return;
+        }
+      }
+      if (emitted != 0) {
+        Subscriptions.produced(this.requested, emitted);
+        if (!done) {
+          upstream.request(emitted);
+        }
+      }
+
+      if (done && partitions.isEmpty() && values.isEmpty() && incoming.isEmpty()) {
+        cancelled = true;
+        downstream.onComplete();
+        return;
+      }
+
+      missed = addAndGet(-missed);
+      if (missed == 0) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Queue the values of the redeemed partitions to be emitted, and make the partitions runnable again.
+   */
+  private void collectRedeemed() {
+    Partition<T, R> partition;
+    while ((partition = redeemed.poll()) != null) {
+      values.offer(partition.value);
+      partition.value = null;
+      partition.mapping = false;
+      unredeemed--;
+      if (partition.elements.isEmpty()) {
+        partitions.remove(partition.key);
+      }
+      else {
+        runnable.offer(partition);
+      }
+    }
+  }
+
+  /**
+   * Add the elements received from upstream to the partitions of their keys.
+   *
+   * @return false if the key function failed.
+   */
+  private boolean partitionIncoming() {
+    T element;
+    while ((element = incoming.poll()) != null) {
+      Object key;
+      try {
+        key = Objects.requireNonNull(this.key.apply(element), "Key function returned null");
+      }
+      catch (RuntimeException e) {
+        error.compareAndSet(null, e);
+        return false;
+      }
+      Partition<T, R> partition = partitions.computeIfAbsent(key, Partition::new);
+      partition.elements.offer(element);
+      // A partition that isn't mapping an element becomes runnable when its first element arrives
+      if (!partition.mapping && partition.elements.size() == 1) {
+        runnable.offer(partition);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Map the first element of the runnable partitions, while fewer than {@code parallelism} are unredeemed.
+   *
+   * @return false if the mapper function failed.
+   */
+  private boolean mapRunnable() {
+    while (unredeemed < parallelism && !runnable.isEmpty()) {
+      Partition<T, R> partition = runnable.poll();
+      CompletionStage<? extends R> stage;
+      try {
+        stage = Objects.requireNonNull(mapper.apply(partition.elements.poll()), "Mapper function returned null");
+      }
+      catch (RuntimeException e) {
+        error.compareAndSet(null, e);
+        return false;
+      }
+      partition.mapping = true;
+      unredeemed++;
+      stage.whenComplete((value, failure) -> {
+        if (failure != null) {
+          error.compareAndSet(null,
+              failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure);
+        }
+        else if (value == null) {
+          error.compareAndSet(null, new NullPointerException("CompletionStage was redeemed with null"));
+        }
+        else {
+          partition.value = value;
+          redeemed.offer(partition);
+        }
+        drain();
+      });
+    }
+    return true;
+  }
+
+  private void clear() {
+    incoming.clear();
+    redeemed.clear();
+    partitions.clear();
+    runnable.clear();
+    values.clear();
+  }
+
+  private static final class Partition<T, R> {
+    private final Object key;
+    private final ArrayDeque<T> elements = new ArrayDeque<>();
+    /**
+     * Whether an element of this partition is being mapped, only accessed by the drain loop.
+     */
+    private boolean mapping;
+    private volatile R value;
+
+    Partition(Object key) {
+      this.key = key;
+    }
+  }
+}
@@ -0,0 +1,227 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Implementation of the {@link org.eclipse.microprofile.reactive.streams.spi.Stage.MapAsync} stage.
+ * <p>
+ * Upstream is initially requested {@code parallelism} elements, and then one more each time a value is emitted, so
+ * there are never more than {@code parallelism} elements that have been mapped but whose values have not been
+ * emitted. Each mapped element has a slot. When ordered, slots are queued in the order the elements arrive, and the
+ * head of the queue is emitted once it's redeemed, so the queue doubles as the reorder buffer. When unordered, slots
+ * are queued as they are redeemed.
+ * <p>
+ * Signals arrive from upstream, downstream and from whatever threads redeem the {@link CompletionStage}s, so they're
+ * all funnelled through a single drain loop.
+ */
+@SuppressWarnings("serial")
+final class MapAsyncSubscriber<T, R> extends AtomicInteger implements Subscriber<T>, Subscription {
+
+  private final Subscriber<? super R> downstream;
+  private final Function<? super T, ? extends CompletionStage<? extends R>> mapper;
+  private final int parallelism;
+  private final boolean ordered;
+  private final Queue<Slot<R>> slots = new ConcurrentLinkedQueue<>();
+  /**
+   * The number of elements that have been mapped but whose values have not yet been emitted.
+   */
+  private final AtomicInteger pending = new AtomicInteger();
+  private final AtomicLong requested = new AtomicLong();
+  private final AtomicReference<Throwable> error = new AtomicReference<>();
+  private Subscription upstream;
+  private volatile boolean upstreamDone;
+  private volatile boolean cancelled;
+  private volatile Throwable invalidRequest;
+
+  MapAsyncSubscriber(Subscriber<? super R> downstream,
+      Function<? super T, ? extends CompletionStage<? extends R>> mapper, int parallelism, boolean ordered) {
+    this.downstream = downstream;
+    this.mapper = mapper;
+    this.parallelism = parallelism;
+    this.ordered = ordered;
+  }
+
+  @Override
+  public void onSubscribe(Subscription subscription) {
+    Objects.requireNonNull(subscription, "Subscription must not be null");
+    if (upstream != null) {
+      subscription.cancel();
+    }
+    else {
+      upstream = subscription;
+      downstream.onSubscribe(this);
+      subscription.request(parallelism);
+    }
+  }
+
+  @Override
+  public void onNext(T element) {
+    Objects.requireNonNull(element, "Element must not be null");
+    if (upstreamDone || cancelled) {
+      return;
+    }
+    CompletionStage<? extends R> stage;
+    try {
+      stage = Objects.requireNonNull(mapper.apply(element), "Mapper function returned null");
+    }
+    catch (RuntimeException e) {
+      // The error must be visible before done is, or a concurrent drain could complete the stream instead
+      error.compareAndSet(null, e);
+      upstreamDone = true;
+      upstream.cancel();
+      drain();
+      return;
+    }
+    pending.incrementAndGet();
+    Slot<R> slot = new Slot<>();
+    if (ordered) {
+      slots.offer(slot);
+    }
+    stage.whenComplete((value, failure) -> {
+      if (failure != null) {
+        error.compareAndSet(null,
+            failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure);
+      }
+      else if (value == null) {
+        error.compareAndSet(null, new NullPointerException("CompletionStage was redeemed with null"));
+      }
+      else {
+        slot.value = value;
+        if (!ordered) {
+          slots.offer(slot);
+        }
+      }
+      drain();
+    });
+  }
+
+  @Override
+  public void onError(Throwable error) {
+    Objects.requireNonNull(error, "Error must not be null");
+    this.error.compareAndSet(null, error);
+    upstreamDone = true;
+    drain();
+  }
+
+  @Override
+  public void onComplete() {
+    upstreamDone = true;
+    drain();
+  }
+
+  @Override
+  public void request(long n) {
+    if (n <= 0) {
+      invalidRequest = Subscriptions.nonPositiveRequest(n);
+    }
+    else {
+      Subscriptions.add(requested, n);
+    }
+    drain();
+  }
+
+  @Override
+  public void cancel() {
+    cancelled = true;
+    upstream.cancel();
+    drain();
+  }
+
+  private void drain() {
+    if (getAndIncrement() != 0) {
+      return;
+    }
+    int missed = 1;
+    for (;;) {
+      if (cancelled) {
+        slots.clear();
+        return;
+      }
+      // Read before the error, since errors are published before done is, so a done stream's error is always seen
+      boolean done = upstreamDone;
+      Throwable failure = error.get();
+      if (failure == null) {
+        failure = invalidRequest;
+      }
+      if (failure != null) {
+        cancelled = true;
+        slots.clear();
+        // Upstream must not be cancelled if it has terminated, the failure may be being signalled from its onError
+        if (!upstreamDone) {
+          upstream.cancel();
+        }
+        downstream.onError(failure);
+        return;
+      }
+
+      long requested = this.requested.get();
+      long emitted = 0;
+      while (emitted != requested) {
+        Slot<R> slot = slots.peek();
+        R value = slot == null ? null : slot.value;
+        if (value == null) {
+          break;
+        }
+        slots.poll();
+        pending.decrementAndGet();
+        downstream.onNext(value);
+        emitted++;
+        if (cancelled) {
+          slots.clear();
+          return;
+        }
+      }
+
+      if (emitted != 0) {
+        Subscriptions.produced(this.requested, emitted);
+        if (!done) {
+          upstream.request(emitted);
+        }
+      }
+      if (done && pending.get() == 0) {
+        cancelled = true;
+        downstream.onComplete();
+        return;
+      }
+
+      missed = addAndGet(-missed);
+      if (missed == 0) {
+        return;
+      }
+    }
+  }
+
+  private static final class Slot<R> {
+    private volatile R value;
+  }
+}
@@ -0,0 +1,55 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import org.reactivestreams.Subscriber;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Implementation of the {@link org.eclipse.microprofile.reactive.streams.spi.Stage.Map} stage.
+ */
+final class MapSubscriber<T, R> extends OperatorSubscriber<T, R> {
+
+  private final Function<? super T, ? extends R> mapper;
+
+  MapSubscriber(Subscriber<? super R> downstream, Function<? super T, ? extends R> mapper) {
+    super(downstream);
+    this.mapper = mapper;
+  }
+
+  @Override
+  public void onNext(T element) {
+    Objects.requireNonNull(element, "Element must not be null");
+    if (done) {
+      return;
+    }
+    R result;
+    try {
+      result = Objects.requireNonNull(mapper.apply(element), "Mapper function returned null");
+    }
+    catch (RuntimeException e) {
+      fail(e);
+      return;
+    }
+    downstream.onNext(result);
+  }
+}
@@ -0,0 +1,251 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Implementation of the {@link org.eclipse.microprofile.reactive.streams.spi.Stage.Merge} stage.
+ * <p>
+ * Each source is requested {@code prefetch} elements up front, and all sources offer their elements to one shared
+ * {@link MpscArrayQueue}, which holds {@code prefetch} elements per source, so it can never overflow. The queue is
+ * drained to downstream according to downstream demand, and each source is requested more once three quarters of
+ * its prefetch has been emitted, which the queue makes possible by recording which source offered each element.
+ */
+final class MergePublisher<T> implements Publisher<T> {
+
+  private final List<Publisher<? extends T>> sources;
+  private final int prefetch;
+
+  MergePublisher(List<Publisher<? extends T>> sources, int prefetch) {
+    this.sources = sources;
+    this.prefetch = prefetch;
+  }
+
+  @Override
+  public void subscribe(Subscriber<? super T> subscriber) {
+    Objects.requireNonNull(subscriber, "Subscriber must not be null");
+    MergeSubscription<T> merge = new MergeSubscription<>(subscriber, sources.size(), prefetch);
+    subscriber.onSubscribe(merge);
+    merge.subscribe(sources);
+  }
+
+  @SuppressWarnings("serial")
+  private static final class MergeSubscription<T> extends AtomicInteger implements Subscription {
+    private final Subscriber<? super T> downstream;
+    private final int prefetch;
+    private final int limit;
+    private final MpscArrayQueue<T> queue;
+    private final InnerSubscriber[] inners;
+    private final AtomicInteger active;
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicReference<Throwable> error = new AtomicReference<>();
+    private volatile boolean cancelled;
+    private volatile Throwable invalidRequest;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    MergeSubscription(Subscriber<? super T> downstream, int sources, int prefetch) {
+      this.downstream = downstream;
+      this.prefetch = prefetch;
+      this.limit = prefetch - (prefetch >> 2);
+      this.queue = new MpscArrayQueue<>(sources * prefetch);
+      this.inners = new MergeSubscription.InnerSubscriber[sources];
+      this.active = new AtomicInteger(sources);
+      for (int i = 0; i < sources; i++) {
+        inners[i] = new InnerSubscriber(i);
+      }
+    }
+
+    void subscribe(List<Publisher<? extends T>> sources) {
+      for (int i = 0; i < inners.length && !cancelled; i++) {
+        sources.get(i).subscribe(inners[i]);
+      }
+      // Needed to complete straight away when there are no sources
+      drain();
+    }
+
+    @Override
+    public void request(long n) {
+      if (n <= 0) {
+        invalidRequest = Subscriptions.nonPositiveRequest(n);
+      }
+      else {
+        Subscriptions.add(requested, n);
+      }
+      drain();
+    }
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+      drain();
+    }
+
+    private void drain() {
+      if (getAndIncrement() != 0) {
+        return;
+      }
+      int missed = 1;
+      for (;;) {
+        if (cancelled) {
+          cancelAll();
+          return;
+        }
+        Throwable failure = error.get();
+        if (failure == null) {
+          failure = invalidRequest;
+        }
+        if (failure != null) {
+          cancelled = true;
+          cancelAll();
+          downstream.onError(failure);
+          return;
+        }
+
+        boolean done = active.get() == 0;
+        long requested = this.requested.get();
+        long emitted = 0;
+        T element;
+        while (emitted != requested && (element = queue.poll()) != null) {
+          downstream.onNext(element);
+          emitted++;
+          if (cancelled) {
+            cancelAll();
+            return;
+          }
+          inners[queue.lastProducer()].consumed();
+        }
+        if (emitted != 0) {
+          Subscriptions.produced(this.requested, emitted);
+        }
+
+        if (done && queue.isEmpty()) {
+          cancelled = true;
+          downstream.onComplete();
+          return;
+        }
+
+        missed = addAndGet(-missed);
+        if (missed == 0) {
+          return;
+        }
+      }
+    }
+
+    private void cancelAll() {
+      for (InnerSubscriber inner : inners) {
+        inner.cancel();
+      }
+      queue.clear();
+    }
+
+    private final class InnerSubscriber implements Subscriber<T> {
+      private final int index;
+      private volatile Subscription subscription;
+      private volatile boolean done;
+      /**
+       * The number of elements emitted since this source was last requested more, only accessed by the drain loop.
+       */
+      private int consumed;
+
+      InnerSubscriber(int index) {
+        this.index = index;
+      }
+
+      @Override
+      public void onSubscribe(Subscription subscription) {
+        Objects.requireNonNull(subscription, "Subscription must not be null");
+        if (this.subscription != null) {
+          subscription.cancel();
+          return;
+        }
+        this.subscription = subscription;
+        if (cancelled) {
+          subscription.cancel();
+        }
+        else {
+          subscription.request(prefetch);
+        }
+      }
+
+      @Override
+      public void onNext(T element) {
+        Objects.requireNonNull(element, "Element must not be null");
+        if (done) {
+          return;
+        }
+        if (!queue.offer(index, element)) {
+          done = true;
+          subscription.cancel();
+          error.compareAndSet(null,
+              new IllegalStateException("Source emitted more elements than were requested, see rule 1.1"));
+        }
+        drain();
+      }
+
+      @Override
+      public void onError(Throwable error) {
+        Objects.requireNonNull(error, "Error must not be null");
+        if (!done) {
+          done = true;
+          MergeSubscription.this.error.compareAndSet(null, error);
+          drain();
+        }
+      }
+
+      @Override
+      public void onComplete() {
+        if (!done) {
+          done = true;
+          active.decrementAndGet();
+          drain();
+        }
+      }
+
+      /**
+       * Invoked from the drain loop for each element of this source that is emitted.
+       */
+      void consumed() {
+        if (++consumed == limit) {
+          consumed = 0;
+          if (!done) {
+            subscription.request(limit);
+          }
+        }
+      }
+
+      void cancel() {
+        Subscription subscription = this.subscription;
+        // Sources must not be cancelled if they have terminated, see rule 2.3
+        if (subscription != null && !done) {
+          subscription.cancel();
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded queue for many producer threads and a single consumer thread, backed by a ring buffer.
+ * <p>
+ * The capacity is rounded up to a power of two so that indexes can be wrapped with a mask. Producers claim a slot by
+ * incrementing the producer index, and then publish their element to it, so a slot may be claimed but not yet
+ * published when the consumer reaches it. The consumer treats that the same as the queue being empty, so producers
+ * must signal the consumer after offering, for example, by incrementing a work in progress counter.
+ * <p>
+ * Each element is offered along with the index of the producer that offered it, and the consumer can find out which
+ * producer offered the element it last polled. This allows demand to be replenished per producer without wrapping
+ * each element.
+ */
+final class MpscArrayQueue<E> {
+
+  private final AtomicReferenceArray<E> buffer;
+  private final int[] producers;
+  private final int mask;
+  private final AtomicLong producerIndex = new AtomicLong();
+  private final AtomicLong consumerIndex = new AtomicLong();
+  private int lastProducer = -1;
+
+  MpscArrayQueue(int capacity) {
+    int size = Integer.highestOneBit(Math.max(1, capacity));
+    if (size < capacity) {
+      size <<= 1;
+    }
+    this.buffer = new AtomicReferenceArray<>(size);
+    this.producers = new int[size];
+    this.mask = size - 1;
+  }
+
+  /**
+   * Offer an element to the queue, may be invoked by any producer.
+   *
+   * @param producer The index of the producer offering the element.
+   * @return false if the queue is full.
+   */
+  boolean offer(int producer, E element) {
+    long index;
+    do {
+      index = producerIndex.get();
+      if (index - consumerIndex.get() > mask) {
+        return false;
+      }
+    } while (!producerIndex.compareAndSet(index, index + 1));
+    int offset = (int) index & mask;
+    // Published to the consumer by the ordered write of the element
+    producers[offset] = producer;
+    buffer.lazySet(offset, element);
+    return true;
+  }
+
+  /**
+   * Poll an element from the queue, must only be invoked by the consumer.
+   *
+   * @return The element, or null if the queue is empty, or the next element hasn't been published yet.
+   */
+  E poll() {
+    long index = consumerIndex.get();
+    int offset = (int) index & mask;
+    E element = buffer.get(offset);
+    if (element != null) {
+      lastProducer = producers[offset];
+      buffer.lazySet(offset, null);
+      consumerIndex.lazySet(index + 1);
+    }
+    return element;
+  }
+
+  /**
+   * The index of the producer that offered the element last returned by {@link #poll()}, must only be invoked by the
+   * consumer.
+   */
+  int lastProducer() {
+    return lastProducer;
+  }
+
+  /**
+   * Whether the queue is empty, must only be invoked by the consumer.
+   * <p>
+   * An element that has been claimed but not yet published is not counted.
+   */
+  boolean isEmpty() {
+    return buffer.get((int) consumerIndex.get() & mask) == null;
+  }
+
+  /**
+   * Remove all elements from the queue, must only be invoked by the consumer.
+   */
+  void clear() {
+    while (poll() != null) {
+      // Discard
+    }
+  }
+}
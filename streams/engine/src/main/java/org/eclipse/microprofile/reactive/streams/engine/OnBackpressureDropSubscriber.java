@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Implementation of the {@link org.eclipse.microprofile.reactive.streams.spi.Stage.OnBackpressureDrop} stage.
+ * <p>
+ * Upstream is requested an unbounded number of elements up front, and each element is either emitted or dropped
+ * straight away, on the upstream thread, depending on whether there is outstanding demand. Since nothing is ever
+ * held, there is no drain loop, just a {@link HalfSerializer} for an invalid request that fails the stream from the
+ * downstream thread.
+ */
+final class OnBackpressureDropSubscriber<T> implements Subscriber<T>, Subscription {
+
+  private final Subscriber<? super T> downstream;
+  private final Consumer<? super T> onDrop;
+  private final HalfSerializer<T> serializer;
+  private final AtomicLong requested = new AtomicLong();
+  private Subscription upstream;
+  private boolean done;
+
+  OnBackpressureDropSubscriber(Subscriber<? super T> downstream, Consumer<? super T> onDrop) {
+    this.downstream = downstream;
+    this.onDrop = onDrop;
+    this.serializer = new HalfSerializer<>(downstream);
+  }
+
+  @Override
+  public void onSubscribe(Subscription subscription) {
+    Objects.requireNonNull(subscription, "Subscription must not be null");
+    if (upstream != null) {
+      subscription.cancel();
+    }
+    else {
+      upstream = subscription;
+      downstream.onSubscribe(this);
+      subscription.request(Long.MAX_VALUE);
+    }
+  }
+
+  @Override
+  public void onNext(T element) {
+    Objects.requireNonNull(element, "Element must not be null");
+    if (done) {
+      return;
+    }
+    if (requested.get() != 0) {
+      serializer.onNext(element);
+      Subscriptions.produced(requested, 1);
+    }
+    else {
+      try {
+        onDrop.accept(element);
+      }
+      catch (RuntimeException e) {
+        done = true;
+        upstream.cancel();
+        serializer.onError(e);
+      }
+    }
+  }
+
+  @Override
+  public void onError(Throwable error) {
+    Objects.requireNonNull(error, "Error must not be null");
+    if (!done) {
+      done = true;
+      serializer.onError(error);
+    }
+  }
+
+  @Override
+  public void onComplete() {
+    if (!done) {
+      done = true;
+      serializer.onComplete();
+    }
+  }
+
+  @Override
+  public void request(long n) {
+    if (n <= 0) {
+      upstream.cancel();
+      serializer.onError(Subscriptions.nonPositiveRequest(n));
+    }
+    else {
+      Subscriptions.add(requested, n);
+    }
+  }
+
+  @Override
+  public void cancel() {
+    upstream.cancel();
+  }
+}
@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import org.reactivestreams.Subscriber;
+
+/**
+ * An operator, built from an inlet and outlet stage.
+ * <p>
+ * Operators are applied when a stream is materialized, in reverse order, starting from the subscriber at the end of
+ * the stream, each one wrapping the subscriber downstream of it in a subscriber that implements the operator. The
+ * resulting subscriber is then subscribed to the source of the stream.
+ */
+@FunctionalInterface
+interface Operator {
+
+  /**
+   * Apply this operator to the given downstream subscriber.
+   *
+   * @param downstream The subscriber to emit elements to.
+   * @return The subscriber that implements this operator, which should be subscribed to upstream.
+   */
+  Subscriber<Object> apply(Subscriber<Object> downstream);
+
+  /**
+   * Apply the given operators, in reverse order, to the given subscriber.
+   */
+  static Subscriber<Object> applyAll(Operator[] operators, Subscriber<Object> subscriber) {
+    Subscriber<Object> result = subscriber;
+    for (int i = operators.length - 1; i >= 0; i--) {
+      result = operators[i].apply(result);
+    }
+    return result;
+  }
+}
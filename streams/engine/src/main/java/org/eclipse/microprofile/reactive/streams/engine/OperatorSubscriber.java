@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Objects;
+
+/**
+ * Base class for operators that emit at most one element for each element consumed, and hence can pass demand and
+ * cancellation straight through to upstream.
+ * <p>
+ * Since all signals are passed through unchanged, no synchronization is needed, the serial signalling guarantees of
+ * upstream carry over to downstream.
+ */
+abstract class OperatorSubscriber<T, R> implements Subscriber<T>, Subscription {
+
+  final Subscriber<? super R> downstream;
+  Subscription upstream;
+  boolean done;
+
+  OperatorSubscriber(Subscriber<? super R> downstream) {
+    this.downstream = downstream;
+  }
+
+  @Override
+  public void onSubscribe(Subscription subscription) {
+    Objects.requireNonNull(subscription, "Subscription must not be null");
+    if (upstream != null) {
+      subscription.cancel();
+    }
+    else {
+      upstream = subscription;
+      downstream.onSubscribe(this);
+    }
+  }
+
+  @Override
+  public void onError(Throwable error) {
+    Objects.requireNonNull(error, "Error must not be null");
+    if (!done) {
+      done = true;
+      downstream.onError(error);
+    }
+  }
+
+  @Override
+  public void onComplete() {
+    if (!done) {
+      done = true;
+      downstream.onComplete();
+    }
+  }
+
+  @Override
+  public void request(long n) {
+    upstream.request(n);
+  }
+
+  @Override
+  public void cancel() {
+    upstream.cancel();
+  }
+
+  /**
+   * Fail the stream due to an error thrown by a user supplied function, cancelling upstream.
+   */
+  void fail(Throwable error) {
+    done = true;
+    upstream.cancel();
+    downstream.onError(error);
+  }
+}
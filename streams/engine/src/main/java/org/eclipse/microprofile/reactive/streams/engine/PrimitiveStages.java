@@ -0,0 +1,364 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import org.eclipse.microprofile.reactive.streams.spi.Stage;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.DoubleFunction;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
+import java.util.function.LongUnaryOperator;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+
+/**
+ * Adapts the primitive specializations of stages to their boxed equivalents.
+ * <p>
+ * Elements signalled through Reactive Streams are always boxed, so when a stream is run by Reactive Streams
+ * signals, the primitive stages are simply converted to map, filter and collect stages with functions that unbox and
+ * box around the primitive functions. Runs of adjacent primitive map and filter stages are the exception, they are
+ * fused into a single function that only unboxes and boxes at either end of the run, see {@link #fuse(List)}. The
+ * statistics
+ * stages have their own sink, see {@link StatisticsSubscriber}, and closed graphs that run synchronously evaluate the
+ * primitive functions directly, see {@link SynchronousGraph}.
+ */
+final class PrimitiveStages {
+
+  private PrimitiveStages() {
+  }
+
+  /**
+   * Convert the given stage to its boxed equivalent, if it is a primitive stage.
+   *
+   * @return The boxed stage, or the stage itself if it isn't a primitive stage.
+   */
+  @SuppressWarnings("unchecked")
+  static Stage box(Stage stage) {
+    if (stage instanceof Stage.OfInts) {
+      int[] elements = ((Stage.OfInts) stage).getElements();
+      Iterable<Integer> boxed = () -> Arrays.stream(elements).iterator();
+      return new Stage.Of(boxed);
+    }
+    else if (stage instanceof Stage.MapToInt) {
+      ToIntFunction<Object> mapper = (ToIntFunction<Object>) ((Stage.MapToInt) stage).getMapper();
+      return new Stage.Map(mapper::applyAsInt);
+    }
+    else if (stage instanceof Stage.IntMap) {
+      IntUnaryOperator mapper = ((Stage.IntMap) stage).getMapper();
+      return new Stage.Map((Integer t) -> mapper.applyAsInt(t));
+    }
+    else if (stage instanceof Stage.IntFilter) {
+      IntPredicate predicate = ((Stage.IntFilter) stage).getPredicate();
+      Predicate<Integer> boxed = predicate::test;
+      return new Stage.Filter(() -> boxed);
+    }
+    else if (stage instanceof Stage.IntMapToObj) {
+      IntFunction<?> mapper = ((Stage.IntMapToObj) stage).getMapper();
+      return new Stage.Map((Integer t) -> mapper.apply(t));
+    }
+    else if (stage instanceof Stage.IntCollect) {
+      Stage.IntCollect collect = (Stage.IntCollect) stage;
+      ObjIntConsumer<Object> accumulator = (ObjIntConsumer<Object>) collect.getAccumulator();
+      return new Stage.Collect(Collector.of(
+          (Supplier<Object>) collect.getSupplier(),
+          (Object r, Integer t) -> accumulator.accept(r, t),
+          PrimitiveStages::noCombiner,
+          (Function<Object, Object>) collect.getFinisher()
+      ));
+    }
+    else if (stage instanceof Stage.OfLongs) {
+      long[] elements = ((Stage.OfLongs) stage).getElements();
+      Iterable<Long> boxed = () -> Arrays.stream(elements).iterator();
+      return new Stage.Of(boxed);
+    }
+    else if (stage instanceof Stage.MapToLong) {
+      ToLongFunction<Object> mapper = (ToLongFunction<Object>) ((Stage.MapToLong) stage).getMapper();
+      return new Stage.Map(mapper::applyAsLong);
+    }
+    else if (stage instanceof Stage.LongMap) {
+      LongUnaryOperator mapper = ((Stage.LongMap) stage).getMapper();
+      return new Stage.Map((Long t) -> mapper.applyAsLong(t));
+    }
+    else if (stage instanceof Stage.LongFilter) {
+      LongPredicate predicate = ((Stage.LongFilter) stage).getPredicate();
+      Predicate<Long> boxed = predicate::test;
+      return new Stage.Filter(() -> boxed);
+    }
+    else if (stage instanceof Stage.LongMapToObj) {
+      LongFunction<?> mapper = ((Stage.LongMapToObj) stage).getMapper();
+      return new Stage.Map((Long t) -> mapper.apply(t));
+    }
+    else if (stage instanceof Stage.LongCollect) {
+      Stage.LongCollect collect = (Stage.LongCollect) stage;
+      ObjLongConsumer<Object> accumulator = (ObjLongConsumer<Object>) collect.getAccumulator();
+      return new Stage.Collect(Collector.of(
+          (Supplier<Object>) collect.getSupplier(),
+          (Object r, Long t) -> accumulator.accept(r, t),
+          PrimitiveStages::noCombiner,
+          (Function<Object, Object>) collect.getFinisher()
+      ));
+    }
+    else if (stage instanceof Stage.OfDoubles) {
+      double[] elements = ((Stage.OfDoubles) stage).getElements();
+      Iterable<Double> boxed = () -> Arrays.stream(elements).iterator();
+      return new Stage.Of(boxed);
+    }
+    else if (stage instanceof Stage.MapToDouble) {
+      ToDoubleFunction<Object> mapper = (ToDoubleFunction<Object>) ((Stage.MapToDouble) stage).getMapper();
+      return new Stage.Map(mapper::applyAsDouble);
+    }
+    else if (stage instanceof Stage.DoubleMap) {
+      DoubleUnaryOperator mapper = ((Stage.DoubleMap) stage).getMapper();
+      return new Stage.Map((Double t) -> mapper.applyAsDouble(t));
+    }
+    else if (stage instanceof Stage.DoubleFilter) {
+      DoublePredicate predicate = ((Stage.DoubleFilter) stage).getPredicate();
+      Predicate<Double> boxed = predicate::test;
+      return new Stage.Filter(() -> boxed);
+    }
+    else if (stage instanceof Stage.DoubleMapToObj) {
+      DoubleFunction<?> mapper = ((Stage.DoubleMapToObj) stage).getMapper();
+      return new Stage.Map((Double t) -> mapper.apply(t));
+    }
+    else if (stage instanceof Stage.DoubleCollect) {
+      Stage.DoubleCollect collect = (Stage.DoubleCollect) stage;
+      ObjDoubleConsumer<Object> accumulator = (ObjDoubleConsumer<Object>) collect.getAccumulator();
+      return new Stage.Collect(Collector.of(
+          (Supplier<Object>) collect.getSupplier(),
+          (Object r, Double t) -> accumulator.accept(r, t),
+          PrimitiveStages::noCombiner,
+          (Function<Object, Object>) collect.getFinisher()
+      ));
+    }
+    else {
+      return stage;
+    }
+  }
+
+  /**
+   * Whether the given stage is a primitive map or filter stage, which can be fused with the primitive stages next to
+   * it, see {@link #fuse(List)}.
+   */
+  static boolean isFusable(Stage stage) {
+    return emitsInts(stage) || stage instanceof Stage.IntMapToObj ||
+        emitsLongs(stage) || stage instanceof Stage.LongMapToObj ||
+        emitsDoubles(stage) || stage instanceof Stage.DoubleMapToObj;
+  }
+
+  /**
+   * Whether {@code next} consumes the primitive elements that {@code previous} emits, so the two belong to the same
+   * run of primitive stages.
+   */
+  static boolean continues(Stage previous, Stage next) {
+    if (emitsInts(previous)) {
+      return next instanceof Stage.IntMap || next instanceof Stage.IntFilter || next instanceof Stage.IntMapToObj;
+    }
+    else if (emitsLongs(previous)) {
+      return next instanceof Stage.LongMap || next instanceof Stage.LongFilter || next instanceof Stage.LongMapToObj;
+    }
+    else if (emitsDoubles(previous)) {
+      return next instanceof Stage.DoubleMap || next instanceof Stage.DoubleFilter ||
+          next instanceof Stage.DoubleMapToObj;
+    }
+    else {
+      return false;
+    }
+  }
+
+  private static boolean emitsInts(Stage stage) {
+    return stage instanceof Stage.MapToInt || stage instanceof Stage.IntMap || stage instanceof Stage.IntFilter;
+  }
+
+  private static boolean emitsLongs(Stage stage) {
+    return stage instanceof Stage.MapToLong || stage instanceof Stage.LongMap || stage instanceof Stage.LongFilter;
+  }
+
+  private static boolean emitsDoubles(Stage stage) {
+    return stage instanceof Stage.MapToDouble || stage instanceof Stage.DoubleMap ||
+        stage instanceof Stage.DoubleFilter;
+  }
+
+  /**
+   * Fuse a run of primitive stages, in which each stage after the first {@link #continues(Stage, Stage) continues}
+   * the one before it, into a single function.
+   * <p>
+   * The function unboxes the element once, or maps it to a primitive if the run starts with a map to primitive stage,
+   * passes the primitive value through the primitive functions, and boxes the result once, or maps it to an object if
+   * the run ends with a map to object stage. It returns null if a filter drops the element.
+   */
+  static Function<Object, Object> fuse(List<Stage> run) {
+    Stage first = run.get(0);
+    if (emitsInts(first) || first instanceof Stage.IntMapToObj) {
+      return fuseInts(run);
+    }
+    else if (emitsLongs(first) || first instanceof Stage.LongMapToObj) {
+      return fuseLongs(run);
+    }
+    else {
+      return fuseDoubles(run);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Function<Object, Object> fuseInts(List<Stage> run) {
+    int from = 0;
+    int to = run.size();
+    ToIntFunction<Object> unbox = t -> (Integer) t;
+    IntFunction<Object> box = Integer::valueOf;
+    if (run.get(0) instanceof Stage.MapToInt) {
+      unbox = (ToIntFunction<Object>) ((Stage.MapToInt) run.get(0)).getMapper();
+      from++;
+    }
+    if (run.get(to - 1) instanceof Stage.IntMapToObj) {
+      box = (IntFunction<Object>) ((Stage.IntMapToObj) run.get(to - 1)).getMapper();
+      to--;
+    }
+    // A null mapper marks a filter, a null predicate a map
+    IntUnaryOperator[] mappers = new IntUnaryOperator[to - from];
+    IntPredicate[] predicates = new IntPredicate[to - from];
+    for (int i = from; i < to; i++) {
+      Stage stage = run.get(i);
+      if (stage instanceof Stage.IntMap) {
+        mappers[i - from] = ((Stage.IntMap) stage).getMapper();
+      }
+      else {
+        predicates[i - from] = ((Stage.IntFilter) stage).getPredicate();
+      }
+    }
+    ToIntFunction<Object> toInt = unbox;
+    IntFunction<Object> fromInt = box;
+    return element -> {
+      int value = toInt.applyAsInt(element);
+      for (int i = 0; i < mappers.length; i++) {
+        if (mappers[i] != null) {
+          value = mappers[i].applyAsInt(value);
+        }
+        else if (!predicates[i].test(value)) {
+          return null;
+        }
+      }
+      return Objects.requireNonNull(fromInt.apply(value), "Mapper function returned null");
+    };
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Function<Object, Object> fuseLongs(List<Stage> run) {
+    int from = 0;
+    int to = run.size();
+    ToLongFunction<Object> unbox = t -> (Long) t;
+    LongFunction<Object> box = Long::valueOf;
+    if (run.get(0) instanceof Stage.MapToLong) {
+      unbox = (ToLongFunction<Object>) ((Stage.MapToLong) run.get(0)).getMapper();
+      from++;
+    }
+    if (run.get(to - 1) instanceof Stage.LongMapToObj) {
+      box = (LongFunction<Object>) ((Stage.LongMapToObj) run.get(to - 1)).getMapper();
+      to--;
+    }
+    // A null mapper marks a filter, a null predicate a map
+    LongUnaryOperator[] mappers = new LongUnaryOperator[to - from];
+    LongPredicate[] predicates = new LongPredicate[to - from];
+    for (int i = from; i < to; i++) {
+      Stage stage = run.get(i);
+      if (stage instanceof Stage.LongMap) {
+        mappers[i - from] = ((Stage.LongMap) stage).getMapper();
+      }
+      else {
+        predicates[i - from] = ((Stage.LongFilter) stage).getPredicate();
+      }
+    }
+    ToLongFunction<Object> toLong = unbox;
+    LongFunction<Object> fromLong = box;
+    return element -> {
+      long value = toLong.applyAsLong(element);
+      for (int i = 0; i < mappers.length; i++) {
+        if (mappers[i] != null) {
+          value = mappers[i].applyAsLong(value);
+        }
+        else if (!predicates[i].test(value)) {
+          return null;
+        }
+      }
+      return Objects.requireNonNull(fromLong.apply(value), "Mapper function returned null");
+    };
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Function<Object, Object> fuseDoubles(List<Stage> run) {
+    int from = 0;
+    int to = run.size();
+    ToDoubleFunction<Object> unbox = t -> (Double) t;
+    DoubleFunction<Object> box = Double::valueOf;
+    if (run.get(0) instanceof Stage.MapToDouble) {
+      unbox = (ToDoubleFunction<Object>) ((Stage.MapToDouble) run.get(0)).getMapper();
+      from++;
+    }
+    if (run.get(to - 1) instanceof Stage.DoubleMapToObj) {
+      box = (DoubleFunction<Object>) ((Stage.DoubleMapToObj) run.get(to - 1)).getMapper();
+      to--;
+    }
+    // A null mapper marks a filter, a null predicate a map
+    DoubleUnaryOperator[] mappers = new DoubleUnaryOperator[to - from];
+    DoublePredicate[] predicates = new DoublePredicate[to - from];
+    for (int i = from; i < to; i++) {
+      Stage stage = run.get(i);
+      if (stage instanceof Stage.DoubleMap) {
+        mappers[i - from] = ((Stage.DoubleMap) stage).getMapper();
+      }
+      else {
+        predicates[i - from] = ((Stage.DoubleFilter) stage).getPredicate();
+      }
+    }
+    ToDoubleFunction<Object> toDouble = unbox;
+    DoubleFunction<Object> fromDouble = box;
+    return element -> {
+      double value = toDouble.applyAsDouble(element);
+      for (int i = 0; i < mappers.length; i++) {
+        if (mappers[i] != null) {
+          value = mappers[i].applyAsDouble(value);
+        }
+        else if (!predicates[i].test(value)) {
+          return null;
+        }
+      }
+      return Objects.requireNonNull(fromDouble.apply(value), "Mapper function returned null");
+    };
+  }
+
+  private static <A> A noCombiner(A a, A b) {
+    throw new UnsupportedOperationException("Reactive streams are sequential, results are never combined");
+  }
+}
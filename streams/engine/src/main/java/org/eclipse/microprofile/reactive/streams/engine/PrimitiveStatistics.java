@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import org.eclipse.microprofile.reactive.streams.spi.Stage;
+
+import java.util.DoubleSummaryStatistics;
+import java.util.IntSummaryStatistics;
+import java.util.LongSummaryStatistics;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+
+/**
+ * Support for the primitive statistics stages.
+ * <p>
+ * All the statistics are accumulated in the JDK summary statistics classes, which hold the count, sum, minimum and
+ * maximum in primitive fields, and the requested statistic is then extracted from the summary when the stream
+ * completes. This gives the same results, including for sums that overflow and compensated double summation, as the
+ * equivalent {@link java.util.stream.IntStream}, {@link java.util.stream.LongStream} and
+ * {@link java.util.stream.DoubleStream} operations.
+ */
+final class PrimitiveStatistics {
+
+  private PrimitiveStatistics() {
+  }
+
+  static Object result(IntSummaryStatistics summary, Stage.Statistic statistic) {
+    switch (statistic) {
+      case SUM:
+        return (int) summary.getSum();
+      case MIN:
+        return summary.getCount() == 0 ? OptionalInt.empty() : OptionalInt.of(summary.getMin());
+      case MAX:
+        return summary.getCount() == 0 ? OptionalInt.empty() : OptionalInt.of(summary.getMax());
+      case AVERAGE:
+        return summary.getCount() == 0 ? OptionalDouble.empty() : OptionalDouble.of(summary.getAverage());
+      default:
+        return summary;
+    }
+  }
+
+  static Object result(LongSummaryStatistics summary, Stage.Statistic statistic) {
+    switch (statistic) {
+      case SUM:
+        return summary.getSum();
+      case MIN:
+        return summary.getCount() == 0 ? OptionalLong.empty() : OptionalLong.of(summary.getMin());
+      case MAX:
+        return summary.getCount() == 0 ? OptionalLong.empty() : OptionalLong.of(summary.getMax());
+      case AVERAGE:
+        return summary.getCount() == 0 ? OptionalDouble.empty() : OptionalDouble.of(summary.getAverage());
+      default:
+        return summary;
+    }
+  }
+
+  static Object result(DoubleSummaryStatistics summary, Stage.Statistic statistic) {
+    switch (statistic) {
+      case SUM:
+        return summary.getSum();
+      case MIN:
+        return summary.getCount() == 0 ? OptionalDouble.empty() : OptionalDouble.of(summary.getMin());
+      case MAX:
+        return summary.getCount() == 0 ? OptionalDouble.empty() : OptionalDouble.of(summary.getMax());
+      case AVERAGE:
+        return summary.getCount() == 0 ? OptionalDouble.empty() : OptionalDouble.of(summary.getAverage());
+      default:
+        return summary;
+    }
+  }
+}
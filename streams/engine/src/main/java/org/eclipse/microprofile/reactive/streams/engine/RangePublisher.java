@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implementation of the {@link org.eclipse.microprofile.reactive.streams.spi.Stage.Range} stage.
+ */
+final class RangePublisher implements Publisher<Long> {
+
+  private final long start;
+  private final long count;
+
+  RangePublisher(long start, long count) {
+    this.start = start;
+    this.count = count;
+  }
+
+  @Override
+  public void subscribe(Subscriber<? super Long> subscriber) {
+    Objects.requireNonNull(subscriber, "Subscriber must not be null");
+    if (count == 0) {
+      Subscriptions.complete(subscriber);
+    }
+    else {
+      subscriber.onSubscribe(new RangeSubscription(subscriber, start, count));
+    }
+  }
+
+  /**
+   * The subscription, which also holds the outstanding demand.
+   * <p>
+   * Emission follows the same scheme as {@link IterablePublisher}, but since the next element is just a counter, each
+   * pass of the emission loop emits exactly the outstanding demand, or the rest of the range if that's smaller, in a
+   * tight loop.
+   */
+  @SuppressWarnings("serial")
+  private static final class RangeSubscription extends AtomicLong implements Subscription {
+    private final Subscriber<? super Long> downstream;
+    private long next;
+    private long remaining;
+    private volatile boolean cancelled;
+    private volatile Throwable invalidRequest;
+
+    RangeSubscription(Subscriber<? super Long> downstream, long start, long count) {
+      this.downstream = downstream;
+      this.next = start;
+      this.remaining = count;
+    }
+
+    @Override
+    public void request(long n) {
+      if (n <= 0) {
+        // Record the invalid request, and add demand of one so that the emission loop is woken up to signal it.
+        invalidRequest = Subscriptions.nonPositiveRequest(n);
+        n = 1;
+      }
+      if (Subscriptions.add(this, n) == 0) {
+        emit(n);
+      }
+    }
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+    }
+
+    private void emit(long requested) {
+      long next = this.next;
+      long remaining = this.remaining;
+      for (;;) {
+        if (invalidRequest != null) {
+          cancelled = true;
+          downstream.onError(invalidRequest);
+          return;
+        }
+        long toEmit = Math.min(requested, remaining);
+        for (long i = 0; i < toEmit; i++) {
+          if (cancelled) {
+            return;
+          }
+          downstream.onNext(next++);
+        }
+        remaining -= toEmit;
+        if (remaining == 0) {
+          if (!cancelled) {
+            cancelled = true;
+            downstream.onComplete();
+          }
+          return;
+        }
+        this.next = next;
+        this.remaining = remaining;
+        requested = Subscriptions.produced(this, toEmit);
+        if (requested == 0) {
+          return;
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,429 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import org.eclipse.microprofile.reactive.streams.SubscriberWithResult;
+import org.eclipse.microprofile.reactive.streams.spi.Graph;
+import org.eclipse.microprofile.reactive.streams.spi.ReactiveStreamsEngine;
+import org.eclipse.microprofile.reactive.streams.spi.Scheduler;
+import org.eclipse.microprofile.reactive.streams.spi.Stage;
+import org.eclipse.microprofile.reactive.streams.spi.UnsupportedStageException;
+import org.reactivestreams.Processor;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collector;
+
+/**
+ * A Reactive Streams engine with no dependencies beyond the JDK and the Reactive Streams interfaces.
+ * <p>
+ * Graphs are built into a source {@link Publisher}, a sequence of {@link Operator}s, and, for graphs with no outlet,
+ * a {@link SinkSubscriber}. Nothing is materialized until a subscriber is supplied, at which point the operators
+ * wrap the subscriber, and the resulting subscriber is subscribed to the source. Signals then flow directly between
+ * the stages on whichever thread they were emitted. The only threads created by this engine are the timer shared by
+ * time based stages, see {@link HashedWheelTimer}, which is started when first needed, and the threads those stages
+ * continue on once their timers fire.
+ * <p>
+ * Consecutive map, filter and take while stages are fused into a single operator, see {@link FusedSubscriber}.
+ * Closed graphs that consume an in memory iterable or a range are run as a plain loop, see {@link SynchronousGraph}.
+ */
+public class ReactiveStreamsEngineImpl implements ReactiveStreamsEngine {
+
+  /**
+   * Shared by every instance, since the zero argument build methods load a new engine each time they're invoked.
+   */
+  private static final HashedWheelTimer SCHEDULER =
+      new HashedWheelTimer("reactive-streams-engine-timer", 1, TimeUnit.MILLISECONDS, 512);
+
+  /**
+   * Runs whatever time based stages do when their timers fire, such as requesting from upstream or emitting to
+   * downstream, so that the timer thread only ever signals streams. Threads are created as needed and reused, so a
+   * stream whose downstream blocks only holds up its own thread, not the timers of every other stream.
+   */
+  private static final Executor TIMER_EXECUTOR = timerExecutor();
+
+  private static Executor timerExecutor() {
+    AtomicInteger threads = new AtomicInteger();
+    return new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+        new SynchronousQueue<>(), task -> {
+          Thread thread = new Thread(task, "reactive-streams-engine-worker-" + threads.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        });
+  }
+
+  @Override
+  public <T> Publisher<T> buildPublisher(Graph graph) throws UnsupportedStageException {
+    Iterator<Stage> stages = graph.getStages().iterator();
+    Publisher<Object> source = buildSource(stages.next());
+    return new GraphPublisher<>(source, buildOperators(stages));
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T, R> SubscriberWithResult<T, R> buildSubscriber(Graph graph) throws UnsupportedStageException {
+    List<Stage> stages = new ArrayList<>(graph.getStages());
+    SinkSubscriber<Object, Object> sink = buildSink(stages.remove(stages.size() - 1));
+    Operator[] operators = buildOperators(stages.iterator());
+    Subscriber<Object> subscriber;
+    try {
+      subscriber = Operator.applyAll(operators, sink);
+    }
+    catch (RuntimeException e) {
+      Subscriptions.error(sink, e);
+      subscriber = CancellingSubscriber.INSTANCE;
+    }
+    return new SubscriberWithResult<>((Subscriber<T>) subscriber, (CompletionStage<R>) sink.getResult());
+  }
+
+  @Override
+  public <T, R> Processor<T, R> buildProcessor(Graph graph) throws UnsupportedStageException {
+    return new GraphProcessor<>(buildOperators(graph.getStages().iterator()));
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> CompletionStage<T> buildCompletion(Graph graph) throws UnsupportedStageException {
+    List<Stage> stages = new ArrayList<>(graph.getStages());
+    if (SynchronousGraph.isSynchronous(stages)) {
+      return SynchronousGraph.run(stages);
+    }
+    Publisher<Object> source = buildSource(stages.get(0));
+    SinkSubscriber<Object, Object> sink = buildSink(stages.get(stages.size() - 1));
+    Operator[] operators = buildOperators(stages.subList(1, stages.size() - 1).iterator());
+    new GraphPublisher<>(source, operators).subscribe(sink);
+    return (CompletionStage<T>) sink.getResult();
+  }
+
+  @Override
+  public Scheduler getScheduler() {
+    return SCHEDULER;
+  }
+
+  /**
+   * The scheduler for a time based stage, which isn't supported if a subclass has no scheduler.
+   */
+  private Scheduler requireScheduler(Stage stage) {
+    Scheduler scheduler = getScheduler();
+    if (scheduler == null) {
+      throw new UnsupportedStageException(stage);
+    }
+    return scheduler;
+  }
+
+  @SuppressWarnings("unchecked")
+  private Publisher<Object> buildSource(Stage stage) {
+    stage = PrimitiveStages.box(stage);
+    if (stage instanceof Stage.Of) {
+      return new IterablePublisher<>(((Stage.Of) stage).getElements());
+    }
+    else if (stage instanceof Stage.Range) {
+      Stage.Range range = (Stage.Range) stage;
+      return (Publisher<Object>) (Publisher<?>) new RangePublisher(range.getStart(), range.getCount());
+    }
+    else if (stage instanceof Stage.PublisherStage) {
+      return (Publisher<Object>) ((Stage.PublisherStage) stage).getRsPublisher();
+    }
+    else if (stage instanceof Stage.Failed) {
+      Throwable error = ((Stage.Failed) stage).getError();
+      return subscriber -> Subscriptions.error(subscriber, error);
+    }
+    else if (stage instanceof Stage.Concat) {
+      Stage.Concat concat = (Stage.Concat) stage;
+      return new ConcatPublisher<>(
+          Arrays.asList(buildPublisher(concat.getFirst()), buildPublisher(concat.getSecond())));
+    }
+    else if (stage instanceof Stage.ConcatAll) {
+      List<Graph> graphs = ((Stage.ConcatAll) stage).getGraphs();
+      List<Publisher<?>> publishers = new ArrayList<>(graphs.size());
+      for (Graph graph : graphs) {
+        publishers.add(buildPublisher(graph));
+      }
+      return new ConcatPublisher<>(publishers);
+    }
+    else if (stage instanceof Stage.Merge) {
+      Stage.Merge merge = (Stage.Merge) stage;
+      List<Publisher<?>> sources = new ArrayList<>(merge.getGraphs().size());
+      for (Graph graph : merge.getGraphs()) {
+        sources.add(buildPublisher(graph));
+      }
+      return new MergePublisher<>(sources, merge.getPrefetch());
+    }
+    else {
+      throw new UnsupportedStageException(stage);
+    }
+  }
+
+  /**
+   * Build the operators for the given stages, fusing runs of stages that can be fused into a single operator.
+   */
+  private Operator[] buildOperators(Iterator<Stage> stages) {
+    List<Operator> operators = new ArrayList<>();
+    List<Stage> fusable = new ArrayList<>();
+    while (stages.hasNext()) {
+      // Primitive stages are only boxed if they can't be fused, fusion unboxes and boxes once per run of them
+      Stage stage = stages.next();
+      if (FusedSubscriber.isFusable(stage)) {
+        fusable.add(stage);
+      }
+      else {
+        fuse(fusable, operators);
+        operators.add(buildOperator(PrimitiveStages.box(stage)));
+      }
+    }
+    fuse(fusable, operators);
+    return operators.toArray(new Operator[0]);
+  }
+
+  private void fuse(List<Stage> fusable, List<Operator> operators) {
+    if (fusable.size() == 1) {
+      operators.add(buildOperator(PrimitiveStages.box(fusable.get(0))));
+    }
+    else if (fusable.size() > 1) {
+      operators.add(FusedSubscriber.fuse(fusable));
+    }
+    fusable.clear();
+  }
+
+  @SuppressWarnings("unchecked")
+  private Operator buildOperator(Stage stage) {
+    if (stage instanceof Stage.Map) {
+      Function<Object, Object> mapper = (Function<Object, Object>) ((Stage.Map) stage).getMapper();
+      return downstream -> new MapSubscriber<>(downstream, mapper);
+    }
+    else if (stage instanceof Stage.Filter) {
+      Stage.Filter filter = (Stage.Filter) stage;
+      return downstream -> new FilterSubscriber<>(downstream, (Predicate<Object>) filter.getPredicate().get());
+    }
+    else if (stage instanceof Stage.TakeWhile) {
+      Stage.TakeWhile takeWhile = (Stage.TakeWhile) stage;
+      return downstream -> new TakeWhileSubscriber<>(downstream, (Predicate<Object>) takeWhile.getPredicate().get(),
+          takeWhile.isInclusive());
+    }
+    else if (stage instanceof Stage.Limit) {
+      long maxSize = ((Stage.Limit) stage).getMaxSize();
+      return downstream -> new LimitSubscriber<>(downstream, maxSize);
+    }
+    else if (stage instanceof Stage.Skip) {
+      long n = ((Stage.Skip) stage).getN();
+      return downstream -> new SkipSubscriber<>(downstream, n);
+    }
+    else if (stage instanceof Stage.Grouped) {
+      int size = ((Stage.Grouped) stage).getSize();
+      return downstream -> new GroupedSubscriber<>(downstream, size);
+    }
+    else if (stage instanceof Stage.GroupedWithin) {
+      Scheduler scheduler = requireScheduler(stage);
+      Stage.GroupedWithin groupedWithin = (Stage.GroupedWithin) stage;
+      return downstream -> new GroupedWithinSubscriber<>(downstream, groupedWithin.getMaxSize(),
+          groupedWithin.getMaxWait().toNanos(), scheduler, TIMER_EXECUTOR);
+    }
+    else if (stage instanceof Stage.Throttle) {
+      Scheduler scheduler = requireScheduler(stage);
+      Stage.Throttle throttle = (Stage.Throttle) stage;
+      long nanosPerToken = Math.max(1, throttle.getPer().toNanos() / throttle.getElements());
+      return downstream -> new ThrottleSubscriber<>(downstream, nanosPerToken, throttle.getMaximumBurst(),
+          scheduler, TIMER_EXECUTOR);
+    }
+    else if (stage instanceof Stage.IdleTimeout) {
+      Scheduler scheduler = requireScheduler(stage);
+      long timeout = ((Stage.IdleTimeout) stage).getTimeout().toNanos();
+      return downstream -> new TimeoutSubscriber<>(downstream, TimeoutSubscriber.Mode.IDLE, timeout, scheduler,
+          TIMER_EXECUTOR);
+    }
+    else if (stage instanceof Stage.CompletionTimeout) {
+      Scheduler scheduler = requireScheduler(stage);
+      long timeout = ((Stage.CompletionTimeout) stage).getTimeout().toNanos();
+      return downstream -> new TimeoutSubscriber<>(downstream, TimeoutSubscriber.Mode.COMPLETION, timeout,
+          scheduler, TIMER_EXECUTOR);
+    }
+    else if (stage instanceof Stage.InitialTimeout) {
+      Scheduler scheduler = requireScheduler(stage);
+      long timeout = ((Stage.InitialTimeout) stage).getTimeout().toNanos();
+      return downstream -> new TimeoutSubscriber<>(downstream, TimeoutSubscriber.Mode.INITIAL, timeout, scheduler,
+          TIMER_EXECUTOR);
+    }
+    else if (stage instanceof Stage.Buffer) {
+      Stage.Buffer buffer = (Stage.Buffer) stage;
+      return downstream -> new BufferSubscriber<>(downstream, buffer.getSize(), buffer.getOverflowStrategy());
+    }
+    else if (stage instanceof Stage.Conflate) {
+      Stage.Conflate conflate = (Stage.Conflate) stage;
+      return downstream -> new ConflateSubscriber<>(downstream, (Function<Object, Object>) conflate.getSeed(),
+          (BiFunction<Object, Object, Object>) conflate.getAggregate());
+    }
+    else if (stage instanceof Stage.Expand) {
+      Function<Object, Iterator<Object>> extrapolate =
+          (Function<Object, Iterator<Object>>) ((Stage.Expand) stage).getExtrapolate();
+      return downstream -> new ExpandSubscriber<>(downstream, extrapolate);
+    }
+    else if (stage instanceof Stage.OnBackpressureDrop) {
+      Consumer<Object> onDrop = (Consumer<Object>) ((Stage.OnBackpressureDrop) stage).getOnDrop();
+      return downstream -> new OnBackpressureDropSubscriber<>(downstream, onDrop);
+    }
+    else if (stage instanceof Stage.OnBackpressureLatest) {
+      // Keeping the latest element is conflating, where each element replaces the one before it
+      Consumer<Object> onDrop = (Consumer<Object>) ((Stage.OnBackpressureLatest) stage).getOnDrop();
+      return downstream -> new ConflateSubscriber<>(downstream, Function.identity(), (dropped, element) -> {
+        onDrop.accept(dropped);
+        return element;
+      });
+    }
+    else if (stage instanceof Stage.Zip) {
+      Stage.Zip zip = (Stage.Zip) stage;
+      BiFunction<Object, Object, Object> zipper = (BiFunction<Object, Object, Object>) zip.getZipper();
+      return downstream -> new ZipSubscriber<>(downstream, buildPublisher(zip.getOther()), zipper,
+          zip.getBufferSize());
+    }
+    else if (stage instanceof Stage.Balance) {
+      Stage.Balance balance = (Stage.Balance) stage;
+      return downstream -> balance(downstream, balance.getWorker(), balance.getWorkers(), null,
+          balance.getBufferSize());
+    }
+    else if (stage instanceof Stage.Partition) {
+      Stage.Partition partition = (Stage.Partition) stage;
+      ToIntFunction<Object> partitioner = (ToIntFunction<Object>) partition.getPartitioner();
+      return downstream -> balance(downstream, partition.getWorker(), partition.getPartitions(), partitioner,
+          partition.getBufferSize());
+    }
+    else if (stage instanceof Stage.AsyncBoundary) {
+      Stage.AsyncBoundary boundary = (Stage.AsyncBoundary) stage;
+      return downstream -> new AsyncBoundarySubscriber<>(downstream, boundary.getExecutor(), boundary.getBufferSize());
+    }
+    else if (stage instanceof Stage.FlatMap) {
+      Function<Object, Graph> mapper = (Function<Object, Graph>) ((Stage.FlatMap) stage).getMapper();
+      Function<Object, Publisher<Object>> publisherMapper = mapper.andThen(this::buildPublisher);
+      return downstream -> new FlatMapSubscriber<>(downstream, publisherMapper);
+    }
+    else if (stage instanceof Stage.FlatMapMerge) {
+      Stage.FlatMapMerge flatMapMerge = (Stage.FlatMapMerge) stage;
+      Function<Object, Graph> mapper = (Function<Object, Graph>) flatMapMerge.getMapper();
+      Function<Object, Publisher<Object>> publisherMapper = mapper.andThen(this::buildPublisher);
+      return downstream -> new FlatMapMergeSubscriber<>(downstream, publisherMapper,
+          flatMapMerge.getMaxConcurrency(), flatMapMerge.getPrefetch());
+    }
+    else if (stage instanceof Stage.FlatMapCompletionStage) {
+      Function<Object, CompletionStage<Object>> mapper =
+          (Function) ((Stage.FlatMapCompletionStage) stage).getMapper();
+      return downstream -> new FlatMapCompletionStageSubscriber<>(downstream, mapper);
+    }
+    else if (stage instanceof Stage.MapAsync) {
+      Stage.MapAsync mapAsync = (Stage.MapAsync) stage;
+      Function<Object, CompletionStage<Object>> mapper = (Function) mapAsync.getMapper();
+      return downstream -> new MapAsyncSubscriber<>(downstream, mapper, mapAsync.getParallelism(),
+          mapAsync.isOrdered());
+    }
+    else if (stage instanceof Stage.MapAsyncPartitioned) {
+      Stage.MapAsyncPartitioned mapAsync = (Stage.MapAsyncPartitioned) stage;
+      Function<Object, Object> key = (Function<Object, Object>) mapAsync.getKey();
+      Function<Object, CompletionStage<Object>> mapper = (Function) mapAsync.getMapper();
+      return downstream -> new MapAsyncPartitionedSubscriber<>(downstream, key, mapper, mapAsync.getParallelism(),
+          mapAsync.getBufferSize());
+    }
+    else if (stage instanceof Stage.FlatMapIterable) {
+      Function<Object, Iterable<Object>> mapper = (Function) ((Stage.FlatMapIterable) stage).getMapper();
+      return downstream -> new FlatMapIterableSubscriber<>(downstream, mapper);
+    }
+    else if (stage instanceof Stage.ProcessorStage) {
+      Processor<Object, Object> processor = (Processor<Object, Object>) ((Stage.ProcessorStage) stage).getRsProcessor();
+      return downstream -> {
+        processor.subscribe(downstream);
+        return processor;
+      };
+    }
+    else {
+      throw new UnsupportedStageException(stage);
+    }
+  }
+
+  /**
+   * Materialize the worker graph once for each worker, feed the workers from a {@link BalanceSubscriber}, and merge
+   * their outputs to downstream.
+   */
+  private Subscriber<Object> balance(Subscriber<Object> downstream, Graph worker, int workers,
+      ToIntFunction<Object> partitioner, int bufferSize) {
+    BalanceSubscriber<Object> balancer = new BalanceSubscriber<>(workers, partitioner, bufferSize);
+    List<Publisher<?>> outputs = new ArrayList<>(workers);
+    for (int i = 0; i < workers; i++) {
+      Processor<Object, Object> processor = buildProcessor(worker);
+      balancer.getWorker(i).subscribe(processor);
+      outputs.add(processor);
+    }
+    new MergePublisher<>(outputs, bufferSize).subscribe(downstream);
+    return balancer;
+  }
+
+  @SuppressWarnings("unchecked")
+  private SinkSubscriber<Object, Object> buildSink(Stage stage) {
+    stage = PrimitiveStages.box(stage);
+    SinkSubscriber<?, ?> sink;
+    if (stage instanceof Stage.Collect) {
+      sink = new CollectSubscriber<>((Collector<Object, Object, Object>) ((Stage.Collect) stage).getCollector());
+    }
+    else if (stage instanceof Stage.FindFirst) {
+      sink = new FindFirstSubscriber<>();
+    }
+    else if (stage instanceof Stage.Count) {
+      sink = new CountSubscriber();
+    }
+    else if (stage instanceof Stage.IntStatistics) {
+      sink = StatisticsSubscriber.ofInts(((Stage.IntStatistics) stage).getStatistic());
+    }
+    else if (stage instanceof Stage.LongStatistics) {
+      sink = StatisticsSubscriber.ofLongs(((Stage.LongStatistics) stage).getStatistic());
+    }
+    else if (stage instanceof Stage.DoubleStatistics) {
+      sink = StatisticsSubscriber.ofDoubles(((Stage.DoubleStatistics) stage).getStatistic());
+    }
+    else if (stage instanceof Stage.SubscriberStage) {
+      sink = new SubscriberStageSubscriber<>((Subscriber<Object>) ((Stage.SubscriberStage) stage).getRsSubscriber());
+    }
+    else if (stage instanceof Stage.Cancel) {
+      sink = new CancelSubscriber<>();
+    }
+    else if (stage instanceof Stage.Broadcast) {
+      Stage.Broadcast broadcast = (Stage.Broadcast) stage;
+      List<SubscriberWithResult<Object, Object>> subscribers = new ArrayList<>(broadcast.getGraphs().size());
+      for (Graph graph : broadcast.getGraphs()) {
+        subscribers.add(buildSubscriber(graph));
+      }
+      sink = new BroadcastSubscriber<>(subscribers, broadcast.getBufferSize());
+    }
+    else {
+      throw new UnsupportedStageException(stage);
+    }
+    return (SinkSubscriber<Object, Object>) sink;
+  }
+}
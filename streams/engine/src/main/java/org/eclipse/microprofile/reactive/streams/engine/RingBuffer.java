@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+/**
+ * A bounded double ended queue backed by an array whose length is a power of two, so that indexes can be wrapped
+ * with a mask.
+ * <p>
+ * This is not thread safe, callers must ensure that it is only accessed by one thread at a time, for example, by only
+ * accessing it from a drain loop.
+ */
+final class RingBuffer<E> {
+
+  private final Object[] buffer;
+  private final int mask;
+  private final int capacity;
+  private long head;
+  private long tail;
+
+  RingBuffer(int capacity) {
+    int size = Integer.highestOneBit(Math.max(1, capacity));
+    if (size < capacity) {
+      size <<= 1;
+    }
+    this.buffer = new Object[size];
+    this.mask = size - 1;
+    this.capacity = capacity;
+  }
+
+  int size() {
+    return (int) (tail - head);
+  }
+
+  boolean isEmpty() {
+    return head == tail;
+  }
+
+  boolean isFull() {
+    return size() == capacity;
+  }
+
+  /**
+   * Add an element to the tail of the buffer, the buffer must not be full.
+   */
+  void add(E element) {
+    buffer[(int) tail++ & mask] = element;
+  }
+
+  /**
+   * Remove the element at the head of the buffer.
+   *
+   * @return The element, or null if the buffer is empty.
+   */
+  @SuppressWarnings("unchecked")
+  E pollFirst() {
+    if (head == tail) {
+      return null;
+    }
+    int offset = (int) head++ & mask;
+    E element = (E) buffer[offset];
+    buffer[offset] = null;
+    return element;
+  }
+
+  /**
+   * Remove the element at the tail of the buffer.
+   *
+   * @return The element, or null if the buffer is empty.
+   */
+  @SuppressWarnings("unchecked")
+  E pollLast() {
+    if (head == tail) {
+      return null;
+    }
+    int offset = (int) --tail & mask;
+    E element = (E) buffer[offset];
+    buffer[offset] = null;
+    return element;
+  }
+
+  void clear() {
+    while (pollFirst() != null) {
+      // Discard
+    }
+  }
+}
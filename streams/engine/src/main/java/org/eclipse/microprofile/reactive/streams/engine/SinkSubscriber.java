@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Base class for subscribers that implement the inlet only stages at the end of a graph, which redeem a result when
+ * the stream terminates.
+ */
+abstract class SinkSubscriber<T, R> implements Subscriber<T> {
+
+  final CompletableFuture<R> result = new CompletableFuture<>();
+  Subscription upstream;
+  boolean done;
+
+  /**
+   * The result of the stream.
+   */
+  CompletionStage<R> getResult() {
+    return result;
+  }
+
+  @Override
+  public final void onSubscribe(Subscription subscription) {
+    Objects.requireNonNull(subscription, "Subscription must not be null");
+    if (upstream != null) {
+      subscription.cancel();
+    }
+    else {
+      upstream = subscription;
+      onStart();
+    }
+  }
+
+  /**
+   * Invoked when the subscription has been received, typically to request elements.
+   */
+  abstract void onStart();
+
+  @Override
+  public void onError(Throwable error) {
+    Objects.requireNonNull(error, "Error must not be null");
+    if (!done) {
+      done = true;
+      result.completeExceptionally(error);
+    }
+  }
+
+  /**
+   * Fail the stream due to an error thrown by a user supplied function, cancelling upstream.
+   */
+  void fail(Throwable error) {
+    done = true;
+    upstream.cancel();
+    result.completeExceptionally(error);
+  }
+}
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import org.reactivestreams.Subscriber;
+
+import java.util.Objects;
+
+/**
+ * Implementation of the {@link org.eclipse.microprofile.reactive.streams.spi.Stage.Skip} stage.
+ * <p>
+ * The elements to skip are requested from upstream in bulk along with the first demand from downstream, rather than
+ * requesting a replacement for each element as it's dropped.
+ */
+final class SkipSubscriber<T> extends OperatorSubscriber<T, T> {
+
+  private final long n;
+  private long remaining;
+  private boolean requested;
+
+  SkipSubscriber(Subscriber<? super T> downstream, long n) {
+    super(downstream);
+    this.n = n;
+    this.remaining = n;
+  }
+
+  @Override
+  public void onNext(T element) {
+    Objects.requireNonNull(element, "Element must not be null");
+    if (done) {
+      return;
+    }
+    if (remaining > 0) {
+      remaining--;
+    }
+    else {
+      downstream.onNext(element);
+    }
+  }
+
+  @Override
+  public void request(long n) {
+    // Requests are serialized by downstream, so the first request can be tracked without synchronization.
+    if (n > 0 && !requested) {
+      requested = true;
+      upstream.request(Subscriptions.addCap(n, this.n));
+    }
+    else {
+      upstream.request(n);
+    }
+  }
+}
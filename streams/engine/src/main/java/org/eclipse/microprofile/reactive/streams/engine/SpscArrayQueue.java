@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded queue for a single producer thread and a single consumer thread, backed by a ring buffer.
+ * <p>
+ * The capacity is rounded up to a power of two so that indexes can be wrapped with a mask. A slot is free when it is
+ * null, so neither side needs to read the other side's index, which means the indexes don't need to be shared between
+ * threads. The consumer may move between threads, as long as there is a happens before relationship between each
+ * consumer, for example, by the consumer being guarded by a work in progress counter.
+ */
+final class SpscArrayQueue<E> {
+
+  private final AtomicReferenceArray<E> buffer;
+  private final int mask;
+  private long producerIndex;
+  private long consumerIndex;
+
+  SpscArrayQueue(int capacity) {
+    int size = Integer.highestOneBit(Math.max(1, capacity));
+    if (size < capacity) {
+      size <<= 1;
+    }
+    this.buffer = new AtomicReferenceArray<>(size);
+    this.mask = size - 1;
+  }
+
+  /**
+   * Offer an element to the queue, must only be invoked by the producer.
+   *
+   * @return false if the queue is full.
+   */
+  boolean offer(E element) {
+    int offset = (int) producerIndex & mask;
+    if (buffer.get(offset) != null) {
+      return false;
+    }
+    producerIndex++;
+    buffer.lazySet(offset, element);
+    return true;
+  }
+
+  /**
+   * Poll an element from the queue, must only be invoked by the consumer.
+   *
+   * @return The element, or null if the queue is empty.
+   */
+  E poll() {
+    int offset = (int) consumerIndex & mask;
+    E element = buffer.get(offset);
+    if (element != null) {
+      consumerIndex++;
+      buffer.lazySet(offset, null);
+    }
+    return element;
+  }
+
+  /**
+   * Get the next element without removing it from the queue, must only be invoked by the consumer.
+   *
+   * @return The element, or null if the queue is empty.
+   */
+  E peek() {
+    return buffer.get((int) consumerIndex & mask);
+  }
+
+  /**
+   * Whether the queue is empty, must only be invoked by the consumer.
+   */
+  boolean isEmpty() {
+    return buffer.get((int) consumerIndex & mask) == null;
+  }
+
+  /**
+   * Remove all elements from the queue, must only be invoked by the consumer.
+   */
+  void clear() {
+    while (poll() != null) {
+      // Discard
+    }
+  }
+}
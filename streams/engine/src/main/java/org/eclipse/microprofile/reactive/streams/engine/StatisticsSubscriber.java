@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import org.eclipse.microprofile.reactive.streams.spi.Stage;
+
+import java.util.DoubleSummaryStatistics;
+import java.util.IntSummaryStatistics;
+import java.util.LongSummaryStatistics;
+import java.util.Objects;
+
+/**
+ * Implementation of the {@link Stage.IntStatistics}, {@link Stage.LongStatistics} and {@link Stage.DoubleStatistics}
+ * stages.
+ * <p>
+ * Each element is unboxed once, as it arrives, straight into a JDK summary statistics object, which keeps the count,
+ * sum, minimum and maximum in primitive fields. The requested statistic is extracted when the stream completes, see
+ * {@link PrimitiveStatistics}.
+ */
+abstract class StatisticsSubscriber<T> extends SinkSubscriber<T, Object> {
+
+  final Stage.Statistic statistic;
+
+  private StatisticsSubscriber(Stage.Statistic statistic) {
+    this.statistic = statistic;
+  }
+
+  static StatisticsSubscriber<Integer> ofInts(Stage.Statistic statistic) {
+    return new StatisticsSubscriber<Integer>(statistic) {
+      private final IntSummaryStatistics summary = new IntSummaryStatistics();
+
+      @Override
+      void accept(Integer element) {
+        summary.accept(element);
+      }
+
+      @Override
+      Object statistic() {
+        return PrimitiveStatistics.result(summary, statistic);
+      }
+    };
+  }
+
+  static StatisticsSubscriber<Long> ofLongs(Stage.Statistic statistic) {
+    return new StatisticsSubscriber<Long>(statistic) {
+      private final LongSummaryStatistics summary = new LongSummaryStatistics();
+
+      @Override
+      void accept(Long element) {
+        summary.accept(element);
+      }
+
+      @Override
+      Object statistic() {
+        return PrimitiveStatistics.result(summary, statistic);
+      }
+    };
+  }
+
+  static StatisticsSubscriber<Double> ofDoubles(Stage.Statistic statistic) {
+    return new StatisticsSubscriber<Double>(statistic) {
+      private final DoubleSummaryStatistics summary = new DoubleSummaryStatistics();
+
+      @Override
+      void accept(Double element) {
+        summary.accept(element);
+      }
+
+      @Override
+      Object statistic() {
+        return PrimitiveStatistics.result(summary, statistic);
+      }
+    };
+  }
+
+  /**
+   * Add the element to the summary.
+   */
+  abstract void accept(T element);
+
+  /**
+   * The requested statistic, computed from the summary.
+   */
+  abstract Object statistic();
+
+  @Override
+  void onStart() {
+    upstream.request(Long.MAX_VALUE);
+  }
+
+  @Override
+  public void onNext(T element) {
+    Objects.requireNonNull(element, "Element must not be null");
+    accept(element);
+  }
+
+  @Override
+  public void onComplete() {
+    if (!done) {
+      done = true;
+      result.complete(statistic());
+    }
+  }
+}
@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Implementation of the {@link org.eclipse.microprofile.reactive.streams.spi.Stage.SubscriberStage} stage.
+ * <p>
+ * Passes all signals through to the wrapped subscriber, redeeming the result when the stream terminates, or with a
+ * {@link CancellationException} if the wrapped subscriber cancels.
+ */
+final class SubscriberStageSubscriber<T> extends SinkSubscriber<T, Void> implements Subscription {
+
+  private final Subscriber<? super T> subscriber;
+
+  SubscriberStageSubscriber(Subscriber<? super T> subscriber) {
+    this.subscriber = subscriber;
+  }
+
+  @Override
+  void onStart() {
+    subscriber.onSubscribe(this);
+  }
+
+  @Override
+  public void onNext(T element) {
+    subscriber.onNext(element);
+  }
+
+  @Override
+  public void onError(Throwable error) {
+    Objects.requireNonNull(error, "Error must not be null");
+    if (!done) {
+      done = true;
+      subscriber.onError(error);
+      result.completeExceptionally(error);
+    }
+  }
+
+  @Override
+  public void onComplete() {
+    if (!done) {
+      done = true;
+      subscriber.onComplete();
+      result.complete(null);
+    }
+  }
+
+  @Override
+  public void request(long n) {
+    upstream.request(n);
+  }
+
+  @Override
+  public void cancel() {
+    upstream.cancel();
+    result.completeExceptionally(new CancellationException());
+  }
+}
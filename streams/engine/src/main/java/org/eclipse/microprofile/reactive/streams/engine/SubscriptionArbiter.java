@@ -0,0 +1,189 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import org.reactivestreams.Subscription;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Arbitrates demand across a sequence of upstream subscriptions.
+ * <p>
+ * This is used by stages that consume from one publisher after another, such as concat and flat map. Outstanding
+ * demand that the current subscription hasn't satisfied is carried over to the next subscription when it is set.
+ * <p>
+ * Updates are applied directly by whichever thread wins the work in progress counter, while concurrent updates are
+ * recorded in the missed fields and applied by that thread before it relinquishes the counter, so no locks are held
+ * and the subscriptions are never signalled concurrently by the arbiter.
+ */
+@SuppressWarnings("serial")
+class SubscriptionArbiter extends AtomicInteger implements Subscription {
+
+  private final AtomicReference<Subscription> missedSubscription = new AtomicReference<>();
+  private final AtomicLong missedRequested = new AtomicLong();
+  private final AtomicLong missedProduced = new AtomicLong();
+
+  private Subscription current;
+  private long requested;
+  private volatile boolean cancelled;
+
+  /**
+   * Switch to the given subscription, requesting any outstanding demand from it.
+   * <p>
+   * The previous subscription, if any, is not cancelled, it is expected to have terminated.
+   */
+  final void setSubscription(Subscription subscription) {
+    if (cancelled) {
+      subscription.cancel();
+      return;
+    }
+    if (get() == 0 && compareAndSet(0, 1)) {
+      current = subscription;
+      long r = requested;
+      if (decrementAndGet() != 0) {
+        drainLoop();
+      }
+      if (r != 0) {
+        subscription.request(r);
+      }
+      return;
+    }
+    Subscription missed = missedSubscription.getAndSet(subscription);
+    if (missed != null) {
+      missed.cancel();
+    }
+    drain();
+  }
+
+  /**
+   * Add demand, passing it on to the current subscription.
+   * <p>
+   * The caller is responsible for validating that {@code n} is positive.
+   */
+  @Override
+  public void request(long n) {
+    if (get() == 0 && compareAndSet(0, 1)) {
+      requested = Subscriptions.addCap(requested, n);
+      Subscription subscription = current;
+      if (decrementAndGet() != 0) {
+        drainLoop();
+      }
+      if (subscription != null) {
+        subscription.request(n);
+      }
+      return;
+    }
+    Subscriptions.add(missedRequested, n);
+    drain();
+  }
+
+  /**
+   * Record that {@code n} elements have been received from the current subscription, so that they aren't requested
+   * again from the next one.
+   */
+  final void produced(long n) {
+    if (get() == 0 && compareAndSet(0, 1)) {
+      requested = subtract(requested, n);
+      if (decrementAndGet() != 0) {
+        drainLoop();
+      }
+      return;
+    }
+    Subscriptions.add(missedProduced, n);
+    drain();
+  }
+
+  /**
+   * Cancel the current subscription, and any subscriptions set in future.
+   */
+  @Override
+  public void cancel() {
+    if (!cancelled) {
+      cancelled = true;
+      drain();
+    }
+  }
+
+  final boolean isCancelled() {
+    return cancelled;
+  }
+
+  private void drain() {
+    if (getAndIncrement() == 0) {
+      drainLoop();
+    }
+  }
+
+  private void drainLoop() {
+    int missed = 1;
+    long requestAmount = 0;
+    Subscription requestTarget = null;
+
+    for (;;) {
+      Subscription newSubscription = missedSubscription.getAndSet(null);
+      long newRequested = missedRequested.getAndSet(0);
+      long newProduced = missedProduced.getAndSet(0);
+
+      if (cancelled) {
+        if (current != null) {
+          current.cancel();
+          current = null;
+        }
+        if (newSubscription != null) {
+          newSubscription.cancel();
+        }
+      }
+      else {
+        long r = subtract(Subscriptions.addCap(requested, newRequested), newProduced);
+        requested = r;
+
+        if (newSubscription != null) {
+          current = newSubscription;
+          if (r != 0) {
+            requestAmount = Subscriptions.addCap(requestAmount, r);
+            requestTarget = newSubscription;
+          }
+        }
+        else if (current != null && newRequested != 0) {
+          requestAmount = Subscriptions.addCap(requestAmount, newRequested);
+          requestTarget = current;
+        }
+      }
+
+      missed = addAndGet(-missed);
+      if (missed == 0) {
+        if (requestAmount != 0) {
+          requestTarget.request(requestAmount);
+        }
+        return;
+      }
+    }
+  }
+
+  private static long subtract(long requested, long produced) {
+    if (requested == Long.MAX_VALUE) {
+      return Long.MAX_VALUE;
+    }
+    long result = requested - produced;
+    return result < 0 ? 0 : result;
+  }
+}
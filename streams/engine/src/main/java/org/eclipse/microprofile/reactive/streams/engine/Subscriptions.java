@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Utilities for implementing {@link Subscription} demand accounting.
+ */
+final class Subscriptions {
+
+  private Subscriptions() {
+  }
+
+  /**
+   * A subscription that does nothing, used when a subscriber must be terminated before it is given a real
+   * subscription.
+   */
+  static final Subscription EMPTY = new Subscription() {
+    @Override
+    public void request(long n) {
+    }
+
+    @Override
+    public void cancel() {
+    }
+  };
+
+  /**
+   * Signal the given error to the subscriber, supplying it with an empty subscription first as required by rule 1.9.
+   */
+  static void error(Subscriber<?> subscriber, Throwable error) {
+    subscriber.onSubscribe(EMPTY);
+    subscriber.onError(error);
+  }
+
+  /**
+   * Signal completion to the subscriber, supplying it with an empty subscription first as required by rule 1.9.
+   */
+  static void complete(Subscriber<?> subscriber) {
+    subscriber.onSubscribe(EMPTY);
+    subscriber.onComplete();
+  }
+
+  /**
+   * The error that must be signalled when a non positive request is made, as required by rule 3.9.
+   */
+  static IllegalArgumentException nonPositiveRequest(long n) {
+    return new IllegalArgumentException("Non positive request of " + n + " elements is not allowed, see rule 3.9");
+  }
+
+  /**
+   * Add two demands, capping the result at {@link Long#MAX_VALUE}, which is treated as unbounded, see rule 3.17.
+   */
+  static long addCap(long a, long b) {
+    long result = a + b;
+    return result < 0 ? Long.MAX_VALUE : result;
+  }
+
+  /**
+   * Multiply two positive demands, capping the result at {@link Long#MAX_VALUE}, which is treated as unbounded, see
+   * rule 3.17.
+   */
+  static long multiplyCap(long a, long b) {
+    return a > Long.MAX_VALUE / b ? Long.MAX_VALUE : a * b;
+  }
+
+  /**
+   * Atomically add {@code n} to the given demand, capping at {@link Long#MAX_VALUE}.
+   *
+   * @return The demand before {@code n} was added.
+   */
+  static long add(AtomicLong requested, long n) {
+    for (;;) {
+      long current = requested.get();
+      if (current == Long.MAX_VALUE) {
+        return Long.MAX_VALUE;
+      }
+      if (requested.compareAndSet(current, addCap(current, n))) {
+        return current;
+      }
+    }
+  }
+
+  /**
+   * Atomically subtract {@code n} produced elements from the given demand, unless the demand is unbounded.
+   *
+   * @return The demand after {@code n} was subtracted.
+   */
+  static long produced(AtomicLong requested, long n) {
+    for (;;) {
+      long current = requested.get();
+      if (current == Long.MAX_VALUE) {
+        return Long.MAX_VALUE;
+      }
+      long update = current - n;
+      if (requested.compareAndSet(current, update)) {
+        return update;
+      }
+    }
+  }
+}
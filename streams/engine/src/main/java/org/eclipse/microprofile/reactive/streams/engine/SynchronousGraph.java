@@ -0,0 +1,833 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import org.eclipse.microprofile.reactive.streams.spi.Stage;
+
+import java.util.DoubleSummaryStatistics;
+import java.util.IntSummaryStatistics;
+import java.util.Iterator;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.BiConsumer;
+import java.util.function.DoubleFunction;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
+import java.util.function.LongUnaryOperator;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+
+/**
+ * Runs closed graphs whose source is an in memory iterable, array or range as a plain loop on the calling thread.
+ * <p>
+ * A closed graph of the form
+ * {@code Of -> (Map | Filter | TakeWhile | Limit | Skip | FlatMapIterable)* -> (Collect | FindFirst)}, or one using
+ * the range source, the count and statistics stages, or the primitive specializations of these stages, involves
+ * nothing asynchronous, every element is available as soon as it's requested, and every stage either
+ * transforms, drops or terminates on it immediately. Running it with Reactive Streams signalling would produce exactly
+ * the same result, on the same thread, but with a subscription and demand accounting per stage, so instead each
+ * element is pushed through a chain of steps, and the result is returned as an already redeemed
+ * {@link CompletionStage}.
+ * <p>
+ * Steps have primitive push methods as well, so chains of primitive stages pass elements between them without
+ * boxing.
+ */
+final class SynchronousGraph {
+
+  private SynchronousGraph() {
+  }
+
+  /**
+   * Whether the given stages of a closed graph can be run synchronously.
+   */
+  static boolean isSynchronous(List<Stage> stages) {
+    if (!isSource(stages.get(0)) || !isTerminal(stages.get(stages.size() - 1))) {
+      return false;
+    }
+    for (Stage stage : stages.subList(1, stages.size() - 1)) {
+      if (!isStep(stage)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isSource(Stage stage) {
+    return stage instanceof Stage.Of || stage instanceof Stage.Range || stage instanceof Stage.OfInts ||
+        stage instanceof Stage.OfLongs || stage instanceof Stage.OfDoubles;
+  }
+
+  private static boolean isStep(Stage stage) {
+    return stage instanceof Stage.Map || stage instanceof Stage.Filter || stage instanceof Stage.TakeWhile ||
+        stage instanceof Stage.Limit || stage instanceof Stage.Skip || stage instanceof Stage.FlatMapIterable ||
+        stage instanceof Stage.MapToInt || stage instanceof Stage.IntMap || stage instanceof Stage.IntFilter ||
+        stage instanceof Stage.IntMapToObj ||
+        stage instanceof Stage.MapToLong || stage instanceof Stage.LongMap || stage instanceof Stage.LongFilter ||
+        stage instanceof Stage.LongMapToObj ||
+        stage instanceof Stage.MapToDouble || stage instanceof Stage.DoubleMap || stage instanceof Stage.DoubleFilter ||
+        stage instanceof Stage.DoubleMapToObj;
+  }
+
+  private static boolean isTerminal(Stage stage) {
+    return stage instanceof Stage.Collect || stage instanceof Stage.FindFirst || stage instanceof Stage.Count ||
+        stage instanceof Stage.IntCollect || stage instanceof Stage.LongCollect || stage instanceof Stage.DoubleCollect ||
+        stage instanceof Stage.IntStatistics || stage instanceof Stage.LongStatistics ||
+        stage instanceof Stage.DoubleStatistics;
+  }
+
+  /**
+   * Run the given stages, which must have been checked with {@link #isSynchronous(List)}.
+   */
+  @SuppressWarnings("unchecked")
+  static <T> CompletionStage<T> run(List<Stage> stages) {
+    CompletableFuture<T> result = new CompletableFuture<>();
+    try {
+      Terminal terminal = terminal(stages.get(stages.size() - 1));
+      Step head = terminal;
+      boolean empty = false;
+      for (int i = stages.size() - 2; i > 0 && !empty; i--) {
+        Stage stage = stages.get(i);
+        // A limit of zero means no elements are consumed at all, not even by the stages before it.
+        empty = stage instanceof Stage.Limit && ((Stage.Limit) stage).getMaxSize() == 0;
+        head = step(stage, head);
+      }
+      if (!empty) {
+        emit(stages.get(0), head);
+      }
+      result.complete((T) terminal.finish());
+    }
+    catch (RuntimeException e) {
+      result.completeExceptionally(e);
+    }
+    return result;
+  }
+
+  private static void emit(Stage source, Step head) {
+    if (source instanceof Stage.Range) {
+      Stage.Range range = (Stage.Range) source;
+      long next = range.getStart();
+      for (long remaining = range.getCount(); remaining > 0; remaining--) {
+        if (!head.pushLong(next++)) {
+          return;
+        }
+      }
+    }
+    else if (source instanceof Stage.OfInts) {
+      for (int element : ((Stage.OfInts) source).getElements()) {
+        if (!head.pushInt(element)) {
+          return;
+        }
+      }
+    }
+    else if (source instanceof Stage.OfLongs) {
+      for (long element : ((Stage.OfLongs) source).getElements()) {
+        if (!head.pushLong(element)) {
+          return;
+        }
+      }
+    }
+    else if (source instanceof Stage.OfDoubles) {
+      for (double element : ((Stage.OfDoubles) source).getElements()) {
+        if (!head.pushDouble(element)) {
+          return;
+        }
+      }
+    }
+    else {
+      for (Object element : ((Stage.Of) source).getElements()) {
+        if (!head.push(Objects.requireNonNull(element, "Iterable must not emit null elements"))) {
+          return;
+        }
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Step step(Stage stage, Step next) {
+    if (stage instanceof Stage.Map) {
+      return new MapStep(next, (Function<Object, Object>) ((Stage.Map) stage).getMapper());
+    }
+    else if (stage instanceof Stage.Filter) {
+      return new FilterStep(next, (Predicate<Object>) ((Stage.Filter) stage).getPredicate().get());
+    }
+    else if (stage instanceof Stage.TakeWhile) {
+      Stage.TakeWhile takeWhile = (Stage.TakeWhile) stage;
+      return new TakeWhileStep(next, (Predicate<Object>) takeWhile.getPredicate().get(), takeWhile.isInclusive());
+    }
+    else if (stage instanceof Stage.Limit) {
+      return new LimitStep(next, ((Stage.Limit) stage).getMaxSize());
+    }
+    else if (stage instanceof Stage.Skip) {
+      return new SkipStep(next, ((Stage.Skip) stage).getN());
+    }
+    else if (stage instanceof Stage.MapToInt) {
+      return new MapToIntStep(next, (ToIntFunction<Object>) ((Stage.MapToInt) stage).getMapper());
+    }
+    else if (stage instanceof Stage.IntMap) {
+      return new IntMapStep(next, ((Stage.IntMap) stage).getMapper());
+    }
+    else if (stage instanceof Stage.IntFilter) {
+      return new IntFilterStep(next, ((Stage.IntFilter) stage).getPredicate());
+    }
+    else if (stage instanceof Stage.IntMapToObj) {
+      return new IntMapToObjStep(next, ((Stage.IntMapToObj) stage).getMapper());
+    }
+    else if (stage instanceof Stage.MapToLong) {
+      return new MapToLongStep(next, (ToLongFunction<Object>) ((Stage.MapToLong) stage).getMapper());
+    }
+    else if (stage instanceof Stage.LongMap) {
+      return new LongMapStep(next, ((Stage.LongMap) stage).getMapper());
+    }
+    else if (stage instanceof Stage.LongFilter) {
+      return new LongFilterStep(next, ((Stage.LongFilter) stage).getPredicate());
+    }
+    else if (stage instanceof Stage.LongMapToObj) {
+      return new LongMapToObjStep(next, ((Stage.LongMapToObj) stage).getMapper());
+    }
+    else if (stage instanceof Stage.MapToDouble) {
+      return new MapToDoubleStep(next, (ToDoubleFunction<Object>) ((Stage.MapToDouble) stage).getMapper());
+    }
+    else if (stage instanceof Stage.DoubleMap) {
+      return new DoubleMapStep(next, ((Stage.DoubleMap) stage).getMapper());
+    }
+    else if (stage instanceof Stage.DoubleFilter) {
+      return new DoubleFilterStep(next, ((Stage.DoubleFilter) stage).getPredicate());
+    }
+    else if (stage instanceof Stage.DoubleMapToObj) {
+      return new DoubleMapToObjStep(next, ((Stage.DoubleMapToObj) stage).getMapper());
+    }
+    else {
+      return new FlatMapIterableStep(next,
+          (Function<Object, Iterable<Object>>) (Function) ((Stage.FlatMapIterable) stage).getMapper());
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Terminal terminal(Stage stage) {
+    if (stage instanceof Stage.Collect) {
+      return new CollectTerminal<>((Collector<Object, Object, Object>) ((Stage.Collect) stage).getCollector());
+    }
+    else if (stage instanceof Stage.IntCollect) {
+      Stage.IntCollect collect = (Stage.IntCollect) stage;
+      return new IntCollectTerminal<>((Supplier<Object>) collect.getSupplier(),
+          (ObjIntConsumer<Object>) collect.getAccumulator(), (Function<Object, Object>) collect.getFinisher());
+    }
+    else if (stage instanceof Stage.LongCollect) {
+      Stage.LongCollect collect = (Stage.LongCollect) stage;
+      return new LongCollectTerminal<>((Supplier<Object>) collect.getSupplier(),
+          (ObjLongConsumer<Object>) collect.getAccumulator(), (Function<Object, Object>) collect.getFinisher());
+    }
+    else if (stage instanceof Stage.DoubleCollect) {
+      Stage.DoubleCollect collect = (Stage.DoubleCollect) stage;
+      return new DoubleCollectTerminal<>((Supplier<Object>) collect.getSupplier(),
+          (ObjDoubleConsumer<Object>) collect.getAccumulator(), (Function<Object, Object>) collect.getFinisher());
+    }
+    else if (stage instanceof Stage.Count) {
+      return new CountTerminal();
+    }
+    else if (stage instanceof Stage.IntStatistics) {
+      return new IntStatisticsTerminal(((Stage.IntStatistics) stage).getStatistic());
+    }
+    else if (stage instanceof Stage.LongStatistics) {
+      return new LongStatisticsTerminal(((Stage.LongStatistics) stage).getStatistic());
+    }
+    else if (stage instanceof Stage.DoubleStatistics) {
+      return new DoubleStatisticsTerminal(((Stage.DoubleStatistics) stage).getStatistic());
+    }
+    else {
+      return new FindFirstTerminal();
+    }
+  }
+
+  /**
+   * A step that elements are pushed through.
+   */
+  private interface Step {
+    /**
+     * Push an element through this step.
+     *
+     * @return false if no more elements should be pushed.
+     */
+    boolean push(Object element);
+
+    default boolean pushInt(int element) {
+      return push(element);
+    }
+
+    default boolean pushLong(long element) {
+      return push(element);
+    }
+
+    default boolean pushDouble(double element) {
+      return push(element);
+    }
+  }
+
+  private interface Terminal extends Step {
+    /**
+     * Produce the result once all elements have been pushed.
+     */
+    Object finish();
+  }
+
+  private static final class MapStep implements Step {
+    private final Step next;
+    private final Function<Object, Object> mapper;
+
+    MapStep(Step next, Function<Object, Object> mapper) {
+      this.next = next;
+      this.mapper = mapper;
+    }
+
+    @Override
+    public boolean push(Object element) {
+      return next.push(Objects.requireNonNull(mapper.apply(element), "Mapper function returned null"));
+    }
+  }
+
+  private static final class FilterStep implements Step {
+    private final Step next;
+    private final Predicate<Object> predicate;
+
+    FilterStep(Step next, Predicate<Object> predicate) {
+      this.next = next;
+      this.predicate = predicate;
+    }
+
+    @Override
+    public boolean push(Object element) {
+      return !predicate.test(element) || next.push(element);
+    }
+  }
+
+  private static final class LimitStep implements Step {
+    private final Step next;
+    private long remaining;
+
+    LimitStep(Step next, long maxSize) {
+      this.next = next;
+      this.remaining = maxSize;
+    }
+
+    @Override
+    public boolean push(Object element) {
+      return next.push(element) && --remaining > 0;
+    }
+  }
+
+  private static final class SkipStep implements Step {
+    private final Step next;
+    private long remaining;
+
+    SkipStep(Step next, long n) {
+      this.next = next;
+      this.remaining = n;
+    }
+
+    @Override
+    public boolean push(Object element) {
+      if (remaining > 0) {
+        remaining--;
+        return true;
+      }
+      return next.push(element);
+    }
+  }
+
+  private static final class TakeWhileStep implements Step {
+    private final Step next;
+    private final Predicate<Object> predicate;
+    private final boolean inclusive;
+
+    TakeWhileStep(Step next, Predicate<Object> predicate, boolean inclusive) {
+      this.next = next;
+      this.predicate = predicate;
+      this.inclusive = inclusive;
+    }
+
+    @Override
+    public boolean push(Object element) {
+      if (predicate.test(element)) {
+        return next.push(element);
+      }
+      if (inclusive) {
+        next.push(element);
+      }
+      return false;
+    }
+  }
+
+  private static final class FlatMapIterableStep implements Step {
+    private final Step next;
+    private final Function<Object, Iterable<Object>> mapper;
+
+    FlatMapIterableStep(Step next, Function<Object, Iterable<Object>> mapper) {
+      this.next = next;
+      this.mapper = mapper;
+    }
+
+    @Override
+    public boolean push(Object element) {
+      Iterator<Object> iterator = mapper.apply(element).iterator();
+      while (iterator.hasNext()) {
+        if (!next.push(Objects.requireNonNull(iterator.next(), "Iterable must not emit null elements"))) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  private static final class CollectTerminal<A> implements Terminal {
+    private final Collector<Object, A, Object> collector;
+    private final BiConsumer<A, Object> accumulator;
+    private final A container;
+
+    CollectTerminal(Collector<Object, A, Object> collector) {
+      this.collector = collector;
+      this.accumulator = collector.accumulator();
+      this.container = collector.supplier().get();
+    }
+
+    @Override
+    public boolean push(Object element) {
+      accumulator.accept(container, element);
+      return true;
+    }
+
+    @Override
+    public Object finish() {
+      return collector.finisher().apply(container);
+    }
+  }
+
+  private static final class FindFirstTerminal implements Terminal {
+    private Object first;
+
+    @Override
+    public boolean push(Object element) {
+      first = element;
+      return false;
+    }
+
+    @Override
+    public Object finish() {
+      return Optional.ofNullable(first);
+    }
+  }
+
+  /**
+   * A step that consumes ints, unboxing any boxed elements pushed to it.
+   */
+  private abstract static class IntStep implements Step {
+    @Override
+    public boolean push(Object element) {
+      return pushInt((Integer) element);
+    }
+
+    @Override
+    public abstract boolean pushInt(int element);
+  }
+
+  private static final class MapToIntStep implements Step {
+    private final Step next;
+    private final ToIntFunction<Object> mapper;
+
+    MapToIntStep(Step next, ToIntFunction<Object> mapper) {
+      this.next = next;
+      this.mapper = mapper;
+    }
+
+    @Override
+    public boolean push(Object element) {
+      return next.pushInt(mapper.applyAsInt(element));
+    }
+  }
+
+  private static final class IntMapStep extends IntStep {
+    private final Step next;
+    private final IntUnaryOperator mapper;
+
+    IntMapStep(Step next, IntUnaryOperator mapper) {
+      this.next = next;
+      this.mapper = mapper;
+    }
+
+    @Override
+    public boolean pushInt(int element) {
+      return next.pushInt(mapper.applyAsInt(element));
+    }
+  }
+
+  private static final class IntFilterStep extends IntStep {
+    private final Step next;
+    private final IntPredicate predicate;
+
+    IntFilterStep(Step next, IntPredicate predicate) {
+      this.next = next;
+      this.predicate = predicate;
+    }
+
+    @Override
+    public boolean pushInt(int element) {
+      return !predicate.test(element) || next.pushInt(element);
+    }
+  }
+
+  private static final class IntMapToObjStep extends IntStep {
+    private final Step next;
+    private final IntFunction<?> mapper;
+
+    IntMapToObjStep(Step next, IntFunction<?> mapper) {
+      this.next = next;
+      this.mapper = mapper;
+    }
+
+    @Override
+    public boolean pushInt(int element) {
+      return next.push(Objects.requireNonNull(mapper.apply(element), "Mapper function returned null"));
+    }
+  }
+
+  private static final class IntCollectTerminal<A> extends IntStep implements Terminal {
+    private final ObjIntConsumer<A> accumulator;
+    private final Function<A, Object> finisher;
+    private final A container;
+
+    IntCollectTerminal(Supplier<A> supplier, ObjIntConsumer<A> accumulator, Function<A, Object> finisher) {
+      this.accumulator = accumulator;
+      this.finisher = finisher;
+      this.container = supplier.get();
+    }
+
+    @Override
+    public boolean pushInt(int element) {
+      accumulator.accept(container, element);
+      return true;
+    }
+
+    @Override
+    public Object finish() {
+      return finisher.apply(container);
+    }
+  }
+
+  /**
+   * A step that consumes longs, unboxing any boxed elements pushed to it.
+   */
+  private abstract static class LongStep implements Step {
+    @Override
+    public boolean push(Object element) {
+      return pushLong((Long) element);
+    }
+
+    @Override
+    public abstract boolean pushLong(long element);
+  }
+
+  private static final class MapToLongStep implements Step {
+    private final Step next;
+    private final ToLongFunction<Object> mapper;
+
+    MapToLongStep(Step next, ToLongFunction<Object> mapper) {
+      this.next = next;
+      this.mapper = mapper;
+    }
+
+    @Override
+    public boolean push(Object element) {
+      return next.pushLong(mapper.applyAsLong(element));
+    }
+  }
+
+  private static final class LongMapStep extends LongStep {
+    private final Step next;
+    private final LongUnaryOperator mapper;
+
+    LongMapStep(Step next, LongUnaryOperator mapper) {
+      this.next = next;
+      this.mapper = mapper;
+    }
+
+    @Override
+    public boolean pushLong(long element) {
+      return next.pushLong(mapper.applyAsLong(element));
+    }
+  }
+
+  private static final class LongFilterStep extends LongStep {
+    private final Step next;
+    private final LongPredicate predicate;
+
+    LongFilterStep(Step next, LongPredicate predicate) {
+      this.next = next;
+      this.predicate = predicate;
+    }
+
+    @Override
+    public boolean pushLong(long element) {
+      return !predicate.test(element) || next.pushLong(element);
+    }
+  }
+
+  private static final class LongMapToObjStep extends LongStep {
+    private final Step next;
+    private final LongFunction<?> mapper;
+
+    LongMapToObjStep(Step next, LongFunction<?> mapper) {
+      this.next = next;
+      this.mapper = mapper;
+    }
+
+    @Override
+    public boolean pushLong(long element) {
+      return next.push(Objects.requireNonNull(mapper.apply(element), "Mapper function returned null"));
+    }
+  }
+
+  private static final class LongCollectTerminal<A> extends LongStep implements Terminal {
+    private final ObjLongConsumer<A> accumulator;
+    private final Function<A, Object> finisher;
+    private final A container;
+
+    LongCollectTerminal(Supplier<A> supplier, ObjLongConsumer<A> accumulator, Function<A, Object> finisher) {
+      this.accumulator = accumulator;
+      this.finisher = finisher;
+      this.container = supplier.get();
+    }
+
+    @Override
+    public boolean pushLong(long element) {
+      accumulator.accept(container, element);
+      return true;
+    }
+
+    @Override
+    public Object finish() {
+      return finisher.apply(container);
+    }
+  }
+
+  /**
+   * A step that consumes doubles, unboxing any boxed elements pushed to it.
+   */
+  private abstract static class DoubleStep implements Step {
+    @Override
+    public boolean push(Object element) {
+      return pushDouble((Double) element);
+    }
+
+    @Override
+    public abstract boolean pushDouble(double element);
+  }
+
+  private static final class MapToDoubleStep implements Step {
+    private final Step next;
+    private final ToDoubleFunction<Object> mapper;
+
+    MapToDoubleStep(Step next, ToDoubleFunction<Object> mapper) {
+      this.next = next;
+      this.mapper = mapper;
+    }
+
+    @Override
+    public boolean push(Object element) {
+      return next.pushDouble(mapper.applyAsDouble(element));
+    }
+  }
+
+  private static final class DoubleMapStep extends DoubleStep {
+    private final Step next;
+    private final DoubleUnaryOperator mapper;
+
+    DoubleMapStep(Step next, DoubleUnaryOperator mapper) {
+      this.next = next;
+      this.mapper = mapper;
+    }
+
+    @Override
+    public boolean pushDouble(double element) {
+      return next.pushDouble(mapper.applyAsDouble(element));
+    }
+  }
+
+  private static final class DoubleFilterStep extends DoubleStep {
+    private final Step next;
+    private final DoublePredicate predicate;
+
+    DoubleFilterStep(Step next, DoublePredicate predicate) {
+      this.next = next;
+      this.predicate = predicate;
+    }
+
+    @Override
+    public boolean pushDouble(double element) {
+      return !predicate.test(element) || next.pushDouble(element);
+    }
+  }
+
+  private static final class DoubleMapToObjStep extends DoubleStep {
+    private final Step next;
+    private final DoubleFunction<?> mapper;
+
+    DoubleMapToObjStep(Step next, DoubleFunction<?> mapper) {
+      this.next = next;
+      this.mapper = mapper;
+    }
+
+    @Override
+    public boolean pushDouble(double element) {
+      return next.push(Objects.requireNonNull(mapper.apply(element), "Mapper function returned null"));
+    }
+  }
+
+  private static final class DoubleCollectTerminal<A> extends DoubleStep implements Terminal {
+    private final ObjDoubleConsumer<A> accumulator;
+    private final Function<A, Object> finisher;
+    private final A container;
+
+    DoubleCollectTerminal(Supplier<A> supplier, ObjDoubleConsumer<A> accumulator, Function<A, Object> finisher) {
+      this.accumulator = accumulator;
+      this.finisher = finisher;
+      this.container = supplier.get();
+    }
+
+    @Override
+    public boolean pushDouble(double element) {
+      accumulator.accept(container, element);
+      return true;
+    }
+
+    @Override
+    public Object finish() {
+      return finisher.apply(container);
+    }
+  }
+
+  private static final class CountTerminal implements Terminal {
+    private long count;
+
+    @Override
+    public boolean push(Object element) {
+      count++;
+      return true;
+    }
+
+    @Override
+    public boolean pushInt(int element) {
+      count++;
+      return true;
+    }
+
+    @Override
+    public boolean pushLong(long element) {
+      count++;
+      return true;
+    }
+
+    @Override
+    public boolean pushDouble(double element) {
+      count++;
+      return true;
+    }
+
+    @Override
+    public Object finish() {
+      return count;
+    }
+  }
+
+  private static final class IntStatisticsTerminal extends IntStep implements Terminal {
+    private final IntSummaryStatistics summary = new IntSummaryStatistics();
+    private final Stage.Statistic statistic;
+
+    IntStatisticsTerminal(Stage.Statistic statistic) {
+      this.statistic = statistic;
+    }
+
+    @Override
+    public boolean pushInt(int element) {
+      summary.accept(element);
+      return true;
+    }
+
+    @Override
+    public Object finish() {
+      return PrimitiveStatistics.result(summary, statistic);
+    }
+  }
+
+  private static final class LongStatisticsTerminal extends LongStep implements Terminal {
+    private final LongSummaryStatistics summary = new LongSummaryStatistics();
+    private final Stage.Statistic statistic;
+
+    LongStatisticsTerminal(Stage.Statistic statistic) {
+      this.statistic = statistic;
+    }
+
+    @Override
+    public boolean pushLong(long element) {
+      summary.accept(element);
+      return true;
+    }
+
+    @Override
+    public Object finish() {
+      return PrimitiveStatistics.result(summary, statistic);
+    }
+  }
+
+  private static final class DoubleStatisticsTerminal extends DoubleStep implements Terminal {
+    private final DoubleSummaryStatistics summary = new DoubleSummaryStatistics();
+    private final Stage.Statistic statistic;
+
+    DoubleStatisticsTerminal(Stage.Statistic statistic) {
+      this.statistic = statistic;
+    }
+
+    @Override
+    public boolean pushDouble(double element) {
+      summary.accept(element);
+      return true;
+    }
+
+    @Override
+    public Object finish() {
+      return PrimitiveStatistics.result(summary, statistic);
+    }
+  }
+}
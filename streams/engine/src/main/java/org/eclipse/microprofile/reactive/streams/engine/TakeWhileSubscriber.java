@@ -0,0 +1,67 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import org.reactivestreams.Subscriber;
+
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Implementation of the {@link org.eclipse.microprofile.reactive.streams.spi.Stage.TakeWhile} stage.
+ */
+final class TakeWhileSubscriber<T> extends OperatorSubscriber<T, T> {
+
+  private final Predicate<? super T> predicate;
+  private final boolean inclusive;
+
+  TakeWhileSubscriber(Subscriber<? super T> downstream, Predicate<? super T> predicate, boolean inclusive) {
+    super(downstream);
+    this.predicate = predicate;
+    this.inclusive = inclusive;
+  }
+
+  @Override
+  public void onNext(T element) {
+    Objects.requireNonNull(element, "Element must not be null");
+    if (done) {
+      return;
+    }
+    boolean taking;
+    try {
+      taking = predicate.test(element);
+    }
+    catch (RuntimeException e) {
+      fail(e);
+      return;
+    }
+    if (taking) {
+      downstream.onNext(element);
+    }
+    else {
+      done = true;
+      upstream.cancel();
+      if (inclusive) {
+        downstream.onNext(element);
+      }
+      downstream.onComplete();
+    }
+  }
+}
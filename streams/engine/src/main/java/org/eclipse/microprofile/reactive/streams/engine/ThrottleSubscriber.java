@@ -0,0 +1,193 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import org.eclipse.microprofile.reactive.streams.spi.Scheduler;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implementation of the {@link org.eclipse.microprofile.reactive.streams.spi.Stage.Throttle} stage.
+ * <p>
+ * Rather than throttling elements, this throttles demand. Each element requested from upstream takes a token from the
+ * bucket, so upstream is only ever requested as many elements as downstream has requested and the bucket allows.
+ * Since every element upstream emits has already been paid for, and was requested on behalf of downstream, elements
+ * are passed straight through. When downstream wants more than the bucket holds, a timer is scheduled for when the
+ * next token will be available.
+ * <p>
+ * The bucket is only touched by the drain loop, which runs whenever downstream requests more or the timer fires. The
+ * timer doesn't run the drain loop itself, since that requests from upstream, which may then emit on the calling
+ * thread, rather it hands the drain loop to the executor, leaving the shared timer thread free for other streams.
+ */
+@SuppressWarnings("serial")
+final class ThrottleSubscriber<T> extends AtomicInteger implements Subscriber<T>, Subscription {
+
+  private final Subscriber<? super T> downstream;
+  private final long nanosPerToken;
+  private final int maximumBurst;
+  private final Scheduler scheduler;
+  private final Executor executor;
+  /**
+   * Demand from downstream that hasn't yet been requested from upstream.
+   */
+  private final AtomicLong requested = new AtomicLong();
+  private Subscription upstream;
+  private volatile boolean cancelled;
+  private boolean done;
+  // Only accessed by the drain loop
+  private long tokens;
+  private long lastRefill;
+  private Scheduler.Cancellable timer;
+
+  ThrottleSubscriber(Subscriber<? super T> downstream, long nanosPerToken, int maximumBurst, Scheduler scheduler,
+      Executor executor) {
+    this.downstream = downstream;
+    this.nanosPerToken = nanosPerToken;
+    this.maximumBurst = maximumBurst;
+    this.scheduler = scheduler;
+    this.executor = executor;
+    this.tokens = maximumBurst;
+  }
+
+  @Override
+  public void onSubscribe(Subscription subscription) {
+    Objects.requireNonNull(subscription, "Subscription must not be null");
+    if (upstream != null) {
+      subscription.cancel();
+    }
+    else {
+      upstream = subscription;
+      lastRefill = System.nanoTime();
+      downstream.onSubscribe(this);
+    }
+  }
+
+  @Override
+  public void onNext(T element) {
+    Objects.requireNonNull(element, "Element must not be null");
+    if (!done) {
+      downstream.onNext(element);
+    }
+  }
+
+  @Override
+  public void onError(Throwable error) {
+    Objects.requireNonNull(error, "Error must not be null");
+    if (!done) {
+      done = true;
+      downstream.onError(error);
+      stop();
+    }
+  }
+
+  @Override
+  public void onComplete() {
+    if (!done) {
+      done = true;
+      downstream.onComplete();
+      stop();
+    }
+  }
+
+  @Override
+  public void request(long n) {
+    if (n <= 0) {
+      // Upstream will signal the error, see rule 3.9
+      upstream.request(n);
+    }
+    else {
+      Subscriptions.add(requested, n);
+      drain();
+    }
+  }
+
+  @Override
+  public void cancel() {
+    upstream.cancel();
+    stop();
+  }
+
+  /**
+   * Stop requesting from upstream, and release the timer.
+   */
+  private void stop() {
+    cancelled = true;
+    drain();
+  }
+
+  private void drain() {
+    if (getAndIncrement() != 0) {
+      return;
+    }
+    int missed = 1;
+    for (;;) {
+      if (cancelled) {
+        if (timer != null) {
+          timer.cancel();
+          timer = null;
+        }
+        return;
+      }
+
+      long now = System.nanoTime();
+      long refilled = (now - lastRefill) / nanosPerToken;
+      if (refilled > 0) {
+        if (tokens + refilled >= maximumBurst) {
+          tokens = maximumBurst;
+          lastRefill = now;
+        }
+        else {
+          tokens += refilled;
+          lastRefill += refilled * nanosPerToken;
+        }
+      }
+
+      if (timer != null && tokens > 0) {
+        // Tokens have been refilled, so the timer is either due or has already fired
+        timer.cancel();
+        timer = null;
+      }
+
+      long requested = this.requested.get();
+      long n = Math.min(requested, tokens);
+      if (n > 0) {
+        tokens -= n;
+        Subscriptions.produced(this.requested, n);
+        upstream.request(n);
+      }
+
+      if (timer == null && tokens == 0 && this.requested.get() > 0) {
+        timer = scheduler.schedule(() -> executor.execute(this::drain),
+            lastRefill + nanosPerToken - System.nanoTime(), TimeUnit.NANOSECONDS);
+      }
+
+      missed = addAndGet(-missed);
+      if (missed == 0) {
+        return;
+      }
+    }
+  }
+}
@@ -0,0 +1,188 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import org.eclipse.microprofile.reactive.streams.spi.Scheduler;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implementation of the {@link org.eclipse.microprofile.reactive.streams.spi.Stage.IdleTimeout},
+ * {@link org.eclipse.microprofile.reactive.streams.spi.Stage.CompletionTimeout} and
+ * {@link org.eclipse.microprofile.reactive.streams.spi.Stage.InitialTimeout} stages.
+ * <p>
+ * The timer and upstream race to signal downstream, so the state is a counter that upstream increments to an odd
+ * number while it's emitting an element, and to the next even number when it's done. A timeout fails the stream
+ * straight away if it finds the counter even. If it finds it odd, it leaves a marker for upstream to fail the stream
+ * once it has finished emitting. Idle and initial timeouts also carry the counter from when they were scheduled, and
+ * do nothing if an element has since arrived.
+ * <p>
+ * The timer only changes the state. Once it has claimed the right to fail the stream, cancelling upstream and failing
+ * downstream is handed to the executor, so that neither runs on the shared timer thread.
+ */
+@SuppressWarnings("serial")
+final class TimeoutSubscriber<T> extends AtomicLong implements Subscriber<T>, Subscription {
+
+  enum Mode {
+    IDLE, COMPLETION, INITIAL
+  }
+
+  private static final long TERMINATED = -1;
+  private static final long TIMED_OUT_WHILE_EMITTING = -2;
+
+  private final Subscriber<? super T> downstream;
+  private final Mode mode;
+  private final long timeoutNanos;
+  private final Scheduler scheduler;
+  private final Executor executor;
+  private Subscription upstream;
+  private volatile Scheduler.Cancellable timer;
+
+  TimeoutSubscriber(Subscriber<? super T> downstream, Mode mode, long timeoutNanos, Scheduler scheduler,
+      Executor executor) {
+    this.downstream = downstream;
+    this.mode = mode;
+    this.timeoutNanos = timeoutNanos;
+    this.scheduler = scheduler;
+    this.executor = executor;
+  }
+
+  @Override
+  public void onSubscribe(Subscription subscription) {
+    Objects.requireNonNull(subscription, "Subscription must not be null");
+    if (upstream != null) {
+      subscription.cancel();
+    }
+    else {
+      upstream = subscription;
+      downstream.onSubscribe(this);
+      // Elements may have been emitted from within onSubscribe, in which case an idle timeout will already have been
+      // scheduled, and an initial timeout is no longer needed.
+      long index = get();
+      if (mode == Mode.COMPLETION ? index >= 0 : index == 0) {
+        schedule(0);
+      }
+    }
+  }
+
+  private void schedule(long index) {
+    timer = scheduler.schedule(() -> timeout(index), timeoutNanos, TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public void onNext(T element) {
+    Objects.requireNonNull(element, "Element must not be null");
+    long index = get();
+    if (index < 0 || !compareAndSet(index, index + 1)) {
+      // Terminated, or the timer got in first
+      return;
+    }
+    if (mode != Mode.COMPLETION) {
+      cancelTimer();
+    }
+    downstream.onNext(element);
+    if (compareAndSet(index + 1, index + 2)) {
+      if (mode == Mode.IDLE) {
+        schedule(index + 2);
+      }
+    }
+    else if (get() == TIMED_OUT_WHILE_EMITTING) {
+      set(TERMINATED);
+      timedOut();
+    }
+  }
+
+  @Override
+  public void onError(Throwable error) {
+    Objects.requireNonNull(error, "Error must not be null");
+    if (getAndSet(TERMINATED) >= 0) {
+      cancelTimer();
+      downstream.onError(error);
+    }
+  }
+
+  @Override
+  public void onComplete() {
+    if (getAndSet(TERMINATED) >= 0) {
+      cancelTimer();
+      downstream.onComplete();
+    }
+  }
+
+  @Override
+  public void request(long n) {
+    upstream.request(n);
+  }
+
+  @Override
+  public void cancel() {
+    set(TERMINATED);
+    cancelTimer();
+    upstream.cancel();
+  }
+
+  private void cancelTimer() {
+    Scheduler.Cancellable timer = this.timer;
+    if (timer != null) {
+      timer.cancel();
+    }
+  }
+
+  private void timeout(long scheduledAt) {
+    for (;;) {
+      long index = get();
+      if (index < 0 || (mode != Mode.COMPLETION && index != scheduledAt)) {
+        return;
+      }
+      if ((index & 1) == 0) {
+        if (compareAndSet(index, TERMINATED)) {
+          executor.execute(this::timedOut);
+          return;
+        }
+      }
+      else if (compareAndSet(index, TIMED_OUT_WHILE_EMITTING)) {
+        return;
+      }
+    }
+  }
+
+  private void timedOut() {
+    upstream.cancel();
+    downstream.onError(new TimeoutException(message()));
+  }
+
+  private String message() {
+    long millis = TimeUnit.NANOSECONDS.toMillis(timeoutNanos);
+    switch (mode) {
+      case IDLE:
+        return "No element was received for " + millis + "ms";
+      case COMPLETION:
+        return "The stream did not complete within " + millis + "ms";
+      default:
+        return "The first element was not received within " + millis + "ms";
+    }
+  }
+}
@@ -0,0 +1,305 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+
+/**
+ * Implementation of the {@link org.eclipse.microprofile.reactive.streams.spi.Stage.Zip} stage.
+ * <p>
+ * Upstream and the other publisher each have their own single producer single consumer queue of {@code bufferSize}
+ * elements, and are each requested that many up front. The drain loop pairs up the heads of the two queues according
+ * to downstream demand, and requests more from each input once three quarters of its buffer has been paired up. So
+ * neither queue can overflow, and a fast input simply waits for the slow one.
+ */
+@SuppressWarnings("serial")
+final class ZipSubscriber<A, B, R> extends AtomicInteger implements Subscriber<A>, Subscription {
+
+  private final Subscriber<? super R> downstream;
+  private final Publisher<? extends B> otherPublisher;
+  private final BiFunction<? super A, ? super B, ? extends R> zipper;
+  private final int bufferSize;
+  private final int limit;
+  private final SpscArrayQueue<A> queue;
+  private final OtherSubscriber other;
+  private final AtomicLong requested = new AtomicLong();
+  private final AtomicReference<Throwable> error = new AtomicReference<>();
+  private Subscription upstream;
+  private volatile boolean upstreamDone;
+  private volatile boolean cancelled;
+  private volatile Throwable invalidRequest;
+  /**
+   * The number of elements paired up since upstream was last requested more, only accessed by the drain loop.
+   */
+  private int consumed;
+
+  ZipSubscriber(Subscriber<? super R> downstream, Publisher<? extends B> otherPublisher,
+      BiFunction<? super A, ? super B, ? extends R> zipper, int bufferSize) {
+    this.downstream = downstream;
+    this.otherPublisher = otherPublisher;
+    this.zipper = zipper;
+    this.bufferSize = bufferSize;
+    this.limit = bufferSize - (bufferSize >> 2);
+    this.queue = new SpscArrayQueue<>(bufferSize);
+    this.other = new OtherSubscriber();
+  }
+
+  @Override
+  public void onSubscribe(Subscription subscription) {
+    Objects.requireNonNull(subscription, "Subscription must not be null");
+    if (upstream != null) {
+      subscription.cancel();
+    }
+    else {
+      upstream = subscription;
+      downstream.onSubscribe(this);
+      otherPublisher.subscribe(other);
+      subscription.request(bufferSize);
+    }
+  }
+
+  @Override
+  public void onNext(A element) {
+    Objects.requireNonNull(element, "Element must not be null");
+    if (upstreamDone) {
+      return;
+    }
+    if (!queue.offer(element)) {
+      upstreamDone = true;
+      upstream.cancel();
+      error.compareAndSet(null,
+          new IllegalStateException("Upstream emitted more elements than were requested, see rule 1.1"));
+    }
+    drain();
+  }
+
+  @Override
+  public void onError(Throwable error) {
+    Objects.requireNonNull(error, "Error must not be null");
+    if (!upstreamDone) {
+      upstreamDone = true;
+      this.error.compareAndSet(null, error);
+      drain();
+    }
+  }
+
+  @Override
+  public void onComplete() {
+    if (!upstreamDone) {
+      upstreamDone = true;
+      drain();
+    }
+  }
+
+  @Override
+  public void request(long n) {
+    if (n <= 0) {
+      invalidRequest = Subscriptions.nonPositiveRequest(n);
+    }
+    else {
+      Subscriptions.add(requested, n);
+    }
+    drain();
+  }
+
+  @Override
+  public void cancel() {
+    cancelled = true;
+    upstream.cancel();
+    drain();
+  }
+
+  private void drain() {
+    if (getAndIncrement() != 0) {
+      return;
+    }
+    int missed = 1;
+    for (;;) {
+      if (cancelled) {
+        other.cancel();
+        clear();
+        return;
+      }
+      Throwable failure = error.get();
+      if (failure == null) {
+        failure = invalidRequest;
+      }
+      if (failure != null) {
+        terminate();
+        downstream.onError(failure);
+        return;
+      }
+
+      boolean done = upstreamDone;
+      boolean otherDone = other.done;
+      long requested = this.requested.get();
+      long emitted = 0;
+      while (emitted != requested) {
+        A a = queue.peek();
+        B b = other.queue.peek();
+        if (a == null || b == null) {
+          break;
+        }
+        queue.poll();
+        other.queue.poll();
+        R result;
+        try {
+          result = Objects.requireNonNull(zipper.apply(a, b), "Zipper function must not return null");
+        }
+        catch (RuntimeException e) {
+          terminate();
+          downstream.onError(e);
+          return;
+        }
+        downstream.onNext(result);
+        emitted++;
+        if (cancelled) {
+          other.cancel();
+          clear();
+          return;
+        }
+        if (++consumed == limit) {
+          consumed = 0;
+          if (!upstreamDone) {
+            upstream.request(limit);
+          }
+        }
+        other.consumed();
+      }
+      if (emitted != 0) {
+        Subscriptions.produced(this.requested, emitted);
+      }
+
+      // Once either input has completed and been paired up, nothing more can ever be paired up
+      if ((done && queue.isEmpty()) || (otherDone && other.queue.isEmpty())) {
+        terminate();
+        downstream.onComplete();
+        return;
+      }
+
+      missed = addAndGet(-missed);
+      if (missed == 0) {
+        return;
+      }
+    }
+  }
+
+  private void terminate() {
+    cancelled = true;
+    // Inputs must not be cancelled if they have terminated, see rule 2.3
+    if (!upstreamDone) {
+      upstream.cancel();
+    }
+    other.cancel();
+    clear();
+  }
+
+  private void clear() {
+    queue.clear();
+    other.queue.clear();
+  }
+
+  private final class OtherSubscriber implements Subscriber<B> {
+    private final SpscArrayQueue<B> queue = new SpscArrayQueue<>(bufferSize);
+    private volatile Subscription subscription;
+    private volatile boolean done;
+    /**
+     * The number of elements paired up since the other publisher was last requested more, only accessed by the drain
+     * loop.
+     */
+    private int consumed;
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+      Objects.requireNonNull(subscription, "Subscription must not be null");
+      if (this.subscription != null) {
+        subscription.cancel();
+        return;
+      }
+      this.subscription = subscription;
+      if (cancelled) {
+        subscription.cancel();
+      }
+      else {
+        subscription.request(bufferSize);
+      }
+    }
+
+    @Override
+    public void onNext(B element) {
+      Objects.requireNonNull(element, "Element must not be null");
+      if (done) {
+        return;
+      }
+      if (!queue.offer(element)) {
+        done = true;
+        subscription.cancel();
+        error.compareAndSet(null,
+            new IllegalStateException("Zipped publisher emitted more elements than were requested, see rule 1.1"));
+      }
+      drain();
+    }
+
+    @Override
+    public void onError(Throwable error) {
+      Objects.requireNonNull(error, "Error must not be null");
+      if (!done) {
+        done = true;
+        ZipSubscriber.this.error.compareAndSet(null, error);
+        drain();
+      }
+    }
+
+    @Override
+    public void onComplete() {
+      if (!done) {
+        done = true;
+        drain();
+      }
+    }
+
+    /**
+     * Invoked from the drain loop for each element of the other publisher that is paired up.
+     */
+    void consumed() {
+      if (++consumed == limit) {
+        consumed = 0;
+        if (!done) {
+          subscription.request(limit);
+        }
+      }
+    }
+
+    void cancel() {
+      Subscription subscription = this.subscription;
+      if (subscription != null && !done) {
+        subscription.cancel();
+      }
+    }
+  }
+}
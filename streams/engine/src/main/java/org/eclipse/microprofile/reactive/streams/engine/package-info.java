@@ -0,0 +1,27 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+/**
+ * A Reactive Streams engine.
+ * <p>
+ * {@link org.eclipse.microprofile.reactive.streams.engine.ReactiveStreamsEngineImpl} implements every stage in the
+ * SPI, and is registered with the {@link java.util.ServiceLoader}, so it will be used by the zero argument
+ * {@code build} and {@code run} methods of the builders when it is on the classpath.
+ */
+package org.eclipse.microprofile.reactive.streams.engine;
@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.engine;
+
+import org.eclipse.microprofile.reactive.streams.CompletionBuilder;
+import org.eclipse.microprofile.reactive.streams.ReactiveStreams;
+import org.eclipse.microprofile.reactive.streams.spi.Graph;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verifies that closed graphs over in memory sources take the synchronous fast path.
+ */
+public class SynchronousGraphTest {
+
+  private final Set<Thread> threads = new CopyOnWriteArraySet<>();
+
+  @Test
+  public void collectGraphsShouldRunSynchronously() {
+    assertEquals(runSynchronously(ReactiveStreams.of(1, 2, 3, 4)
+        .map(this::record)
+        .filter(i -> i % 2 == 0)
+        .toList()), Arrays.asList(2, 4));
+  }
+
+  @Test
+  public void findFirstGraphsShouldRunSynchronously() {
+    assertEquals(runSynchronously(ReactiveStreams.range(0, Long.MAX_VALUE)
+        .map(this::record)
+        .skip(2)
+        .findFirst()), Optional.of(2L));
+  }
+
+  @Test
+  public void primitiveGraphsShouldRunSynchronously() {
+    assertEquals(runSynchronously(ReactiveStreams.ofInts(1, 2, 3)
+        .map(i -> record(i) * 2)
+        .mapToObj(i -> "" + i)
+        .toList()), Arrays.asList("2", "4", "6"));
+  }
+
+  @Test
+  public void graphsWithAsynchronousStagesShouldNotRunSynchronously() {
+    RecordingEngine engine = new RecordingEngine();
+    ReactiveStreams.of(1, 2, 3)
+        .flatMapCompletionStage(CompletableFuture::completedFuture)
+        .toList()
+        .run(engine);
+    assertFalse(SynchronousGraph.isSynchronous(new ArrayList<>(engine.graph.getStages())));
+  }
+
+  private <T> T runSynchronously(CompletionBuilder<T> runner) {
+    threads.clear();
+    RecordingEngine engine = new RecordingEngine();
+    CompletableFuture<T> result = runner.run(engine).toCompletableFuture();
+    assertTrue(SynchronousGraph.isSynchronous(new ArrayList<>(engine.graph.getStages())),
+        "Expected the graph to take the synchronous fast path");
+    assertTrue(result.isDone(), "Expected the result to be redeemed when run returned");
+    assertEquals(threads, Collections.singleton(Thread.currentThread()));
+    return result.join();
+  }
+
+  private <T> T record(T element) {
+    threads.add(Thread.currentThread());
+    return element;
+  }
+
+  /**
+   * Records the graph it was asked to build.
+   */
+  private static class RecordingEngine extends ReactiveStreamsEngineImpl {
+    private Graph graph;
+
+    @Override
+    public <T> CompletionStage<T> buildCompletion(Graph graph) {
+      this.graph = graph;
+      return super.buildCompletion(graph);
+    }
+  }
+}
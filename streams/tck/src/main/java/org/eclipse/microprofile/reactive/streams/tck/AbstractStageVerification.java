@@ -42,7 +42,7 @@ abstract class AbstractStageVerification {
   private final TestEnvironment environment;
   private final ScheduledExecutorService executorService;
 
-  AbstractStageVerification(ReactiveStreamsTck.VerificationDeps deps) {
+  AbstractStageVerification(ReactiveStreamsTck<?>.VerificationDeps deps) {
     this.engine = deps.engine();
     this.environment = deps.testEnvironment();
     this.executorService = deps.executorService();
@@ -0,0 +1,209 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.tck;
+
+import org.eclipse.microprofile.reactive.streams.ReactiveStreams;
+import org.reactivestreams.Processor;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class AsyncBoundaryStageVerification extends AbstractStageVerification {
+
+  private final ThreadLocal<Boolean> onExecutor = ThreadLocal.withInitial(() -> false);
+
+  AsyncBoundaryStageVerification(ReactiveStreamsTck<?>.VerificationDeps deps) {
+    super(deps);
+  }
+
+  /**
+   * An executor that marks the threads its tasks run on, so stages can assert which side of the boundary they're on.
+   */
+  private Executor markingExecutor() {
+    return task -> getExecutorService().execute(() -> {
+      onExecutor.set(true);
+      try {
+        task.run();
+      }
+      finally {
+        onExecutor.set(false);
+      }
+    });
+  }
+
+  @Test
+  public void asyncStageShouldEmitElementsFromTheExecutor() {
+    assertEquals(await(ReactiveStreams.of(1, 2, 3)
+        .map(i -> {
+          assertTrue(!onExecutor.get(), "Upstream stage ran on the executor");
+          return i;
+        })
+        .async(markingExecutor())
+        .map(i -> {
+          assertTrue(onExecutor.get(), "Downstream stage did not run on the executor");
+          return i * 10;
+        })
+        .toList()
+        .run(getEngine())), Arrays.asList(10, 20, 30));
+  }
+
+  @Test
+  public void asyncStageShouldRunUpstreamConcurrentlyWithDownstream() {
+    CountDownLatch produced = new CountDownLatch(4);
+    // The first element isn't let through until all four elements have been produced, which will never happen if the
+    // upstream and downstream stages are run on the same thread.
+    assertEquals(await(ReactiveStreams.of(1, 2, 3, 4)
+        .map(i -> {
+          produced.countDown();
+          return i;
+        })
+        .async(getExecutorService(), 4)
+        .map(i -> {
+          try {
+            if (!produced.await(10, TimeUnit.SECONDS)) {
+              throw new RuntimeException("Upstream did not run concurrently with downstream");
+            }
+          }
+          catch (InterruptedException e) {
+            throw new RuntimeException(e);
+          }
+          return i;
+        })
+        .toList()
+        .run(getEngine())), Arrays.asList(1, 2, 3, 4));
+  }
+
+  @Test
+  public void asyncStageShouldNotRequestMoreFromUpstreamOnTheDownstreamThread() {
+    Set<Thread> downstreamThreads = ConcurrentHashMap.newKeySet();
+    AtomicBoolean producedDownstream = new AtomicBoolean();
+    // Every task gets a new thread, so a thread that has run downstream only ever runs a drain. If upstream emits on
+    // one, upstream was requested more from within the drain, and so takes turns with downstream rather than refilling
+    // the buffer while downstream empties it.
+    assertEquals(await(ReactiveStreams.range(0, 12)
+        .map(i -> {
+          if (downstreamThreads.contains(Thread.currentThread())) {
+            producedDownstream.set(true);
+          }
+          return i;
+        })
+        .async(task -> new Thread(task).start(), 4)
+        .map(i -> {
+          downstreamThreads.add(Thread.currentThread());
+          return i;
+        })
+        .count()
+        .run(getEngine())), Long.valueOf(12));
+    assertTrue(!producedDownstream.get(), "Upstream emitted on a thread that was running downstream");
+  }
+
+  @Test
+  public void asyncStageShouldNotBufferMoreThanBufferSize() {
+    AtomicInteger buffered = new AtomicInteger();
+    AtomicInteger maxBuffered = new AtomicInteger();
+    assertEquals(await(ReactiveStreams.range(0, 1000)
+        .map(i -> {
+          maxBuffered.accumulateAndGet(buffered.incrementAndGet(), Math::max);
+          return i;
+        })
+        .async(getExecutorService(), 8)
+        .map(i -> {
+          buffered.decrementAndGet();
+          return i;
+        })
+        .count()
+        .run(getEngine())), Long.valueOf(1000));
+    assertTrue(maxBuffered.get() <= 8, "Expected at most 8 elements to be buffered, but was " + maxBuffered.get());
+  }
+
+  @Test(expectedExceptions = RuntimeException.class, expectedExceptionsMessageRegExp = "failed")
+  public void asyncStageShouldPropagateErrors() {
+    await(ReactiveStreams.failed(new RuntimeException("failed"))
+        .async(getExecutorService())
+        .toList()
+        .run(getEngine()));
+  }
+
+  @Test(expectedExceptions = RuntimeException.class, expectedExceptionsMessageRegExp = "failed")
+  public void asyncStageShouldPropagateDownstreamErrorsUpstream() {
+    await(ReactiveStreams.range(0, Long.MAX_VALUE)
+        .async(getExecutorService())
+        .map(i -> {
+          if (i == 100) {
+            throw new RuntimeException("failed");
+          }
+          return i;
+        })
+        .toList()
+        .run(getEngine()));
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void asyncStageShouldRejectNonPositiveBufferSize() {
+    ReactiveStreams.of(1).async(getExecutorService(), 0);
+  }
+
+  @Override
+  List<Object> reactiveStreamsTckVerifiers() {
+    return Arrays.asList(new ProcessorVerification(), new SingleElementBufferProcessorVerification());
+  }
+
+  public class ProcessorVerification extends StageProcessorVerification<Integer> {
+    @Override
+    public Processor<Integer, Integer> createIdentityProcessor(int bufferSize) {
+      return ReactiveStreams.<Integer>builder()
+          .async(getExecutorService())
+          .buildRs(getEngine());
+    }
+
+    @Override
+    public Integer createElement(int element) {
+      return element;
+    }
+  }
+
+  /**
+   * Verifies a boundary that buffers only one element, so demand is replenished after every element.
+   */
+  public class SingleElementBufferProcessorVerification extends StageProcessorVerification<Integer> {
+    @Override
+    public Processor<Integer, Integer> createIdentityProcessor(int bufferSize) {
+      return ReactiveStreams.<Integer>builder()
+          .async(getExecutorService(), 1)
+          .buildRs(getEngine());
+    }
+
+    @Override
+    public Integer createElement(int element) {
+      return element;
+    }
+  }
+}
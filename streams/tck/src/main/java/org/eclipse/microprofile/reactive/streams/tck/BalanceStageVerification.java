@@ -0,0 +1,203 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.tck;
+
+import org.eclipse.microprofile.reactive.streams.ReactiveStreams;
+import org.reactivestreams.Processor;
+import org.reactivestreams.Subscriber;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.testng.Assert.assertEquals;
+
+public class BalanceStageVerification extends AbstractStageVerification {
+
+  BalanceStageVerification(ReactiveStreamsTck<?>.VerificationDeps deps) {
+    super(deps);
+  }
+
+  @Test
+  public void balanceStageShouldProcessEveryElement() {
+    List<Integer> result = new ArrayList<>(await(ReactiveStreams.fromIterable(range(1000))
+        .balance(4, ReactiveStreams.<Integer>builder().map(i -> i * 2), getExecutorService())
+        .toList()
+        .run(getEngine())));
+    Collections.sort(result);
+    assertEquals(result, range(1000).stream().map(i -> i * 2).collect(Collectors.toList()));
+  }
+
+  @Test
+  public void balanceStageShouldRunWorkersConcurrently() {
+    CountDownLatch processing = new CountDownLatch(2);
+    // Neither element is let through until both are being processed, which will never happen if the workers don't
+    // run concurrently.
+    List<Integer> result = new ArrayList<>(await(ReactiveStreams.of(1, 2)
+        .balance(2, ReactiveStreams.<Integer>builder().map(i -> {
+          processing.countDown();
+          try {
+            if (!processing.await(10, TimeUnit.SECONDS)) {
+              throw new RuntimeException("Workers did not run concurrently");
+            }
+          }
+          catch (InterruptedException e) {
+            throw new RuntimeException(e);
+          }
+          return i;
+        }), getExecutorService())
+        .toList()
+        .run(getEngine())));
+    Collections.sort(result);
+    assertEquals(result, Arrays.asList(1, 2));
+  }
+
+  @Test(expectedExceptions = RuntimeException.class, expectedExceptionsMessageRegExp = "failed")
+  public void balanceStageShouldPropagateUpstreamErrors() {
+    await(ReactiveStreams.<Integer>failed(new RuntimeException("failed"))
+        .balance(2, ReactiveStreams.<Integer>builder(), getExecutorService())
+        .toList()
+        .run(getEngine()));
+  }
+
+  @Test(expectedExceptions = RuntimeException.class, expectedExceptionsMessageRegExp = "failed")
+  public void balanceStageShouldPropagateWorkerErrors() {
+    await(ReactiveStreams.range(0, Long.MAX_VALUE)
+        .balance(2, ReactiveStreams.<Long>builder().map(i -> {
+          if (i == 100) {
+            throw new RuntimeException("failed");
+          }
+          return i;
+        }), getExecutorService())
+        .toList()
+        .run(getEngine()));
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void balanceStageShouldRejectLessThanOneWorker() {
+    ReactiveStreams.of(1).balance(0, ReactiveStreams.<Integer>builder(), getExecutorService());
+  }
+
+  @Test
+  public void partitionStageShouldPreserveOrderWithinEachPartition() {
+    List<Integer> result = await(ReactiveStreams.fromIterable(range(1000))
+        .partition(4, i -> i, ReactiveStreams.<Integer>builder().map(i -> i * 2), getExecutorService())
+        .toList()
+        .run(getEngine()));
+    Map<Integer, List<Integer>> partitions = result.stream().collect(Collectors.groupingBy(i -> i / 2 % 4));
+    for (int partition = 0; partition < 4; partition++) {
+      int p = partition;
+      assertEquals(partitions.get(partition),
+          range(1000).stream().filter(i -> i % 4 == p).map(i -> i * 2).collect(Collectors.toList()));
+    }
+  }
+
+  @Test
+  public void partitionStageShouldAcceptNegativePartitions() {
+    List<Integer> result = new ArrayList<>(await(ReactiveStreams.of(-1, -2, -3)
+        .partition(2, i -> i, ReactiveStreams.<Integer>builder(), getExecutorService())
+        .toList()
+        .run(getEngine())));
+    Collections.sort(result);
+    assertEquals(result, Arrays.asList(-3, -2, -1));
+  }
+
+  @Test(expectedExceptions = RuntimeException.class, expectedExceptionsMessageRegExp = "failed")
+  public void partitionStageShouldPropagateRuntimeExceptions() {
+    await(ReactiveStreams.range(0, Long.MAX_VALUE)
+        .partition(2, i -> {
+          if (i == 100) {
+            throw new RuntimeException("failed");
+          }
+          return i.intValue();
+        }, ReactiveStreams.<Long>builder(), getExecutorService())
+        .toList()
+        .run(getEngine()));
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void partitionStageShouldRejectLessThanOnePartition() {
+    ReactiveStreams.of(1).partition(0, i -> i, ReactiveStreams.<Integer>builder(), getExecutorService());
+  }
+
+  private static List<Integer> range(int n) {
+    return IntStream.range(0, n).boxed().collect(Collectors.toList());
+  }
+
+  @Override
+  List<Object> reactiveStreamsTckVerifiers() {
+    return Arrays.asList(new BalanceProcessorVerification(), new PartitionProcessorVerification(),
+        new BalanceSubscriberVerification());
+  }
+
+  /**
+   * Verifies a single worker, since elements processed by different workers may be emitted out of order.
+   */
+  public class BalanceProcessorVerification extends StageProcessorVerification<Integer> {
+    @Override
+    public Processor<Integer, Integer> createIdentityProcessor(int bufferSize) {
+      return ReactiveStreams.<Integer>builder()
+          .balance(1, ReactiveStreams.<Integer>builder(), getExecutorService())
+          .buildRs(getEngine());
+    }
+
+    @Override
+    public Integer createElement(int element) {
+      return element;
+    }
+  }
+
+  public class PartitionProcessorVerification extends StageProcessorVerification<Integer> {
+    @Override
+    public Processor<Integer, Integer> createIdentityProcessor(int bufferSize) {
+      return ReactiveStreams.<Integer>builder()
+          .partition(1, i -> i, ReactiveStreams.<Integer>builder(), getExecutorService())
+          .buildRs(getEngine());
+    }
+
+    @Override
+    public Integer createElement(int element) {
+      return element;
+    }
+  }
+
+  class BalanceSubscriberVerification extends StageSubscriberBlackboxVerification<Integer> {
+    @Override
+    public Subscriber<Integer> createSubscriber() {
+      return ReactiveStreams.<Integer>builder()
+          .balance(4, ReactiveStreams.<Integer>builder(), getExecutorService())
+          .toList()
+          .build(getEngine())
+          .getRsSubscriber();
+    }
+
+    @Override
+    public Integer createElement(int element) {
+      return element;
+    }
+  }
+}
@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.tck;
+
+import org.eclipse.microprofile.reactive.streams.ReactiveStreams;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class BroadcastStageVerification extends AbstractStageVerification {
+
+  BroadcastStageVerification(ReactiveStreamsTck<?>.VerificationDeps deps) {
+    super(deps);
+  }
+
+  @Test
+  public void broadcastStageShouldEmitAllElementsToEverySubscriber() {
+    List<Integer> expected = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+    assertEquals(await(ReactiveStreams.fromIterable(expected)
+        .broadcast(ReactiveStreams.<Integer>builder().toList(), ReactiveStreams.<Integer>builder().count())
+        .run(getEngine())), Arrays.asList(expected, 100L));
+  }
+
+  @Test
+  public void broadcastStageShouldMaterializeUpstreamOnce() {
+    AtomicInteger generated = new AtomicInteger();
+    assertEquals(await(ReactiveStreams.generate(generated::incrementAndGet)
+        .limit(3)
+        .broadcast(ReactiveStreams.<Integer>builder().toList(), ReactiveStreams.<Integer>builder().toList())
+        .run(getEngine())), Arrays.asList(Arrays.asList(1, 2, 3), Arrays.asList(1, 2, 3)));
+    assertEquals(generated.get(), 3);
+  }
+
+  @Test
+  public void broadcastStageShouldHoldUpstreamBackToTheSlowestSubscriber() {
+    List<Integer> expected = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+    AtomicInteger consumed = new AtomicInteger();
+    CompletableFuture<Subscription> subscription = new CompletableFuture<>();
+    List<Integer> slowElements = new ArrayList<>();
+    CompletionStage<List<Object>> result = ReactiveStreams.fromIterable(expected)
+        .map(element -> {
+          consumed.incrementAndGet();
+          return element;
+        })
+        .broadcast(
+            ReactiveStreams.<Integer>builder().to(new Subscriber<Integer>() {
+              @Override
+              public void onSubscribe(Subscription s) {
+                subscription.complete(s);
+              }
+
+              @Override
+              public void onNext(Integer element) {
+                slowElements.add(element);
+              }
+
+              @Override
+              public void onError(Throwable t) {
+              }
+
+              @Override
+              public void onComplete() {
+              }
+            }),
+            ReactiveStreams.<Integer>builder().toList())
+        .run(getEngine());
+    Subscription slow = await(subscription);
+    assertTrue(consumed.get() <= 32, "Consumed " + consumed.get() + " elements ahead of the slowest subscriber");
+    slow.request(Long.MAX_VALUE);
+    assertEquals(await(result), Arrays.asList(null, expected));
+    assertEquals(slowElements, expected);
+  }
+
+  @Test
+  public void broadcastStageShouldKeepEmittingToSubscribersThatHaveNotCancelled() {
+    assertEquals(await(ReactiveStreams.of(1, 2, 3, 4, 5)
+        .broadcast(ReactiveStreams.<Integer>builder().limit(2).toList(), ReactiveStreams.<Integer>builder().toList())
+        .run(getEngine())), Arrays.asList(Arrays.asList(1, 2), Arrays.asList(1, 2, 3, 4, 5)));
+  }
+
+  @Test
+  public void broadcastStageShouldCancelUpstreamWhenAllSubscribersHaveCancelled() {
+    assertEquals(await(ReactiveStreams.generate(() -> 1)
+        .broadcast(ReactiveStreams.<Integer>builder().limit(2).toList(), ReactiveStreams.<Integer>builder().findFirst())
+        .run(getEngine())).size(), 2);
+  }
+
+  @Test
+  public void broadcastStageShouldCompleteWithNoSubscribers() {
+    assertEquals(await(ReactiveStreams.of(1, 2, 3)
+        .broadcast(Collections.emptyList())
+        .run(getEngine())), Collections.emptyList());
+  }
+
+  @Test(expectedExceptions = RuntimeException.class, expectedExceptionsMessageRegExp = "failed")
+  public void broadcastStageShouldPropagateErrorsToEverySubscriber() {
+    await(ReactiveStreams.failed(new RuntimeException("failed"))
+        .broadcast(ReactiveStreams.builder().toList(), ReactiveStreams.builder().count())
+        .run(getEngine()));
+  }
+
+  @Override
+  List<Object> reactiveStreamsTckVerifiers() {
+    return Collections.singletonList(new SubscriberVerification());
+  }
+
+  class SubscriberVerification extends StageSubscriberBlackboxVerification<Integer> {
+    @Override
+    public Subscriber<Integer> createSubscriber() {
+      return ReactiveStreams.<Integer>builder()
+          .broadcast(ReactiveStreams.<Integer>builder().toList(), ReactiveStreams.<Integer>builder().count())
+          .build(getEngine())
+          .getRsSubscriber();
+    }
+
+    @Override
+    public Integer createElement(int element) {
+      return element;
+    }
+  }
+}
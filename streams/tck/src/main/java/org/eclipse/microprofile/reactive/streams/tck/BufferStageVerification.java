@@ -0,0 +1,189 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.tck;
+
+import org.eclipse.microprofile.reactive.streams.OverflowStrategy;
+import org.eclipse.microprofile.reactive.streams.ReactiveStreams;
+import org.reactivestreams.Processor;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class BufferStageVerification extends AbstractStageVerification {
+
+  BufferStageVerification(ReactiveStreamsTck<?>.VerificationDeps deps) {
+    super(deps);
+  }
+
+  @Test
+  public void bufferStageShouldEmitAllElementsWhenBackpressuring() {
+    assertEquals(await(ReactiveStreams.range(0, 1000)
+        .buffer(16, OverflowStrategy.BACKPRESSURE)
+        .count()
+        .run(getEngine())), Long.valueOf(1000));
+  }
+
+  @Test
+  public void bufferStageShouldNotBufferMoreThanSizeWhenBackpressuring() {
+    AtomicInteger buffered = new AtomicInteger();
+    AtomicInteger maxBuffered = new AtomicInteger();
+    assertEquals(await(ReactiveStreams.range(0, 10000)
+        .map(i -> {
+          maxBuffered.accumulateAndGet(buffered.incrementAndGet(), Math::max);
+          return i;
+        })
+        .buffer(8, OverflowStrategy.BACKPRESSURE)
+        .async(getExecutorService(), 1)
+        .map(i -> {
+          buffered.decrementAndGet();
+          return i;
+        })
+        .count()
+        .run(getEngine())), Long.valueOf(10000));
+    // Up to 8 elements may be in the buffer, and one more in the async boundary downstream of it
+    assertTrue(maxBuffered.get() <= 9, "Expected at most 9 elements to be buffered, but was " + maxBuffered.get());
+  }
+
+  @Test
+  public void bufferStageShouldDropHead() {
+    assertEquals(await(consumeLater(1, 10, OverflowStrategy.DROP_HEAD)), Arrays.asList(8, 9, 10));
+  }
+
+  @Test
+  public void bufferStageShouldDropTail() {
+    assertEquals(await(consumeLater(1, 10, OverflowStrategy.DROP_TAIL)), Arrays.asList(1, 2, 10));
+  }
+
+  @Test
+  public void bufferStageShouldDropNew() {
+    assertEquals(await(consumeLater(1, 10, OverflowStrategy.DROP_NEW)), Arrays.asList(1, 2, 3));
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void bufferStageShouldFailOnOverflow() {
+    await(consumeLater(1, 10, OverflowStrategy.FAIL));
+  }
+
+  @Test
+  public void bufferStageShouldNotFailWhenThereIsDemand() {
+    List<Integer> expected = IntStream.rangeClosed(1, 100).boxed().collect(Collectors.toList());
+    assertEquals(await(ReactiveStreams.fromIterable(expected)
+        .buffer(3, OverflowStrategy.FAIL)
+        .toList()
+        .run(getEngine())), expected);
+  }
+
+  @Test(expectedExceptions = RuntimeException.class, expectedExceptionsMessageRegExp = "failed")
+  public void bufferStageShouldPropagateErrors() {
+    await(ReactiveStreams.failed(new RuntimeException("failed"))
+        .buffer(3, OverflowStrategy.DROP_HEAD)
+        .toList()
+        .run(getEngine()));
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void bufferStageShouldRejectNonPositiveSize() {
+    ReactiveStreams.of(1).buffer(0, OverflowStrategy.BACKPRESSURE);
+  }
+
+  /**
+   * Run the elements from {@code from} to {@code to} through a buffer of three elements, and only request them once
+   * upstream has completed, so that every element after the third overflows the buffer.
+   */
+  private CompletionStage<List<Integer>> consumeLater(int from, int to, OverflowStrategy overflowStrategy) {
+    Publisher<Integer> publisher = ReactiveStreams.fromIterable(
+        IntStream.rangeClosed(from, to).boxed().collect(Collectors.toList()))
+        .buffer(3, overflowStrategy)
+        .buildRs(getEngine());
+    CompletableFuture<List<Integer>> result = new CompletableFuture<>();
+    CompletableFuture<Subscription> subscription = new CompletableFuture<>();
+    publisher.subscribe(new Subscriber<Integer>() {
+      private final List<Integer> elements = new ArrayList<>();
+
+      @Override
+      public void onSubscribe(Subscription s) {
+        subscription.complete(s);
+      }
+
+      @Override
+      public void onNext(Integer element) {
+        elements.add(element);
+      }
+
+      @Override
+      public void onError(Throwable t) {
+        result.completeExceptionally(t);
+      }
+
+      @Override
+      public void onComplete() {
+        result.complete(elements);
+      }
+    });
+    await(subscription).request(Long.MAX_VALUE);
+    return result;
+  }
+
+  @Override
+  List<Object> reactiveStreamsTckVerifiers() {
+    return Arrays.asList(new BackpressureProcessorVerification(), new DropHeadProcessorVerification());
+  }
+
+  public class BackpressureProcessorVerification extends StageProcessorVerification<Integer> {
+    @Override
+    public Processor<Integer, Integer> createIdentityProcessor(int bufferSize) {
+      return ReactiveStreams.<Integer>builder()
+          .buffer(4, OverflowStrategy.BACKPRESSURE)
+          .buildRs(getEngine());
+    }
+
+    @Override
+    public Integer createElement(int element) {
+      return element;
+    }
+  }
+
+  public class DropHeadProcessorVerification extends StageProcessorVerification<Integer> {
+    @Override
+    public Processor<Integer, Integer> createIdentityProcessor(int bufferSize) {
+      return ReactiveStreams.<Integer>builder()
+          .buffer(bufferSize, OverflowStrategy.DROP_HEAD)
+          .buildRs(getEngine());
+    }
+
+    @Override
+    public Integer createElement(int element) {
+      return element;
+    }
+  }
+}
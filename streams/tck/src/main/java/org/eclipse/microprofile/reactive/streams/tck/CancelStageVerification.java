@@ -31,7 +31,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 
 public class CancelStageVerification extends AbstractStageVerification {
-  CancelStageVerification(ReactiveStreamsTck.VerificationDeps deps) {
+  CancelStageVerification(ReactiveStreamsTck<?>.VerificationDeps deps) {
     super(deps);
   }
 
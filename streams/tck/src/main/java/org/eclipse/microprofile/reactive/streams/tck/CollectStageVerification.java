@@ -32,7 +32,7 @@ import static org.testng.Assert.assertEquals;
 
 public class CollectStageVerification extends AbstractStageVerification {
 
-  CollectStageVerification(ReactiveStreamsTck.VerificationDeps deps) {
+  CollectStageVerification(ReactiveStreamsTck<?>.VerificationDeps deps) {
     super(deps);
   }
 
@@ -19,6 +19,7 @@
 
 package org.eclipse.microprofile.reactive.streams.tck;
 
+import org.eclipse.microprofile.reactive.streams.PublisherBuilder;
 import org.eclipse.microprofile.reactive.streams.ReactiveStreams;
 import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscriber;
@@ -30,6 +31,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.LongStream;
 
@@ -37,7 +39,7 @@ import static org.testng.Assert.assertEquals;
 
 public class ConcatStageVerification extends AbstractStageVerification {
 
-  ConcatStageVerification(ReactiveStreamsTck.VerificationDeps deps) {
+  ConcatStageVerification(ReactiveStreamsTck<?>.VerificationDeps deps) {
     super(deps);
   }
 
@@ -84,9 +86,77 @@ public class ConcatStageVerification extends AbstractStageVerification {
     assertEquals(await(result), Arrays.asList(1, 2, 3, 4, 5));
   }
 
+  @Test
+  public void concatStageShouldConcatManyGraphs() {
+    assertEquals(await(
+        ReactiveStreams.concat(Arrays.asList(
+            ReactiveStreams.of(1, 2),
+            ReactiveStreams.<Integer>empty(),
+            ReactiveStreams.of(3),
+            ReactiveStreams.concat(ReactiveStreams.of(4), ReactiveStreams.of(5, 6))
+        ))
+            .toList()
+            .run(getEngine())
+    ), Arrays.asList(1, 2, 3, 4, 5, 6));
+  }
+
+  @Test
+  public void concatStageShouldCompleteWhenThereAreNoGraphs() {
+    assertEquals(await(
+        ReactiveStreams.concat(Collections.<PublisherBuilder<Integer>>emptyList())
+            .toList()
+            .run(getEngine())
+    ), Collections.emptyList());
+  }
+
+  @Test
+  public void concatStageShouldNotConsumeStackForEachGraph() {
+    List<PublisherBuilder<Integer>> graphs = IntStream.range(0, 10000)
+        .mapToObj(ReactiveStreams::of)
+        .collect(Collectors.toList());
+    assertEquals(await(
+        ReactiveStreams.concat(graphs)
+            .count()
+            .run(getEngine())
+    ), Long.valueOf(10000));
+  }
+
+  @Test
+  public void concatStageShouldFlattenDeeplyNestedConcatenations() {
+    // concat(concat(concat(of(0), of(1)), of(2)), ...), nested as deep as it is long
+    PublisherBuilder<Integer> nested = ReactiveStreams.of(0);
+    for (int i = 1; i < 10000; i++) {
+      nested = ReactiveStreams.concat(nested, ReactiveStreams.of(i));
+    }
+    assertEquals(await(
+        ReactiveStreams.concat(Collections.singletonList(nested))
+            .toList()
+            .run(getEngine())
+    ), IntStream.range(0, 10000).boxed().collect(Collectors.toList()));
+  }
+
+  @Test(expectedExceptions = RuntimeException.class, expectedExceptionsMessageRegExp = "failed")
+  public void concatStageShouldCancelAllRemainingGraphsIfOneFails() {
+    CancelCapturingPublisher<Integer> cancelCapture1 = new CancelCapturingPublisher<>();
+    CancelCapturingPublisher<Integer> cancelCapture2 = new CancelCapturingPublisher<>();
+
+    CompletionStage<Void> completion = ReactiveStreams.concat(Arrays.asList(
+        ReactiveStreams.of(1),
+        ReactiveStreams.<Integer>failed(new RuntimeException("failed")),
+        ReactiveStreams.fromPublisher(cancelCapture1),
+        ReactiveStreams.fromPublisher(cancelCapture2)
+    ))
+        .ignore()
+        .run(getEngine());
+
+    await(cancelCapture1.getCancelled());
+    await(cancelCapture2.getCancelled());
+    await(completion);
+  }
+
   @Override
   List<Object> reactiveStreamsTckVerifiers() {
-    return Collections.singletonList(new PublisherVerification());
+    return Arrays.asList(new PublisherVerification(), new ConcatAllPublisherVerification());
   }
 
   class PublisherVerification extends StagePublisherVerification<Long> {
@@ -105,6 +175,26 @@ public class ConcatStageVerification extends AbstractStageVerification {
     }
   }
 
+  class ConcatAllPublisherVerification extends StagePublisherVerification<Long> {
+    @Override
+    public Publisher<Long> createPublisher(long elements) {
+      long toEmitFromFirst = elements / 3;
+      long toEmitFromSecond = toEmitFromFirst * 2;
+
+      return ReactiveStreams.concat(Arrays.asList(
+          ReactiveStreams.fromIterable(
+              () -> LongStream.rangeClosed(1, toEmitFromFirst).boxed().iterator()
+          ),
+          ReactiveStreams.fromIterable(
+              () -> LongStream.rangeClosed(toEmitFromFirst + 1, toEmitFromSecond).boxed().iterator()
+          ),
+          ReactiveStreams.fromIterable(
+              () -> LongStream.rangeClosed(toEmitFromSecond + 1, elements).boxed().iterator()
+          )
+      )).buildRs(getEngine());
+    }
+  }
+
   private static class CancelCapturingPublisher<T> implements Publisher<T> {
     private final CompletableFuture<T> cancelled = new CompletableFuture<>();
 
@@ -0,0 +1,234 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.tck;
+
+import org.eclipse.microprofile.reactive.streams.PublisherBuilder;
+import org.eclipse.microprofile.reactive.streams.ReactiveStreams;
+import org.reactivestreams.Processor;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+
+public class ConflateStageVerification extends AbstractStageVerification {
+
+  ConflateStageVerification(ReactiveStreamsTck<?>.VerificationDeps deps) {
+    super(deps);
+  }
+
+  @Test
+  public void conflateStageShouldAggregateElementsWhileThereIsNoDemand() {
+    assertEquals(await(consumeLater(ReactiveStreams.of(1, 2, 3, 4, 5)
+        .conflate(Integer::sum))), Collections.singletonList(15));
+  }
+
+  @Test
+  public void conflateWithSeedStageShouldAggregateElementsWhileThereIsNoDemand() {
+    assertEquals(await(consumeLater(ReactiveStreams.of(1, 2, 3, 4, 5)
+        .conflateWithSeed(i -> new ArrayList<>(Collections.singletonList(i)), (list, i) -> {
+          list.add(i);
+          return list;
+        }))), Collections.singletonList(Arrays.asList(1, 2, 3, 4, 5)));
+  }
+
+  @Test
+  public void conflateStageShouldEmitElementsUnchangedWhenThereIsDemand() {
+    List<Integer> expected = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+    assertEquals(await(ReactiveStreams.fromIterable(expected)
+        .conflate(Integer::sum)
+        .toList()
+        .run(getEngine())), expected);
+  }
+
+  @Test
+  public void conflateStageShouldNotLoseElementsToASlowConsumer() {
+    assertEquals(await(ReactiveStreams.range(0, 10000)
+        .conflate(Long::sum)
+        .async(getExecutorService(), 1)
+        .collect(Collectors.summingLong(l -> l))
+        .run(getEngine())), Long.valueOf(49995000));
+  }
+
+  @Test(expectedExceptions = RuntimeException.class, expectedExceptionsMessageRegExp = "failed")
+  public void conflateStageShouldPropagateRuntimeExceptions() {
+    await(consumeLater(ReactiveStreams.of(1, 2, 3)
+        .conflate((a, b) -> {
+          throw new RuntimeException("failed");
+        })));
+  }
+
+  @Test(expectedExceptions = RuntimeException.class, expectedExceptionsMessageRegExp = "failed")
+  public void conflateStageShouldPropagateErrors() {
+    await(ReactiveStreams.<Integer>failed(new RuntimeException("failed"))
+        .conflate(Integer::sum)
+        .toList()
+        .run(getEngine()));
+  }
+
+  @Test
+  public void expandStageShouldEmitEveryUpstreamElement() {
+    assertEquals(await(ReactiveStreams.of(1, 2, 3, 4, 5)
+        .expand(i -> Collections.singletonList(i).iterator())
+        .toList()
+        .run(getEngine())), Arrays.asList(1, 2, 3, 4, 5));
+  }
+
+  @Test
+  public void expandStageShouldExtrapolateWhileUpstreamIsSlow() {
+    assertEquals(await(neverCompleting(1)
+        .expand(i -> Stream.iterate(i, j -> j + 1).iterator())
+        .limit(5)
+        .toList()
+        .run(getEngine())), Arrays.asList(1, 2, 3, 4, 5));
+  }
+
+  @Test
+  public void expandStageShouldSkipElementsWithEmptyIterators() {
+    assertEquals(await(ReactiveStreams.of(1, 2, 3, 4, 5)
+        .expand(i -> i % 2 == 0 ? Collections.<Integer>emptyIterator() : Collections.singletonList(i).iterator())
+        .toList()
+        .run(getEngine())), Arrays.asList(1, 3, 5));
+  }
+
+  @Test(expectedExceptions = RuntimeException.class, expectedExceptionsMessageRegExp = "failed")
+  public void expandStageShouldPropagateRuntimeExceptions() {
+    await(ReactiveStreams.of(1, 2, 3)
+        .<Integer>expand(i -> {
+          throw new RuntimeException("failed");
+        })
+        .toList()
+        .run(getEngine()));
+  }
+
+  @Test(expectedExceptions = RuntimeException.class, expectedExceptionsMessageRegExp = "failed")
+  public void expandStageShouldPropagateErrors() {
+    await(ReactiveStreams.<Integer>failed(new RuntimeException("failed"))
+        .expand(i -> Collections.singletonList(i).iterator())
+        .toList()
+        .run(getEngine()));
+  }
+
+  /**
+   * Run the given stream, and only request its elements once it has completed.
+   */
+  private <T> CompletionStage<List<T>> consumeLater(PublisherBuilder<T> stream) {
+    Publisher<T> publisher = stream.buildRs(getEngine());
+    CompletableFuture<List<T>> result = new CompletableFuture<>();
+    CompletableFuture<Subscription> subscription = new CompletableFuture<>();
+    publisher.subscribe(new Subscriber<T>() {
+      private final List<T> elements = new ArrayList<>();
+
+      @Override
+      public void onSubscribe(Subscription s) {
+        subscription.complete(s);
+      }
+
+      @Override
+      public void onNext(T element) {
+        elements.add(element);
+      }
+
+      @Override
+      public void onError(Throwable t) {
+        result.completeExceptionally(t);
+      }
+
+      @Override
+      public void onComplete() {
+        result.complete(elements);
+      }
+    });
+    await(subscription).request(Long.MAX_VALUE);
+    return result;
+  }
+
+  /**
+   * A publisher that emits the given element when first requested, and then never emits anything else.
+   */
+  private static <T> PublisherBuilder<T> neverCompleting(T element) {
+    return ReactiveStreams.fromPublisher(subscriber ->
+        subscriber.onSubscribe(new Subscription() {
+          private boolean emitted;
+
+          @Override
+          public void request(long n) {
+            if (!emitted) {
+              emitted = true;
+              subscriber.onNext(element);
+            }
+          }
+
+          @Override
+          public void cancel() {
+          }
+        })
+    );
+  }
+
+  @Override
+  List<Object> reactiveStreamsTckVerifiers() {
+    return Arrays.asList(new ConflateProcessorVerification(), new ExpandProcessorVerification());
+  }
+
+  public class ConflateProcessorVerification extends StageProcessorVerification<Integer> {
+    @Override
+    public Processor<Integer, Integer> createIdentityProcessor(int bufferSize) {
+      // Conflating into lists and flattening them again makes for an identity processor
+      return ReactiveStreams.<Integer>builder()
+          .conflateWithSeed(i -> new ArrayList<>(Collections.singletonList(i)), (list, i) -> {
+            list.add(i);
+            return list;
+          })
+          .flatMapIterable(list -> list)
+          .buildRs(getEngine());
+    }
+
+    @Override
+    public Integer createElement(int element) {
+      return element;
+    }
+  }
+
+  public class ExpandProcessorVerification extends StageProcessorVerification<Integer> {
+    @Override
+    public Processor<Integer, Integer> createIdentityProcessor(int bufferSize) {
+      return ReactiveStreams.<Integer>builder()
+          .expand(i -> Collections.singletonList(i).iterator())
+          .buildRs(getEngine());
+    }
+
+    @Override
+    public Integer createElement(int element) {
+      return element;
+    }
+  }
+}
@@ -27,7 +27,7 @@ import java.util.List;
 
 public class EmptyProcessorVerification extends AbstractStageVerification {
 
-  public EmptyProcessorVerification(ReactiveStreamsTck.VerificationDeps deps) {
+  public EmptyProcessorVerification(ReactiveStreamsTck<?>.VerificationDeps deps) {
     super(deps);
   }
 
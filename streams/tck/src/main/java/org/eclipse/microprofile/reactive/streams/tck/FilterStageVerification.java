@@ -33,7 +33,7 @@ import static org.testng.Assert.assertEquals;
 
 public class FilterStageVerification extends AbstractStageVerification {
 
-  FilterStageVerification(ReactiveStreamsTck.VerificationDeps deps) {
+  FilterStageVerification(ReactiveStreamsTck<?>.VerificationDeps deps) {
     super(deps);
   }
 
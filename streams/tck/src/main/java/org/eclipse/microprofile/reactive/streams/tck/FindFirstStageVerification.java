@@ -31,7 +31,7 @@ import static org.testng.Assert.assertEquals;
 
 public class FindFirstStageVerification extends AbstractStageVerification {
 
-  FindFirstStageVerification(ReactiveStreamsTck.VerificationDeps deps) {
+  FindFirstStageVerification(ReactiveStreamsTck<?>.VerificationDeps deps) {
     super(deps);
   }
 
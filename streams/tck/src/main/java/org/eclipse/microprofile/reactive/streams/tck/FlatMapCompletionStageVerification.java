@@ -34,7 +34,7 @@ import java.util.function.Function;
 import static org.testng.Assert.assertEquals;
 
 public class FlatMapCompletionStageVerification extends AbstractStageVerification {
-  FlatMapCompletionStageVerification(ReactiveStreamsTck.VerificationDeps deps) {
+  FlatMapCompletionStageVerification(ReactiveStreamsTck<?>.VerificationDeps deps) {
     super(deps);
   }
 
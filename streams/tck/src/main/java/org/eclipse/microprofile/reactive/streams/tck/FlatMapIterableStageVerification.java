@@ -31,7 +31,7 @@ import java.util.List;
 import static org.testng.Assert.assertEquals;
 
 public class FlatMapIterableStageVerification extends AbstractStageVerification {
-  FlatMapIterableStageVerification(ReactiveStreamsTck.VerificationDeps deps) {
+  FlatMapIterableStageVerification(ReactiveStreamsTck<?>.VerificationDeps deps) {
     super(deps);
   }
 
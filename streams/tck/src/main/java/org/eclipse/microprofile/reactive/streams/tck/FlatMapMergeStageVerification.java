@@ -0,0 +1,240 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.tck;
+
+import org.eclipse.microprofile.reactive.streams.ReactiveStreams;
+import org.reactivestreams.Processor;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class FlatMapMergeStageVerification extends AbstractStageVerification {
+  FlatMapMergeStageVerification(ReactiveStreamsTck<?>.VerificationDeps deps) {
+    super(deps);
+  }
+
+  @Test
+  public void flatMapMergeStageShouldMergeElements() {
+    List<Integer> result = new ArrayList<>(await(ReactiveStreams.of(1, 2, 3)
+        .flatMapMerge(2, n -> ReactiveStreams.of(n, n, n))
+        .toList()
+        .run(getEngine())));
+    Collections.sort(result);
+    assertEquals(result, Arrays.asList(1, 1, 1, 2, 2, 2, 3, 3, 3));
+  }
+
+  @Test
+  public void flatMapMergeStageShouldMergeElementsEmittedAsynchronously() {
+    List<Integer> result = new ArrayList<>(await(ReactiveStreams.iterate(1, i -> i + 1).limit(20)
+        .flatMapMerge(4, 2, n -> ReactiveStreams.of(n, n, n)
+            .flatMapCompletionStage(i -> CompletableFuture.supplyAsync(() -> i, getExecutorService())))
+        .toList()
+        .run(getEngine())));
+    assertEquals(result.size(), 60);
+    assertEquals(result.stream().mapToInt(Integer::intValue).sum(), 630);
+  }
+
+  @Test(expectedExceptions = RuntimeException.class, expectedExceptionsMessageRegExp = "failed")
+  public void flatMapMergeStageShouldPropagateRuntimeExceptions() {
+    await(ReactiveStreams.of("foo")
+        .flatMapMerge(2, foo -> {
+          throw new RuntimeException("failed");
+        })
+        .toList()
+        .run(getEngine()));
+  }
+
+  @Test(expectedExceptions = RuntimeException.class, expectedExceptionsMessageRegExp = "failed")
+  public void flatMapMergeStageShouldPropagateInnerErrors() {
+    await(ReactiveStreams.of(1, 2, 3)
+        .flatMapMerge(2, i -> i == 2 ? ReactiveStreams.failed(new RuntimeException("failed")) : ReactiveStreams.of(i))
+        .toList()
+        .run(getEngine()));
+  }
+
+  @Test
+  public void flatMapMergeStageShouldRunPublishersConcurrently() throws Exception {
+    CompletableFuture<Void> allSubscribed = new CompletableFuture<>();
+    AtomicInteger subscribed = new AtomicInteger();
+
+    // Each inner stream can only emit once all three have been subscribed to, which would never happen if they were
+    // subscribed to one at a time.
+    CompletionStage<List<Integer>> result = ReactiveStreams.of(1, 2, 3)
+        .flatMapMerge(3, id -> ReactiveStreams.of(id)
+            .flatMapCompletionStage(i -> {
+              if (subscribed.incrementAndGet() == 3) {
+                allSubscribed.complete(null);
+              }
+              return allSubscribed.thenApply(v -> i);
+            }))
+        .toList()
+        .run(getEngine());
+
+    List<Integer> elements = new ArrayList<>(result.toCompletableFuture().get(2, TimeUnit.SECONDS));
+    Collections.sort(elements);
+    assertEquals(elements, Arrays.asList(1, 2, 3));
+  }
+
+  @Test
+  public void flatMapMergeStageShouldNotExceedMaxConcurrency() throws Exception {
+    AtomicInteger activePublishers = new AtomicInteger();
+    AtomicInteger maxActivePublishers = new AtomicInteger();
+
+    // A publisher that publishes one element and completes 20ms after being requested.
+    class ScheduledPublisher implements Publisher<Integer> {
+      private final int id;
+
+      private ScheduledPublisher(int id) {
+        this.id = id;
+      }
+
+      @Override
+      public void subscribe(Subscriber<? super Integer> subscriber) {
+        maxActivePublishers.accumulateAndGet(activePublishers.incrementAndGet(), Math::max);
+        subscriber.onSubscribe(new Subscription() {
+          private boolean published;
+
+          @Override
+          public void request(long n) {
+            if (!published) {
+              published = true;
+              getExecutorService().schedule(() -> {
+                subscriber.onNext(id);
+                activePublishers.decrementAndGet();
+                subscriber.onComplete();
+              }, 20, TimeUnit.MILLISECONDS);
+            }
+          }
+
+          @Override
+          public void cancel() {
+          }
+        });
+      }
+    }
+
+    CompletionStage<List<Integer>> result = ReactiveStreams.iterate(1, i -> i + 1).limit(10)
+        .flatMapMerge(3, id -> ReactiveStreams.fromPublisher(new ScheduledPublisher(id)))
+        .toList()
+        .run(getEngine());
+
+    assertEquals(result.toCompletableFuture().get(2, TimeUnit.SECONDS).size(), 10);
+    assertTrue(maxActivePublishers.get() <= 3, "Expected no more than 3 active publishers, but there were " +
+        maxActivePublishers.get());
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void flatMapMergeStageShouldRejectZeroConcurrency() {
+    ReactiveStreams.of(1).flatMapMerge(0, ReactiveStreams::of);
+  }
+
+  @Override
+  List<Object> reactiveStreamsTckVerifiers() {
+    return Arrays.asList(new OuterProcessorVerification(), new InnerSubscriberVerification());
+  }
+
+  /**
+   * Verifies the outer processor.
+   */
+  public class OuterProcessorVerification extends StageProcessorVerification<Integer> {
+
+    @Override
+    public Processor<Integer, Integer> createIdentityProcessor(int bufferSize) {
+      return ReactiveStreams.<Integer>builder().flatMapMerge(4, ReactiveStreams::of).buildRs(getEngine());
+    }
+
+    @Override
+    public Publisher<Integer> createFailedPublisher() {
+      return ReactiveStreams.<Integer>failed(new RuntimeException("failed"))
+          .flatMapMerge(4, ReactiveStreams::of).buildRs(getEngine());
+    }
+
+    @Override
+    public Integer createElement(int element) {
+      return element;
+    }
+  }
+
+  /**
+   * Verifies the inner subscriber passed to publishers produced by the mapper function.
+   */
+  public class InnerSubscriberVerification extends StageSubscriberWhiteboxVerification<Integer> {
+
+    @Override
+    public Subscriber<Integer> createSubscriber(WhiteboxSubscriberProbe<Integer> probe) {
+      CompletableFuture<Subscriber<? super Integer>> subscriber = new CompletableFuture<>();
+      ReactiveStreams.of(ReactiveStreams.<Integer>fromPublisher(subscriber::complete))
+          .flatMapMerge(1, 1, Function.identity())
+          .to(new Subscriber<Integer>() {
+            @Override
+            public void onSubscribe(Subscription subscription) {
+              probe.registerOnSubscribe(new SubscriberPuppet() {
+                @Override
+                public void triggerRequest(long elements) {
+                  subscription.request(elements);
+                }
+
+                @Override
+                public void signalCancel() {
+                  subscription.cancel();
+                }
+              });
+            }
+
+            @Override
+            public void onNext(Integer item) {
+              probe.registerOnNext(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+              probe.registerOnError(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+              probe.registerOnComplete();
+            }
+          })
+          .run(getEngine());
+
+      return (Subscriber) await(subscriber);
+    }
+
+    @Override
+    public Integer createElement(int element) {
+      return element;
+    }
+  }
+}
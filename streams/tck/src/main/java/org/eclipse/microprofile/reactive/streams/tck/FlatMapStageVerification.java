@@ -38,7 +38,7 @@ import java.util.function.Function;
 import static org.testng.Assert.assertEquals;
 
 public class FlatMapStageVerification extends AbstractStageVerification {
-  FlatMapStageVerification(ReactiveStreamsTck.VerificationDeps deps) {
+  FlatMapStageVerification(ReactiveStreamsTck<?>.VerificationDeps deps) {
     super(deps);
   }
 
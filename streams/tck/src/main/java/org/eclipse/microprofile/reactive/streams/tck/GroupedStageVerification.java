@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.tck;
+
+import org.eclipse.microprofile.reactive.streams.ReactiveStreams;
+import org.reactivestreams.Processor;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.testng.Assert.assertEquals;
+
+public class GroupedStageVerification extends AbstractStageVerification {
+
+  GroupedStageVerification(ReactiveStreamsTck<?>.VerificationDeps deps) {
+    super(deps);
+  }
+
+  @Test
+  public void groupedStageShouldEmitAPartialFinalGroup() {
+    assertEquals(await(ReactiveStreams.of(1, 2, 3, 4, 5, 6, 7)
+        .grouped(3)
+        .toList()
+        .run(getEngine())), Arrays.asList(Arrays.asList(1, 2, 3), Arrays.asList(4, 5, 6), Collections.singletonList(7)));
+  }
+
+  @Test
+  public void groupedStageShouldNotEmitAnEmptyFinalGroup() {
+    assertEquals(await(ReactiveStreams.of(1, 2, 3, 4)
+        .grouped(2)
+        .toList()
+        .run(getEngine())), Arrays.asList(Arrays.asList(1, 2), Arrays.asList(3, 4)));
+  }
+
+  @Test
+  public void groupedStageShouldEmitNothingForAnEmptyStream() {
+    assertEquals(await(ReactiveStreams.empty()
+        .grouped(2)
+        .toList()
+        .run(getEngine())), Collections.emptyList());
+  }
+
+  @Test
+  public void groupedStageShouldRequestWholeGroupsFromUpstream() {
+    List<Long> requests = new CopyOnWriteArrayList<>();
+    CompletableFuture<Subscription> subscription = new CompletableFuture<>();
+    ReactiveStreams.<Integer>fromPublisher(subscriber ->
+        subscriber.onSubscribe(new Subscription() {
+          @Override
+          public void request(long n) {
+            requests.add(n);
+          }
+
+          @Override
+          public void cancel() {
+          }
+        })
+    ).grouped(5)
+        .to(new Subscriber<List<Integer>>() {
+          @Override
+          public void onSubscribe(Subscription s) {
+            subscription.complete(s);
+          }
+
+          @Override
+          public void onNext(List<Integer> group) {
+          }
+
+          @Override
+          public void onError(Throwable t) {
+          }
+
+          @Override
+          public void onComplete() {
+          }
+        })
+        .run(getEngine());
+
+    await(subscription).request(3);
+    assertEquals(requests, Collections.singletonList(15L));
+  }
+
+  @Test(expectedExceptions = RuntimeException.class, expectedExceptionsMessageRegExp = "failed")
+  public void groupedStageShouldPropagateErrors() {
+    await(ReactiveStreams.failed(new RuntimeException("failed"))
+        .grouped(2)
+        .toList()
+        .run(getEngine()));
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void groupedStageShouldRejectNonPositiveSize() {
+    ReactiveStreams.of(1).grouped(0);
+  }
+
+  @Override
+  List<Object> reactiveStreamsTckVerifiers() {
+    return Collections.singletonList(new ProcessorVerification());
+  }
+
+  public class ProcessorVerification extends StageProcessorVerification<Integer> {
+    @Override
+    public Processor<Integer, Integer> createIdentityProcessor(int bufferSize) {
+      return ReactiveStreams.<Integer>builder()
+          .grouped(1)
+          .map(group -> group.get(0))
+          .buildRs(getEngine());
+    }
+
+    @Override
+    public Integer createElement(int element) {
+      return element;
+    }
+  }
+}
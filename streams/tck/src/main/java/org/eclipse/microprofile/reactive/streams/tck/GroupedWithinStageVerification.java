@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.tck;
+
+import org.eclipse.microprofile.reactive.streams.PublisherBuilder;
+import org.eclipse.microprofile.reactive.streams.ReactiveStreams;
+import org.reactivestreams.Processor;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+
+public class GroupedWithinStageVerification extends AbstractStageVerification {
+
+  GroupedWithinStageVerification(ReactiveStreamsTck<?>.VerificationDeps deps) {
+    super(deps);
+  }
+
+  @Test
+  public void groupedWithinStageShouldEmitFullGroups() {
+    assertEquals(await(ReactiveStreams.of(1, 2, 3, 4, 5, 6, 7)
+        .groupedWithin(3, Duration.ofSeconds(10))
+        .toList()
+        .run(getEngine())), Arrays.asList(Arrays.asList(1, 2, 3), Arrays.asList(4, 5, 6), Collections.singletonList(7)));
+  }
+
+  @Test
+  public void groupedWithinStageShouldEmitPartialGroupsWhenMaxWaitElapses() {
+    assertEquals(await(neverCompleting(1, 2)
+        .groupedWithin(10, Duration.ofMillis(50))
+        .findFirst()
+        .run(getEngine())).get(), Arrays.asList(1, 2));
+  }
+
+  @Test
+  public void groupedWithinStageShouldEmitADueGroupWhenDemandArrives() {
+    CompletableFuture<Subscription> subscription = new CompletableFuture<>();
+    CompletableFuture<List<Integer>> first = new CompletableFuture<>();
+    neverCompleting(1, 2)
+        .groupedWithin(10, Duration.ofMillis(10))
+        .to(new Subscriber<List<Integer>>() {
+          @Override
+          public void onSubscribe(Subscription s) {
+            subscription.complete(s);
+          }
+
+          @Override
+          public void onNext(List<Integer> group) {
+            first.complete(group);
+          }
+
+          @Override
+          public void onError(Throwable t) {
+            first.completeExceptionally(t);
+          }
+
+          @Override
+          public void onComplete() {
+          }
+        })
+        .run(getEngine());
+
+    Subscription s = await(subscription);
+    getExecutorService().schedule(() -> s.request(1), 50, TimeUnit.MILLISECONDS);
+    assertEquals(await(first), Arrays.asList(1, 2));
+    s.cancel();
+  }
+
+  @Test
+  public void groupedWithinStageShouldEmitNothingForAnEmptyStream() {
+    assertEquals(await(ReactiveStreams.empty()
+        .groupedWithin(2, Duration.ofMillis(10))
+        .toList()
+        .run(getEngine())), Collections.emptyList());
+  }
+
+  @Test(expectedExceptions = RuntimeException.class, expectedExceptionsMessageRegExp = "failed")
+  public void groupedWithinStageShouldPropagateErrors() {
+    await(ReactiveStreams.failed(new RuntimeException("failed"))
+        .groupedWithin(2, Duration.ofMillis(10))
+        .toList()
+        .run(getEngine()));
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void groupedWithinStageShouldRejectNonPositiveSize() {
+    ReactiveStreams.of(1).groupedWithin(0, Duration.ofSeconds(1));
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void groupedWithinStageShouldRejectNonPositiveMaxWait() {
+    ReactiveStreams.of(1).groupedWithin(1, Duration.ZERO);
+  }
+
+  /**
+   * A publisher of the given elements that never completes.
+   */
+  @SafeVarargs
+  private static <T> PublisherBuilder<T> neverCompleting(T... elements) {
+    return ReactiveStreams.fromPublisher(subscriber ->
+        subscriber.onSubscribe(new Subscription() {
+          private int index = 0;
+
+          @Override
+          public void request(long n) {
+            for (long i = 0; i < n && index < elements.length; i++) {
+              subscriber.onNext(elements[index++]);
+            }
+          }
+
+          @Override
+          public void cancel() {
+          }
+        })
+    );
+  }
+
+  @Override
+  List<Object> reactiveStreamsTckVerifiers() {
+    return Arrays.asList(new ProcessorVerification(), new TimedProcessorVerification());
+  }
+
+  public class ProcessorVerification extends StageProcessorVerification<Integer> {
+    @Override
+    public Processor<Integer, Integer> createIdentityProcessor(int bufferSize) {
+      return ReactiveStreams.<Integer>builder()
+          .groupedWithin(1, Duration.ofSeconds(10))
+          .map(group -> group.get(0))
+          .buildRs(getEngine());
+    }
+
+    @Override
+    public Integer createElement(int element) {
+      return element;
+    }
+  }
+
+  /**
+   * Verifies groups that are mostly flushed by the timer rather than by filling up.
+   */
+  public class TimedProcessorVerification extends StageProcessorVerification<Integer> {
+    @Override
+    public Processor<Integer, Integer> createIdentityProcessor(int bufferSize) {
+      return ReactiveStreams.<Integer>builder()
+          .groupedWithin(4, Duration.ofMillis(5))
+          .flatMapIterable(group -> group)
+          .buildRs(getEngine());
+    }
+
+    @Override
+    public Integer createElement(int element) {
+      return element;
+    }
+  }
+}
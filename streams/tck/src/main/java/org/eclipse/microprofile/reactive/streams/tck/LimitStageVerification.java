@@ -0,0 +1,172 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.tck;
+
+import org.eclipse.microprofile.reactive.streams.CompletionBuilder;
+import org.eclipse.microprofile.reactive.streams.ReactiveStreams;
+import org.reactivestreams.Processor;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class LimitStageVerification extends AbstractStageVerification {
+
+  LimitStageVerification(ReactiveStreamsTck<?>.VerificationDeps deps) {
+    super(deps);
+  }
+
+  @Test
+  public void limitStageShouldLimitTheStream() {
+    assertEquals(await(
+        ReactiveStreams.iterate(1, i -> i + 1)
+            .limit(4)
+            .toList()
+            .run(getEngine())
+    ), Arrays.asList(1, 2, 3, 4));
+  }
+
+  @Test
+  public void limitStageShouldEmitAllElementsOfAShorterStream() {
+    assertEquals(await(
+        ReactiveStreams.of(1, 2)
+            .limit(4)
+            .toList()
+            .run(getEngine())
+    ), Arrays.asList(1, 2));
+  }
+
+  @Test
+  public void limitStageShouldNotRequestMoreThanTheLimit() {
+    DemandRecordingPublisher publisher = new DemandRecordingPublisher();
+    assertEquals(await(
+        ReactiveStreams.fromPublisher(publisher)
+            .limit(10)
+            .count()
+            .run(getEngine())
+    ), Long.valueOf(10));
+    assertTrue(publisher.requested.get() <= 10, "Expected no more than 10 elements to be requested, but " +
+        publisher.requested.get() + " were requested");
+  }
+
+  @Test
+  public void limitStageShouldCompleteWithoutWaitingForAnotherElement() {
+    // Emits exactly three elements, and then never completes
+    Publisher<Integer> publisher = subscriber -> subscriber.onSubscribe(new Subscription() {
+      private int emitted = 0;
+
+      @Override
+      public void request(long n) {
+        for (long i = 0; i < n && emitted < 3; i++) {
+          subscriber.onNext(++emitted);
+        }
+      }
+
+      @Override
+      public void cancel() {
+      }
+    });
+    assertEquals(await(
+        ReactiveStreams.fromPublisher(publisher)
+            .limit(3)
+            .toList()
+            .run(getEngine())
+    ), Arrays.asList(1, 2, 3));
+  }
+
+  @Test
+  public void limitStageShouldCancelUpstreamWithoutRequestingWhenLimitingToZero() {
+    DemandRecordingPublisher publisher = new DemandRecordingPublisher();
+    assertEquals(await(
+        ReactiveStreams.fromPublisher(publisher)
+            .limit(0)
+            .toList()
+            .run(getEngine())
+    ), Collections.emptyList());
+    await(publisher.cancelled);
+    assertEquals(publisher.requested.get(), 0);
+  }
+
+  @Test
+  public void limitStageShouldLimitEachRunIndependently() {
+    CompletionBuilder<List<Integer>> completion =
+        ReactiveStreams.of(1, 2, 3, 4, 5, 6)
+            .limit(3)
+            .toList();
+
+    assertEquals(await(completion.run(getEngine())), Arrays.asList(1, 2, 3));
+    assertEquals(await(completion.run(getEngine())), Arrays.asList(1, 2, 3));
+  }
+
+  @Override
+  List<Object> reactiveStreamsTckVerifiers() {
+    return Collections.singletonList(new ProcessorVerification());
+  }
+
+  class ProcessorVerification extends StageProcessorVerification<Integer> {
+
+    @Override
+    public Processor<Integer, Integer> createIdentityProcessor(int bufferSize) {
+      return ReactiveStreams.<Integer>builder().limit(Long.MAX_VALUE).buildRs(getEngine());
+    }
+
+    @Override
+    public Integer createElement(int element) {
+      return element;
+    }
+  }
+
+  /**
+   * An infinite publisher that records the total demand it receives.
+   */
+  private static class DemandRecordingPublisher implements Publisher<Long> {
+    private final AtomicLong requested = new AtomicLong();
+    private final CompletableFuture<Void> cancelled = new CompletableFuture<>();
+
+    @Override
+    public void subscribe(Subscriber<? super Long> subscriber) {
+      subscriber.onSubscribe(new Subscription() {
+        private long emitted = 0;
+
+        @Override
+        public void request(long n) {
+          requested.addAndGet(n);
+          for (long i = 0; i < n && !cancelled.isDone(); i++) {
+            subscriber.onNext(++emitted);
+          }
+        }
+
+        @Override
+        public void cancel() {
+          cancelled.complete(null);
+        }
+      });
+    }
+  }
+}
@@ -0,0 +1,221 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.tck;
+
+import org.eclipse.microprofile.reactive.streams.ReactiveStreams;
+import org.reactivestreams.Processor;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class MapAsyncPartitionedStageVerification extends AbstractStageVerification {
+  MapAsyncPartitionedStageVerification(ReactiveStreamsTck<?>.VerificationDeps deps) {
+    super(deps);
+  }
+
+  @Test
+  public void mapAsyncPartitionedStageShouldMaintainOrderWithinEachKey() {
+    List<Integer> elements = range(200);
+    List<Integer> result = await(ReactiveStreams.fromIterable(elements)
+        .mapAsyncPartitioned(8, i -> i % 4, i -> CompletableFuture.supplyAsync(() -> {
+          try {
+            TimeUnit.MICROSECONDS.sleep(ThreadLocalRandom.current().nextInt(500));
+          }
+          catch (InterruptedException e) {
+            throw new RuntimeException(e);
+          }
+          return i;
+        }, getExecutorService()))
+        .toList()
+        .run(getEngine()));
+
+    Map<Integer, List<Integer>> byKey = result.stream().collect(Collectors.groupingBy(i -> i % 4));
+    for (int key = 0; key < 4; key++) {
+      int k = key;
+      assertEquals(byKey.get(key), elements.stream().filter(i -> i % 4 == k).collect(Collectors.toList()));
+    }
+  }
+
+  @Test
+  public void mapAsyncPartitionedStageShouldMapOneElementPerKeyAtATime() {
+    Map<Integer, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+    AtomicInteger maxInFlight = new AtomicInteger();
+
+    List<Integer> result = new ArrayList<>(await(ReactiveStreams.fromIterable(range(100))
+        .mapAsyncPartitioned(10, i -> i % 2, i -> {
+          AtomicInteger count = inFlight.computeIfAbsent(i % 2, k -> new AtomicInteger());
+          maxInFlight.accumulateAndGet(count.incrementAndGet(), Math::max);
+          return CompletableFuture.supplyAsync(() -> {
+            count.decrementAndGet();
+            return i;
+          }, getExecutorService());
+        })
+        .toList()
+        .run(getEngine())));
+
+    Collections.sort(result);
+    assertEquals(result, range(100));
+    assertEquals(maxInFlight.get(), 1);
+  }
+
+  @Test
+  public void mapAsyncPartitionedStageShouldMapDifferentKeysConcurrently() {
+    List<CompletableFuture<Integer>> futures = new CopyOnWriteArrayList<>();
+    // The elements with key 1 and 2 are mapped while the element with key 0 is still unredeemed, and the second
+    // element with key 0 isn't mapped until the first one is redeemed.
+    CompletionStage<List<Integer>> result = ReactiveStreams.of(0, 3, 1, 2)
+        .mapAsyncPartitioned(3, i -> i % 3, i -> {
+          CompletableFuture<Integer> future = new CompletableFuture<>();
+          futures.add(future);
+          return future;
+        })
+        .toList()
+        .run(getEngine());
+
+    assertEquals(futures.size(), 3);
+    futures.get(2).complete(2);
+    futures.get(1).complete(1);
+    futures.get(0).complete(0);
+    assertEquals(futures.size(), 4);
+    futures.get(3).complete(3);
+
+    assertEquals(await(result), Arrays.asList(2, 1, 0, 3));
+  }
+
+  @Test
+  public void mapAsyncPartitionedStageShouldNotExceedParallelism() {
+    AtomicInteger inFlight = new AtomicInteger();
+    AtomicInteger maxInFlight = new AtomicInteger();
+
+    List<Integer> result = new ArrayList<>(await(ReactiveStreams.fromIterable(range(100))
+        .mapAsyncPartitioned(3, i -> i, i -> {
+          maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+          return CompletableFuture.supplyAsync(() -> {
+            inFlight.decrementAndGet();
+            return i;
+          }, getExecutorService());
+        })
+        .toList()
+        .run(getEngine())));
+
+    Collections.sort(result);
+    assertEquals(result, range(100));
+    assertTrue(maxInFlight.get() <= 3, "Expected at most 3 elements in flight but got " + maxInFlight.get());
+  }
+
+  @Test(expectedExceptions = RuntimeException.class, expectedExceptionsMessageRegExp = "failed")
+  public void mapAsyncPartitionedStageShouldPropagateFailedFutures() {
+    CompletableFuture<Integer> failed = new CompletableFuture<>();
+    failed.completeExceptionally(new RuntimeException("failed"));
+    await(ReactiveStreams.of(1, 2, 3)
+        .mapAsyncPartitioned(3, i -> i, i -> i == 2 ? failed : new CompletableFuture<Integer>())
+        .toList()
+        .run(getEngine()));
+  }
+
+  @Test(expectedExceptions = RuntimeException.class, expectedExceptionsMessageRegExp = "failed")
+  public void mapAsyncPartitionedStageShouldPropagateMapperExceptions() {
+    await(ReactiveStreams.of(1, 2, 3)
+        .mapAsyncPartitioned(2, i -> i, i -> {
+          if (i == 2) {
+            throw new RuntimeException("failed");
+          }
+          return CompletableFuture.completedFuture(i);
+        })
+        .toList()
+        .run(getEngine()));
+  }
+
+  @Test(expectedExceptions = RuntimeException.class, expectedExceptionsMessageRegExp = "failed")
+  public void mapAsyncPartitionedStageShouldPropagateKeyFunctionExceptions() {
+    await(ReactiveStreams.of(1, 2, 3)
+        .mapAsyncPartitioned(2, i -> {
+          if (i == 2) {
+            throw new RuntimeException("failed");
+          }
+          return i;
+        }, CompletableFuture::completedFuture)
+        .toList()
+        .run(getEngine()));
+  }
+
+  @Test(expectedExceptions = RuntimeException.class, expectedExceptionsMessageRegExp = "failed")
+  public void mapAsyncPartitionedStageShouldPropagateErrors() {
+    await(ReactiveStreams.<Integer>failed(new RuntimeException("failed"))
+        .mapAsyncPartitioned(2, i -> i, CompletableFuture::completedFuture)
+        .toList()
+        .run(getEngine()));
+  }
+
+  @Test(expectedExceptions = NullPointerException.class)
+  public void mapAsyncPartitionedStageShouldFailOnNullValues() {
+    await(ReactiveStreams.of(1, 2, 3)
+        .mapAsyncPartitioned(2, i -> i, i -> CompletableFuture.<Integer>completedFuture(null))
+        .toList()
+        .run(getEngine()));
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void mapAsyncPartitionedStageShouldRejectNonPositiveParallelism() {
+    ReactiveStreams.of(1).mapAsyncPartitioned(0, i -> i, CompletableFuture::completedFuture);
+  }
+
+  private static List<Integer> range(int n) {
+    return IntStream.range(0, n).boxed().collect(Collectors.toList());
+  }
+
+  @Override
+  List<Object> reactiveStreamsTckVerifiers() {
+    return Collections.singletonList(new ProcessorVerification());
+  }
+
+  /**
+   * Verifies elements that all have the same key, since elements with different keys may be emitted out of order.
+   */
+  public class ProcessorVerification extends StageProcessorVerification<Integer> {
+    @Override
+    public Processor<Integer, Integer> createIdentityProcessor(int bufferSize) {
+      return ReactiveStreams.<Integer>builder()
+          .mapAsyncPartitioned(4, i -> 0, CompletableFuture::completedFuture)
+          .buildRs(getEngine());
+    }
+
+    @Override
+    public Integer createElement(int element) {
+      return element;
+    }
+  }
+}
@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.tck;
+
+import org.eclipse.microprofile.reactive.streams.ReactiveStreams;
+import org.reactivestreams.Processor;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class MapAsyncStageVerification extends AbstractStageVerification {
+  MapAsyncStageVerification(ReactiveStreamsTck<?>.VerificationDeps deps) {
+    super(deps);
+  }
+
+  @Test
+  public void mapAsyncStageShouldMaintainOrderOfFutures() throws Exception {
+    CompletableFuture<Integer> one = new CompletableFuture<>();
+    CompletableFuture<Integer> two = new CompletableFuture<>();
+    CompletableFuture<Integer> three = new CompletableFuture<>();
+
+    CompletionStage<List<Integer>> result = ReactiveStreams.of(one, two, three)
+        .mapAsync(3, Function.identity())
+        .toList()
+        .run(getEngine());
+
+    three.complete(3);
+    Thread.sleep(100);
+    two.complete(2);
+    Thread.sleep(100);
+    one.complete(1);
+
+    assertEquals(await(result), Arrays.asList(1, 2, 3));
+  }
+
+  @Test
+  public void mapAsyncStageShouldMapElementsConcurrently() {
+    List<CompletableFuture<Integer>> futures = new ArrayList<>();
+    // None of the futures are redeemed until all of them have been created, which can only happen if the stage maps
+    // all of the elements before any of them are redeemed.
+    CompletionStage<List<Integer>> result = ReactiveStreams.of(1, 2, 3)
+        .mapAsync(3, i -> {
+          CompletableFuture<Integer> future = new CompletableFuture<>();
+          futures.add(future);
+          if (futures.size() == 3) {
+            for (int j = futures.size() - 1; j >= 0; j--) {
+              futures.get(j).complete(j + 1);
+            }
+          }
+          return future;
+        })
+        .toList()
+        .run(getEngine());
+
+    assertEquals(await(result), Arrays.asList(1, 2, 3));
+  }
+
+  @Test
+  public void mapAsyncStageShouldNotExceedParallelism() {
+    AtomicInteger inFlight = new AtomicInteger();
+    AtomicInteger maxInFlight = new AtomicInteger();
+
+    List<Integer> result = await(ReactiveStreams.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10)
+        .mapAsync(3, i -> {
+          maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+          return CompletableFuture.supplyAsync(() -> {
+            inFlight.decrementAndGet();
+            return i * 10;
+          }, getExecutorService());
+        })
+        .toList()
+        .run(getEngine()));
+
+    assertEquals(result, Arrays.asList(10, 20, 30, 40, 50, 60, 70, 80, 90, 100));
+    assertTrue(maxInFlight.get() <= 3, "Expected at most 3 elements in flight but got " + maxInFlight.get());
+  }
+
+  @Test
+  public void mapAsyncUnorderedStageShouldEmitInCompletionOrder() throws Exception {
+    CompletableFuture<Integer> one = new CompletableFuture<>();
+    CompletableFuture<Integer> two = new CompletableFuture<>();
+    CompletableFuture<Integer> three = new CompletableFuture<>();
+    List<Integer> received = new CopyOnWriteArrayList<>();
+
+    CompletionStage<Void> result = ReactiveStreams.of(one, two, three)
+        .mapAsyncUnordered(3, Function.identity())
+        .forEach(received::add)
+        .run(getEngine());
+
+    Thread.sleep(100);
+    three.complete(3);
+    two.complete(2);
+    one.complete(1);
+
+    await(result);
+    assertEquals(received, Arrays.asList(3, 2, 1));
+  }
+
+  @Test(expectedExceptions = RuntimeException.class, expectedExceptionsMessageRegExp = "failed")
+  public void mapAsyncStageShouldPropagateFailedFutures() {
+    CompletableFuture<Integer> failed = new CompletableFuture<>();
+    failed.completeExceptionally(new RuntimeException("failed"));
+    await(ReactiveStreams.of(CompletableFuture.completedFuture(1), failed, new CompletableFuture<Integer>())
+        .mapAsync(3, Function.identity())
+        .toList()
+        .run(getEngine()));
+  }
+
+  @Test(expectedExceptions = RuntimeException.class, expectedExceptionsMessageRegExp = "failed")
+  public void mapAsyncStageShouldPropagateMapperExceptions() {
+    await(ReactiveStreams.of(1, 2, 3)
+        .mapAsync(2, i -> {
+          if (i == 2) {
+            throw new RuntimeException("failed");
+          }
+          return CompletableFuture.completedFuture(i);
+        })
+        .toList()
+        .run(getEngine()));
+  }
+
+  @Test(expectedExceptions = NullPointerException.class)
+  public void mapAsyncStageShouldFailOnNullValues() {
+    await(ReactiveStreams.of(1, 2, 3)
+        .mapAsync(2, i -> CompletableFuture.<Integer>completedFuture(null))
+        .toList()
+        .run(getEngine()));
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void mapAsyncStageShouldRejectNonPositiveParallelism() {
+    ReactiveStreams.of(1).mapAsync(0, CompletableFuture::completedFuture);
+  }
+
+  @Override
+  List<Object> reactiveStreamsTckVerifiers() {
+    return Arrays.asList(new ProcessorVerification(), new UnorderedProcessorVerification());
+  }
+
+  public class ProcessorVerification extends StageProcessorVerification<Integer> {
+    @Override
+    public Processor<Integer, Integer> createIdentityProcessor(int bufferSize) {
+      return ReactiveStreams.<Integer>builder()
+          .mapAsync(4, CompletableFuture::completedFuture)
+          .buildRs(getEngine());
+    }
+
+    @Override
+    public Integer createElement(int element) {
+      return element;
+    }
+  }
+
+  public class UnorderedProcessorVerification extends StageProcessorVerification<Integer> {
+    @Override
+    public Processor<Integer, Integer> createIdentityProcessor(int bufferSize) {
+      return ReactiveStreams.<Integer>builder()
+          .mapAsyncUnordered(4, CompletableFuture::completedFuture)
+          .buildRs(getEngine());
+    }
+
+    @Override
+    public Integer createElement(int element) {
+      return element;
+    }
+  }
+}
@@ -33,7 +33,7 @@ import static org.testng.Assert.assertEquals;
 
 public class MapStageVerification extends AbstractStageVerification {
 
-  MapStageVerification(ReactiveStreamsTck.VerificationDeps deps) {
+  MapStageVerification(ReactiveStreamsTck<?>.VerificationDeps deps) {
     super(deps);
   }
 
@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.tck;
+
+import org.eclipse.microprofile.reactive.streams.ReactiveStreams;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.testng.Assert.assertEquals;
+
+public class MergeStageVerification extends AbstractStageVerification {
+
+  MergeStageVerification(ReactiveStreamsTck<?>.VerificationDeps deps) {
+    super(deps);
+  }
+
+  @Test
+  public void mergeStageShouldEmitAllElementsOfAllGraphs() {
+    List<Integer> result = await(ReactiveStreams.merge(
+        ReactiveStreams.fromIterable(() -> IntStream.range(0, 100).boxed().iterator()),
+        ReactiveStreams.fromIterable(() -> IntStream.range(100, 200).boxed().iterator()),
+        ReactiveStreams.fromIterable(() -> IntStream.range(200, 300).boxed().iterator())
+    )
+        .toList()
+        .run(getEngine()));
+    assertEquals(result.stream().sorted().collect(Collectors.toList()),
+        IntStream.range(0, 300).boxed().collect(Collectors.toList()));
+    // The elements of each graph should stay in order
+    assertEquals(result.stream().filter(i -> i >= 100 && i < 200).collect(Collectors.toList()),
+        IntStream.range(100, 200).boxed().collect(Collectors.toList()));
+  }
+
+  @Test
+  public void mergeStageShouldMergeConcurrentGraphs() {
+    assertEquals(await(ReactiveStreams.merge(
+        ReactiveStreams.range(0, 10000).async(getExecutorService()),
+        ReactiveStreams.range(10000, 10000).async(getExecutorService()),
+        ReactiveStreams.range(20000, 10000).async(getExecutorService()),
+        ReactiveStreams.range(30000, 10000).async(getExecutorService())
+    )
+        .collect(Collectors.summingLong(l -> l))
+        .run(getEngine())), Long.valueOf(799980000));
+  }
+
+  @Test
+  public void mergeStageShouldCompleteWhenThereAreNoGraphs() {
+    assertEquals(await(ReactiveStreams.<Integer>merge()
+        .toList()
+        .run(getEngine())), Collections.emptyList());
+  }
+
+  @Test
+  public void mergeStageShouldCompleteWhenAllGraphsAreEmpty() {
+    assertEquals(await(ReactiveStreams.merge(ReactiveStreams.<Integer>empty(), ReactiveStreams.<Integer>empty())
+        .toList()
+        .run(getEngine())), Collections.emptyList());
+  }
+
+  @Test(expectedExceptions = RuntimeException.class, expectedExceptionsMessageRegExp = "failed")
+  public void mergeStageShouldCancelOtherGraphsIfOneFails() {
+    CancelCapturingPublisher<Integer> cancelCapture = new CancelCapturingPublisher<>();
+
+    CompletionStage<Void> completion = ReactiveStreams.merge(
+        ReactiveStreams.fromPublisher(cancelCapture),
+        ReactiveStreams.failed(new RuntimeException("failed"))
+    )
+        .ignore()
+        .run(getEngine());
+
+    await(cancelCapture.getCancelled());
+    await(completion);
+  }
+
+  @Test
+  public void mergeStageShouldCancelAllGraphsWhenCancelled() {
+    CancelCapturingPublisher<Integer> cancelCapture = new CancelCapturingPublisher<>();
+
+    CompletionStage<List<Integer>> result = ReactiveStreams.merge(
+        ReactiveStreams.fromPublisher(cancelCapture),
+        ReactiveStreams.fromIterable(() -> IntStream.range(1, 1000000).boxed().iterator())
+    )
+        .limit(5)
+        .toList()
+        .run(getEngine());
+
+    await(cancelCapture.getCancelled());
+    assertEquals(await(result).size(), 5);
+  }
+
+  @Override
+  List<Object> reactiveStreamsTckVerifiers() {
+    return Collections.singletonList(new PublisherVerification());
+  }
+
+  class PublisherVerification extends StagePublisherVerification<Long> {
+    @Override
+    public Publisher<Long> createPublisher(long elements) {
+      long toEmitFromFirst = elements / 2;
+
+      return ReactiveStreams.merge(
+          ReactiveStreams.fromIterable(
+              () -> LongStream.rangeClosed(1, toEmitFromFirst).boxed().iterator()
+          ),
+          ReactiveStreams.fromIterable(
+              () -> LongStream.rangeClosed(toEmitFromFirst + 1, elements).boxed().iterator()
+          )
+      ).buildRs(getEngine());
+    }
+  }
+
+  private static class CancelCapturingPublisher<T> implements Publisher<T> {
+    private final CompletableFuture<T> cancelled = new CompletableFuture<>();
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+      subscriber.onSubscribe(new Subscription() {
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+          cancelled.complete(null);
+        }
+      });
+    }
+
+    public CompletableFuture<T> getCancelled() {
+      return cancelled;
+    }
+  }
+}
@@ -32,7 +32,7 @@ import static org.testng.Assert.assertEquals;
 
 public class OfStageVerification extends AbstractStageVerification {
 
-  OfStageVerification(ReactiveStreamsTck.VerificationDeps deps) {
+  OfStageVerification(ReactiveStreamsTck<?>.VerificationDeps deps) {
     super(deps);
   }
 
@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.tck;
+
+import org.eclipse.microprofile.reactive.streams.PublisherBuilder;
+import org.eclipse.microprofile.reactive.streams.ReactiveStreams;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.testng.Assert.assertEquals;
+
+public class OnBackpressureStageVerification extends AbstractStageVerification {
+
+  OnBackpressureStageVerification(ReactiveStreamsTck<?>.VerificationDeps deps) {
+    super(deps);
+  }
+
+  @Test
+  public void onBackpressureDropStageShouldDropElementsWhileThereIsNoDemand() {
+    LongAdder dropped = new LongAdder();
+    assertEquals(await(consumeLater(1, ReactiveStreams.of(1, 2, 3, 4, 5)
+        .onBackpressureDrop(element -> dropped.increment()))), Collections.singletonList(1));
+    assertEquals(dropped.sum(), 4);
+  }
+
+  @Test
+  public void onBackpressureDropStageShouldEmitAllElementsWhenThereIsDemand() {
+    LongAdder dropped = new LongAdder();
+    List<Integer> expected = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+    assertEquals(await(ReactiveStreams.fromIterable(expected)
+        .onBackpressureDrop(element -> dropped.increment())
+        .toList()
+        .run(getEngine())), expected);
+    assertEquals(dropped.sum(), 0);
+  }
+
+  @Test(expectedExceptions = RuntimeException.class, expectedExceptionsMessageRegExp = "failed")
+  public void onBackpressureDropStageShouldPropagateRuntimeExceptions() {
+    await(consumeLater(1, ReactiveStreams.of(1, 2, 3)
+        .onBackpressureDrop(element -> {
+          throw new RuntimeException("failed");
+        })));
+  }
+
+  @Test(expectedExceptions = RuntimeException.class, expectedExceptionsMessageRegExp = "failed")
+  public void onBackpressureDropStageShouldPropagateErrors() {
+    await(ReactiveStreams.failed(new RuntimeException("failed"))
+        .onBackpressureDrop()
+        .toList()
+        .run(getEngine()));
+  }
+
+  @Test
+  public void onBackpressureLatestStageShouldKeepTheLatestElementWhileThereIsNoDemand() {
+    LongAdder dropped = new LongAdder();
+    assertEquals(await(consumeLater(1, ReactiveStreams.of(1, 2, 3, 4, 5)
+        .onBackpressureLatest(element -> dropped.increment()))), Arrays.asList(1, 5));
+    assertEquals(dropped.sum(), 3);
+  }
+
+  @Test
+  public void onBackpressureLatestStageShouldEmitAllElementsWhenThereIsDemand() {
+    LongAdder dropped = new LongAdder();
+    List<Integer> expected = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+    assertEquals(await(ReactiveStreams.fromIterable(expected)
+        .onBackpressureLatest(element -> dropped.increment())
+        .toList()
+        .run(getEngine())), expected);
+    assertEquals(dropped.sum(), 0);
+  }
+
+  @Test(expectedExceptions = RuntimeException.class, expectedExceptionsMessageRegExp = "failed")
+  public void onBackpressureLatestStageShouldPropagateRuntimeExceptions() {
+    await(consumeLater(1, ReactiveStreams.of(1, 2, 3)
+        .onBackpressureLatest(element -> {
+          throw new RuntimeException("failed");
+        })));
+  }
+
+  @Test(expectedExceptions = RuntimeException.class, expectedExceptionsMessageRegExp = "failed")
+  public void onBackpressureLatestStageShouldPropagateErrors() {
+    await(ReactiveStreams.failed(new RuntimeException("failed"))
+        .onBackpressureLatest()
+        .toList()
+        .run(getEngine()));
+  }
+
+  /**
+   * Run the given stream, requesting {@code initial} elements when subscribed, and the rest once it has completed.
+   */
+  private <T> CompletionStage<List<T>> consumeLater(long initial, PublisherBuilder<T> stream) {
+    Publisher<T> publisher = stream.buildRs(getEngine());
+    CompletableFuture<List<T>> result = new CompletableFuture<>();
+    CompletableFuture<Subscription> subscription = new CompletableFuture<>();
+    publisher.subscribe(new Subscriber<T>() {
+      private final List<T> elements = new ArrayList<>();
+
+      @Override
+      public void onSubscribe(Subscription s) {
+        s.request(initial);
+        subscription.complete(s);
+      }
+
+      @Override
+      public void onNext(T element) {
+        elements.add(element);
+      }
+
+      @Override
+      public void onError(Throwable t) {
+        result.completeExceptionally(t);
+      }
+
+      @Override
+      public void onComplete() {
+        result.complete(elements);
+      }
+    });
+    await(subscription).request(Long.MAX_VALUE);
+    return result;
+  }
+
+  @Override
+  List<Object> reactiveStreamsTckVerifiers() {
+    return Arrays.asList(new DropSubscriberVerification(), new LatestSubscriberVerification());
+  }
+
+  class DropSubscriberVerification extends StageSubscriberBlackboxVerification<Integer> {
+    @Override
+    public Subscriber<Integer> createSubscriber() {
+      return ReactiveStreams.<Integer>builder().onBackpressureDrop().toList().build(getEngine()).getRsSubscriber();
+    }
+
+    @Override
+    public Integer createElement(int element) {
+      return element;
+    }
+  }
+
+  class LatestSubscriberVerification extends StageSubscriberBlackboxVerification<Integer> {
+    @Override
+    public Subscriber<Integer> createSubscriber() {
+      return ReactiveStreams.<Integer>builder().onBackpressureLatest().toList().build(getEngine()).getRsSubscriber();
+    }
+
+    @Override
+    public Integer createElement(int element) {
+      return element;
+    }
+  }
+}
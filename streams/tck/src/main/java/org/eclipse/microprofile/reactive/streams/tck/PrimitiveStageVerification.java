@@ -0,0 +1,234 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.tck;
+
+import org.eclipse.microprofile.reactive.streams.ReactiveStreams;
+import org.reactivestreams.Publisher;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.testng.Assert.assertEquals;
+
+public class PrimitiveStageVerification extends AbstractStageVerification {
+
+  PrimitiveStageVerification(ReactiveStreamsTck<?>.VerificationDeps deps) {
+    super(deps);
+  }
+
+  @Test
+  public void ofIntsShouldEmitTheElements() {
+    assertEquals(await(
+        ReactiveStreams.ofInts(1, 2, 3)
+            .boxed()
+            .toList()
+            .run(getEngine())
+    ), Arrays.asList(1, 2, 3));
+  }
+
+  @Test
+  public void ofLongsShouldEmitNoElementsWhenEmpty() {
+    assertEquals(await(
+        ReactiveStreams.ofLongs()
+            .boxed()
+            .toList()
+            .run(getEngine())
+    ), Collections.emptyList());
+  }
+
+  @Test
+  public void primitiveMapAndFilterShouldTransformTheElements() {
+    assertEquals(await(
+        ReactiveStreams.ofLongs(1, 2, 3, 4, 5)
+            .map(i -> i * 10)
+            .filter(i -> i > 20)
+            .boxed()
+            .toList()
+            .run(getEngine())
+    ), Arrays.asList(30L, 40L, 50L));
+  }
+
+  @Test
+  public void primitiveReduceShouldReduceTheElements() {
+    assertEquals(await(
+        ReactiveStreams.ofDoubles(1.5, 2.5, 3)
+            .map(d -> d * 2)
+            .reduce(0, Double::sum)
+            .run(getEngine())
+    ), 14.0);
+  }
+
+  @Test
+  public void primitiveCollectShouldCollectTheElements() {
+    assertEquals(await(
+        ReactiveStreams.ofInts(1, 2, 3)
+            .collect(ArrayList<Integer>::new, ArrayList::add)
+            .run(getEngine())
+    ), Arrays.asList(1, 2, 3));
+  }
+
+  @Test
+  public void mapToPrimitiveAndBackShouldTransformTheElements() {
+    assertEquals(await(
+        ReactiveStreams.of("a", "bb", "ccc")
+            .mapToInt(String::length)
+            .map(i -> i + 1)
+            .mapToObj(i -> "length " + i)
+            .toList()
+            .run(getEngine())
+    ), Arrays.asList("length 2", "length 3", "length 4"));
+  }
+
+  @Test
+  public void adjacentPrimitiveAndBoxedStagesShouldTransformTheElements() {
+    assertEquals(await(
+        ReactiveStreams.fromPublisher(ReactiveStreams.of("a", "bb", "ccc", "dddd").buildRs(getEngine()))
+            .mapToInt(String::length)
+            .map(i -> i * 3)
+            .filter(i -> i != 6)
+            .map(i -> i + 1)
+            .mapToObj(i -> "length " + i)
+            .map(String::length)
+            .mapToDouble(i -> i / 2.0)
+            .filter(d -> d > 4)
+            .map(d -> d * 2)
+            .boxed()
+            .toList()
+            .run(getEngine())
+    ), Arrays.asList(9.0, 9.0));
+  }
+
+  @Test
+  public void primitiveStagesShouldWorkAcrossAsynchronousBoundaries() {
+    assertEquals(await(
+        ReactiveStreams.ofLongs(1, 2, 3)
+            .map(i -> i * 2)
+            .mapToObj(i -> i)
+            .flatMapCompletionStage(CompletableFuture::completedFuture)
+            .mapToLong(Long::longValue)
+            .filter(i -> i != 4)
+            .reduce(0, Long::sum)
+            .run(getEngine())
+    ), Long.valueOf(8));
+  }
+
+  @Test
+  public void sumShouldSumTheElements() {
+    assertEquals(await(ReactiveStreams.ofInts(1, 2, 3).sum().run(getEngine())), Integer.valueOf(6));
+    assertEquals(await(ReactiveStreams.ofLongs().sum().run(getEngine())), Long.valueOf(0));
+    assertEquals(await(ReactiveStreams.ofDoubles(0.5, 0.25).sum().run(getEngine())), 0.75);
+  }
+
+  @Test
+  public void sumShouldOverflowLikeJavaStreams() {
+    assertEquals(await(ReactiveStreams.ofInts(Integer.MAX_VALUE, 1).sum().run(getEngine())),
+        Integer.valueOf(IntStream.of(Integer.MAX_VALUE, 1).sum()));
+  }
+
+  @Test
+  public void minAndMaxShouldFindTheExtremes() {
+    assertEquals(await(ReactiveStreams.ofInts(3, 1, 2).min().run(getEngine())), OptionalInt.of(1));
+    assertEquals(await(ReactiveStreams.ofLongs(3, 1, 2).max().run(getEngine())), OptionalLong.of(3));
+    assertEquals(await(ReactiveStreams.ofDoubles().min().run(getEngine())), OptionalDouble.empty());
+  }
+
+  @Test
+  public void averageShouldComputeTheMean() {
+    assertEquals(await(ReactiveStreams.ofLongs(1, 2, 3, 4).average().run(getEngine())), OptionalDouble.of(2.5));
+    assertEquals(await(ReactiveStreams.ofInts().average().run(getEngine())), OptionalDouble.empty());
+  }
+
+  @Test
+  public void summaryStatisticsShouldSummarizeTheElements() {
+    LongSummaryStatistics summary = await(
+        ReactiveStreams.of("a", "bb", "ccc")
+            .mapToLong(String::length)
+            .summaryStatistics()
+            .run(getEngine())
+    );
+    assertEquals(summary.getCount(), 3);
+    assertEquals(summary.getSum(), 6);
+    assertEquals(summary.getMin(), 1);
+    assertEquals(summary.getMax(), 3);
+  }
+
+  @Test
+  public void statisticsShouldWorkAcrossAsynchronousBoundaries() {
+    assertEquals(await(
+        ReactiveStreams.of(1, 2, 3)
+            .flatMapCompletionStage(i -> CompletableFuture.supplyAsync(() -> i, getExecutorService()))
+            .mapToInt(Integer::intValue)
+            .max()
+            .run(getEngine())
+    ), OptionalInt.of(3));
+  }
+
+  @Test(expectedExceptions = RuntimeException.class, expectedExceptionsMessageRegExp = "failed")
+  public void statisticsShouldPropagateErrors() {
+    await(
+        ReactiveStreams.<Integer>failed(new RuntimeException("failed"))
+            .mapToInt(Integer::intValue)
+            .sum()
+            .run(getEngine())
+    );
+  }
+
+  @Test(expectedExceptions = RuntimeException.class, expectedExceptionsMessageRegExp = "failed")
+  public void primitiveMapShouldPropagateExceptions() {
+    await(
+        ReactiveStreams.ofInts(1, 2, 3)
+            .map(i -> {
+              throw new RuntimeException("failed");
+            })
+            .reduce(0, Integer::sum)
+            .run(getEngine())
+    );
+  }
+
+  @Override
+  List<Object> reactiveStreamsTckVerifiers() {
+    return Collections.singletonList(new PublisherVerification());
+  }
+
+  public class PublisherVerification extends StagePublisherVerification<Long> {
+    @Override
+    public Publisher<Long> createPublisher(long elements) {
+      return ReactiveStreams.ofLongs(LongStream.rangeClosed(1, elements).toArray())
+          .map(i -> i + 1)
+          .filter(i -> i > 0)
+          .buildRs(getEngine());
+    }
+
+    @Override
+    public long maxElementsFromPublisher() {
+      return 1024;
+    }
+  }
+}
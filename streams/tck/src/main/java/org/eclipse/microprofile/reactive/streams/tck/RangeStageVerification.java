@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.tck;
+
+import org.eclipse.microprofile.reactive.streams.ReactiveStreams;
+import org.reactivestreams.Publisher;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+
+public class RangeStageVerification extends AbstractStageVerification {
+
+  RangeStageVerification(ReactiveStreamsTck<?>.VerificationDeps deps) {
+    super(deps);
+  }
+
+  @Test
+  public void rangeStageShouldEmitTheRange() {
+    assertEquals(await(
+        ReactiveStreams.range(5, 4)
+            .toList()
+            .run(getEngine())
+    ), Arrays.asList(5L, 6L, 7L, 8L));
+  }
+
+  @Test
+  public void emptyRangeStageShouldEmitNoElements() {
+    assertEquals(await(
+        ReactiveStreams.range(5, 0)
+            .toList()
+            .run(getEngine())
+    ), Collections.emptyList());
+  }
+
+  @Test
+  public void rangeStageShouldEmitUpToLongMaxValue() {
+    assertEquals(await(
+        ReactiveStreams.range(Long.MAX_VALUE - 2, 3)
+            .toList()
+            .run(getEngine())
+    ), Arrays.asList(Long.MAX_VALUE - 2, Long.MAX_VALUE - 1, Long.MAX_VALUE));
+  }
+
+  @Test
+  public void rangeStageShouldStopEmittingWhenCancelled() {
+    assertEquals(await(
+        ReactiveStreams.range(0, Long.MAX_VALUE)
+            .limit(3)
+            .toList()
+            .run(getEngine())
+    ), Arrays.asList(0L, 1L, 2L));
+  }
+
+  @Test
+  public void rangeStageShouldStopEmittingWhenCancelledThroughAProcessor() {
+    assertEquals(await(
+        ReactiveStreams.range(0, Long.MAX_VALUE)
+            .via(ReactiveStreams.<Long>builder().limit(3))
+            .toList()
+            .run(getEngine())
+    ), Arrays.asList(0L, 1L, 2L));
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void rangeStageShouldRejectNegativeCount() {
+    ReactiveStreams.range(0, -1);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void rangeStageShouldRejectRangesThatOverflow() {
+    ReactiveStreams.range(Long.MAX_VALUE, 2);
+  }
+
+  @Override
+  List<Object> reactiveStreamsTckVerifiers() {
+    return Collections.singletonList(new PublisherVerification());
+  }
+
+  public class PublisherVerification extends StagePublisherVerification<Long> {
+    @Override
+    public Publisher<Long> createPublisher(long elements) {
+      return ReactiveStreams.range(1, elements).buildRs(getEngine());
+    }
+  }
+}
@@ -85,18 +85,40 @@ public abstract class ReactiveStreamsTck<E extends ReactiveStreamsEngine> {
 
     List<Function<VerificationDeps, AbstractStageVerification>> stageVerifications = Arrays.asList(
         OfStageVerification::new,
+        RangeStageVerification::new,
+        PrimitiveStageVerification::new,
         MapStageVerification::new,
         FlatMapStageVerification::new,
+        FlatMapMergeStageVerification::new,
         FilterStageVerification::new,
         FindFirstStageVerification::new,
         CollectStageVerification::new,
+        CountStageVerification::new,
         TakeWhileStageVerification::new,
+        LimitStageVerification::new,
+        SkipStageVerification::new,
         FlatMapCompletionStageVerification::new,
+        MapAsyncStageVerification::new,
+        MapAsyncPartitionedStageVerification::new,
+        AsyncBoundaryStageVerification::new,
+        BufferStageVerification::new,
+        ConflateStageVerification::new,
+        OnBackpressureStageVerification::new,
+        GroupedStageVerification::new,
+        GroupedWithinStageVerification::new,
+        ThrottleStageVerification::new,
+        TimeoutStageVerification::new,
         FlatMapIterableStageVerification::new,
         ConcatStageVerification::new,
+        MergeStageVerification::new,
+        ZipStageVerification::new,
+        BroadcastStageVerification::new,
+        BalanceStageVerification::new,
         EmptyProcessorVerification::new,
         CancelStageVerification::new,
-        SubscriberStageVerification::new
+        SubscriberStageVerification::new,
+        StackSafetyVerification::new,
+        SchedulerVerification::new
     );
 
     List<Object> allTests = new ArrayList<>();
@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.tck;
+
+import org.eclipse.microprofile.reactive.streams.spi.Scheduler;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verifies the scheduler that the engine's time based stages share.
+ */
+public class SchedulerVerification extends AbstractStageVerification {
+
+  SchedulerVerification(ReactiveStreamsTck<?>.VerificationDeps deps) {
+    super(deps);
+  }
+
+  private Scheduler getScheduler() {
+    return getEngine().getScheduler();
+  }
+
+  @Test
+  public void schedulerShouldBeShared() {
+    assertSame(getEngine().getScheduler(), getEngine().getScheduler());
+  }
+
+  @Test
+  public void schedulerShouldNotRunTasksEarly() {
+    CompletableFuture<Long> ranAt = new CompletableFuture<>();
+    long scheduledAt = System.nanoTime();
+    getScheduler().schedule(() -> ranAt.complete(System.nanoTime()), 50, TimeUnit.MILLISECONDS);
+    long elapsed = await(ranAt) - scheduledAt;
+    assertTrue(elapsed >= TimeUnit.MILLISECONDS.toNanos(50), "Task ran after only " + elapsed + "ns");
+  }
+
+  @Test
+  public void schedulerShouldRunTasksWithNoDelay() {
+    CompletableFuture<Void> ran = new CompletableFuture<>();
+    getScheduler().schedule(() -> ran.complete(null), 0, TimeUnit.MILLISECONDS);
+    await(ran);
+  }
+
+  @Test
+  public void schedulerShouldNotRunCancelledTasks() throws Exception {
+    AtomicBoolean ran = new AtomicBoolean();
+    Scheduler.Cancellable cancellable = getScheduler().schedule(() -> ran.set(true), 20, TimeUnit.MILLISECONDS);
+    assertTrue(cancellable.cancel());
+    Thread.sleep(100);
+    assertFalse(ran.get());
+    assertFalse(cancellable.cancel());
+  }
+
+  @Test
+  public void schedulerShouldNotCancelTasksThatHaveRun() {
+    CompletableFuture<Void> ran = new CompletableFuture<>();
+    Scheduler.Cancellable cancellable = getScheduler().schedule(() -> ran.complete(null), 0, TimeUnit.MILLISECONDS);
+    await(ran);
+    assertFalse(cancellable.cancel());
+  }
+
+  @Test
+  public void schedulerShouldRunManyTasks() throws Exception {
+    int tasks = 100000;
+    CountDownLatch latch = new CountDownLatch(tasks);
+    for (int i = 0; i < tasks; i++) {
+      long delay = ThreadLocalRandom.current().nextLong(100);
+      Scheduler.Cancellable cancellable = getScheduler().schedule(latch::countDown, delay, TimeUnit.MILLISECONDS);
+      // Cancel every other task straight after scheduling it, as time based stages usually do
+      if (i % 2 == 0) {
+        assertTrue(cancellable.cancel());
+        latch.countDown();
+      }
+    }
+    assertTrue(latch.await(10, TimeUnit.SECONDS), latch.getCount() + " tasks did not run");
+  }
+
+  @Test
+  public void schedulerShouldKeepRunningTasksAfterATaskFails() {
+    CompletableFuture<Void> ran = new CompletableFuture<>();
+    getScheduler().schedule(() -> {
+      throw new RuntimeException("failed");
+    }, 0, TimeUnit.MILLISECONDS);
+    getScheduler().schedule(() -> ran.complete(null), 10, TimeUnit.MILLISECONDS);
+    await(ran);
+  }
+
+  @Override
+  List<Object> reactiveStreamsTckVerifiers() {
+    return Collections.emptyList();
+  }
+}
@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.tck;
+
+import org.eclipse.microprofile.reactive.streams.CompletionBuilder;
+import org.eclipse.microprofile.reactive.streams.ReactiveStreams;
+import org.reactivestreams.Processor;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.testng.Assert.assertEquals;
+
+public class SkipStageVerification extends AbstractStageVerification {
+
+  SkipStageVerification(ReactiveStreamsTck<?>.VerificationDeps deps) {
+    super(deps);
+  }
+
+  @Test
+  public void skipStageShouldSkipElements() {
+    assertEquals(await(
+        ReactiveStreams.of(1, 2, 3, 4)
+            .skip(2)
+            .toList()
+            .run(getEngine())
+    ), Arrays.asList(3, 4));
+  }
+
+  @Test
+  public void skipStageShouldEmitNothingIfFewerElementsThanSkipped() {
+    assertEquals(await(
+        ReactiveStreams.of(1, 2, 3, 4)
+            .skip(10)
+            .toList()
+            .run(getEngine())
+    ), Collections.emptyList());
+  }
+
+  @Test
+  public void skipStageShouldEmitEverythingWhenSkippingZero() {
+    assertEquals(await(
+        ReactiveStreams.of(1, 2, 3, 4)
+            .skip(0)
+            .toList()
+            .run(getEngine())
+    ), Arrays.asList(1, 2, 3, 4));
+  }
+
+  @Test
+  public void skipStageShouldSkipElementsEmittedAsynchronously() {
+    assertEquals(await(
+        ReactiveStreams.of(1, 2, 3, 4, 5)
+            .flatMapCompletionStage(i -> CompletableFuture.supplyAsync(() -> i, getExecutorService()))
+            .skip(3)
+            .limit(1)
+            .toList()
+            .run(getEngine())
+    ), Collections.singletonList(4));
+  }
+
+  @Test
+  public void skipStageShouldSkipForEachRunIndependently() {
+    CompletionBuilder<List<Integer>> completion =
+        ReactiveStreams.of(1, 2, 3, 4, 5, 6)
+            .skip(3)
+            .toList();
+
+    assertEquals(await(completion.run(getEngine())), Arrays.asList(4, 5, 6));
+    assertEquals(await(completion.run(getEngine())), Arrays.asList(4, 5, 6));
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void skipStageShouldRejectNegativeSkips() {
+    ReactiveStreams.of(1).skip(-1);
+  }
+
+  @Override
+  List<Object> reactiveStreamsTckVerifiers() {
+    return Collections.singletonList(new ProcessorVerification());
+  }
+
+  class ProcessorVerification extends StageProcessorVerification<Integer> {
+
+    @Override
+    public Processor<Integer, Integer> createIdentityProcessor(int bufferSize) {
+      return ReactiveStreams.<Integer>builder().skip(0).buildRs(getEngine());
+    }
+
+    @Override
+    public Integer createElement(int element) {
+      return element;
+    }
+  }
+}
@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.tck;
+
+import org.eclipse.microprofile.reactive.streams.PublisherBuilder;
+import org.eclipse.microprofile.reactive.streams.ReactiveStreams;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.LongStream;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Verifies that synchronous sources can emit a large number of elements to a subscriber that requests one element at a
+ * time, without the recursion of request, onNext, request, and so on, overflowing the stack.
+ */
+public class StackSafetyVerification extends AbstractStageVerification {
+
+  private static final long ELEMENTS = 10000000;
+  private static final long TIMEOUT_SECONDS = 60;
+
+  StackSafetyVerification(ReactiveStreamsTck<?>.VerificationDeps deps) {
+    super(deps);
+  }
+
+  @Test
+  public void ofStageShouldNotOverflowTheStack() {
+    assertEquals(countOneAtATime(
+        ReactiveStreams.fromIterable(() -> LongStream.range(0, ELEMENTS).boxed().iterator())
+    ), ELEMENTS);
+  }
+
+  @Test
+  public void iterateShouldNotOverflowTheStack() {
+    assertEquals(countOneAtATime(
+        ReactiveStreams.iterate(0L, i -> i + 1).limit(ELEMENTS)
+    ), ELEMENTS);
+  }
+
+  @Test
+  public void filterStageShouldNotOverflowTheStackWhenDroppingElements() {
+    assertEquals(countOneAtATime(
+        ReactiveStreams.iterate(0L, i -> i + 1).limit(ELEMENTS).filter(i -> i % 1000 == 0)
+    ), ELEMENTS / 1000);
+  }
+
+  @Test
+  public void flatMapIterableStageShouldNotOverflowTheStack() {
+    assertEquals(countOneAtATime(
+        ReactiveStreams.fromIterable(() -> LongStream.range(0, ELEMENTS).boxed().iterator())
+            .flatMapIterable(Collections::singletonList)
+    ), ELEMENTS);
+  }
+
+  @Test
+  public void flatMapIterableStageShouldNotOverflowTheStackWhenMappingToEmptyIterables() {
+    assertEquals(countOneAtATime(
+        ReactiveStreams.fromIterable(() -> LongStream.range(0, ELEMENTS).boxed().iterator())
+            .flatMapIterable(i -> i % 1000 == 0 ? Collections.singletonList(i) : Collections.emptyList())
+    ), ELEMENTS / 1000);
+  }
+
+  @Test
+  public void concatStageShouldNotOverflowTheStack() {
+    assertEquals(countOneAtATime(
+        ReactiveStreams.concat(
+            ReactiveStreams.fromIterable(() -> LongStream.range(0, ELEMENTS / 2).boxed().iterator()),
+            ReactiveStreams.fromIterable(() -> LongStream.range(ELEMENTS / 2, ELEMENTS).boxed().iterator())
+        )
+    ), ELEMENTS);
+  }
+
+  @Override
+  List<Object> reactiveStreamsTckVerifiers() {
+    return Collections.emptyList();
+  }
+
+  private long countOneAtATime(PublisherBuilder<?> publisher) {
+    OneAtATimeSubscriber subscriber = new OneAtATimeSubscriber();
+    publisher.buildRs(getEngine()).subscribe(subscriber);
+    try {
+      return subscriber.count.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+    catch (InterruptedException e) {
+      throw new RuntimeException(e);
+    }
+    catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      else {
+        throw new RuntimeException(e.getCause());
+      }
+    }
+    catch (TimeoutException e) {
+      throw new RuntimeException("Stream did not complete after " + TIMEOUT_SECONDS + "s", e);
+    }
+  }
+
+  /**
+   * A subscriber that requests one element at a time, from within onNext, and counts the elements it receives.
+   */
+  private static class OneAtATimeSubscriber implements Subscriber<Object> {
+    private final CompletableFuture<Long> count = new CompletableFuture<>();
+    private Subscription subscription;
+    private long received;
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+      this.subscription = subscription;
+      subscription.request(1);
+    }
+
+    @Override
+    public void onNext(Object item) {
+      received++;
+      subscription.request(1);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      count.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+      count.complete(received);
+    }
+  }
+}
@@ -29,7 +29,7 @@ import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletionStage;
 
 public class SubscriberStageVerification extends AbstractStageVerification {
-  SubscriberStageVerification(ReactiveStreamsTck.VerificationDeps deps) {
+  SubscriberStageVerification(ReactiveStreamsTck<?>.VerificationDeps deps) {
     super(deps);
   }
 
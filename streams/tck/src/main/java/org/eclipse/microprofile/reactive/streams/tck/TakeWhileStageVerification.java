@@ -19,6 +19,7 @@
 
 package org.eclipse.microprofile.reactive.streams.tck;
 
+import org.eclipse.microprofile.reactive.streams.PublisherBuilder;
 import org.eclipse.microprofile.reactive.streams.ReactiveStreams;
 import org.reactivestreams.Processor;
 import org.reactivestreams.Subscription;
@@ -33,7 +34,7 @@ import static org.testng.Assert.assertEquals;
 
 public class TakeWhileStageVerification extends AbstractStageVerification {
 
-  TakeWhileStageVerification(ReactiveStreamsTck.VerificationDeps deps) {
+  TakeWhileStageVerification(ReactiveStreamsTck<?>.VerificationDeps deps) {
     super(deps);
   }
 
@@ -110,9 +111,69 @@ public class TakeWhileStageVerification extends AbstractStageVerification {
     ), Collections.emptyList());
   }
 
+  @Test
+  public void takeWhileStageShouldCompleteTheStagesThatFollowIt() {
+    assertEquals(await(
+        ReactiveStreams.of(1, 2, 3, 4, 5, 6)
+            .map(i -> i * 2)
+            .limit(3)
+            .filter(i -> i != 4)
+            .map(i -> i + 1)
+            .takeWhile(i -> i < 10)
+            .toList()
+            .run(getEngine())
+    ), Arrays.asList(3, 7));
+  }
+
+  @Test
+  public void takeWhileStageShouldNotEmitTheFailingElementToTheStagesThatFollowIt() {
+    assertEquals(await(
+        ReactiveStreams.of(1, 2, 3, 4, 5, 6)
+            .filter(i -> i != 2)
+            .takeWhile(i -> i < 4)
+            .map(i -> i * 10)
+            .toList()
+            .run(getEngine())
+    ), Arrays.asList(10, 30));
+  }
+
+  @Test
+  public void takeWhileStageShouldCompleteTheStagesThatFollowItFromAPublisher() {
+    assertEquals(await(
+        fromPublisher(1, 2, 3, 4, 5, 6)
+            .map(i -> i * 2)
+            .limit(3)
+            .filter(i -> i != 4)
+            .map(i -> i + 1)
+            .takeWhile(i -> i < 10)
+            .toList()
+            .run(getEngine())
+    ), Arrays.asList(3, 7));
+  }
+
+  @Test
+  public void takeWhileStageShouldNotEmitTheFailingElementToTheStagesThatFollowItFromAPublisher() {
+    assertEquals(await(
+        fromPublisher(1, 2, 3, 4, 5, 6)
+            .filter(i -> i != 2)
+            .takeWhile(i -> i < 4)
+            .map(i -> i * 10)
+            .toList()
+            .run(getEngine())
+    ), Arrays.asList(10, 30));
+  }
+
+  /**
+   * The given elements behind an opaque publisher, so that engines can't run the graph as an in memory loop, and
+   * the stages are exercised as a stream.
+   */
+  private PublisherBuilder<Integer> fromPublisher(Integer... elements) {
+    return ReactiveStreams.fromPublisher(ReactiveStreams.of(elements).buildRs(getEngine()));
+  }
+
   @Override
   List<Object> reactiveStreamsTckVerifiers() {
-    return Collections.singletonList(new ProcessorVerification());
+    return Arrays.asList(new ProcessorVerification(), new ChainedProcessorVerification());
   }
 
   public class ProcessorVerification extends StageProcessorVerification<Integer> {
@@ -128,4 +189,23 @@ public class TakeWhileStageVerification extends AbstractStageVerification {
       return element;
     }
   }
+
+  /**
+   * Verifies a take while stage that is preceded and followed by other stages, which engines may fuse together.
+   */
+  public class ChainedProcessorVerification extends StageProcessorVerification<Integer> {
+    @Override
+    public Processor<Integer, Integer> createIdentityProcessor(int bufferSize) {
+      return ReactiveStreams.<Integer>builder()
+          .map(t -> t)
+          .takeWhile(t -> true)
+          .filter(t -> true)
+          .buildRs(getEngine());
+    }
+
+    @Override
+    public Integer createElement(int element) {
+      return element;
+    }
+  }
 }
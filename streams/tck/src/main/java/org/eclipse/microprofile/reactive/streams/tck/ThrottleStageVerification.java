@@ -0,0 +1,222 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.tck;
+
+import org.eclipse.microprofile.reactive.streams.ReactiveStreams;
+import org.reactivestreams.Processor;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class ThrottleStageVerification extends AbstractStageVerification {
+
+  ThrottleStageVerification(ReactiveStreamsTck<?>.VerificationDeps deps) {
+    super(deps);
+  }
+
+  @Test
+  public void throttleStageShouldEmitAllElements() {
+    assertEquals(await(ReactiveStreams.of(1, 2, 3, 4, 5)
+        .throttle(1000, Duration.ofSeconds(1), 1)
+        .toList()
+        .run(getEngine())), Arrays.asList(1, 2, 3, 4, 5));
+  }
+
+  @Test
+  public void throttleStageShouldLimitTheRate() {
+    long start = System.nanoTime();
+    // A burst of 2, then one every 10ms
+    assertEquals(await(ReactiveStreams.range(0, 6)
+        .throttle(1, Duration.ofMillis(10), 2)
+        .count()
+        .run(getEngine())), Long.valueOf(6));
+    long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    assertTrue(elapsed >= 40, "Expected throttling to take at least 40ms, but took " + elapsed + "ms");
+  }
+
+  @Test
+  public void throttleStageShouldAllowBursts() {
+    long start = System.nanoTime();
+    assertEquals(await(ReactiveStreams.range(0, 10)
+        .throttle(1, Duration.ofSeconds(10), 10)
+        .count()
+        .run(getEngine())), Long.valueOf(10));
+    long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    assertTrue(elapsed < 1000, "Expected a burst to be emitted immediately, but took " + elapsed + "ms");
+  }
+
+  @Test
+  public void throttleStageShouldShapeDemand() throws Exception {
+    AtomicLong requested = new AtomicLong();
+    CompletableFuture<Subscription> subscription = new CompletableFuture<>();
+    ReactiveStreams.<Integer>fromPublisher(subscriber ->
+        subscriber.onSubscribe(new Subscription() {
+          @Override
+          public void request(long n) {
+            requested.addAndGet(n);
+            for (long i = 0; i < n; i++) {
+              subscriber.onNext(1);
+            }
+          }
+
+          @Override
+          public void cancel() {
+          }
+        })
+    ).throttle(1, Duration.ofMillis(100), 2)
+        .to(new Subscriber<Integer>() {
+          @Override
+          public void onSubscribe(Subscription s) {
+            s.request(Long.MAX_VALUE);
+            subscription.complete(s);
+          }
+
+          @Override
+          public void onNext(Integer element) {
+          }
+
+          @Override
+          public void onError(Throwable t) {
+          }
+
+          @Override
+          public void onComplete() {
+          }
+        })
+        .run(getEngine());
+
+    Subscription s = await(subscription);
+    Thread.sleep(150);
+    s.cancel();
+    // The burst of 2, and one more after 100ms, rather than everything downstream asked for
+    assertTrue(requested.get() >= 2 && requested.get() <= 4,
+        "Expected between 2 and 4 elements to be requested, but " + requested.get() + " were");
+  }
+
+  @Test
+  public void throttleStageShouldNotBeHeldUpByAnotherBlockedStream() throws Exception {
+    CountDownLatch blocked = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    try {
+      // Only the first element is emitted immediately, the second is emitted once the throttle's timer fires
+      CompletionStage<Void> blocking = ReactiveStreams.of(1, 2, 3)
+          .throttle(1, Duration.ofMillis(10), 1)
+          .forEach(element -> {
+            if (element == 2) {
+              blocked.countDown();
+              try {
+                release.await();
+              }
+              catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+            }
+          })
+          .run(getEngine());
+      assertTrue(blocked.await(1, TimeUnit.SECONDS), "Expected the second element to be emitted");
+
+      assertEquals(await(ReactiveStreams.range(0, 3)
+          .throttle(1, Duration.ofMillis(10), 1)
+          .count()
+          .run(getEngine())), Long.valueOf(3));
+
+      try {
+        await(ReactiveStreams.<Integer>fromPublisher(subscriber -> subscriber.onSubscribe(new Subscription() {
+          @Override
+          public void request(long n) {
+          }
+
+          @Override
+          public void cancel() {
+          }
+        })).initialTimeout(Duration.ofMillis(20))
+            .toList()
+            .run(getEngine()));
+        fail("Expected the stream to time out");
+      }
+      catch (RuntimeException e) {
+        assertTrue(e.getCause() instanceof TimeoutException, "Expected a TimeoutException, but got " + e);
+      }
+
+      release.countDown();
+      await(blocking);
+    }
+    finally {
+      release.countDown();
+    }
+  }
+
+  @Test(expectedExceptions = RuntimeException.class, expectedExceptionsMessageRegExp = "failed")
+  public void throttleStageShouldPropagateErrors() {
+    await(ReactiveStreams.failed(new RuntimeException("failed"))
+        .throttle(1, Duration.ofSeconds(1), 1)
+        .toList()
+        .run(getEngine()));
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void throttleStageShouldRejectNonPositiveElements() {
+    ReactiveStreams.of(1).throttle(0, Duration.ofSeconds(1), 1);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void throttleStageShouldRejectNonPositivePeriod() {
+    ReactiveStreams.of(1).throttle(1, Duration.ZERO, 1);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void throttleStageShouldRejectNonPositiveBurst() {
+    ReactiveStreams.of(1).throttle(1, Duration.ofSeconds(1), 0);
+  }
+
+  @Override
+  List<Object> reactiveStreamsTckVerifiers() {
+    return Collections.singletonList(new ProcessorVerification());
+  }
+
+  public class ProcessorVerification extends StageProcessorVerification<Integer> {
+    @Override
+    public Processor<Integer, Integer> createIdentityProcessor(int bufferSize) {
+      return ReactiveStreams.<Integer>builder()
+          .throttle(1000, Duration.ofMillis(1), 100)
+          .buildRs(getEngine());
+    }
+
+    @Override
+    public Integer createElement(int element) {
+      return element;
+    }
+  }
+}
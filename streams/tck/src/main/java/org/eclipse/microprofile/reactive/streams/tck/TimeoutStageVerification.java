@@ -0,0 +1,202 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.tck;
+
+import org.eclipse.microprofile.reactive.streams.PublisherBuilder;
+import org.eclipse.microprofile.reactive.streams.ReactiveStreams;
+import org.reactivestreams.Processor;
+import org.reactivestreams.Subscription;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeoutException;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class TimeoutStageVerification extends AbstractStageVerification {
+
+  TimeoutStageVerification(ReactiveStreamsTck<?>.VerificationDeps deps) {
+    super(deps);
+  }
+
+  @Test
+  public void idleTimeoutStageShouldFailAnIdleStream() {
+    assertTimesOut(neverCompleting(new CompletableFuture<>(), 1)
+        .idleTimeout(Duration.ofMillis(20))
+        .toList()
+        .run(getEngine()));
+  }
+
+  @Test
+  public void idleTimeoutStageShouldNotFailAStreamThatKeepsEmitting() {
+    assertEquals(await(ReactiveStreams.range(0, 5)
+        .throttle(1, Duration.ofMillis(10), 1)
+        .idleTimeout(Duration.ofMillis(50))
+        .count()
+        .run(getEngine())), Long.valueOf(5));
+  }
+
+  @Test
+  public void idleTimeoutStageShouldCancelUpstream() {
+    CompletableFuture<Void> cancelled = new CompletableFuture<>();
+    neverCompleting(cancelled, 1)
+        .idleTimeout(Duration.ofMillis(20))
+        .toList()
+        .run(getEngine());
+    await(cancelled);
+  }
+
+  @Test
+  public void completionTimeoutStageShouldFailAStreamThatDoesNotComplete() {
+    assertTimesOut(neverCompleting(new CompletableFuture<>(), 1, 2)
+        .completionTimeout(Duration.ofMillis(20))
+        .toList()
+        .run(getEngine()));
+  }
+
+  @Test
+  public void completionTimeoutStageShouldFailAStreamThatKeepsEmitting() {
+    assertTimesOut(ReactiveStreams.range(0, 100)
+        .throttle(1, Duration.ofMillis(10), 1)
+        .completionTimeout(Duration.ofMillis(50))
+        .toList()
+        .run(getEngine()));
+  }
+
+  @Test
+  public void completionTimeoutStageShouldNotFailAStreamThatCompletes() {
+    assertEquals(await(ReactiveStreams.of(1, 2, 3)
+        .completionTimeout(Duration.ofMillis(50))
+        .toList()
+        .run(getEngine())), Arrays.asList(1, 2, 3));
+  }
+
+  @Test
+  public void initialTimeoutStageShouldFailAStreamThatDoesNotStart() {
+    assertTimesOut(neverCompleting(new CompletableFuture<>())
+        .initialTimeout(Duration.ofMillis(20))
+        .toList()
+        .run(getEngine()));
+  }
+
+  @Test
+  public void initialTimeoutStageShouldNotFailAStreamThatHasStarted() {
+    assertEquals(await(ReactiveStreams.range(0, 3)
+        .throttle(1, Duration.ofMillis(20), 1)
+        .initialTimeout(Duration.ofMillis(10))
+        .count()
+        .run(getEngine())), Long.valueOf(3));
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void timeoutStagesShouldRejectNonPositiveTimeouts() {
+    ReactiveStreams.of(1).idleTimeout(Duration.ZERO);
+  }
+
+  private void assertTimesOut(CompletionStage<?> result) {
+    try {
+      await(result);
+      fail("Expected the stream to time out");
+    }
+    catch (RuntimeException e) {
+      assertTrue(e.getCause() instanceof TimeoutException, "Expected a TimeoutException, but got " + e);
+    }
+  }
+
+  /**
+   * A publisher of the given elements that never completes, and that completes {@code cancelled} when cancelled.
+   */
+  @SafeVarargs
+  private static <T> PublisherBuilder<T> neverCompleting(CompletableFuture<Void> cancelled, T... elements) {
+    return ReactiveStreams.fromPublisher(subscriber ->
+        subscriber.onSubscribe(new Subscription() {
+          private int index = 0;
+
+          @Override
+          public void request(long n) {
+            for (long i = 0; i < n && index < elements.length; i++) {
+              subscriber.onNext(elements[index++]);
+            }
+          }
+
+          @Override
+          public void cancel() {
+            cancelled.complete(null);
+          }
+        })
+    );
+  }
+
+  // The reactive streams TCK leaves some streams running after a test finishes, so the timeouts here must be long
+  // enough to never fire, otherwise they'll surface as errors in whichever test happens to be running at the time.
+  @Override
+  List<Object> reactiveStreamsTckVerifiers() {
+    return Arrays.asList(new IdleTimeoutProcessorVerification(), new CompletionTimeoutProcessorVerification(),
+        new InitialTimeoutProcessorVerification());
+  }
+
+  public class IdleTimeoutProcessorVerification extends StageProcessorVerification<Integer> {
+    @Override
+    public Processor<Integer, Integer> createIdentityProcessor(int bufferSize) {
+      return ReactiveStreams.<Integer>builder()
+          .idleTimeout(Duration.ofHours(1))
+          .buildRs(getEngine());
+    }
+
+    @Override
+    public Integer createElement(int element) {
+      return element;
+    }
+  }
+
+  public class CompletionTimeoutProcessorVerification extends StageProcessorVerification<Integer> {
+    @Override
+    public Processor<Integer, Integer> createIdentityProcessor(int bufferSize) {
+      return ReactiveStreams.<Integer>builder()
+          .completionTimeout(Duration.ofHours(1))
+          .buildRs(getEngine());
+    }
+
+    @Override
+    public Integer createElement(int element) {
+      return element;
+    }
+  }
+
+  public class InitialTimeoutProcessorVerification extends StageProcessorVerification<Integer> {
+    @Override
+    public Processor<Integer, Integer> createIdentityProcessor(int bufferSize) {
+      return ReactiveStreams.<Integer>builder()
+          .initialTimeout(Duration.ofHours(1))
+          .buildRs(getEngine());
+    }
+
+    @Override
+    public Integer createElement(int element) {
+      return element;
+    }
+  }
+}
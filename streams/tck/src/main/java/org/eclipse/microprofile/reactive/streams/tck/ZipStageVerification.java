@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.eclipse.microprofile.reactive.streams.tck;
+
+import org.eclipse.microprofile.reactive.streams.ReactiveStreams;
+import org.reactivestreams.Processor;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.testng.annotations.Test;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class ZipStageVerification extends AbstractStageVerification {
+
+  ZipStageVerification(ReactiveStreamsTck<?>.VerificationDeps deps) {
+    super(deps);
+  }
+
+  @Test
+  public void zipStageShouldCombineElementsByPosition() {
+    assertEquals(await(ReactiveStreams.of(1, 2, 3)
+        .zipWith(ReactiveStreams.of("a", "b", "c", "d"), (i, s) -> i + s)
+        .toList()
+        .run(getEngine())), Arrays.asList("1a", "2b", "3c"));
+  }
+
+  @Test
+  public void zipStageShouldEmitPairs() {
+    assertEquals(await(ReactiveStreams.of(1, 2)
+        .zip(ReactiveStreams.of("a", "b"))
+        .toList()
+        .run(getEngine())), Arrays.asList(
+        new AbstractMap.SimpleImmutableEntry<>(1, "a"),
+        new AbstractMap.SimpleImmutableEntry<>(2, "b")));
+  }
+
+  @Test
+  public void zipStageShouldCombineConcurrentStreams() {
+    assertEquals(await(ReactiveStreams.range(0, 10000).async(getExecutorService())
+        .zipWith(ReactiveStreams.range(0, 10000).async(getExecutorService()), (a, b) -> a - b)
+        .filter(difference -> difference != 0)
+        .count()
+        .run(getEngine())), Long.valueOf(0));
+  }
+
+  @Test
+  public void zipStageShouldNotBufferMoreThanItsBufferSizeFromAFastStream() {
+    AtomicInteger emitted = new AtomicInteger();
+    assertEquals(await(ReactiveStreams.range(0, 1000000)
+        .map(i -> {
+          emitted.incrementAndGet();
+          return i;
+        })
+        .zipWith(ReactiveStreams.of(1, 2, 3), (a, b) -> b)
+        .toList()
+        .run(getEngine())), Arrays.asList(1, 2, 3));
+    assertTrue(emitted.get() <= 32, "Expected at most 32 elements to be requested, but was " + emitted.get());
+  }
+
+  @Test
+  public void zipStageShouldCancelTheOtherStreamWhenOneCompletes() {
+    CancelCapturingPublisher<Integer> cancelCapture = new CancelCapturingPublisher<>();
+    assertEquals(await(ReactiveStreams.<Integer>empty()
+        .zipWith(ReactiveStreams.fromPublisher(cancelCapture), (a, b) -> a)
+        .toList()
+        .run(getEngine())), Collections.emptyList());
+    await(cancelCapture.getCancelled());
+  }
+
+  @Test(expectedExceptions = RuntimeException.class, expectedExceptionsMessageRegExp = "failed")
+  public void zipStageShouldPropagateErrorsFromTheOtherStream() {
+    CancelCapturingPublisher<Integer> cancelCapture = new CancelCapturingPublisher<>();
+    CompletionStage<List<Integer>> result = ReactiveStreams.fromPublisher(cancelCapture)
+        .zipWith(ReactiveStreams.failed(new RuntimeException("failed")), (a, b) -> a)
+        .toList()
+        .run(getEngine());
+    await(cancelCapture.getCancelled());
+    await(result);
+  }
+
+  @Test(expectedExceptions = RuntimeException.class, expectedExceptionsMessageRegExp = "failed")
+  public void zipStageShouldPropagateRuntimeExceptions() {
+    await(ReactiveStreams.of(1, 2, 3)
+        .zipWith(ReactiveStreams.of(1, 2, 3), (a, b) -> {
+          throw new RuntimeException("failed");
+        })
+        .toList()
+        .run(getEngine()));
+  }
+
+  @Override
+  List<Object> reactiveStreamsTckVerifiers() {
+    return Collections.singletonList(new ProcessorVerification());
+  }
+
+  public class ProcessorVerification extends StageProcessorVerification<Integer> {
+    @Override
+    public Processor<Integer, Integer> createIdentityProcessor(int bufferSize) {
+      return ReactiveStreams.<Integer>builder()
+          .zipWith(ReactiveStreams.generate(() -> 0), (a, b) -> a)
+          .buildRs(getEngine());
+    }
+
+    @Override
+    public Integer createElement(int element) {
+      return element;
+    }
+  }
+
+  private static class CancelCapturingPublisher<T> implements Publisher<T> {
+    private final CompletableFuture<T> cancelled = new CompletableFuture<>();
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+      subscriber.onSubscribe(new Subscription() {
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+          cancelled.complete(null);
+        }
+      });
+    }
+
+    public CompletableFuture<T> getCancelled() {
+      return cancelled;
+    }
+  }
+}